@@ -60,6 +60,17 @@ public final class AzureCommunicationChatServiceAsyncClient {
         this.serviceClient = serviceClient;
     }
 
+    /**
+     * Opens connections to the chat endpoint ahead of the first calls, so that they don't pay for the
+     * connection setup. This is safe to call from the main thread, e.g. in {@code Application.onCreate}.
+     *
+     * @param connectionCount the number of connections to open.
+     * @throws IllegalArgumentException thrown if connectionCount is less than 1.
+     */
+    public void prewarm(int connectionCount) {
+        this.serviceClient.getServiceClient().prewarm(connectionCount);
+    }
+
     /**
      * Gets read receipts for a thread.
      *
@@ -30,6 +30,9 @@ import com.azure.android.core.http.responsepaging.AsyncPagedDataCollection;
 import com.azure.android.core.http.responsepaging.AsyncPagedDataRetriever;
 import com.azure.android.core.http.responsepaging.PagedDataResponseCollection;
 import com.azure.android.core.http.responsepaging.PagedDataResponseRetriever;
+import com.azure.android.core.internal.util.RequestCoalescer;
+import com.azure.android.core.internal.util.RequestHedger;
+import com.azure.android.core.internal.util.RetryScheduler;
 import com.azure.android.core.internal.util.serializer.SerializerAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerFormat;
 import com.azure.android.core.util.paging.Page;
@@ -114,6 +117,9 @@ public final class AzureCommunicationChatServiceImpl {
         this.endpoint = endpoint;
         this.apiVersion = "2020-09-21-preview2";
         this.service = serviceClient.getRetrofit().create(AzureCommunicationChatServiceService.class);
+        // the messages pages are read by a hand-written deserializer rather than the data binding.
+        this.serializerAdapter.registerJsonDeserializer(ChatMessagesCollection.class,
+            new ChatMessagesCollectionDeserializer());
     }
 
     /**
@@ -222,7 +228,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     private static final class ReadReceiptPageAsyncRetriever extends AsyncPagedDataRetriever<ReadReceipt, Page<ReadReceipt>> {
@@ -405,7 +411,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -489,7 +495,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -567,7 +573,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     private static final class ChatMessagePageAsyncRetriever extends AsyncPagedDataRetriever<ChatMessage, Page<ChatMessage>> {
@@ -799,7 +805,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -878,7 +884,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -956,7 +962,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1026,7 +1032,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1095,7 +1101,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     private static final class ChatThreadMemberPageAsyncRetriever extends AsyncPagedDataRetriever<ChatThreadMember, Page<ChatThreadMember>> {
@@ -1278,7 +1284,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1355,7 +1361,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1432,7 +1438,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1508,7 +1514,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     private static final class ChatThreadInfoPageAsyncRetriever extends AsyncPagedDataRetriever<ChatThreadInfo, Page<ChatThreadInfo>> {
@@ -1731,7 +1737,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1807,7 +1813,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1876,7 +1882,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -1945,7 +1951,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -2021,7 +2027,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -2097,7 +2103,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -2173,7 +2179,7 @@ public final class AzureCommunicationChatServiceImpl {
                 callback.onFailure(t, null);
             }
         };
-        call.enqueue(retrofitCallback);
+        this.enqueueRetrofitCall(call, retrofitCallback);
     }
 
     /**
@@ -2215,7 +2221,7 @@ public final class AzureCommunicationChatServiceImpl {
             return "";
         }
         try {
-            return new String(body.bytes());
+            return body.string();
         } catch(java.io.IOException ex) {
             throw new RuntimeException(ex);
         } finally {
@@ -2224,12 +2230,16 @@ public final class AzureCommunicationChatServiceImpl {
     }
 
     <T> T deserializeContent(okhttp3.Headers headers, okhttp3.ResponseBody body, java.lang.reflect.Type type) {
-        final String str = readAsString(body);
+        if (body == null) {
+            return null;
+        }
         try {
             final String mimeContentType = headers.get(CONTENT_TYPE);
-            return this.serializerAdapter.deserialize(str, type, resolveSerializerFormat(mimeContentType));
+            return this.serializerAdapter.deserialize(body.source(), type, resolveSerializerFormat(mimeContentType));
         } catch(java.io.IOException ex) {
             throw new RuntimeException(ex);
+        } finally {
+            body.close();
         }
     }
 
@@ -2249,6 +2259,18 @@ public final class AzureCommunicationChatServiceImpl {
         }
     }
 
+    <T> void enqueueRetrofitCall(retrofit2.Call<T> call, retrofit2.Callback<T> callback) {
+        final RequestHedger requestHedger = this.serviceClient.getRequestHedger(call);
+        final RequestCoalescer requestCoalescer = this.serviceClient.getRequestCoalescer();
+        if (requestCoalescer != null) {
+            requestCoalescer.enqueue(call, null, callback, requestHedger);
+        } else if (requestHedger != null) {
+            requestHedger.enqueue(call, null, callback);
+        } else {
+            RetryScheduler.enqueue(call, null, callback);
+        }
+    }
+
     java.lang.reflect.ParameterizedType createParameterizedType(Class<?> rawClass, java.lang.reflect.Type... genericTypes) {
         return new java.lang.reflect.ParameterizedType() {
             @Override
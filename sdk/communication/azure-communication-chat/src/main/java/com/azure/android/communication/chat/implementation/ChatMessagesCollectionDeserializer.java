@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.chat.models.ChatMessage;
+import com.azure.android.communication.chat.models.ChatMessagePriority;
+import com.azure.android.communication.chat.models.ChatMessagesCollection;
+import com.azure.android.core.internal.util.serializer.JsonStreamDeserializer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.threeten.bp.OffsetDateTime;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@link ChatMessagesCollection} of a list messages page from the JSON tokens as they're parsed, instead of
+ * through the Jackson data binding, which is slow to introspect the model classes on a cold start.
+ *
+ * <p>
+ * The properties the service sets, which the models don't expose setters for, are set through their fields, resolved
+ * once. The dates are read by Jackson, so that they're adjusted to UTC as the data binding does.
+ */
+final class ChatMessagesCollectionDeserializer implements JsonStreamDeserializer<ChatMessagesCollection> {
+    private final Field valueField = getField(ChatMessagesCollection.class, "value");
+    private final Field nextLinkField = getField(ChatMessagesCollection.class, "nextLink");
+    private final Field idField = getField(ChatMessage.class, "id");
+    private final Field versionField = getField(ChatMessage.class, "version");
+    private final Field createdOnField = getField(ChatMessage.class, "createdOn");
+    private final Field senderIdField = getField(ChatMessage.class, "senderId");
+
+    @Override
+    public ChatMessagesCollection deserialize(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStartObject(parser);
+
+        final ChatMessagesCollection collection = new ChatMessagesCollection();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            if ("value".equals(fieldName)) {
+                set(valueField, collection, readMessages(parser));
+            } else if ("nextLink".equals(fieldName)) {
+                set(nextLinkField, collection, readString(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return collection;
+    }
+
+    private List<ChatMessage> readMessages(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array of chat messages, found " + parser.currentToken());
+        }
+
+        final List<ChatMessage> messages = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            messages.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : readMessage(parser));
+        }
+
+        return messages;
+    }
+
+    private ChatMessage readMessage(JsonParser parser) throws IOException {
+        expectStartObject(parser);
+
+        final ChatMessage message = new ChatMessage();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case "id":
+                    set(idField, message, readString(parser));
+                    break;
+                case "type":
+                    message.setType(readString(parser));
+                    break;
+                case "priority":
+                    final String priority = readString(parser);
+                    message.setPriority(priority == null ? null : ChatMessagePriority.fromString(priority));
+                    break;
+                case "version":
+                    set(versionField, message, readString(parser));
+                    break;
+                case "content":
+                    message.setContent(readString(parser));
+                    break;
+                case "senderDisplayName":
+                    message.setSenderDisplayName(readString(parser));
+                    break;
+                case "createdOn":
+                    set(createdOnField, message, readDateTime(parser));
+                    break;
+                case "senderId":
+                    set(senderIdField, message, readString(parser));
+                    break;
+                case "deletedOn":
+                    message.setDeletedOn(readDateTime(parser));
+                    break;
+                case "editedOn":
+                    message.setEditedOn(readDateTime(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        return message;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        final JsonToken token = parser.currentToken();
+
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            throw new IOException("Expected a string, found " + token);
+        }
+
+        return parser.getText();
+    }
+
+    private static OffsetDateTime readDateTime(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.readValueAs(OffsetDateTime.class);
+    }
+
+    private static void expectStartObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected an object, found " + parser.currentToken());
+        }
+    }
+
+    private static Field getField(Class<?> clazz, String name) {
+        try {
+            final Field field = clazz.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("The model " + clazz.getName() + " has no field " + name, e);
+        }
+    }
+
+    private static void set(Field field, Object instance, Object value) throws IOException {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new IOException("Unable to set the field " + field.getName(), e);
+        }
+    }
+}
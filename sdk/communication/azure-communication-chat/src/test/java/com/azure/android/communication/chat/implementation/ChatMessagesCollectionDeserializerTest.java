@@ -0,0 +1,82 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.chat.MessagesMocker;
+import com.azure.android.communication.chat.models.ChatMessage;
+import com.azure.android.communication.chat.models.ChatMessagesCollection;
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerFormat;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChatMessagesCollectionDeserializerTest {
+    @Test
+    public void deserialize_readsTheMessagesAsJackson() throws IOException {
+        // Given
+        String json = MessagesMocker.mockThreadMessages(5);
+
+        // When
+        ChatMessagesCollection jacksonCollection = readWithJackson(json);
+        ChatMessagesCollection collection = read(json);
+
+        // Then
+        assertCollectionsEqual(jacksonCollection, collection);
+        assertEquals(5, collection.getValue().size());
+        assertEquals("id4", collection.getValue().get(4).getId());
+    }
+
+    @Test
+    public void deserialize_readsTheDatesAsJackson() throws IOException {
+        // Given a message with dates in different offsets, and properties the models don't have.
+        String json = "{\"value\":[{\"id\":\"1\",\"version\":\"2\",\"createdOn\":\"2020-10-30T10:50:50+02:00\","
+            + "\"editedOn\":\"2020-10-30T10:51:50Z\",\"deletedOn\":null,\"priority\":\"High\","
+            + "\"unknown\":{\"nested\":[1,2]}}],\"nextLink\":null}";
+
+        // When
+        ChatMessagesCollection jacksonCollection = readWithJackson(json);
+        ChatMessagesCollection collection = read(json);
+
+        // Then
+        assertCollectionsEqual(jacksonCollection, collection);
+        assertNull(collection.getNextLink());
+        assertEquals("2020-10-30T08:50:50Z", collection.getValue().get(0).getCreatedOn().toString());
+    }
+
+    private static ChatMessagesCollection read(String json) throws IOException {
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        jacksonAdapter.registerJsonDeserializer(ChatMessagesCollection.class, new ChatMessagesCollectionDeserializer());
+
+        return jacksonAdapter.deserialize(json, ChatMessagesCollection.class, SerializerFormat.JSON);
+    }
+
+    private static ChatMessagesCollection readWithJackson(String json) throws IOException {
+        return new JacksonAdapter().deserialize(json, ChatMessagesCollection.class, SerializerFormat.JSON);
+    }
+
+    private static void assertCollectionsEqual(ChatMessagesCollection expected, ChatMessagesCollection actual) {
+        assertEquals(expected.getNextLink(), actual.getNextLink());
+        assertEquals(expected.getValue().size(), actual.getValue().size());
+
+        for (int i = 0; i < expected.getValue().size(); i++) {
+            ChatMessage expectedMessage = expected.getValue().get(i);
+            ChatMessage actualMessage = actual.getValue().get(i);
+            assertEquals(expectedMessage.getId(), actualMessage.getId());
+            assertEquals(expectedMessage.getType(), actualMessage.getType());
+            assertEquals(expectedMessage.getPriority(), actualMessage.getPriority());
+            assertEquals(expectedMessage.getVersion(), actualMessage.getVersion());
+            assertEquals(expectedMessage.getContent(), actualMessage.getContent());
+            assertEquals(expectedMessage.getSenderDisplayName(), actualMessage.getSenderDisplayName());
+            assertEquals(expectedMessage.getCreatedOn(), actualMessage.getCreatedOn());
+            assertEquals(expectedMessage.getSenderId(), actualMessage.getSenderId());
+            assertEquals(expectedMessage.getDeletedOn(), actualMessage.getDeletedOn());
+            assertEquals(expectedMessage.getEditedOn(), actualMessage.getEditedOn());
+        }
+    }
+}
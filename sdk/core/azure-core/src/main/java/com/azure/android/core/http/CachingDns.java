@@ -0,0 +1,207 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import androidx.annotation.NonNull;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dns;
+
+/**
+ * A {@link Dns} that caches the addresses resolved by another {@link Dns} in memory.
+ *
+ * <p>
+ * The addresses of a host are served from the cache for the configured time to live. Once it elapsed, they are
+ * still served for the stale time to live while the host is resolved again in the background, so a lookup only
+ * blocks on the resolver the first time a host is seen or after it was not used for a while. If resolving a host
+ * fails, its stale addresses are served until the stale time to live elapses.
+ */
+public class CachingDns implements Dns {
+    private static final Executor DEFAULT_REFRESH_EXECUTOR = createRefreshExecutor();
+
+    private final Dns delegate;
+    private final long ttlNanos;
+    private final long staleTtlNanos;
+    private final boolean interleaveAddressFamilies;
+    private final Ticker ticker;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Boolean> refreshingHosts = new ConcurrentHashMap<>();
+
+    /**
+     * Creates {@link CachingDns} caching the addresses resolved by the system resolver with the default
+     * {@link CachingDnsOptions}.
+     */
+    public CachingDns() {
+        this(Dns.SYSTEM, new CachingDnsOptions());
+    }
+
+    /**
+     * Creates {@link CachingDns}.
+     *
+     * @param delegate The {@link Dns} to resolve the hosts missing from the cache.
+     * @param options The options for the cache.
+     */
+    public CachingDns(@NonNull Dns delegate, @NonNull CachingDnsOptions options) {
+        this(delegate, options, System::nanoTime, DEFAULT_REFRESH_EXECUTOR);
+    }
+
+    /**
+     * Creates {@link CachingDns}.
+     *
+     * @param delegate The {@link Dns} to resolve the hosts missing from the cache.
+     * @param options The options for the cache.
+     * @param ticker The source of the monotonic time.
+     * @param refreshExecutor The executor to resolve the stale hosts in the background.
+     */
+    CachingDns(@NonNull Dns delegate,
+               @NonNull CachingDnsOptions options,
+               @NonNull Ticker ticker,
+               @NonNull Executor refreshExecutor) {
+        this.delegate = Objects.requireNonNull(delegate, "'delegate' cannot be null.");
+        Objects.requireNonNull(options, "'options' cannot be null.");
+        this.ttlNanos = options.getTtl().toNanos();
+        this.staleTtlNanos = options.getStaleTtl().toNanos();
+        this.interleaveAddressFamilies = options.isInterleaveAddressFamilies();
+        this.ticker = Objects.requireNonNull(ticker, "'ticker' cannot be null.");
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor, "'refreshExecutor' cannot be null.");
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String hostname) throws UnknownHostException {
+        final CacheEntry entry = this.entries.get(hostname);
+        if (entry != null) {
+            final long ageNanos = this.ticker.nanoTime() - entry.resolvedAtNanos;
+            if (ageNanos < this.ttlNanos) {
+                return entry.addresses;
+            }
+            if (ageNanos < this.ttlNanos + this.staleTtlNanos) {
+                this.refreshInBackground(hostname);
+                return entry.addresses;
+            }
+        }
+        return this.resolve(hostname);
+    }
+
+    /**
+     * Remove all the addresses from the cache, e.g. when the device switches to another network.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private List<InetAddress> resolve(String hostname) throws UnknownHostException {
+        final List<InetAddress> resolved = this.delegate.lookup(hostname);
+        final List<InetAddress> addresses = this.interleaveAddressFamilies
+            ? interleaveAddressFamilies(resolved)
+            : Collections.unmodifiableList(new ArrayList<>(resolved));
+        if (!addresses.isEmpty()) {
+            this.entries.put(hostname, new CacheEntry(addresses, this.ticker.nanoTime()));
+        }
+        return addresses;
+    }
+
+    private void refreshInBackground(String hostname) {
+        if (this.refreshingHosts.putIfAbsent(hostname, Boolean.TRUE) != null) {
+            // A refresh of the host is already in flight.
+            return;
+        }
+        try {
+            this.refreshExecutor.execute(() -> {
+                try {
+                    this.resolve(hostname);
+                } catch (UnknownHostException | RuntimeException ignored) {
+                    // The stale addresses are served until the stale time to live elapses.
+                } finally {
+                    this.refreshingHosts.remove(hostname);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.refreshingHosts.remove(hostname);
+        }
+    }
+
+    /**
+     * Order the addresses alternating between the IPv6 and IPv4 families, starting with the family of the first
+     * address returned by the resolver (RFC 8305, section 4).
+     *
+     * @param addresses The resolved addresses.
+     * @return The interleaved addresses.
+     */
+    static List<InetAddress> interleaveAddressFamilies(List<InetAddress> addresses) {
+        final List<InetAddress> ipv6 = new ArrayList<>();
+        final List<InetAddress> ipv4 = new ArrayList<>();
+        for (InetAddress address : addresses) {
+            if (address instanceof Inet6Address) {
+                ipv6.add(address);
+            } else {
+                ipv4.add(address);
+            }
+        }
+        final boolean ipv6First = !addresses.isEmpty() && addresses.get(0) instanceof Inet6Address;
+        final List<InetAddress> first = ipv6First ? ipv6 : ipv4;
+        final List<InetAddress> second = ipv6First ? ipv4 : ipv6;
+        final List<InetAddress> interleaved = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) {
+                interleaved.add(first.get(i));
+            }
+            if (i < second.size()) {
+                interleaved.add(second.get(i));
+            }
+        }
+        return Collections.unmodifiableList(interleaved);
+    }
+
+    private static Executor createRefreshExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+            30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "azure-dns-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The source of the monotonic time in nanoseconds.
+     */
+    interface Ticker {
+        /**
+         * @return The current time in nanoseconds.
+         */
+        long nanoTime();
+    }
+
+    /**
+     * The addresses of a host and the time they were resolved at.
+     */
+    private static final class CacheEntry {
+        private final List<InetAddress> addresses;
+        private final long resolvedAtNanos;
+
+        CacheEntry(List<InetAddress> addresses, long resolvedAtNanos) {
+            this.addresses = addresses;
+            this.resolvedAtNanos = resolvedAtNanos;
+        }
+    }
+}
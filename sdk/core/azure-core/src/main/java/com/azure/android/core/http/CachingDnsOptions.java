@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+
+/**
+ * The configuration options for the in-memory DNS cache of {@link CachingDns}.
+ */
+public class CachingDnsOptions {
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_STALE_TTL = Duration.ofMinutes(10);
+
+    private Duration ttl = DEFAULT_TTL;
+    private Duration staleTtl = DEFAULT_STALE_TTL;
+    private boolean interleaveAddressFamilies;
+
+    /**
+     * Creates a new instance with the default options.
+     *
+     * <p>
+     * By default the addresses of a host are fresh for 1 minute, then served stale while being revalidated for up
+     * to 10 more minutes, and the addresses are kept in the order returned by the resolver.
+     */
+    public CachingDnsOptions() {
+    }
+
+    /**
+     * Gets the duration the resolved addresses of a host are used without being resolved again.
+     *
+     * @return The time to live of the resolved addresses.
+     */
+    public Duration getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Sets the duration the resolved addresses of a host are used without being resolved again.
+     *
+     * <p>
+     * The system resolver doesn't expose the TTL of the DNS records, this should not exceed the TTL the service
+     * sets for its records.
+     *
+     * @param ttl The time to live of the resolved addresses.
+     * @return The updated {@link CachingDnsOptions} object.
+     */
+    public CachingDnsOptions setTtl(Duration ttl) {
+        Objects.requireNonNull(ttl, "'ttl' cannot be null.");
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("'ttl' cannot be negative.");
+        }
+        this.ttl = ttl;
+
+        return this;
+    }
+
+    /**
+     * Gets the duration, after the time to live elapsed, the addresses of a host are still served while they are
+     * resolved again in the background, or while the resolution fails.
+     *
+     * @return The stale time to live of the resolved addresses.
+     */
+    public Duration getStaleTtl() {
+        return this.staleTtl;
+    }
+
+    /**
+     * Sets the duration, after the time to live elapsed, the addresses of a host are still served while they are
+     * resolved again in the background, or while the resolution fails. Zero disables stale-while-revalidate.
+     *
+     * @param staleTtl The stale time to live of the resolved addresses.
+     * @return The updated {@link CachingDnsOptions} object.
+     */
+    public CachingDnsOptions setStaleTtl(Duration staleTtl) {
+        Objects.requireNonNull(staleTtl, "'staleTtl' cannot be null.");
+        if (staleTtl.isNegative()) {
+            throw new IllegalArgumentException("'staleTtl' cannot be negative.");
+        }
+        this.staleTtl = staleTtl;
+
+        return this;
+    }
+
+    /**
+     * Gets whether the IPv6 and IPv4 addresses of a host are interleaved.
+     *
+     * @return True if the address families are interleaved.
+     */
+    public boolean isInterleaveAddressFamilies() {
+        return this.interleaveAddressFamilies;
+    }
+
+    /**
+     * Sets whether the IPv6 and IPv4 addresses of a host are interleaved, as recommended by Happy Eyeballs
+     * (RFC 8305), so that when one address family is broken on the current network the connection attempt falls
+     * back to the other family after a single failed attempt rather than after every address of the family.
+     *
+     * @param interleaveAddressFamilies True to interleave the address families.
+     * @return The updated {@link CachingDnsOptions} object.
+     */
+    public CachingDnsOptions setInterleaveAddressFamilies(boolean interleaveAddressFamilies) {
+        this.interleaveAddressFamilies = interleaveAddressFamilies;
+
+        return this;
+    }
+}
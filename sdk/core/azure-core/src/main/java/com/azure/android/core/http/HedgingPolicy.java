@@ -0,0 +1,122 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+
+/**
+ * The configuration of request hedging for an operation.
+ *
+ * <p>
+ * When an asynchronous call to a hedged operation has not completed within the hedging delay, a duplicate
+ * of the request is sent, the first response wins and the other call is cancelled. The hedging delay is the
+ * configured percentile of the recent latencies of the operation, so only the calls slower than usual
+ * (e.g. stuck on a slow connection) are hedged.
+ *
+ * <p>
+ * Only idempotent requests (GET and HEAD) are hedged, synchronous calls are never hedged.
+ */
+public class HedgingPolicy {
+    private static final double DEFAULT_LATENCY_PERCENTILE = 95;
+    private static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(500);
+    private static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(20);
+
+    private double latencyPercentile = DEFAULT_LATENCY_PERCENTILE;
+    private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+    private Duration minDelay = DEFAULT_MIN_DELAY;
+
+    /**
+     * Creates a new instance with the default options.
+     *
+     * <p>
+     * By default a request is hedged once it is slower than the 95th percentile of the recent latencies of the
+     * operation, or than 500 milliseconds until enough latencies are recorded, but never before 20 milliseconds.
+     */
+    public HedgingPolicy() {
+    }
+
+    /**
+     * Gets the percentile of the recent latencies of the operation used as the hedging delay. The latency of a call
+     * is the time from its start to its first response, including the hedging delay when the hedged request wins.
+     *
+     * @return The latency percentile.
+     */
+    public double getLatencyPercentile() {
+        return this.latencyPercentile;
+    }
+
+    /**
+     * Sets the percentile of the recent latencies of the operation used as the hedging delay, e.g. 95 hedges
+     * roughly the slowest 5% of the calls.
+     *
+     * @param latencyPercentile The latency percentile, in the range (0, 100].
+     * @return The updated {@link HedgingPolicy} object.
+     * @throws IllegalArgumentException If {@code latencyPercentile} is not in the range (0, 100].
+     */
+    public HedgingPolicy setLatencyPercentile(double latencyPercentile) {
+        if (latencyPercentile <= 0 || latencyPercentile > 100) {
+            throw new IllegalArgumentException("'latencyPercentile' must be in the range (0, 100].");
+        }
+        this.latencyPercentile = latencyPercentile;
+
+        return this;
+    }
+
+    /**
+     * Gets the hedging delay used until enough latencies of the operation are recorded, i.e. for the first 16 calls
+     * that complete with a response.
+     *
+     * @return The initial hedging delay.
+     */
+    public Duration getInitialDelay() {
+        return this.initialDelay;
+    }
+
+    /**
+     * Sets the hedging delay used until enough latencies of the operation are recorded.
+     *
+     * @param initialDelay The initial hedging delay.
+     * @return The updated {@link HedgingPolicy} object.
+     * @throws NullPointerException If {@code initialDelay} is {@code null}.
+     * @throws IllegalArgumentException If {@code initialDelay} is negative.
+     */
+    public HedgingPolicy setInitialDelay(Duration initialDelay) {
+        Objects.requireNonNull(initialDelay, "'initialDelay' cannot be null.");
+        if (initialDelay.isNegative()) {
+            throw new IllegalArgumentException("'initialDelay' cannot be negative.");
+        }
+        this.initialDelay = initialDelay;
+
+        return this;
+    }
+
+    /**
+     * Gets the minimum hedging delay, the request of a call is never sent twice before this delay.
+     *
+     * @return The minimum hedging delay.
+     */
+    public Duration getMinDelay() {
+        return this.minDelay;
+    }
+
+    /**
+     * Sets the minimum hedging delay, which bounds the extra load when the recent latencies are very low.
+     *
+     * @param minDelay The minimum hedging delay.
+     * @return The updated {@link HedgingPolicy} object.
+     * @throws NullPointerException If {@code minDelay} is {@code null}.
+     * @throws IllegalArgumentException If {@code minDelay} is negative.
+     */
+    public HedgingPolicy setMinDelay(Duration minDelay) {
+        Objects.requireNonNull(minDelay, "'minDelay' cannot be null.");
+        if (minDelay.isNegative()) {
+            throw new IllegalArgumentException("'minDelay' cannot be negative.");
+        }
+        this.minDelay = minDelay;
+
+        return this;
+    }
+}
@@ -4,14 +4,36 @@
 package com.azure.android.core.http;
 
 import androidx.annotation.NonNull;
-
+import androidx.annotation.RestrictTo;
+
+import com.azure.android.core.http.cache.ResponseCacheStore;
+import com.azure.android.core.http.interceptor.CircuitBreakerInterceptor;
+import com.azure.android.core.http.interceptor.CircuitBreakerOptions;
+import com.azure.android.core.http.interceptor.ResponseCacheInterceptor;
+import com.azure.android.core.http.interceptor.TracingInterceptor;
+import com.azure.android.core.internal.util.RequestCoalescer;
+import com.azure.android.core.internal.util.RequestHedger;
+import com.azure.android.core.metrics.MetricsCollector;
+import com.azure.android.core.metrics.MetricsEventListener;
+import com.azure.android.core.tracing.Tracer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
+import okhttp3.Dns;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okio.AsyncTimeout;
+import retrofit2.Call;
+import retrofit2.Invocation;
 import retrofit2.Retrofit;
 
 /**
@@ -22,6 +44,8 @@ public class ServiceClient {
     private final OkHttpClient httpClient;
     private final Retrofit retrofit;
     private final ServiceClient.Builder builder;
+    private final Map<String, RequestHedger> requestHedgers;
+    private final RequestCoalescer requestCoalescer;
 
     /**
      * PRIVATE CTR.
@@ -36,6 +60,15 @@ public class ServiceClient {
         this.httpClient = httpClient;
         this.retrofit = retrofit;
         this.builder = builder;
+        if (builder.hedgingPolicies.isEmpty()) {
+            this.requestHedgers = Collections.emptyMap();
+        } else {
+            this.requestHedgers = new HashMap<>();
+            for (Map.Entry<String, HedgingPolicy> entry : builder.hedgingPolicies.entrySet()) {
+                this.requestHedgers.put(entry.getKey(), new RequestHedger(entry.getValue()));
+            }
+        }
+        this.requestCoalescer = builder.requestCoalescingEnabled ? new RequestCoalescer() : null;
     }
 
     /**
@@ -57,6 +90,90 @@ public class ServiceClient {
         return this.retrofit.baseUrl().toString();
     }
 
+    /**
+     * Gets the hedger for the operation of a call, if hedging is configured for it through
+     * {@link Builder#setHedgingPolicy(String, HedgingPolicy)}.
+     *
+     * @param call The Retrofit call of the operation.
+     * @return The hedger, or null if the operation is not hedged.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public RequestHedger getRequestHedger(@NonNull Call<?> call) {
+        if (this.requestHedgers.isEmpty()) {
+            return null;
+        }
+        final Invocation invocation;
+        try {
+            invocation = call.request().tag(Invocation.class);
+        } catch (RuntimeException e) {
+            // Retrofit failed to create the request, it is reported when the call is enqueued.
+            return null;
+        }
+        return invocation == null ? null : this.requestHedgers.get(invocation.method().getName());
+    }
+
+    /**
+     * Gets the coalescer of the identical concurrent calls, if request coalescing is enabled through
+     * {@link Builder#setRequestCoalescingEnabled(boolean)}.
+     *
+     * @return The coalescer, or null if request coalescing is disabled.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public RequestCoalescer getRequestCoalescer() {
+        return this.requestCoalescer;
+    }
+
+    /**
+     * Open a connection to the base URL ahead of the first API call, so that the call doesn't pay for the DNS
+     * lookup and the TCP and TLS handshakes.
+     * <p>
+     * See {@link ServiceClient#prewarm(int)}.
+     */
+    public void prewarm() {
+        this.prewarm(1);
+    }
+
+    /**
+     * Open connections to the base URL ahead of the first API calls, so that the calls don't pay for the DNS
+     * lookup and the TCP and TLS handshakes.
+     * <p>
+     * Each connection is opened by sending a HEAD request to the base URL, without the configured interceptors,
+     * and is then kept idle in the connection pool for the pool's keep-alive duration. The requests are sent
+     * asynchronously and their failures are ignored, so this method is safe to call from the main thread, e.g. in
+     * {@code Application.onCreate}. The number of connections kept is bounded by the maximum idle connections of
+     * the pool, and an HTTP/2 host needs a single connection for any number of concurrent calls.
+     *
+     * @param connectionCount The number of connections to open.
+     */
+    public void prewarm(int connectionCount) {
+        if (connectionCount < 1) {
+            throw new IllegalArgumentException("'connectionCount' cannot be less than 1.");
+        }
+        final OkHttpClient.Builder prewarmClientBuilder = this.httpClient.newBuilder();
+        prewarmClientBuilder.interceptors().clear();
+        prewarmClientBuilder.networkInterceptors().clear();
+        // Shares the connection pool and the dispatcher of the service client.
+        final OkHttpClient prewarmClient = prewarmClientBuilder.build();
+        final Request request = new Request.Builder()
+            .url(this.retrofit.baseUrl())
+            .head()
+            .build();
+        for (int i = 0; i < connectionCount; i++) {
+            prewarmClient.newCall(request).enqueue(new okhttp3.Callback() {
+                @Override
+                public void onFailure(@NonNull okhttp3.Call call, @NonNull IOException e) {
+                    // The connection will be opened by the first API call.
+                }
+
+                @Override
+                public void onResponse(@NonNull okhttp3.Call call, @NonNull okhttp3.Response response) {
+                    // Releases the connection to the pool.
+                    response.close();
+                }
+            });
+        }
+    }
+
     /**
      * @return A new builder with configurations copied from this {@link ServiceClient}.
      */
@@ -66,13 +183,21 @@ public class ServiceClient {
 
     /**
      * Close and release any resources reserved for the {@link ServiceClient}.
+     * <p>
+     * The dispatcher and the connection pool of the {@link SharedTransport} are not released, since other
+     * clients use them.
      */
     public void close() {
-        this.httpClient.dispatcher().executorService().shutdown();
-        this.httpClient.connectionPool().evictAll();
+        if (!SharedTransport.isShared(this.httpClient.dispatcher())) {
+            this.httpClient.dispatcher().executorService().shutdown();
+        }
 
-        synchronized (this.httpClient.connectionPool()) {
-            this.httpClient.connectionPool().notifyAll();
+        if (!SharedTransport.isShared(this.httpClient.connectionPool())) {
+            this.httpClient.connectionPool().evictAll();
+
+            synchronized (this.httpClient.connectionPool()) {
+                this.httpClient.connectionPool().notifyAll();
+            }
         }
 
         synchronized (AsyncTimeout.class) {
@@ -87,9 +212,14 @@ public class ServiceClient {
         private ConnectionPool connectionPool;
         private Dispatcher dispatcher;
         private Interceptor credentialsInterceptor;
+        private CircuitBreakerInterceptor circuitBreakerInterceptor;
+        private ResponseCacheInterceptor responseCacheInterceptor;
+        private TracingInterceptor tracingInterceptor;
         private OkHttpClient.Builder httpClientBuilder;
         private Retrofit.Builder retrofitBuilder;
         private String baseUrl;
+        private final Map<String, HedgingPolicy> hedgingPolicies = new HashMap<>();
+        private boolean requestCoalescingEnabled;
 
         /**
          * Create a new {@link ServiceClient} builder.
@@ -126,16 +256,26 @@ public class ServiceClient {
             this.baseUrl = serviceClient.getBaseUrl();
 
             for (Interceptor interceptor : serviceClient.httpClient.interceptors()) {
-                if (interceptor != serviceClient.builder.credentialsInterceptor) {
+                if (interceptor != serviceClient.builder.credentialsInterceptor
+                    && interceptor != serviceClient.builder.circuitBreakerInterceptor
+                    && interceptor != serviceClient.builder.responseCacheInterceptor
+                    && interceptor != serviceClient.builder.tracingInterceptor) {
                     this.addInterceptor(interceptor);
                 }
             }
 
             this.credentialsInterceptor = serviceClient.builder.credentialsInterceptor;
+            // Share the circuit breaker, hence the state of the circuits, with the base service client.
+            this.circuitBreakerInterceptor = serviceClient.builder.circuitBreakerInterceptor;
+            this.responseCacheInterceptor = serviceClient.builder.responseCacheInterceptor;
+            this.tracingInterceptor = serviceClient.builder.tracingInterceptor;
 
             for (Interceptor interceptor : serviceClient.httpClient.networkInterceptors()) {
                 this.addNetworkInterceptor(interceptor);
             }
+
+            this.hedgingPolicies.putAll(serviceClient.builder.hedgingPolicies);
+            this.requestCoalescingEnabled = serviceClient.builder.requestCoalescingEnabled;
         }
 
         /**
@@ -167,6 +307,102 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Enable the retry budget and the per host circuit breaker for APIs invoked using any API Client created
+         * through the configured Retrofit.
+         * <p>
+         * The {@link CircuitBreakerInterceptor} is placed after the interceptors added through
+         * {@link Builder#addInterceptor(Interceptor)}, so that it sees every retry attempt sent by a
+         * {@link com.azure.android.core.http.interceptor.RetryInterceptor}. A rejected request fails with
+         * {@link com.azure.android.core.http.interceptor.CircuitBreakerOpenException}.
+         *
+         * @param circuitBreakerOptions The retry budget and circuit breaker options.
+         * @return Builder with circuit breaker applied.
+         */
+        public Builder setCircuitBreakerOptions(@NonNull CircuitBreakerOptions circuitBreakerOptions) {
+            this.circuitBreakerInterceptor = new CircuitBreakerInterceptor(circuitBreakerOptions);
+
+            return this;
+        }
+
+        /**
+         * Enable the caching of the responses of read operations invoked using any API Client created through the
+         * configured Retrofit.
+         * <p>
+         * An operation is identified by the name of its method in the Retrofit service interface, e.g.
+         * "getBlobProperties" or "getContainerProperties". Its responses with an ETag are cached in the store and
+         * revalidated with an If-None-Match request, a 304 (Not Modified) response is replaced by the cached one. The
+         * {@link ResponseCacheInterceptor} is placed after the interceptors added through
+         * {@link Builder#addInterceptor(Interceptor)} and before the credentials interceptor, which signs the
+         * If-None-Match header.
+         *
+         * @param store The store of the cached responses, e.g. a
+         * {@link com.azure.android.core.http.cache.TieredResponseCacheStore}.
+         * @param operationNames The names of the operations to cache.
+         * @return Builder with response cache applied.
+         */
+        public Builder setResponseCache(@NonNull ResponseCacheStore store, @NonNull String... operationNames) {
+            this.responseCacheInterceptor = new ResponseCacheInterceptor(store, Arrays.asList(operationNames));
+
+            return this;
+        }
+
+        /**
+         * Enable the tracing of the APIs invoked using any API Client created through the configured Retrofit.
+         * <p>
+         * Each operation is traced in a span, with a child span for each attempt made by a
+         * {@link com.azure.android.core.http.interceptor.RetryInterceptor}, and the span is propagated to the service
+         * in the W3C traceparent header. The {@link TracingInterceptor} is placed before any other interceptor, so
+         * that the operation span covers the whole pipeline.
+         *
+         * @param tracer The tracer, e.g. a {@link com.azure.android.core.tracing.RecordingTracer}.
+         * @return Builder with tracer applied.
+         */
+        public Builder setTracer(@NonNull Tracer tracer) {
+            this.tracingInterceptor = new TracingInterceptor(tracer);
+
+            return this;
+        }
+
+        /**
+         * Enable request hedging for an operation invoked asynchronously using any API Client created through the
+         * configured Retrofit.
+         * <p>
+         * The operation is identified by the name of its method in the Retrofit service interface, e.g.
+         * "getBlobProperties" or "getChatMessage". Only GET and HEAD requests are hedged, hedging a call sends its
+         * request twice when it is slow, so it is meant for small latency sensitive operations.
+         *
+         * @param operationName The name of the operation.
+         * @param hedgingPolicy The hedging policy of the operation.
+         * @return Builder with hedging policy applied.
+         */
+        public Builder setHedgingPolicy(@NonNull String operationName, @NonNull HedgingPolicy hedgingPolicy) {
+            Objects.requireNonNull(operationName, "'operationName' cannot be null.");
+            Objects.requireNonNull(hedgingPolicy, "'hedgingPolicy' cannot be null.");
+            this.hedgingPolicies.put(operationName, hedgingPolicy);
+
+            return this;
+        }
+
+        /**
+         * Enable the coalescing of identical read operations invoked asynchronously and concurrently using any API
+         * Client created through the configured Retrofit.
+         * <p>
+         * While a GET or HEAD request is in flight, an identical call (same operation, URL and headers, ignoring
+         * x-ms-client-request-id) doesn't send its own request, it receives the response of the request in flight
+         * instead. Cancelling one of the coalesced calls cancels the request only once all of them are cancelled.
+         * The buffered response bodies, such as the pages of a list operation, are copied for each call. Calls
+         * streaming their response body (annotated with Retrofit's Streaming) and blob downloads are never coalesced.
+         *
+         * @param requestCoalescingEnabled True to coalesce identical concurrent read operations.
+         * @return Builder with request coalescing applied.
+         */
+        public Builder setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+            this.requestCoalescingEnabled = requestCoalescingEnabled;
+
+            return this;
+        }
+
         /**
          * Add an interceptor that gets called when invoking APIs using any API Client created through the configured
          * Retrofit.
@@ -256,6 +492,37 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Sets the DNS service used to resolve the hosts of APIs invoked on any API Client created through the
+         * configured Retrofit, e.g. a {@link CachingDns}.
+         * <p>
+         * The configured Retrofit is accessed using {@link ServiceClient#getRetrofit()}.
+         *
+         * @param dns The DNS service.
+         * @return Builder with DNS service applied.
+         */
+        public Builder setDns(@NonNull Dns dns) {
+            this.httpClientBuilder.dns(dns);
+
+            return this;
+        }
+
+        /**
+         * Sets the collector recording the latencies of the APIs invoked on any API Client created through the
+         * configured Retrofit, tagged by operation.
+         * <p>
+         * The latencies are recorded by a {@link MetricsEventListener}, which replaces any event listener factory
+         * set on the {@link OkHttpClient.Builder} given to the builder.
+         *
+         * @param metricsCollector The metrics collector.
+         * @return Builder with metrics collector applied.
+         */
+        public Builder setMetricsCollector(@NonNull MetricsCollector metricsCollector) {
+            this.httpClientBuilder.eventListenerFactory(MetricsEventListener.factory(metricsCollector));
+
+            return this;
+        }
+
         /**
          * @return A {@link ServiceClient} configured with settings applied through this builder.
          */
@@ -276,6 +543,18 @@ public class ServiceClient {
                 this.httpClientBuilder.dispatcher(this.dispatcher);
             }
 
+            if (this.tracingInterceptor != null) {
+                this.httpClientBuilder.interceptors().add(0, this.tracingInterceptor);
+            }
+
+            if (this.responseCacheInterceptor != null) {
+                this.httpClientBuilder.addInterceptor(this.responseCacheInterceptor);
+            }
+
+            if (this.circuitBreakerInterceptor != null) {
+                this.httpClientBuilder.addInterceptor(this.circuitBreakerInterceptor);
+            }
+
             if (this.credentialsInterceptor != null) {
                 this.httpClientBuilder.addInterceptor(this.credentialsInterceptor);
             }
@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * The process-wide HTTP transport shared by the {@link ServiceClient} instances built from it.
+ *
+ * <p>
+ * By default each {@link ServiceClient} builds its own {@link OkHttpClient}, hence its own dispatcher thread
+ * pool, connection pool and connections, even when several clients talk to the same hosts. A client built from
+ * {@link SharedTransport#newServiceClientBuilder()} derives its {@link OkHttpClient} from a single root client
+ * through {@link OkHttpClient#newBuilder()}: it keeps its own interceptors, timeouts and base URL but shares the
+ * threads, the connections and the TLS sessions of the root client.
+ *
+ * <pre>
+ * ServiceClient.Builder serviceClientBuilder = SharedTransport.newServiceClientBuilder();
+ * StorageBlobAsyncClient blobClient = new StorageBlobAsyncClient.Builder("blobClient", serviceClientBuilder)
+ *     ...
+ *     .build();
+ * </pre>
+ *
+ * <p>
+ * {@link ServiceClient#close()} doesn't release the shared dispatcher and connection pool, since other clients
+ * use them.
+ */
+public final class SharedTransport {
+    private static final Object LOCK = new Object();
+    private static volatile OkHttpClient rootClient;
+
+    private SharedTransport() {
+    }
+
+    /**
+     * Gets the root {@link OkHttpClient}, creating it with the default configuration if
+     * {@link SharedTransport#setRootClient(OkHttpClient)} was not called.
+     *
+     * @return The root {@link OkHttpClient}.
+     */
+    @NonNull
+    public static OkHttpClient getRootClient() {
+        OkHttpClient client = rootClient;
+        if (client == null) {
+            synchronized (LOCK) {
+                client = rootClient;
+                if (client == null) {
+                    client = new OkHttpClient();
+                    rootClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Sets the root {@link OkHttpClient}, e.g. to tune its dispatcher or connection pool. This must be called
+     * before any client is built from the shared transport.
+     *
+     * @param client The root {@link OkHttpClient}.
+     * @throws IllegalStateException If the root client is already in use.
+     */
+    public static void setRootClient(@NonNull OkHttpClient client) {
+        Objects.requireNonNull(client, "'client' cannot be null.");
+        synchronized (LOCK) {
+            if (rootClient != null && rootClient != client) {
+                throw new IllegalStateException("The root client of the shared transport is already in use.");
+            }
+            rootClient = client;
+        }
+    }
+
+    /**
+     * Create a new {@link ServiceClient} builder whose {@link OkHttpClient} derives from the root client.
+     *
+     * @return A new {@link ServiceClient.Builder}.
+     */
+    @NonNull
+    public static ServiceClient.Builder newServiceClientBuilder() {
+        return new ServiceClient.Builder(getRootClient().newBuilder());
+    }
+
+    /**
+     * Determines whether a dispatcher belongs to the shared transport.
+     *
+     * @param dispatcher The dispatcher.
+     * @return True if the dispatcher is the one of the root client.
+     */
+    static boolean isShared(Dispatcher dispatcher) {
+        final OkHttpClient client = rootClient;
+        return client != null && client.dispatcher() == dispatcher;
+    }
+
+    /**
+     * Determines whether a connection pool belongs to the shared transport.
+     *
+     * @param connectionPool The connection pool.
+     * @return True if the connection pool is the one of the root client.
+     */
+    static boolean isShared(ConnectionPool connectionPool) {
+        final OkHttpClient client = rootClient;
+        return client != null && client.connectionPool() == connectionPool;
+    }
+}
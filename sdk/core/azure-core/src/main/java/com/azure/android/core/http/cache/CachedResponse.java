@@ -0,0 +1,79 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.http.HttpHeader;
+
+import java.util.Objects;
+
+import okhttp3.Headers;
+
+/**
+ * A response stored in a {@link ResponseCacheStore}, with the ETag it is revalidated with.
+ */
+public final class CachedResponse {
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final byte[] body;
+
+    /**
+     * Creates {@link CachedResponse}.
+     *
+     * @param code The HTTP status code.
+     * @param message The HTTP status message.
+     * @param headers The response headers.
+     * @param body The response body, empty for a HEAD response.
+     */
+    public CachedResponse(int code, @NonNull String message, @NonNull Headers headers, @NonNull byte[] body) {
+        this.code = code;
+        this.message = Objects.requireNonNull(message, "'message' cannot be null.");
+        this.headers = Objects.requireNonNull(headers, "'headers' cannot be null.");
+        this.body = Objects.requireNonNull(body, "'body' cannot be null.");
+    }
+
+    /**
+     * @return The HTTP status code.
+     */
+    public int getCode() {
+        return this.code;
+    }
+
+    /**
+     * @return The HTTP status message.
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * @return The response headers.
+     */
+    public Headers getHeaders() {
+        return this.headers;
+    }
+
+    /**
+     * @return The response body, empty for a HEAD response.
+     */
+    public byte[] getBody() {
+        return this.body;
+    }
+
+    /**
+     * @return The ETag of the response, or null if the response has none.
+     */
+    public String getETag() {
+        return this.headers.get(HttpHeader.ETAG);
+    }
+
+    /**
+     * @return The approximate size of the response in bytes, used to bound the size of a cache.
+     */
+    public long getSize() {
+        return this.body.length + this.headers.byteCount();
+    }
+}
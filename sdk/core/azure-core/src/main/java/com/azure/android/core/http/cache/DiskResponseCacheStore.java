@@ -0,0 +1,164 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.util.logging.ClientLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+import okhttp3.Headers;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+
+/**
+ * A {@link ResponseCacheStore} keeping the responses in files of a directory, e.g. under
+ * {@code Context.getCacheDir()}, deleting the least recently written ones once the total size of the files exceeds
+ * the maximum size.
+ *
+ * <p>
+ * The files hold the SHA-256 hash of the cache key rather than the key itself: a key includes the request URL, whose
+ * query may carry a shared access signature, which must not be persisted.
+ *
+ * <p>
+ * Reading and writing the files blocks the calling thread, which is an OkHttp dispatcher thread when the store is
+ * used by {@link com.azure.android.core.http.interceptor.ResponseCacheInterceptor}.
+ */
+public class DiskResponseCacheStore implements ResponseCacheStore {
+    private static final String FILE_SUFFIX = ".response";
+    // the version 1 files held the cache key in plain text, they are deleted when read.
+    private static final int FORMAT_VERSION = 2;
+
+    private final ClientLogger logger = ClientLogger.getDefault(DiskResponseCacheStore.class);
+    private final File directory;
+    private final long maxSizeInBytes;
+
+    /**
+     * Creates {@link DiskResponseCacheStore}.
+     *
+     * @param directory The directory to store the responses in, it is created if it doesn't exist.
+     * @param maxSizeInBytes The maximum total size of the cached responses.
+     */
+    public DiskResponseCacheStore(@NonNull File directory, long maxSizeInBytes) {
+        this.directory = Objects.requireNonNull(directory, "'directory' cannot be null.");
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("'maxSizeInBytes' cannot be less than 0.");
+        }
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public synchronized CachedResponse get(@NonNull String key) {
+        final String hashedKey = hash(key);
+        final File file = this.getFile(hashedKey);
+        if (!file.exists()) {
+            return null;
+        }
+        try (BufferedSource source = Okio.buffer(Okio.source(file))) {
+            if (Integer.parseInt(source.readUtf8LineStrict()) != FORMAT_VERSION
+                || !hashedKey.equals(source.readUtf8LineStrict())) {
+                file.delete();
+                return null;
+            }
+            final int code = Integer.parseInt(source.readUtf8LineStrict());
+            final String message = source.readUtf8LineStrict();
+            final int headerCount = Integer.parseInt(source.readUtf8LineStrict());
+            final Headers.Builder headers = new Headers.Builder();
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(source.readUtf8LineStrict(), source.readUtf8LineStrict());
+            }
+            return new CachedResponse(code, message, headers.build(), source.readByteArray());
+        } catch (IOException | RuntimeException e) {
+            this.logger.warning("Unable to read the cached response from " + file.getName(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void put(@NonNull String key, @NonNull CachedResponse response) {
+        if (response.getSize() > this.maxSizeInBytes) {
+            this.remove(key);
+            return;
+        }
+        if (!this.directory.exists() && !this.directory.mkdirs()) {
+            this.logger.warning("Unable to create the response cache directory " + this.directory);
+            return;
+        }
+        final String hashedKey = hash(key);
+        final File file = this.getFile(hashedKey);
+        final File tempFile = new File(this.directory, file.getName() + ".tmp");
+        try (BufferedSink sink = Okio.buffer(Okio.sink(tempFile))) {
+            sink.writeUtf8(String.valueOf(FORMAT_VERSION)).writeByte('\n');
+            sink.writeUtf8(hashedKey).writeByte('\n');
+            sink.writeUtf8(String.valueOf(response.getCode())).writeByte('\n');
+            sink.writeUtf8(response.getMessage()).writeByte('\n');
+            final Headers headers = response.getHeaders();
+            sink.writeUtf8(String.valueOf(headers.size())).writeByte('\n');
+            for (int i = 0; i < headers.size(); i++) {
+                sink.writeUtf8(headers.name(i)).writeByte('\n');
+                sink.writeUtf8(headers.value(i)).writeByte('\n');
+            }
+            sink.write(response.getBody());
+        } catch (IOException e) {
+            this.logger.warning("Unable to write the cached response to " + file.getName(), e);
+            tempFile.delete();
+            return;
+        }
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            return;
+        }
+        this.trimToSize();
+    }
+
+    @Override
+    public synchronized void remove(@NonNull String key) {
+        this.getFile(hash(key)).delete();
+    }
+
+    private File getFile(String hashedKey) {
+        return new File(this.directory, hashedKey + FILE_SUFFIX);
+    }
+
+    private static String hash(String key) {
+        return ByteString.encodeUtf8(key).sha256().hex();
+    }
+
+    private void trimToSize() {
+        final File[] files = this.directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long sizeInBytes = 0;
+        for (File file : files) {
+            sizeInBytes += file.length();
+        }
+        if (sizeInBytes <= this.maxSizeInBytes) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (sizeInBytes <= this.maxSizeInBytes) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                sizeInBytes -= length;
+            }
+        }
+    }
+}
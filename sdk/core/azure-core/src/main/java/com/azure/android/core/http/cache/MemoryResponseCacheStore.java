@@ -0,0 +1,72 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link ResponseCacheStore} keeping the responses in memory, evicting the least recently used ones once the
+ * total size of the cached responses exceeds the maximum size.
+ */
+public class MemoryResponseCacheStore implements ResponseCacheStore {
+    private final long maxSizeInBytes;
+    // access ordered, the least recently used entry comes first.
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    /**
+     * Creates {@link MemoryResponseCacheStore}.
+     *
+     * @param maxSizeInBytes The maximum total size of the cached responses.
+     */
+    public MemoryResponseCacheStore(long maxSizeInBytes) {
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("'maxSizeInBytes' cannot be less than 0.");
+        }
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    @Override
+    public synchronized CachedResponse get(@NonNull String key) {
+        return this.entries.get(key);
+    }
+
+    @Override
+    public synchronized void put(@NonNull String key, @NonNull CachedResponse response) {
+        if (response.getSize() > this.maxSizeInBytes) {
+            this.remove(key);
+            return;
+        }
+        final CachedResponse previous = this.entries.put(key, response);
+        if (previous != null) {
+            this.sizeInBytes -= previous.getSize();
+        }
+        this.sizeInBytes += response.getSize();
+
+        final Iterator<Map.Entry<String, CachedResponse>> iterator = this.entries.entrySet().iterator();
+        while (this.sizeInBytes > this.maxSizeInBytes && iterator.hasNext()) {
+            this.sizeInBytes -= iterator.next().getValue().getSize();
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public synchronized void remove(@NonNull String key) {
+        final CachedResponse previous = this.entries.remove(key);
+        if (previous != null) {
+            this.sizeInBytes -= previous.getSize();
+        }
+    }
+
+    /**
+     * @return The total size of the cached responses in bytes.
+     */
+    public synchronized long getSizeInBytes() {
+        return this.sizeInBytes;
+    }
+}
@@ -0,0 +1,38 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The storage of the responses cached by {@link com.azure.android.core.http.interceptor.ResponseCacheInterceptor}.
+ *
+ * <p>
+ * Implementations must be thread safe. See {@link MemoryResponseCacheStore}, {@link DiskResponseCacheStore} and
+ * {@link TieredResponseCacheStore} to combine them.
+ */
+public interface ResponseCacheStore {
+    /**
+     * Get the response cached for a key.
+     *
+     * @param key The cache key of the request.
+     * @return The cached response, or null if there is none.
+     */
+    CachedResponse get(@NonNull String key);
+
+    /**
+     * Cache a response, replacing any response cached for the same key.
+     *
+     * @param key The cache key of the request.
+     * @param response The response to cache.
+     */
+    void put(@NonNull String key, @NonNull CachedResponse response);
+
+    /**
+     * Remove the response cached for a key, if any.
+     *
+     * @param key The cache key of the request.
+     */
+    void remove(@NonNull String key);
+}
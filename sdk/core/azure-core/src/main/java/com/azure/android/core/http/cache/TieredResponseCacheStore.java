@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link ResponseCacheStore} combining a fast tier, typically a {@link MemoryResponseCacheStore}, with a larger
+ * slow tier, typically a {@link DiskResponseCacheStore} surviving the process.
+ *
+ * <p>
+ * A response is written to both tiers, and a response found only in the slow tier is promoted to the fast one.
+ */
+public class TieredResponseCacheStore implements ResponseCacheStore {
+    private final ResponseCacheStore fastStore;
+    private final ResponseCacheStore slowStore;
+
+    /**
+     * Creates {@link TieredResponseCacheStore}.
+     *
+     * @param fastStore The fast tier, looked up first.
+     * @param slowStore The slow tier.
+     */
+    public TieredResponseCacheStore(@NonNull ResponseCacheStore fastStore, @NonNull ResponseCacheStore slowStore) {
+        this.fastStore = Objects.requireNonNull(fastStore, "'fastStore' cannot be null.");
+        this.slowStore = Objects.requireNonNull(slowStore, "'slowStore' cannot be null.");
+    }
+
+    @Override
+    public CachedResponse get(@NonNull String key) {
+        CachedResponse response = this.fastStore.get(key);
+        if (response == null) {
+            response = this.slowStore.get(key);
+            if (response != null) {
+                this.fastStore.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull CachedResponse response) {
+        this.fastStore.put(key, response);
+        this.slowStore.put(key, response);
+    }
+
+    @Override
+    public void remove(@NonNull String key) {
+        this.fastStore.remove(key);
+        this.slowStore.remove(key);
+    }
+}
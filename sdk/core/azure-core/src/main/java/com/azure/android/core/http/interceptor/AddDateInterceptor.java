@@ -6,9 +6,7 @@ package com.azure.android.core.http.interceptor;
 import androidx.annotation.NonNull;
 
 import com.azure.android.core.http.HttpHeader;
-import com.azure.android.core.util.DateTimeRfc1123;
-
-import org.threeten.bp.OffsetDateTime;
+import com.azure.android.core.util.DateTimeRfc1123Formatter;
 
 import java.io.IOException;
 
@@ -33,7 +31,7 @@ public class AddDateInterceptor implements Interceptor {
     public Response intercept(@NonNull Chain chain) throws IOException {
         return chain.proceed(chain.request()
             .newBuilder()
-            .header(HttpHeader.DATE, new DateTimeRfc1123(OffsetDateTime.now()).toString())
+            .header(HttpHeader.DATE, DateTimeRfc1123Formatter.formatNow())
             .build());
     }
 }
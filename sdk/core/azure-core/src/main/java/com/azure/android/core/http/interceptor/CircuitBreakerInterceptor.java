@@ -0,0 +1,331 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Pipeline interceptor that applies a retry budget to the client and a circuit breaker to each host.
+ *
+ * <p>
+ * The retry budget limits the retries sent by {@link RetryInterceptor} to a ratio of the recent requests,
+ * so that a failing service doesn't receive a multiple of the regular load during an outage. The circuit
+ * of a host opens after a number of consecutive failed requests, then requests to the host fail fast
+ * until the open duration elapses, after which a single probe request is let through to decide whether
+ * to close the circuit again.
+ *
+ * <p>
+ * A rejected request fails with {@link CircuitBreakerOpenException} without being sent. The interceptor
+ * must come after the {@link RetryInterceptor} in the pipeline so that it sees every attempt, which is
+ * the case when it is configured through
+ * {@link com.azure.android.core.http.ServiceClient.Builder#setCircuitBreakerOptions(CircuitBreakerOptions)}.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    // the value returned by HostCircuit.tryAcquire when the request is permitted.
+    private static final long PERMITTED = -1;
+    // the wait hinted to requests rejected while the probe request of a half-open circuit is in flight.
+    private static final long PROBE_WAIT_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final RetryBudget retryBudget;
+    private final Ticker ticker;
+    private final ConcurrentMap<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates {@link CircuitBreakerInterceptor} with the default {@link CircuitBreakerOptions}.
+     */
+    public CircuitBreakerInterceptor() {
+        this(new CircuitBreakerOptions());
+    }
+
+    /**
+     * Creates {@link CircuitBreakerInterceptor} with the provided {@link CircuitBreakerOptions}.
+     *
+     * @param options The options for the retry budget and the circuit breaker.
+     */
+    public CircuitBreakerInterceptor(@NonNull CircuitBreakerOptions options) {
+        this(options, System::nanoTime);
+    }
+
+    /**
+     * Creates {@link CircuitBreakerInterceptor} with the provided {@link CircuitBreakerOptions} and time source.
+     *
+     * @param options The options for the retry budget and the circuit breaker.
+     * @param ticker The source of the monotonic time.
+     */
+    CircuitBreakerInterceptor(@NonNull CircuitBreakerOptions options, @NonNull Ticker ticker) {
+        Objects.requireNonNull(options, "'options' cannot be null.");
+        this.failureThreshold = options.getFailureThreshold();
+        this.openDurationNanos = options.getOpenDuration().toNanos();
+        this.retryBudget = new RetryBudget((int) options.getBudgetWindow().getSeconds(),
+            options.getRetryBudgetRatio(),
+            options.getMinRetriesPerSecond());
+        this.ticker = Objects.requireNonNull(ticker, "'ticker' cannot be null.");
+    }
+
+    /**
+     * Intercept the current request in the pipeline, reject it if the circuit of the host is open or if it is a
+     * retry exceeding the retry budget, otherwise send it and record its outcome.
+     *
+     * @param chain Provide access to the request to send.
+     *
+     * @return Response from the next interceptor in the pipeline.
+     * @throws IOException If the request is rejected, with {@link CircuitBreakerOpenException}, or if an IO error
+     * occurs while processing the request and response.
+     */
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final String host = getHostKey(request.url());
+        final HostCircuit circuit = this.getCircuit(host);
+
+        final long waitNanos = circuit.tryAcquire(this.ticker.nanoTime(), this.openDurationNanos);
+        if (waitNanos != PERMITTED) {
+            throw new CircuitBreakerOpenException("The circuit for the host '" + host + "' is open.",
+                host,
+                Duration.ofNanos(waitNanos),
+                false);
+        }
+
+        if (RetryInterceptor.getRetryAttempt(request) > 0) {
+            if (!this.retryBudget.tryWithdraw(this.ticker.nanoTime())) {
+                circuit.onAbandoned();
+                throw new CircuitBreakerOpenException("The retry budget is exhausted.",
+                    host,
+                    Duration.ofNanos(NANOS_PER_SECOND),
+                    true);
+            }
+        } else {
+            this.retryBudget.deposit(this.ticker.nanoTime());
+        }
+
+        final Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            if (chain.call().isCanceled()) {
+                circuit.onAbandoned();
+            } else {
+                circuit.onFailure(this.ticker.nanoTime(), this.failureThreshold);
+            }
+            throw e;
+        }
+
+        if (isFailure(response.code())) {
+            circuit.onFailure(this.ticker.nanoTime(), this.failureThreshold);
+        } else {
+            circuit.onSuccess();
+        }
+        return response;
+    }
+
+    private HostCircuit getCircuit(String host) {
+        HostCircuit circuit = this.circuits.get(host);
+        if (circuit == null) {
+            final HostCircuit newCircuit = new HostCircuit();
+            circuit = this.circuits.putIfAbsent(host, newCircuit);
+            if (circuit == null) {
+                circuit = newCircuit;
+            }
+        }
+        return circuit;
+    }
+
+    private static String getHostKey(HttpUrl url) {
+        return url.host() + ":" + url.port();
+    }
+
+    /**
+     * Determines whether a response status code indicates the host is failing.
+     *
+     * @param code The HTTP response status code.
+     * @return True if the host is failing.
+     */
+    private static boolean isFailure(int code) {
+        return code == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+            || code == 429 // too many requests
+            || code == HttpURLConnection.HTTP_INTERNAL_ERROR
+            || code == HttpURLConnection.HTTP_BAD_GATEWAY
+            || code == HttpURLConnection.HTTP_UNAVAILABLE
+            || code == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * The source of the monotonic time in nanoseconds.
+     */
+    interface Ticker {
+        /**
+         * @return The current time in nanoseconds.
+         */
+        long nanoTime();
+    }
+
+    /**
+     * The circuit breaker state of a host.
+     */
+    private static final class HostCircuit {
+        private static final int CLOSED = 0;
+        private static final int OPEN = 1;
+        private static final int HALF_OPEN = 2;
+
+        private int state = CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private boolean probeInFlight;
+
+        /**
+         * Try to acquire the permission to send a request to the host.
+         *
+         * @param nowNanos The current time.
+         * @param openDurationNanos The duration the circuit stays open.
+         * @return {@link #PERMITTED} if the request can be sent, otherwise the duration to wait in nanoseconds.
+         */
+        synchronized long tryAcquire(long nowNanos, long openDurationNanos) {
+            if (this.state == OPEN) {
+                final long elapsedNanos = nowNanos - this.openedAtNanos;
+                if (elapsedNanos < openDurationNanos) {
+                    return openDurationNanos - elapsedNanos;
+                }
+                this.state = HALF_OPEN;
+                this.probeInFlight = false;
+            }
+            if (this.state == HALF_OPEN) {
+                if (this.probeInFlight) {
+                    return PROBE_WAIT_NANOS;
+                }
+                this.probeInFlight = true;
+            }
+            return PERMITTED;
+        }
+
+        /**
+         * Record a successful request, which closes the circuit.
+         */
+        synchronized void onSuccess() {
+            this.state = CLOSED;
+            this.consecutiveFailures = 0;
+            this.probeInFlight = false;
+        }
+
+        /**
+         * Record a failed request, which opens the circuit if the probe failed or if the failure threshold
+         * is reached.
+         *
+         * @param nowNanos The current time.
+         * @param failureThreshold The number of consecutive failures that opens the circuit.
+         */
+        synchronized void onFailure(long nowNanos, int failureThreshold) {
+            if (this.state == HALF_OPEN
+                || (this.state == CLOSED && ++this.consecutiveFailures >= failureThreshold)) {
+                this.state = OPEN;
+                this.openedAtNanos = nowNanos;
+                this.consecutiveFailures = 0;
+                this.probeInFlight = false;
+            }
+            // Otherwise the circuit is already open, the request was sent before it opened.
+        }
+
+        /**
+         * Record a permitted request that was not completed (e.g. cancelled), so that another request can
+         * probe a half-open circuit.
+         */
+        synchronized void onAbandoned() {
+            if (this.state == HALF_OPEN) {
+                this.probeInFlight = false;
+            }
+        }
+    }
+
+    /**
+     * The retry budget, counting the requests and retries in one second buckets over a sliding window.
+     */
+    private static final class RetryBudget {
+        private final int windowSeconds;
+        private final double ratio;
+        private final int minRetriesPerSecond;
+        private final long[] bucketSeconds;
+        private final long[] requests;
+        private final long[] retries;
+
+        RetryBudget(int windowSeconds, double ratio, int minRetriesPerSecond) {
+            this.windowSeconds = windowSeconds;
+            this.ratio = ratio;
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            this.bucketSeconds = new long[windowSeconds];
+            this.requests = new long[windowSeconds];
+            this.retries = new long[windowSeconds];
+            for (int i = 0; i < windowSeconds; i++) {
+                this.bucketSeconds[i] = Long.MIN_VALUE;
+            }
+        }
+
+        /**
+         * Record a first attempt of a request.
+         *
+         * @param nowNanos The current time.
+         */
+        synchronized void deposit(long nowNanos) {
+            this.requests[this.bucket(nowNanos)]++;
+        }
+
+        /**
+         * Try to record a retry, if it is within the budget.
+         *
+         * @param nowNanos The current time.
+         * @return True if the retry is within the budget.
+         */
+        synchronized boolean tryWithdraw(long nowNanos) {
+            final int bucket = this.bucket(nowNanos);
+            final long currentSecond = this.bucketSeconds[bucket];
+            long requestsInWindow = 0;
+            long retriesInWindow = 0;
+            for (int i = 0; i < this.windowSeconds; i++) {
+                if (this.bucketSeconds[i] > currentSecond - this.windowSeconds) {
+                    requestsInWindow += this.requests[i];
+                    retriesInWindow += this.retries[i];
+                }
+            }
+            final double allowedRetries = (double) this.minRetriesPerSecond * this.windowSeconds
+                + this.ratio * requestsInWindow;
+            if (retriesInWindow + 1 > allowedRetries) {
+                return false;
+            }
+            this.retries[bucket]++;
+            return true;
+        }
+
+        /**
+         * Get the bucket for the current second, resetting it if it holds the counts of an older second.
+         *
+         * @param nowNanos The current time.
+         * @return The bucket index.
+         */
+        private int bucket(long nowNanos) {
+            final long second = nowNanos / NANOS_PER_SECOND;
+            final int bucket = (int) (((second % this.windowSeconds) + this.windowSeconds) % this.windowSeconds);
+            if (this.bucketSeconds[bucket] != second) {
+                this.bucketSeconds[bucket] = second;
+                this.requests[bucket] = 0;
+                this.retries[bucket] = 0;
+            }
+            return bucket;
+        }
+    }
+}
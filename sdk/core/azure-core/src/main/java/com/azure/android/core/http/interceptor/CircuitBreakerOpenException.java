@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown by {@link CircuitBreakerInterceptor} when a request is rejected without being sent, either
+ * because the circuit of the host is open or because the retry budget of the client is exhausted.
+ *
+ * <p>
+ * Both indicate an ongoing outage, callers should back off for at least {@link #getRetryAfter()} rather than
+ * retrying right away.
+ */
+public class CircuitBreakerOpenException extends IOException {
+    private final String host;
+    private final Duration retryAfter;
+    private final boolean retryBudgetExhausted;
+
+    /**
+     * Creates {@link CircuitBreakerOpenException}.
+     *
+     * @param message The exception message.
+     * @param host The host the request was sent to.
+     * @param retryAfter The minimum duration to wait before sending a request to the host.
+     * @param retryBudgetExhausted Whether the request is a retry rejected by the retry budget.
+     */
+    public CircuitBreakerOpenException(String message,
+                                       String host,
+                                       Duration retryAfter,
+                                       boolean retryBudgetExhausted) {
+        super(message);
+        this.host = host;
+        this.retryAfter = retryAfter;
+        this.retryBudgetExhausted = retryBudgetExhausted;
+    }
+
+    /**
+     * @return The host the request was sent to.
+     */
+    public String getHost() {
+        return this.host;
+    }
+
+    /**
+     * @return The minimum duration to wait before sending a request to the host.
+     */
+    public Duration getRetryAfter() {
+        return this.retryAfter;
+    }
+
+    /**
+     * @return true if the request is a retry rejected by the retry budget, false if the circuit of the
+     * host is open.
+     */
+    public boolean isRetryBudgetExhausted() {
+        return this.retryBudgetExhausted;
+    }
+}
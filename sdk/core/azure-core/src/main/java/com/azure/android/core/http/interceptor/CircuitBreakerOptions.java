@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+
+/**
+ * The configuration options for the retry budget and the per host circuit breaker applied by
+ * {@link CircuitBreakerInterceptor}.
+ */
+public class CircuitBreakerOptions {
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    private static final double DEFAULT_RETRY_BUDGET_RATIO = 0.2;
+    private static final int DEFAULT_MIN_RETRIES_PER_SECOND = 1;
+    private static final Duration DEFAULT_BUDGET_WINDOW = Duration.ofSeconds(10);
+
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private Duration openDuration = DEFAULT_OPEN_DURATION;
+    private double retryBudgetRatio = DEFAULT_RETRY_BUDGET_RATIO;
+    private int minRetriesPerSecond = DEFAULT_MIN_RETRIES_PER_SECOND;
+    private Duration budgetWindow = DEFAULT_BUDGET_WINDOW;
+
+    /**
+     * Creates a new instance with the default options.
+     *
+     * <p>
+     * By default the circuit of a host opens after 5 consecutive failures and stays open for 30 seconds,
+     * retries are limited to 20% of the requests over the last 10 seconds, plus 1 retry per second.
+     */
+    public CircuitBreakerOptions() {
+    }
+
+    /**
+     * Gets the number of consecutive failed requests to a host that opens the circuit of the host.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return this.failureThreshold;
+    }
+
+    /**
+     * Sets the number of consecutive failed requests to a host that opens the circuit of the host.
+     *
+     * @param failureThreshold The failure threshold.
+     * @return The updated {@link CircuitBreakerOptions} object.
+     */
+    public CircuitBreakerOptions setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("'failureThreshold' cannot be less than 1.");
+        }
+        this.failureThreshold = failureThreshold;
+
+        return this;
+    }
+
+    /**
+     * Gets the duration the circuit of a host stays open before a probe request is allowed.
+     *
+     * @return The open duration.
+     */
+    public Duration getOpenDuration() {
+        return this.openDuration;
+    }
+
+    /**
+     * Sets the duration the circuit of a host stays open before a probe request is allowed.
+     *
+     * @param openDuration The open duration.
+     * @return The updated {@link CircuitBreakerOptions} object.
+     */
+    public CircuitBreakerOptions setOpenDuration(Duration openDuration) {
+        Objects.requireNonNull(openDuration, "'openDuration' cannot be null.");
+        if (openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("'openDuration' must be positive.");
+        }
+        this.openDuration = openDuration;
+
+        return this;
+    }
+
+    /**
+     * Gets the ratio of retries to requests allowed over the budget window.
+     *
+     * @return The retry budget ratio.
+     */
+    public double getRetryBudgetRatio() {
+        return this.retryBudgetRatio;
+    }
+
+    /**
+     * Sets the ratio of retries to requests allowed over the budget window, e.g. 0.2 allows 2 retries for
+     * every 10 requests.
+     *
+     * @param retryBudgetRatio The retry budget ratio.
+     * @return The updated {@link CircuitBreakerOptions} object.
+     */
+    public CircuitBreakerOptions setRetryBudgetRatio(double retryBudgetRatio) {
+        if (retryBudgetRatio < 0) {
+            throw new IllegalArgumentException("'retryBudgetRatio' cannot be less than 0.");
+        }
+        this.retryBudgetRatio = retryBudgetRatio;
+
+        return this;
+    }
+
+    /**
+     * Gets the number of retries per second always allowed, regardless of the request volume.
+     *
+     * @return The minimum retries per second.
+     */
+    public int getMinRetriesPerSecond() {
+        return this.minRetriesPerSecond;
+    }
+
+    /**
+     * Sets the number of retries per second always allowed, regardless of the request volume, so that a
+     * client sending few requests can still retry.
+     *
+     * @param minRetriesPerSecond The minimum retries per second.
+     * @return The updated {@link CircuitBreakerOptions} object.
+     */
+    public CircuitBreakerOptions setMinRetriesPerSecond(int minRetriesPerSecond) {
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("'minRetriesPerSecond' cannot be less than 0.");
+        }
+        this.minRetriesPerSecond = minRetriesPerSecond;
+
+        return this;
+    }
+
+    /**
+     * Gets the window over which the requests and retries are counted for the retry budget.
+     *
+     * @return The budget window.
+     */
+    public Duration getBudgetWindow() {
+        return this.budgetWindow;
+    }
+
+    /**
+     * Sets the window over which the requests and retries are counted for the retry budget, the window
+     * has a granularity of one second.
+     *
+     * @param budgetWindow The budget window.
+     * @return The updated {@link CircuitBreakerOptions} object.
+     */
+    public CircuitBreakerOptions setBudgetWindow(Duration budgetWindow) {
+        Objects.requireNonNull(budgetWindow, "'budgetWindow' cannot be null.");
+        if (budgetWindow.getSeconds() < 1) {
+            throw new IllegalArgumentException("'budgetWindow' cannot be less than 1 second.");
+        }
+        this.budgetWindow = budgetWindow;
+
+        return this;
+    }
+}
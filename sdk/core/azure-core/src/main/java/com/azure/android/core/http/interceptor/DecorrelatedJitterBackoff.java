@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Response;
+
+/**
+ * The retry strategy with decorrelated jitter backoff.
+ *
+ * <p>
+ * The delay before a retry is a random duration between the base delay and three times the previous delay,
+ * capped to the maximum delay. Each delay depends on the previous random one rather than on the retry attempt,
+ * so the retries of clients that failed at the same time drift apart from each other with every attempt.
+ */
+public final class DecorrelatedJitterBackoff implements RetryStrategy {
+    private static final int GROWTH_FACTOR = 3;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(800);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(8);
+
+    private final int maxRetries;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Random random;
+
+    /**
+     * Creates {@link DecorrelatedJitterBackoff} retry strategy with default settings.
+     *
+     * <p>
+     * The default maximum number of times to retry is 3, the default base delay
+     * is 800 milliseconds and default maximum backoff delay before a retry is 8 seconds.
+     */
+    public DecorrelatedJitterBackoff() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Creates {@link DecorrelatedJitterBackoff} retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The minimum backoff delay before a retry.
+     * @param maxDelay The maximum backoff delay before a retry.
+     */
+    public DecorrelatedJitterBackoff(int maxRetries, Duration baseDelay, Duration maxDelay) {
+        this(maxRetries, baseDelay, maxDelay, null);
+    }
+
+    /**
+     * Creates {@link DecorrelatedJitterBackoff} retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The minimum backoff delay before a retry.
+     * @param maxDelay The maximum backoff delay before a retry.
+     * @param random The source of the jitter, null to use {@link ThreadLocalRandom}.
+     */
+    DecorrelatedJitterBackoff(int maxRetries, Duration baseDelay, Duration maxDelay, Random random) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("'maxRetries' cannot be less than 0.");
+        }
+        Objects.requireNonNull(baseDelay, "'baseDelay' cannot be null.");
+        Objects.requireNonNull(maxDelay, "'maxDelay' cannot be null.");
+
+        if (baseDelay.isZero()) {
+            throw new IllegalArgumentException("'baseDelay' cannot be 0.");
+        }
+
+        if (baseDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("'baseDelay' cannot be greater than 'maxDelay'.");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.random = random;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    @Override
+    public Duration getMinDelay() {
+        return this.baseDelay;
+    }
+
+    @Override
+    public Duration getMaxDelay() {
+        return this.maxDelay;
+    }
+
+    /**
+     * Determines the delay duration that should be waited before retrying, as if no retry was made so far.
+     *
+     * @param response The HTTP response.
+     * @param exception The pipeline exception, if any.
+     * @param retryAttempts The number of retry attempts so far made.
+     * @return The delay duration.
+     */
+    @Override
+    public Duration calculateRetryDelay(Response response, Exception exception, int retryAttempts) {
+        return this.calculateRetryDelay(response, exception, retryAttempts, null);
+    }
+
+    @Override
+    public Duration calculateRetryDelay(Response response,
+                                        Exception exception,
+                                        int retryAttempts,
+                                        Duration previousDelay) {
+        final long baseDelayNanos = this.baseDelay.toNanos();
+        final long maxDelayNanos = this.maxDelay.toNanos();
+        final long previousDelayNanos = previousDelay == null
+            ? baseDelayNanos
+            : Math.max(baseDelayNanos, previousDelay.toNanos());
+        final long upperNanos = previousDelayNanos > maxDelayNanos / GROWTH_FACTOR
+            ? maxDelayNanos
+            : previousDelayNanos * GROWTH_FACTOR;
+        final Random random = this.random != null ? this.random : ThreadLocalRandom.current();
+        final long delayNanos = baseDelayNanos + (long) (random.nextDouble() * (upperNanos - baseDelayNanos));
+        return Duration.ofNanos(Math.min(delayNanos, maxDelayNanos));
+    }
+}
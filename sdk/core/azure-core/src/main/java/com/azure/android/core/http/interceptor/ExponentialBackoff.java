@@ -11,7 +11,11 @@ import java.util.concurrent.ThreadLocalRandom;
 import okhttp3.Response;
 
 /**
- * The retry strategy with full jitter backoff.
+ * The retry strategy with exponential backoff and a small jitter.
+ *
+ * <p>
+ * The jitter is within 5% of the delay, so clients that failed at the same time retry at nearly the same
+ * time, {@link FullJitterBackoff} or {@link DecorrelatedJitterBackoff} spread the retries better.
  */
 public final class ExponentialBackoff implements RetryStrategy {
     private static final double JITTER_FACTOR = 0.05;
@@ -66,6 +70,11 @@ public final class ExponentialBackoff implements RetryStrategy {
         return this.maxRetries;
     }
 
+    @Override
+    public Duration getMaxDelay() {
+        return this.maxDelay;
+    }
+
     @Override
     public Duration calculateRetryDelay(Response response, Exception exception, int retryAttempts) {
         long delayWithJitterInNanos = ThreadLocalRandom.current()
@@ -0,0 +1,102 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Response;
+
+/**
+ * The retry strategy with full jitter exponential backoff.
+ *
+ * <p>
+ * The delay before a retry is a random duration between 0 and the exponential backoff delay
+ * {@code min(maxDelay, baseDelay * 2^retryAttempts)}, so the retries of clients that failed at the same time
+ * (e.g. after an outage) are spread over the whole backoff window instead of hitting the service together.
+ */
+public final class FullJitterBackoff implements RetryStrategy {
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(800);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(8);
+
+    private final int maxRetries;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Random random;
+
+    /**
+     * Creates {@link FullJitterBackoff} retry strategy with default settings.
+     *
+     * <p>
+     * The default maximum number of times to retry is 3, the default base delay
+     * is 800 milliseconds and default maximum backoff delay before a retry is 8 seconds.
+     */
+    public FullJitterBackoff() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Creates {@link FullJitterBackoff} retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The delay used as the coefficient for backoffs, also the upper bound of the first backoff.
+     * @param maxDelay The maximum backoff delay before a retry.
+     */
+    public FullJitterBackoff(int maxRetries, Duration baseDelay, Duration maxDelay) {
+        this(maxRetries, baseDelay, maxDelay, null);
+    }
+
+    /**
+     * Creates {@link FullJitterBackoff} retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The delay used as the coefficient for backoffs, also the upper bound of the first backoff.
+     * @param maxDelay The maximum backoff delay before a retry.
+     * @param random The source of the jitter, null to use {@link ThreadLocalRandom}.
+     */
+    FullJitterBackoff(int maxRetries, Duration baseDelay, Duration maxDelay, Random random) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("'maxRetries' cannot be less than 0.");
+        }
+        Objects.requireNonNull(baseDelay, "'baseDelay' cannot be null.");
+        Objects.requireNonNull(maxDelay, "'maxDelay' cannot be null.");
+
+        if (baseDelay.isZero()) {
+            throw new IllegalArgumentException("'baseDelay' cannot be 0.");
+        }
+
+        if (baseDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("'baseDelay' cannot be greater than 'maxDelay'.");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.random = random;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    @Override
+    public Duration getMaxDelay() {
+        return this.maxDelay;
+    }
+
+    @Override
+    public Duration calculateRetryDelay(Response response, Exception exception, int retryAttempts) {
+        final long maxDelayNanos = this.maxDelay.toNanos();
+        final long baseDelayNanos = this.baseDelay.toNanos();
+        final long ceilingNanos = (retryAttempts >= Long.SIZE - 1 || baseDelayNanos > (maxDelayNanos >> retryAttempts))
+            ? maxDelayNanos
+            : baseDelayNanos << retryAttempts;
+        final Random random = this.random != null ? this.random : ThreadLocalRandom.current();
+        return Duration.ofNanos((long) (random.nextDouble() * ceilingNanos));
+    }
+}
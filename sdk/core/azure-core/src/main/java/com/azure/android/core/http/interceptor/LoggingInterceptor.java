@@ -74,6 +74,9 @@ public final class LoggingInterceptor implements Interceptor {
 
     /**
      * Intercept and log a request-response pair in the pipeline.
+     * <p>
+     * When the logger is at the WARNING level or above, only the failures are logged and nothing is prepared for
+     * the other messages, so that disabled logging costs next to nothing.
      *
      * @param chain Provide access to the request and response to log.
      *
@@ -84,17 +87,23 @@ public final class LoggingInterceptor implements Interceptor {
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
         Request request = chain.request();
+        // Read the level once, so that a request-response pair is logged consistently.
+        final int logLevel = logger.getLogLevel();
+
+        if (!isLogLevelEnabled(ClientLogger.LOG_LEVEL_INFO, logLevel)) {
+            return interceptFailuresOnly(chain, request, logLevel);
+        }
+
+        final boolean isDebugEnabled = isLogLevelEnabled(ClientLogger.LOG_LEVEL_DEBUG, logLevel);
 
         try {
-            logRequest(request);
+            Request loggedRequest = logRequest(request, isDebugEnabled);
 
             long startNs = System.nanoTime();
-            Response response = chain.proceed(request);
+            Response response = chain.proceed(loggedRequest);
             long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
 
-            logResponse(response, tookMs);
-
-            return response;
+            return logResponse(response, tookMs, isDebugEnabled);
         } catch (Exception e) {
             logger.warning("OPERATION FAILED: ", e);
             logger.info("<-- [END" + request.header(HttpHeader.CLIENT_REQUEST_ID) + "]");
@@ -103,49 +112,109 @@ public final class LoggingInterceptor implements Interceptor {
         }
     }
 
+    /**
+     * Proceed with the request, logging only the failed operations and the error responses.
+     *
+     * @param chain Provide access to the request and response to log.
+     * @param request The HTTP request being sent to Azure.
+     * @param logLevel The log level of the logger.
+     *
+     * @return Response from the next interceptor in the pipeline.
+     * @throws IOException If an IO error occurs while processing the request and response.
+     */
+    private Response interceptFailuresOnly(Chain chain, Request request, int logLevel) throws IOException {
+        if (!isLogLevelEnabled(ClientLogger.LOG_LEVEL_WARNING, logLevel)) {
+            return chain.proceed(request);
+        }
+
+        final Response response;
+
+        try {
+            response = chain.proceed(request);
+        } catch (Exception e) {
+            logger.warning("OPERATION FAILED: ", e);
+
+            throw e;
+        }
+
+        if (response.code() >= 400) {
+            logger.warning(response.code() + " " + response.message());
+        }
+
+        return response;
+    }
+
+    /**
+     * Checks whether the messages of a log level are logged.
+     *
+     * @param messageLogLevel The log level of the messages.
+     * @param logLevel The log level of the logger.
+     * @return True if the messages are logged.
+     */
+    private static boolean isLogLevelEnabled(int messageLogLevel, int logLevel) {
+        return messageLogLevel >= logLevel;
+    }
+
     /**
      * Logs the HTTP request.
+     * <p>
+     * A body to log is teed as it is written to the network rather than read ahead, and the request is logged as
+     * complete once the body is written.
      *
      * @param request The HTTP request being sent to Azure.
+     * @param isDebugEnabled Whether the headers and the body are logged.
+     * @return The request to send, with its body teed if it is logged.
      */
-    private void logRequest(final Request request) throws IOException {
+    private Request logRequest(final Request request, boolean isDebugEnabled) {
         HttpUrl url = request.url();
+        String requestId = request.header(HttpHeader.CLIENT_REQUEST_ID);
 
-        logger.info("--> [" + request.header(HttpHeader.CLIENT_REQUEST_ID) + "]"); // Request ID
+        logger.info("--> [" + requestId + "]"); // Request ID
         logger.info(request.method() + " " + url.encodedPath() + getRedactedQueryString(url)); // URL path + query
         logger.info("Host: " + url.scheme() + "://" + url.host()); // URL host
 
-        // TODO: Add log level guard for headers and body.
-        RequestBody requestBody = request.body();
-        String contentType = HttpUtil.getContentType(request);
-        Long contentLength = HttpUtil.getContentLength(request);
-
-        logHeaders(request.headers(), contentType, contentLength);
-
-        String bodySummary = getBodySummary(request.headers(), contentType, contentLength);
-        if (bodySummary != null) {
-            logger.debug(bodySummary);
-        } else if (requestBody != null) {
-            try {
-                logger.debug(HttpUtil.getBodyAsString(requestBody));
-            } catch (IOException e) {
-                logger.warning("Could not log the request body", e);
+        if (isDebugEnabled) {
+            RequestBody requestBody = request.body();
+            String contentType = HttpUtil.getContentType(request);
+            Long contentLength = HttpUtil.getContentLength(request);
+
+            logHeaders(request.headers(), contentType, contentLength);
+
+            String bodySummary = getBodySummary(request.headers(), contentType, contentLength);
+            if (bodySummary != null) {
+                logger.debug(bodySummary);
+            } else if (requestBody != null) {
+                RequestBody teedBody = LoggingTee.tee(requestBody, MAX_BODY_LOG_SIZE, loggedBody -> {
+                    logger.debug(loggedBody);
+                    logger.info("--> [END " + requestId + "]");
+                });
+
+                return request.newBuilder().method(request.method(), teedBody).build();
+            } else {
+                logger.debug("(empty body)");
             }
-        } else {
-            logger.debug("(empty body)");
         }
 
-        logger.info("--> [END " + request.header(HttpHeader.CLIENT_REQUEST_ID) + "]");
+        logger.info("--> [END " + requestId + "]");
+
+        return request;
     }
 
     /**
      * Logs the HTTP response.
+     * <p>
+     * A body to log is teed as the caller consumes it rather than read ahead, and the response is logged as complete
+     * once the body is consumed or closed.
      *
      * @param response The HTTP response received form Azure.
      * @param tookMs   Nanosecond representation of when the request was sent.
+     * @param isDebugEnabled Whether the headers and the body are logged.
+     * @return The response to return, with its body teed if it is logged.
      */
-    private void logResponse(final Response response, long tookMs) {
-        logger.info("<-- [" + response.header(HttpHeader.CLIENT_REQUEST_ID) + "] " + "(" + tookMs + ")");
+    private Response logResponse(final Response response, long tookMs, boolean isDebugEnabled) {
+        String requestId = response.header(HttpHeader.CLIENT_REQUEST_ID);
+
+        logger.info("<-- [" + requestId + "] " + "(" + tookMs + ")");
 
         if (response.code() < 400) {
             logger.info(response.code() + " " + response.message());
@@ -153,27 +222,31 @@ public final class LoggingInterceptor implements Interceptor {
             logger.warning(response.code() + " " + response.message());
         }
 
-        // TODO: Add log level guard for headers and body.
-        ResponseBody responseBody = response.body();
-        String contentType = HttpUtil.getContentType(response);
-        Long contentLength = HttpUtil.getContentLength(response);
-
-        logHeaders(response.headers(), contentType, contentLength);
-
-        String bodySummary = getBodySummary(response.headers(), contentType, contentLength);
-        if (bodySummary != null) {
-            logger.debug(bodySummary);
-        } else if (responseBody != null) {
-            try {
-                logger.debug(HttpUtil.getBodyAsString(responseBody));
-            } catch (IOException e) {
-                logger.warning("Could not log the response body", e);
+        if (isDebugEnabled) {
+            ResponseBody responseBody = response.body();
+            String contentType = HttpUtil.getContentType(response);
+            Long contentLength = HttpUtil.getContentLength(response);
+
+            logHeaders(response.headers(), contentType, contentLength);
+
+            String bodySummary = getBodySummary(response.headers(), contentType, contentLength);
+            if (bodySummary != null) {
+                logger.debug(bodySummary);
+            } else if (responseBody != null) {
+                ResponseBody teedBody = LoggingTee.tee(responseBody, MAX_BODY_LOG_SIZE, loggedBody -> {
+                    logger.debug(loggedBody);
+                    logger.info("<-- [END " + requestId + "]");
+                });
+
+                return response.newBuilder().body(teedBody).build();
+            } else {
+                logger.debug("(empty body)");
             }
-        } else {
-            logger.debug("(empty body)");
         }
 
-        logger.info("<-- [END " + response.header(HttpHeader.CLIENT_REQUEST_ID) + "]");
+        logger.info("<-- [END " + requestId + "]");
+
+        return response;
     }
 
     /**
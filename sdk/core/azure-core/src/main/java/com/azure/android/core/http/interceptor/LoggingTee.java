@@ -0,0 +1,210 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Tees request and response bodies into a capped capture buffer as they stream through to their consumer, so that
+ * they can be logged without being read in memory ahead of the consumer.
+ * <p>
+ * Only the first bytes of a body are kept, the rest of it goes through untouched. The captured text is handed to a
+ * {@link Listener} once the body is completely written, for a request, or consumed or closed, for a response.
+ */
+final class LoggingTee {
+    private LoggingTee() {
+        // Empty constructor to prevent instantiation of this class.
+    }
+
+    /**
+     * Listener notified when a teed body has streamed through.
+     */
+    interface Listener {
+        /**
+         * Called once the body has streamed through.
+         *
+         * @param loggedBody The captured text of the body, truncated if it exceeds the capture limit.
+         */
+        void onBodyStreamed(String loggedBody);
+    }
+
+    /**
+     * Tee a request body.
+     *
+     * @param body The request body.
+     * @param maxCapturedBytes The maximum number of bytes to capture.
+     * @param listener The listener notified each time the body is written.
+     * @return The teed request body.
+     */
+    static RequestBody tee(RequestBody body, long maxCapturedBytes, Listener listener) {
+        return new TeeRequestBody(body, maxCapturedBytes, listener);
+    }
+
+    /**
+     * Tee a response body.
+     *
+     * @param body The response body.
+     * @param maxCapturedBytes The maximum number of bytes to capture.
+     * @param listener The listener notified once the body is consumed or closed.
+     * @return The teed response body.
+     */
+    static ResponseBody tee(ResponseBody body, long maxCapturedBytes, Listener listener) {
+        return new TeeResponseBody(body, maxCapturedBytes, listener);
+    }
+
+    /**
+     * The first bytes of a body, and the count of all its bytes.
+     */
+    private static final class Capture {
+        private final Buffer buffer = new Buffer();
+        private final long maxCapturedBytes;
+        private final Charset charset;
+        private long totalBytes;
+
+        Capture(long maxCapturedBytes, MediaType contentType) {
+            this.maxCapturedBytes = maxCapturedBytes;
+            final Charset charset = contentType == null ? UTF_8 : contentType.charset(UTF_8);
+            this.charset = charset == null ? UTF_8 : charset;
+        }
+
+        /**
+         * Capture bytes streaming through, without consuming them.
+         *
+         * @param source The buffer holding the bytes.
+         * @param offset The offset of the bytes in the buffer.
+         * @param byteCount The number of bytes.
+         */
+        void capture(Buffer source, long offset, long byteCount) {
+            final long capturedBytes = Math.min(byteCount, this.maxCapturedBytes - this.buffer.size());
+            if (capturedBytes > 0) {
+                source.copyTo(this.buffer, offset, capturedBytes);
+            }
+            this.totalBytes += byteCount;
+        }
+
+        String getLoggedBody() {
+            final String text = this.buffer.readString(this.charset);
+            if (this.totalBytes > this.maxCapturedBytes) {
+                return text + "... (" + this.totalBytes + "-byte body truncated)";
+            }
+            return text;
+        }
+    }
+
+    private static final class TeeRequestBody extends RequestBody {
+        private final RequestBody delegate;
+        private final long maxCapturedBytes;
+        private final Listener listener;
+
+        TeeRequestBody(RequestBody delegate, long maxCapturedBytes, Listener listener) {
+            this.delegate = delegate;
+            this.maxCapturedBytes = maxCapturedBytes;
+            this.listener = listener;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return this.delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return this.delegate.contentLength();
+        }
+
+        @Override
+        public boolean isDuplex() {
+            return this.delegate.isDuplex();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return this.delegate.isOneShot();
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            final Capture capture = new Capture(this.maxCapturedBytes, this.delegate.contentType());
+            final BufferedSink teeSink = Okio.buffer(new ForwardingSink(sink) {
+                @Override
+                public void write(@NonNull Buffer source, long byteCount) throws IOException {
+                    capture.capture(source, 0, byteCount);
+                    super.write(source, byteCount);
+                }
+            });
+            this.delegate.writeTo(teeSink);
+            // Hand the remaining bytes to the sink, which is flushed and closed by its owner.
+            teeSink.emit();
+            this.listener.onBodyStreamed(capture.getLoggedBody());
+        }
+    }
+
+    private static final class TeeResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        TeeResponseBody(ResponseBody delegate, long maxCapturedBytes, Listener listener) {
+            this.delegate = delegate;
+            final Capture capture = new Capture(maxCapturedBytes, delegate.contentType());
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                private boolean streamed;
+
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    final long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        this.onStreamed();
+                    } else {
+                        capture.capture(sink, sink.size() - read, read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    this.onStreamed();
+                    super.close();
+                }
+
+                private void onStreamed() {
+                    if (!this.streamed) {
+                        this.streamed = true;
+                        listener.onBodyStreamed(capture.getLoggedBody());
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return this.delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return this.delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            return this.source;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.http.HttpHeader;
+import com.azure.android.core.http.cache.CachedResponse;
+import com.azure.android.core.http.cache.ResponseCacheStore;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+/**
+ * Pipeline interceptor that caches the responses of read operations and revalidates them with their ETag.
+ *
+ * <p>
+ * Only the operations opted in, identified by the name of their method in the Retrofit service interface (e.g.
+ * "getBlobProperties"), are cached. A successful GET or HEAD response with an ETag is stored in the
+ * {@link ResponseCacheStore}. The next request for the same resource is sent with an If-None-Match header, and a
+ * 304 (Not Modified) response is replaced by the cached response, so the API Client deserializes the same typed
+ * result without the body being downloaded again.
+ *
+ * <p>
+ * A request already carrying an If-None-Match header is left untouched, since its caller expects the 304 response.
+ * The interceptor must come before the interceptor signing the requests, which is the case when it is configured
+ * through {@link com.azure.android.core.http.ServiceClient.Builder#setResponseCache(ResponseCacheStore, String...)}.
+ */
+public class ResponseCacheInterceptor implements Interceptor {
+    // the request headers that select a different representation of the resource.
+    private static final String[] KEY_HEADERS = { HttpHeader.API_VERSION, HttpHeader.RANGE, "x-ms-range", "Accept" };
+    private static final int HTTP_NOT_MODIFIED = 304;
+    // the 304 response headers that describe the cached body, they are not merged into the cached response.
+    private static final Set<String> BODY_HEADERS = new HashSet<>();
+
+    static {
+        BODY_HEADERS.add(HttpHeader.CONTENT_LENGTH.toLowerCase(Locale.ROOT));
+        BODY_HEADERS.add(HttpHeader.CONTENT_TYPE.toLowerCase(Locale.ROOT));
+        BODY_HEADERS.add(HttpHeader.CONTENT_ENCODING.toLowerCase(Locale.ROOT));
+        BODY_HEADERS.add("transfer-encoding");
+    }
+
+    private final ResponseCacheStore store;
+    private final Set<String> operationNames;
+
+    /**
+     * Creates {@link ResponseCacheInterceptor}.
+     *
+     * @param store The store of the cached responses.
+     * @param operationNames The names of the operations to cache.
+     */
+    public ResponseCacheInterceptor(@NonNull ResponseCacheStore store, @NonNull Collection<String> operationNames) {
+        this.store = Objects.requireNonNull(store, "'store' cannot be null.");
+        this.operationNames = new HashSet<>(Objects.requireNonNull(operationNames, "'operationNames' cannot be null."));
+    }
+
+    /**
+     * Intercept the current request in the pipeline, revalidate the cached response of an opted in operation and
+     * cache its fresh response.
+     *
+     * @param chain Provide access to the request to send.
+     *
+     * @return Response from the next interceptor in the pipeline, or the cached response if it is not modified.
+     * @throws IOException If an IO error occurs while processing the request and response.
+     */
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        if (!this.isCacheable(request)) {
+            return chain.proceed(request);
+        }
+
+        final String key = getCacheKey(request);
+        final CachedResponse cached = this.store.get(key);
+        final Response response = chain.proceed(cached == null || cached.getETag() == null
+            ? request
+            : request.newBuilder().header(HttpHeader.IF_NONE_MATCH, cached.getETag()).build());
+
+        if (response.code() == HTTP_NOT_MODIFIED && cached != null) {
+            response.close();
+            return toResponse(cached, response);
+        }
+
+        if (response.code() == HttpURLConnection.HTTP_OK && response.header(HttpHeader.ETAG) != null) {
+            final ResponseBody body = response.body();
+            final byte[] bytes = body == null ? new byte[0] : body.bytes();
+            this.store.put(key, new CachedResponse(response.code(), response.message(), response.headers(), bytes));
+            return response.newBuilder()
+                .body(ResponseBody.create(body == null ? null : body.contentType(), bytes))
+                .build();
+        }
+
+        if (response.code() == HttpURLConnection.HTTP_NOT_FOUND || response.code() == HttpURLConnection.HTTP_OK) {
+            // The resource is gone, or it no longer has an ETag to revalidate with.
+            this.store.remove(key);
+        }
+        return response;
+    }
+
+    /**
+     * Get the key a request is cached with.
+     *
+     * @param request The request.
+     * @return The cache key.
+     */
+    static String getCacheKey(Request request) {
+        final StringBuilder key = new StringBuilder(request.method()).append(' ').append(request.url());
+        for (String headerName : KEY_HEADERS) {
+            final String value = request.header(headerName);
+            if (value != null) {
+                key.append(' ').append(headerName).append('=').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    private boolean isCacheable(Request request) {
+        if (!"GET".equals(request.method()) && !"HEAD".equals(request.method())) {
+            return false;
+        }
+        if (request.header(HttpHeader.IF_NONE_MATCH) != null) {
+            return false;
+        }
+        final Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && this.operationNames.contains(invocation.method().getName());
+    }
+
+    /**
+     * Create the response returned for a 304 response from the cached response, with the headers of the 304
+     * response (e.g. Date or x-ms-request-id) replacing the cached ones.
+     */
+    private static Response toResponse(CachedResponse cached, Response notModifiedResponse) {
+        final Headers.Builder headers = cached.getHeaders().newBuilder();
+        final Headers notModifiedHeaders = notModifiedResponse.headers();
+        for (String name : notModifiedHeaders.names()) {
+            if (!BODY_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.removeAll(name);
+                for (String value : notModifiedHeaders.values(name)) {
+                    headers.add(name, value);
+                }
+            }
+        }
+        final String contentType = cached.getHeaders().get(HttpHeader.CONTENT_TYPE);
+        return notModifiedResponse.newBuilder()
+            .code(cached.getCode())
+            .message(cached.getMessage())
+            .headers(headers.build())
+            .body(ResponseBody.create(contentType == null ? null : MediaType.parse(contentType), cached.getBody()))
+            .build();
+    }
+}
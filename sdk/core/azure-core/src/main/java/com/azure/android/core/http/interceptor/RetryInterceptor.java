@@ -6,6 +6,8 @@ package com.azure.android.core.http.interceptor;
 import androidx.annotation.NonNull;
 
 import com.azure.android.core.internal.util.ExceptionUtils;
+import com.azure.android.core.internal.util.RetryScheduler;
+import com.azure.android.core.tracing.Span;
 import com.azure.android.core.util.DateTimeRfc1123;
 
 import org.threeten.bp.Duration;
@@ -20,6 +22,19 @@ import okhttp3.Response;
 
 /**
  * Pipeline interceptor that retries when a recoverable exception or HTTP error occurs.
+ *
+ * <p>
+ * A synchronous call is retried in place, the calling thread sleeps during the backoff. For a call
+ * enqueued through {@link RetryScheduler}, the backoff is not spent on the OkHttp dispatcher thread,
+ * instead the attempt fails with {@link RetryScheduler.DeferredRetryException} and the retry is
+ * re-enqueued once the delay elapses.
+ *
+ * <p>
+ * The deferral is an {@link IOException} thrown through the interceptors added before this one and reported
+ * to the OkHttp {@link okhttp3.EventListener#callFailed(okhttp3.Call, IOException)}, but it is not a failure
+ * of the operation: the callback is only notified once the retries complete. A custom interceptor or event
+ * listener recording failures should rethrow or ignore {@link RetryScheduler.DeferredRetryException}, as
+ * {@link TracingInterceptor} and {@link com.azure.android.core.metrics.MetricsEventListener} do.
  */
 public class RetryInterceptor implements Interceptor {
     private final RetryStrategy retryStrategy;
@@ -45,7 +60,7 @@ public class RetryInterceptor implements Interceptor {
     }
 
     /**
-     * Get an instance of {@link RetryInterceptor} that uses a default full jitter backoff
+     * Get an instance of {@link RetryInterceptor} that uses a default exponential backoff
      * retry strategy.
      *
      * <p>
@@ -59,7 +74,7 @@ public class RetryInterceptor implements Interceptor {
     }
 
     /**
-     * Get an instance of {@link RetryInterceptor} that uses full jitter backoff retry strategy.
+     * Get an instance of {@link RetryInterceptor} that uses exponential backoff retry strategy.
      *
      * @param maxRetries The maximum number of times to retry.
      * @param baseDelay The delay used as the coefficient for backoffs, also baseDelay will be the first backoff delay.
@@ -70,6 +85,32 @@ public class RetryInterceptor implements Interceptor {
         return new RetryInterceptor(new ExponentialBackoff(maxRetries, baseDelay, maxDelay));
     }
 
+    /**
+     * Get an instance of {@link RetryInterceptor} that uses full jitter backoff retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The delay used as the coefficient for backoffs, also the upper bound of the first backoff.
+     * @param maxDelay The maximum backoff delay before a retry.
+     * @return The retry interceptor.
+     */
+    public static RetryInterceptor withFullJitterBackoff(int maxRetries, Duration baseDelay, Duration maxDelay) {
+        return new RetryInterceptor(new FullJitterBackoff(maxRetries, baseDelay, maxDelay));
+    }
+
+    /**
+     * Get an instance of {@link RetryInterceptor} that uses decorrelated jitter backoff retry strategy.
+     *
+     * @param maxRetries The maximum number of times to retry.
+     * @param baseDelay The minimum backoff delay before a retry.
+     * @param maxDelay The maximum backoff delay before a retry.
+     * @return The retry interceptor.
+     */
+    public static RetryInterceptor withDecorrelatedJitterBackoff(int maxRetries,
+                                                                 Duration baseDelay,
+                                                                 Duration maxDelay) {
+        return new RetryInterceptor(new DecorrelatedJitterBackoff(maxRetries, baseDelay, maxDelay));
+    }
+
     /**
      * Intercepts any exception in the pipeline or the HTTP response error and, if recoverable, retries sending the request.
 
@@ -84,7 +125,10 @@ public class RetryInterceptor implements Interceptor {
     public Response intercept(Chain chain) throws IOException {
         final Request request = chain.request();
 
-        int retryAttempts = 0;
+        final int priorRetryAttempts = RetryScheduler.getPriorRetryAttempts(chain.call());
+        final boolean deferRetry = priorRetryAttempts >= 0;
+        int retryAttempts = deferRetry ? priorRetryAttempts : 0;
+        Duration previousDelay = deferRetry ? RetryScheduler.getPriorRetryDelay(chain.call()) : null;
         final int maxRetries = this.retryStrategy.getMaxRetries();
         do {
 
@@ -95,12 +139,23 @@ public class RetryInterceptor implements Interceptor {
 
             Response response = null;
             Exception exception = null;
+            Request attemptRequest = retryAttempts == 0
+                ? request
+                : request.newBuilder().tag(RetryAttempt.class, new RetryAttempt(retryAttempts)).build();
+            // Trace the attempt in a child span of the operation span, if the operation is traced.
+            final Span attemptSpan = TracingInterceptor.startAttemptSpan(attemptRequest, retryAttempts);
+            attemptRequest = TracingInterceptor.propagate(attemptRequest, attemptSpan);
             // Proceed.
             try {
-                response = chain.proceed(request);
+                response = chain.proceed(attemptRequest);
+            } catch (CircuitBreakerOpenException e) {
+                // The request was rejected without being sent, retrying would only add load to a failing host.
+                TracingInterceptor.endSpan(attemptSpan, null, e);
+                throw e;
             } catch (Exception e) {
                 exception = e;
             }
+            TracingInterceptor.endSpan(attemptSpan, response, exception);
 
             // Check for cancellation after Proceed.
             if (chain.call().isCanceled()) {
@@ -134,7 +189,7 @@ public class RetryInterceptor implements Interceptor {
             } else {
                 final Duration duration;
                 try {
-                    duration = this.calculateRetryDelay(response, exception, retryAttempts);
+                    duration = this.calculateRetryDelay(response, exception, retryAttempts, previousDelay);
                 } finally {
                     if (response != null) {
                         // Close the current response before any retry.
@@ -147,12 +202,22 @@ public class RetryInterceptor implements Interceptor {
                     throw ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION;
                 }
 
+                if (deferRetry) {
+                    if (retryAttempts + 1 >= maxRetries) {
+                        // No retry is left, fail as the synchronous call does once its loop ends.
+                        break;
+                    }
+                    // Release the dispatcher thread, the retry is re-enqueued once the delay elapses.
+                    throw new RetryScheduler.DeferredRetryException(duration, retryAttempts + 1);
+                }
+
                 try {
                     Thread.sleep(duration.toMillis());
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
 
+                previousDelay = duration;
                 retryAttempts++;
             }
         } while (retryAttempts < maxRetries);
@@ -160,6 +225,18 @@ public class RetryInterceptor implements Interceptor {
         throw new RuntimeException(String.format("The max retries (%d times) for the service call is exceeded.", maxRetries));
     }
 
+    /**
+     * Get the retry attempt a request is sent for by {@link RetryInterceptor}, this is used by the
+     * interceptors that come after {@link RetryInterceptor} in the pipeline.
+     *
+     * @param request The request.
+     * @return The retry attempt, starting from 1, or 0 if the request is the first attempt.
+     */
+    public static int getRetryAttempt(@NonNull Request request) {
+        final RetryAttempt retryAttempt = request.tag(RetryAttempt.class);
+        return retryAttempt == null ? 0 : retryAttempt.value;
+    }
+
     /**
      * Determines the delay duration that should be waited before retrying.
      *
@@ -169,38 +246,87 @@ public class RetryInterceptor implements Interceptor {
      * @return The delay duration.
      */
     public Duration calculateRetryDelay(Response response, Exception exception, int retryAttempts) {
+        return this.calculateRetryDelay(response, exception, retryAttempts, null);
+    }
+
+    /**
+     * Determines the delay duration that should be waited before retrying.
+     *
+     * <p>
+     * A delay requested by the service through the Retry-After or x-ms-retry-after-ms header is honored, but
+     * clamped into the bounds of the {@link RetryStrategy}, so that a misbehaving service (or a skewed clock for
+     * an HTTP-date value) can neither stall the client nor make it retry right away.
+     *
+     * @param response The HTTP response.
+     * @param exception The pipeline exception, if any.
+     * @param retryAttempts The number of retry attempts so far made.
+     * @param previousDelay The delay waited before the previous retry, null if no retry was made so far.
+     * @return The delay duration.
+     */
+    public Duration calculateRetryDelay(Response response,
+                                        Exception exception,
+                                        int retryAttempts,
+                                        Duration previousDelay) {
         if (exception != null) {
-            return this.retryStrategy.calculateRetryDelay(null, exception, retryAttempts);
+            return this.retryStrategy.calculateRetryDelay(null, exception, retryAttempts, previousDelay);
         } else {
-            final int code = response.code();
-            if (code == 429) {
-                // Too Many Requests.
-                // https://docs.microsoft.com/en-us/rest/api/cosmos-db/common-cosmosdb-rest-response-headers
-                final String retryAfterHeader = response.header("x-ms-retry-after-ms");
-                if (retryAfterHeader != null) {
-                    return Duration.of(Integer.parseInt(retryAfterHeader), ChronoUnit.MILLIS);
+            final Duration serverDelay = getServerRetryDelay(response);
+            if (serverDelay != null) {
+                return this.clampToStrategyBounds(serverDelay);
+            }
+            return this.retryStrategy.calculateRetryDelay(response, null, retryAttempts, previousDelay);
+        }
+    }
+
+    /**
+     * Get the delay requested by the service before retrying.
+     *
+     * @param response The HTTP response.
+     * @return The delay, or null if the response doesn't have a valid retry after header.
+     */
+    private static Duration getServerRetryDelay(Response response) {
+        final int code = response.code();
+        if (code == 429) {
+            // Too Many Requests.
+            // https://docs.microsoft.com/en-us/rest/api/cosmos-db/common-cosmosdb-rest-response-headers
+            final String retryAfterHeader = response.header("x-ms-retry-after-ms");
+            if (retryAfterHeader != null) {
+                try {
+                    return Duration.of(Long.parseLong(retryAfterHeader.trim()), ChronoUnit.MILLIS);
+                } catch (NumberFormatException ignored) {
                 }
             }
+        }
 
-            if (code == 429 || code == 503) {
-                // Too Many Requests OR Service Unavailable
-                // https://developer.mozilla.org/en-US/docs/Web/HTTP/Headers/Retry-After
-                final String retryAfterHeader = response.header("Retry-After");
-                if (retryAfterHeader != null) {
-                    OffsetDateTime retryWhen = null;
-                    try {
-                        retryWhen = new DateTimeRfc1123(retryAfterHeader).getDateTime();
-                    } catch (Exception ignored) {
-                    }
-                    if (retryWhen != null) {
-                        return Duration.between(OffsetDateTime.now(), retryWhen);
-                    } else {
-                        return Duration.of(Integer.parseInt(retryAfterHeader), ChronoUnit.SECONDS);
-                    }
+        if (code == 429 || code == 503) {
+            // Too Many Requests OR Service Unavailable
+            // https://developer.mozilla.org/en-US/docs/Web/HTTP/Headers/Retry-After
+            final String retryAfterHeader = response.header("Retry-After");
+            if (retryAfterHeader != null) {
+                try {
+                    return Duration.of(Long.parseLong(retryAfterHeader.trim()), ChronoUnit.SECONDS);
+                } catch (NumberFormatException ignored) {
+                }
+                try {
+                    return Duration.between(OffsetDateTime.now(),
+                        new DateTimeRfc1123(retryAfterHeader).getDateTime());
+                } catch (Exception ignored) {
                 }
             }
-            return this.retryStrategy.calculateRetryDelay(response, null, retryAttempts);
         }
+        return null;
+    }
+
+    private Duration clampToStrategyBounds(Duration delay) {
+        final Duration minDelay = this.retryStrategy.getMinDelay();
+        final Duration maxDelay = this.retryStrategy.getMaxDelay();
+        if (minDelay != null && delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        if (maxDelay != null && delay.compareTo(maxDelay) > 0) {
+            return maxDelay;
+        }
+        return delay;
     }
 
     /**
@@ -215,4 +341,15 @@ public class RetryInterceptor implements Interceptor {
         return retryAttempts < this.retryStrategy.getMaxRetries()
             && this.retryStrategy.shouldRetry(response, exception, retryAttempts);
     }
+
+    /**
+     * The request tag holding the retry attempt.
+     */
+    private static final class RetryAttempt {
+        private final int value;
+
+        RetryAttempt(int value) {
+            this.value = value;
+        }
+    }
 }
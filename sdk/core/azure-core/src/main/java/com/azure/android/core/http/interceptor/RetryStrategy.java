@@ -53,4 +53,41 @@ public interface RetryStrategy {
      * @return The delay duration.
      */
     Duration calculateRetryDelay(Response response, Exception exception, int retryAttempts);
+
+    /**
+     * Determines the delay duration that should be waited before retrying, given the delay waited before the
+     * previous retry. This is used by the strategies where each delay depends on the previous one.
+     *
+     * @param response The HTTP response.
+     * @param exception The pipeline exception, if any.
+     * @param retryAttempts The number of retry attempts so far made.
+     * @param previousDelay The delay waited before the previous retry, null if no retry was made so far.
+     * @return The delay duration.
+     */
+    default Duration calculateRetryDelay(Response response,
+                                         Exception exception,
+                                         int retryAttempts,
+                                         Duration previousDelay) {
+        return this.calculateRetryDelay(response, exception, retryAttempts);
+    }
+
+    /**
+     * Get the minimum delay before a retry, a delay requested by the service (e.g. with the Retry-After header)
+     * is raised to this value.
+     *
+     * @return The minimum delay before a retry.
+     */
+    default Duration getMinDelay() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Get the maximum delay before a retry, a delay requested by the service (e.g. with the Retry-After header)
+     * is lowered to this value.
+     *
+     * @return The maximum delay before a retry, or null if the delay requested by the service is not bounded.
+     */
+    default Duration getMaxDelay() {
+        return null;
+    }
 }
@@ -0,0 +1,163 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.http.HttpHeader;
+import com.azure.android.core.internal.util.RetryScheduler;
+import com.azure.android.core.tracing.Span;
+import com.azure.android.core.tracing.SpanContext;
+import com.azure.android.core.tracing.Tracer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Pipeline interceptor that traces each operation in a span, and propagates the span to the service in the W3C
+ * traceparent header.
+ *
+ * <p>
+ * The operation span is named after the method of the Retrofit service interface, e.g.
+ * "StorageBlobService.stageBlock", and covers every attempt of the call. When the call is retried by a
+ * {@link RetryInterceptor}, each attempt is traced in a child span whose context is the one propagated, so that an
+ * attempt can be matched with the server logs through its traceparent or its x-ms-request-id attribute. A
+ * traceparent header already set on the request is the parent of the operation span.
+ *
+ * <p>
+ * The interceptor must be the first of the pipeline, which is the case when it is configured through
+ * {@link com.azure.android.core.http.ServiceClient.Builder#setTracer(Tracer)}.
+ */
+public class TracingInterceptor implements Interceptor {
+    static final String HTTP_METHOD_ATTRIBUTE = "http.method";
+    static final String HTTP_HOST_ATTRIBUTE = "http.host";
+    static final String HTTP_PATH_ATTRIBUTE = "http.path";
+    static final String HTTP_STATUS_CODE_ATTRIBUTE = "http.status_code";
+    static final String RETRY_ATTEMPT_ATTRIBUTE = "retry.attempt";
+    static final String SERVICE_REQUEST_ID_HEADER = "x-ms-request-id";
+
+    private final Tracer tracer;
+
+    /**
+     * Creates {@link TracingInterceptor}.
+     *
+     * @param tracer The tracer starting the spans.
+     */
+    public TracingInterceptor(@NonNull Tracer tracer) {
+        this.tracer = Objects.requireNonNull(tracer, "'tracer' cannot be null.");
+    }
+
+    /**
+     * Intercept the current request in the pipeline, trace it in the span of its operation and apply the
+     * "traceparent" header.
+     *
+     * @param chain Provide access to the request to trace.
+     *
+     * @return Response from the next interceptor in the pipeline.
+     * @throws IOException If an IO error occurs while processing the request and response.
+     */
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        // The span of an asynchronous call is already started if this is a retry re-enqueued after a backoff.
+        Span operationSpan = RetryScheduler.getOperationSpan(chain.call());
+        if (operationSpan == null) {
+            operationSpan = this.tracer.startSpan(getOperationName(request),
+                SpanContext.fromTraceparent(request.header(HttpHeader.TRACEPARENT)));
+            operationSpan.setAttribute(HTTP_METHOD_ATTRIBUTE, request.method());
+            operationSpan.setAttribute(HTTP_HOST_ATTRIBUTE, request.url().host());
+            operationSpan.setAttribute(HTTP_PATH_ATTRIBUTE, request.url().encodedPath());
+            RetryScheduler.setOperationSpan(chain.call(), operationSpan);
+        }
+
+        final Response response;
+        try {
+            response = chain.proceed(propagate(request.newBuilder().tag(Span.class, operationSpan).build(),
+                operationSpan));
+        } catch (RetryScheduler.DeferredRetryException e) {
+            // The operation goes on with the retry enqueued once the backoff elapses.
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            endSpan(operationSpan, null, e);
+            throw e;
+        }
+        endSpan(operationSpan, response, null);
+        return response;
+    }
+
+    /**
+     * Start the span of an attempt of a traced operation.
+     *
+     * @param request The request of the attempt.
+     * @param retryAttempt The number of retries made before the attempt.
+     * @return The attempt span, or null if the operation is not traced.
+     */
+    static Span startAttemptSpan(Request request, int retryAttempt) {
+        final Span operationSpan = request.tag(Span.class);
+        if (operationSpan == null) {
+            return null;
+        }
+        final Span attemptSpan = operationSpan.startChildSpan("HTTP " + request.method());
+        attemptSpan.setAttribute(RETRY_ATTEMPT_ATTRIBUTE, String.valueOf(retryAttempt));
+        final String clientRequestId = request.header(HttpHeader.CLIENT_REQUEST_ID);
+        if (clientRequestId != null) {
+            attemptSpan.setAttribute(HttpHeader.CLIENT_REQUEST_ID, clientRequestId);
+        }
+        return attemptSpan;
+    }
+
+    /**
+     * Apply the "traceparent" header propagating a span.
+     *
+     * @param request The request.
+     * @param span The span, can be null.
+     * @return The request with the header applied, or the request itself if the span is not recorded.
+     */
+    static Request propagate(Request request, Span span) {
+        if (span == null || !span.getContext().isValid()) {
+            return request;
+        }
+        return request.newBuilder().header(HttpHeader.TRACEPARENT, span.getContext().toTraceparent()).build();
+    }
+
+    /**
+     * End a span with the outcome of its request.
+     *
+     * @param span The span, can be null.
+     * @param response The response, null if the request failed.
+     * @param exception The failure, null if the request succeeded.
+     */
+    static void endSpan(Span span, Response response, Exception exception) {
+        if (span == null) {
+            return;
+        }
+        if (response != null) {
+            span.setAttribute(HTTP_STATUS_CODE_ATTRIBUTE, String.valueOf(response.code()));
+            final String serviceRequestId = response.header(SERVICE_REQUEST_ID_HEADER);
+            if (serviceRequestId != null) {
+                span.setAttribute(SERVICE_REQUEST_ID_HEADER, serviceRequestId);
+            }
+        }
+        if (exception != null) {
+            span.setError(exception);
+        }
+        span.end();
+    }
+
+    private static String getOperationName(Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return "HTTP " + request.method();
+        }
+        final Method method = invocation.method();
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
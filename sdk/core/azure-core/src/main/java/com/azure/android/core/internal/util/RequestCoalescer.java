@@ -0,0 +1,331 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.azure.android.core.util.CancellationToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Invocation;
+import retrofit2.Response;
+import retrofit2.http.Streaming;
+
+/**
+ * Internal type to coalesce identical idempotent calls enqueued concurrently into a single request (single-flight).
+ *
+ * <p>
+ * The first GET or HEAD call of an operation is sent, and any identical call enqueued while it is in flight (same
+ * operation, method, URL and headers, ignoring the per request headers such as x-ms-client-request-id) waits for its
+ * result instead of sending its own request. The result is then delivered to every callback: the deserialized body
+ * is shared, and a {@link ResponseBody} or an error body, which Retrofit has already buffered, is copied so that each
+ * callback can read it. Calls streaming their response body (i.e. annotated with {@link Streaming}) are never
+ * coalesced, since a stream can only be read once; the callers should not coalesce large downloads either, as each
+ * callback receives its own copy of the content.
+ *
+ * <p>
+ * Cancellation is reference-counted: cancelling the token of one call completes that call with a cancellation
+ * failure, and the shared request is only cancelled once every call waiting on it is cancelled. The shared request is
+ * sent with a clone of the first call, so that cancelling the first call itself doesn't cancel it either.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class RequestCoalescer {
+    // the request headers that differ between identical requests, they are ignored when matching requests.
+    private static final Set<String> IGNORED_HEADERS = new HashSet<>();
+
+    static {
+        IGNORED_HEADERS.add("x-ms-client-request-id");
+        IGNORED_HEADERS.add("x-ms-date");
+        IGNORED_HEADERS.add("date");
+    }
+
+    // the calls in flight, keyed by their coalescing key, guarded by 'this'.
+    private final Map<String, InFlightCall<?>> inFlightCalls = new HashMap<>();
+
+    /**
+     * Asynchronously send the request of a call, or wait for the identical request already in flight.
+     *
+     * @param call The call to enqueue.
+     * @param cancellationToken The token to cancel the call, can be null.
+     * @param callback The callback to notify with the response or the failure.
+     * @param requestHedger The hedger of the operation, can be null. The request sent is hedged by it, otherwise
+     * it is enqueued through {@link RetryScheduler}.
+     * @param <T> The type of the response body.
+     */
+    public <T> void enqueue(@NonNull Call<T> call,
+                            CancellationToken cancellationToken,
+                            @NonNull Callback<T> callback,
+                            RequestHedger requestHedger) {
+        Objects.requireNonNull(call, "'call' cannot be null.");
+        Objects.requireNonNull(callback, "'callback' cannot be null.");
+        final Request request;
+        try {
+            request = call.request();
+        } catch (RuntimeException e) {
+            // Retrofit failed to create the request, enqueue reports it to the callback.
+            send(call, cancellationToken, callback, requestHedger);
+            return;
+        }
+        final String key = getCoalescingKey(request);
+        if (key == null) {
+            send(call, cancellationToken, callback, requestHedger);
+            return;
+        }
+        final Method method = request.tag(Invocation.class).method();
+        final Subscriber<T> subscriber = new Subscriber<>(call, callback);
+        final InFlightCall<T> inFlightCall;
+        final boolean isFirstCall;
+        synchronized (this) {
+            final InFlightCall<?> existingCall = this.inFlightCalls.get(key);
+            if (existingCall == null) {
+                inFlightCall = new InFlightCall<>(key, method);
+                this.inFlightCalls.put(key, inFlightCall);
+                isFirstCall = true;
+            } else if (existingCall.method.equals(method)) {
+                // The same operation, hence the same type of response body.
+                @SuppressWarnings("unchecked")
+                final InFlightCall<T> sameCall = (InFlightCall<T>) existingCall;
+                inFlightCall = sameCall;
+                isFirstCall = false;
+            } else {
+                // An overload of the operation with another response type, it is not coalesced.
+                inFlightCall = null;
+                isFirstCall = false;
+            }
+            if (inFlightCall != null) {
+                inFlightCall.subscribers.add(subscriber);
+                inFlightCall.activeSubscribers++;
+            }
+        }
+        if (inFlightCall == null) {
+            send(call, cancellationToken, callback, requestHedger);
+            return;
+        }
+        if (cancellationToken != null) {
+            ((CancellationTokenImpl) cancellationToken).registerOnCancel(() -> this.cancel(inFlightCall, subscriber));
+        }
+        if (isFirstCall) {
+            // The caller may cancel its own call, the shared request is only cancelled through the shared token.
+            send(call.clone(), inFlightCall.sharedToken, inFlightCall, requestHedger);
+        }
+    }
+
+    /**
+     * Get the number of requests in flight that calls can join.
+     *
+     * @return The number of requests in flight.
+     */
+    synchronized int getInFlightCount() {
+        return this.inFlightCalls.size();
+    }
+
+    /**
+     * Get the key identifying the identical requests, i.e. the operation, the method, the URL and the headers other
+     * than the {@link RequestCoalescer#IGNORED_HEADERS}.
+     *
+     * @param request The request.
+     * @return The key, or null if the request cannot be coalesced.
+     */
+    static String getCoalescingKey(Request request) {
+        if (!"GET".equals(request.method()) && !"HEAD".equals(request.method())) {
+            return null;
+        }
+        final Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null || isStreaming(invocation.method())) {
+            return null;
+        }
+        final StringBuilder key = new StringBuilder(invocation.method().getName())
+            .append(' ')
+            .append(request.method())
+            .append(' ')
+            .append(request.url());
+        final Headers headers = request.headers();
+        for (int i = 0; i < headers.size(); i++) {
+            if (!IGNORED_HEADERS.contains(headers.name(i).toLowerCase(Locale.ROOT))) {
+                key.append(' ').append(headers.name(i)).append('=').append(headers.value(i));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isStreaming(Method method) {
+        return method.isAnnotationPresent(Streaming.class);
+    }
+
+    private static <T> void send(Call<T> call,
+                                 CancellationToken cancellationToken,
+                                 Callback<T> callback,
+                                 RequestHedger requestHedger) {
+        if (requestHedger != null) {
+            requestHedger.enqueue(call, cancellationToken, callback);
+        } else {
+            RetryScheduler.enqueue(call, cancellationToken, callback);
+        }
+    }
+
+    /**
+     * Cancel a call waiting on a request in flight, cancelling the request if no other call waits on it.
+     */
+    private <T> void cancel(InFlightCall<T> inFlightCall, Subscriber<T> subscriber) {
+        final boolean isLastSubscriber;
+        synchronized (this) {
+            if (inFlightCall.isCompleted || subscriber.isCancelled) {
+                return;
+            }
+            subscriber.isCancelled = true;
+            inFlightCall.activeSubscribers--;
+            isLastSubscriber = inFlightCall.activeSubscribers == 0;
+            if (isLastSubscriber) {
+                // The result of the cancelled request is not delivered, and new calls must send their own request.
+                inFlightCall.isCompleted = true;
+                this.removeInFlightCall(inFlightCall);
+            }
+        }
+        subscriber.callback.onFailure(subscriber.call, ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION);
+        if (isLastSubscriber) {
+            inFlightCall.sharedToken.cancel();
+        }
+    }
+
+    /**
+     * Complete a request in flight.
+     *
+     * @return The calls to deliver the result to, i.e. the calls not cancelled.
+     */
+    private <T> List<Subscriber<T>> complete(InFlightCall<T> inFlightCall) {
+        synchronized (this) {
+            if (inFlightCall.isCompleted) {
+                return new ArrayList<>();
+            }
+            inFlightCall.isCompleted = true;
+            this.removeInFlightCall(inFlightCall);
+            final List<Subscriber<T>> subscribers = new ArrayList<>(inFlightCall.activeSubscribers);
+            for (Subscriber<T> subscriber : inFlightCall.subscribers) {
+                if (!subscriber.isCancelled) {
+                    subscribers.add(subscriber);
+                }
+            }
+            return subscribers;
+        }
+    }
+
+    private void removeInFlightCall(InFlightCall<?> inFlightCall) {
+        if (this.inFlightCalls.get(inFlightCall.key) == inFlightCall) {
+            this.inFlightCalls.remove(inFlightCall.key);
+        }
+    }
+
+    private static void closeQuietly(Response<?> response) {
+        final Object body = response.body();
+        if (body instanceof Closeable) {
+            try {
+                ((Closeable) body).close();
+            } catch (IOException ignored) {
+                // Nothing to do, the response is discarded.
+            }
+        }
+        if (response.errorBody() != null) {
+            response.errorBody().close();
+        }
+    }
+
+    /**
+     * A call waiting on a request in flight.
+     *
+     * @param <T> The type of the response body.
+     */
+    private static final class Subscriber<T> {
+        private final Call<T> call;
+        private final Callback<T> callback;
+        // guarded by the coalescer.
+        private boolean isCancelled;
+
+        Subscriber(Call<T> call, Callback<T> callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * A request in flight, it receives the result of the request and delivers it to the calls waiting on it.
+     *
+     * @param <T> The type of the response body.
+     */
+    private final class InFlightCall<T> implements Callback<T> {
+        private final String key;
+        private final Method method;
+        private final CancellationToken sharedToken = CancellationToken.create();
+        // the fields below are guarded by the coalescer.
+        private final List<Subscriber<T>> subscribers = new ArrayList<>();
+        private int activeSubscribers;
+        private boolean isCompleted;
+
+        InFlightCall(String key, Method method) {
+            this.key = key;
+            this.method = method;
+        }
+
+        @Override
+        public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+            final List<Subscriber<T>> subscribers = complete(this);
+            if (subscribers.isEmpty()) {
+                closeQuietly(response);
+                return;
+            }
+            final ResponseBody errorBody = response.errorBody();
+            final ResponseBody body = response.body() instanceof ResponseBody ? (ResponseBody) response.body() : null;
+            if ((errorBody == null && body == null) || subscribers.size() == 1) {
+                for (Subscriber<T> subscriber : subscribers) {
+                    subscriber.callback.onResponse(subscriber.call, response);
+                }
+                return;
+            }
+            // Read the buffered body so that every callback can read its own copy.
+            final ResponseBody sharedBody = errorBody != null ? errorBody : body;
+            final byte[] content;
+            try {
+                content = sharedBody.bytes();
+            } catch (IOException e) {
+                for (Subscriber<T> subscriber : subscribers) {
+                    subscriber.callback.onFailure(subscriber.call, e);
+                }
+                return;
+            }
+            for (Subscriber<T> subscriber : subscribers) {
+                final ResponseBody copy = ResponseBody.create(sharedBody.contentType(), content);
+                if (errorBody != null) {
+                    subscriber.callback.onResponse(subscriber.call, Response.<T>error(copy, response.raw()));
+                } else {
+                    @SuppressWarnings("unchecked")
+                    final T bodyCopy = (T) copy;
+                    subscriber.callback.onResponse(subscriber.call, Response.success(bodyCopy, response.raw()));
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+            for (Subscriber<T> subscriber : complete(this)) {
+                subscriber.callback.onFailure(subscriber.call, t);
+            }
+        }
+    }
+}
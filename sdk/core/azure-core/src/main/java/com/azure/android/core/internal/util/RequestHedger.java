@@ -0,0 +1,284 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.azure.android.core.http.HedgingPolicy;
+import com.azure.android.core.util.CancellationToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Internal type to enqueue the calls of an operation with request hedging, as configured by a {@link HedgingPolicy}.
+ *
+ * <p>
+ * The hedger keeps a window of the recent latencies of the operation. When an attempt has not completed within the
+ * configured percentile of those latencies, a clone of the call is enqueued, the first response is delivered to the
+ * callback and the other attempt is cancelled. The latency of a call is the time from its start to its first response,
+ * whichever attempt wins, so a winning hedge never records a latency below the hedging delay. Each attempt is enqueued
+ * through {@link RetryScheduler}, so it retries on its own like any other asynchronous call.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class RequestHedger {
+    // the number of recent latencies the hedging delay is computed from.
+    private static final int LATENCY_WINDOW_SIZE = 128;
+    // the number of latencies to record before the percentile replaces the initial delay.
+    private static final int MIN_LATENCY_SAMPLES = 16;
+
+    private final double latencyPercentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final ScheduledExecutorService scheduler;
+    private final long[] latencies = new long[LATENCY_WINDOW_SIZE];
+    private int latencyCount;
+    private int nextLatencyIndex;
+
+    /**
+     * Creates {@link RequestHedger} scheduling the hedged attempts on the shared scheduler.
+     *
+     * @param policy The hedging policy of the operation.
+     */
+    public RequestHedger(@NonNull HedgingPolicy policy) {
+        this(policy, RetryScheduler.getSharedScheduler());
+    }
+
+    /**
+     * Creates {@link RequestHedger}.
+     *
+     * @param policy The hedging policy of the operation.
+     * @param scheduler The scheduler to enqueue the hedged attempts and the retries on.
+     */
+    RequestHedger(@NonNull HedgingPolicy policy, @NonNull ScheduledExecutorService scheduler) {
+        Objects.requireNonNull(policy, "'policy' cannot be null.");
+        this.latencyPercentile = policy.getLatencyPercentile();
+        this.initialDelayNanos = policy.getInitialDelay().toNanos();
+        this.minDelayNanos = policy.getMinDelay().toNanos();
+        this.scheduler = Objects.requireNonNull(scheduler, "'scheduler' cannot be null.");
+    }
+
+    /**
+     * Asynchronously send the request of a call, hedging it if it is idempotent.
+     *
+     * @param call The call to enqueue.
+     * @param cancellationToken The token to cancel the call and its hedged attempt, can be null.
+     * @param callback The callback to notify with the first response or the final failure.
+     * @param <T> The type of the response body.
+     */
+    public <T> void enqueue(@NonNull Call<T> call,
+                            CancellationToken cancellationToken,
+                            @NonNull Callback<T> callback) {
+        Objects.requireNonNull(call, "'call' cannot be null.");
+        Objects.requireNonNull(callback, "'callback' cannot be null.");
+        final Request request;
+        try {
+            request = call.request();
+        } catch (RuntimeException e) {
+            // Retrofit failed to create the request, enqueue reports it to the callback.
+            RetryScheduler.enqueue(call, this.scheduler, cancellationToken, callback);
+            return;
+        }
+        if (!isIdempotent(request)) {
+            RetryScheduler.enqueue(call, this.scheduler, cancellationToken, callback);
+            return;
+        }
+        final HedgedCall<T> hedgedCall = new HedgedCall<>(call, callback);
+        if (cancellationToken != null) {
+            ((CancellationTokenImpl) cancellationToken).registerOnCancel(hedgedCall::cancel);
+        }
+        hedgedCall.start();
+    }
+
+    /**
+     * Get the delay after which an attempt still in flight is hedged.
+     *
+     * @return The hedging delay in nanoseconds.
+     */
+    synchronized long getHedgingDelayNanos() {
+        if (this.latencyCount < MIN_LATENCY_SAMPLES) {
+            return Math.max(this.minDelayNanos, this.initialDelayNanos);
+        }
+        final long[] sorted = Arrays.copyOf(this.latencies, this.latencyCount);
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(this.latencyPercentile / 100 * sorted.length) - 1;
+        return Math.max(this.minDelayNanos, sorted[Math.max(0, index)]);
+    }
+
+    /**
+     * Record the latency of a completed call, from its start to its first response.
+     *
+     * @param latencyNanos The latency in nanoseconds.
+     */
+    synchronized void recordLatency(long latencyNanos) {
+        this.latencies[this.nextLatencyIndex] = latencyNanos;
+        this.nextLatencyIndex = (this.nextLatencyIndex + 1) % LATENCY_WINDOW_SIZE;
+        if (this.latencyCount < LATENCY_WINDOW_SIZE) {
+            this.latencyCount++;
+        }
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return "GET".equals(request.method()) || "HEAD".equals(request.method());
+    }
+
+    private static void closeQuietly(Response<?> response) {
+        final Object body = response.body();
+        if (body instanceof Closeable) {
+            try {
+                ((Closeable) body).close();
+            } catch (IOException ignored) {
+                // Nothing to do, the response is discarded.
+            }
+        }
+        if (response.errorBody() != null) {
+            response.errorBody().close();
+        }
+    }
+
+    /**
+     * The state of a hedged call, it delivers the first response of its attempts or, once no attempt is left,
+     * the failure of the last one.
+     *
+     * @param <T> The type of the response body.
+     */
+    private final class HedgedCall<T> {
+        private final Call<T> call;
+        private final Callback<T> callback;
+        private final CancellationToken primaryToken = CancellationToken.create();
+        private final CancellationToken hedgeToken = CancellationToken.create();
+        // the fields below are guarded by 'this'.
+        private boolean isCompleted;
+        private boolean isCancelled;
+        private int attemptsInFlight;
+        private ScheduledFuture<?> hedgeFuture;
+        private long startNanos;
+
+        HedgedCall(Call<T> call, Callback<T> callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+
+        void start() {
+            synchronized (this) {
+                this.startNanos = System.nanoTime();
+                this.attemptsInFlight = 1;
+                if (!this.isCancelled) {
+                    try {
+                        this.hedgeFuture = scheduler.schedule(this::hedge,
+                            getHedgingDelayNanos(),
+                            TimeUnit.NANOSECONDS);
+                    } catch (RejectedExecutionException ignored) {
+                        // The call is sent without a hedged attempt.
+                    }
+                }
+            }
+            // When already cancelled, the primary token is cancelled too and the attempt reports the cancellation.
+            this.enqueueAttempt(this.call, this.primaryToken, this.hedgeToken);
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (this.isCompleted || this.isCancelled) {
+                    return;
+                }
+                this.hedgeFuture = null;
+                this.attemptsInFlight++;
+            }
+            this.enqueueAttempt(this.call.clone(), this.hedgeToken, this.primaryToken);
+        }
+
+        private void enqueueAttempt(Call<T> attemptCall,
+                                    CancellationToken attemptToken,
+                                    CancellationToken otherToken) {
+            RetryScheduler.enqueue(attemptCall, scheduler, attemptToken, new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    if (!HedgedCall.this.complete()) {
+                        // The other attempt won.
+                        closeQuietly(response);
+                        return;
+                    }
+                    otherToken.cancel();
+                    // Measured from the start of the call rather than of this attempt: the latency of a winning
+                    // hedge alone would drag the percentile down and make the hedging more and more frequent.
+                    recordLatency(HedgedCall.this.getElapsedNanos());
+                    HedgedCall.this.callback.onResponse(call, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    if (HedgedCall.this.fail()) {
+                        HedgedCall.this.callback.onFailure(call, t);
+                    }
+                }
+            });
+        }
+
+        private synchronized long getElapsedNanos() {
+            return System.nanoTime() - this.startNanos;
+        }
+
+        /**
+         * Mark the call as completed by a response.
+         *
+         * @return True if this is the first response.
+         */
+        private synchronized boolean complete() {
+            if (this.isCompleted) {
+                return false;
+            }
+            this.isCompleted = true;
+            this.cancelHedge();
+            return true;
+        }
+
+        /**
+         * Record the failure of an attempt.
+         *
+         * @return True if the failure completes the call, i.e. no other attempt is in flight or scheduled.
+         */
+        private synchronized boolean fail() {
+            if (this.isCompleted) {
+                return false;
+            }
+            this.attemptsInFlight--;
+            if (this.attemptsInFlight > 0) {
+                // Wait for the other attempt.
+                return false;
+            }
+            this.isCompleted = true;
+            this.cancelHedge();
+            return true;
+        }
+
+        void cancel() {
+            synchronized (this) {
+                this.isCancelled = true;
+                this.cancelHedge();
+            }
+            this.primaryToken.cancel();
+            this.hedgeToken.cancel();
+        }
+
+        private void cancelHedge() {
+            if (this.hedgeFuture != null) {
+                this.hedgeFuture.cancel(false);
+                this.hedgeFuture = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.azure.android.core.http.interceptor.RetryInterceptor;
+import com.azure.android.core.tracing.Span;
+import com.azure.android.core.util.CancellationToken;
+
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Internal type to enqueue a Retrofit {@link Call} whose retries are scheduled without blocking a thread.
+ *
+ * <p>
+ * For a call enqueued through this type, {@link RetryInterceptor} does not sleep on the OkHttp dispatcher
+ * thread while backing off, instead it fails the attempt with a {@link DeferredRetryException} carrying the
+ * delay. The scheduler then enqueues a clone of the call on the dispatcher once the delay elapses, so
+ * retrying calls don't hold dispatcher threads (bounded by {@code Dispatcher.maxRequests}) during backoff.
+ *
+ * <p>
+ * The synchronous {@link Call#execute()} path is unaffected, the interceptor keeps retrying in place.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class RetryScheduler {
+    // the retries made so far, keyed by the original request of each enqueued attempt.
+    private static final Map<Request, PriorRetries> DEFERRABLE_REQUESTS = new ConcurrentHashMap<>();
+    // the shared scheduler, created on first use.
+    private static volatile ScheduledExecutorService sharedScheduler;
+
+    private RetryScheduler() {
+    }
+
+    /**
+     * Asynchronously send the request of a call, scheduling any retry on a shared scheduler.
+     *
+     * @param call The call to enqueue.
+     * @param cancellationToken The token to cancel the call and any scheduled retry, can be null.
+     * @param callback The callback to notify with the final response or failure.
+     * @param <T> The type of the response body.
+     */
+    public static <T> void enqueue(@NonNull Call<T> call,
+                                   CancellationToken cancellationToken,
+                                   @NonNull Callback<T> callback) {
+        enqueue(call, getSharedScheduler(), cancellationToken, callback);
+    }
+
+    /**
+     * Asynchronously send the request of a call, scheduling any retry on the given scheduler.
+     *
+     * @param call The call to enqueue.
+     * @param scheduler The scheduler to enqueue the retry attempts once the backoff delay elapses.
+     * @param cancellationToken The token to cancel the call and any scheduled retry, can be null.
+     * @param callback The callback to notify with the final response or failure.
+     * @param <T> The type of the response body.
+     */
+    public static <T> void enqueue(@NonNull Call<T> call,
+                                   @NonNull ScheduledExecutorService scheduler,
+                                   CancellationToken cancellationToken,
+                                   @NonNull Callback<T> callback) {
+        Objects.requireNonNull(call, "'call' cannot be null.");
+        Objects.requireNonNull(scheduler, "'scheduler' cannot be null.");
+        Objects.requireNonNull(callback, "'callback' cannot be null.");
+        final RetryingCallback<T> retryingCallback = new RetryingCallback<>(scheduler, callback);
+        if (cancellationToken != null) {
+            ((CancellationTokenImpl) cancellationToken).registerOnCancel(retryingCallback::cancel);
+        }
+        retryingCallback.enqueueAttempt(call, 0, null);
+    }
+
+    /**
+     * Get the number of retry attempts made before the given attempt of a call enqueued through
+     * {@link RetryScheduler}.
+     *
+     * @param call The OkHttp call of the attempt.
+     * @return The number of prior retry attempts, or -1 if the retries of the call cannot be deferred
+     * (e.g. a synchronous call).
+     */
+    public static int getPriorRetryAttempts(@NonNull okhttp3.Call call) {
+        final PriorRetries priorRetries = DEFERRABLE_REQUESTS.get(call.request());
+        return priorRetries == null ? -1 : priorRetries.retryAttempts;
+    }
+
+    /**
+     * Get the backoff delay waited before the given attempt of a call enqueued through {@link RetryScheduler}.
+     *
+     * @param call The OkHttp call of the attempt.
+     * @return The delay waited before the attempt, or null if the attempt is the first one or if the retries of
+     * the call cannot be deferred.
+     */
+    public static Duration getPriorRetryDelay(@NonNull okhttp3.Call call) {
+        final PriorRetries priorRetries = DEFERRABLE_REQUESTS.get(call.request());
+        return priorRetries == null ? null : priorRetries.delay;
+    }
+
+    /**
+     * Get the span of the operation an attempt of a call enqueued through {@link RetryScheduler} belongs to.
+     * <p>
+     * The span is shared by the attempts of the call, so that the retries re-enqueued after a backoff are traced
+     * under the operation span started by the first attempt.
+     *
+     * @param call The OkHttp call of the attempt.
+     * @return The operation span, or null if none is set or the retries of the call cannot be deferred.
+     */
+    public static Span getOperationSpan(@NonNull okhttp3.Call call) {
+        final PriorRetries priorRetries = DEFERRABLE_REQUESTS.get(call.request());
+        return priorRetries == null ? null : priorRetries.retryingCallback.operationSpan;
+    }
+
+    /**
+     * Set the span of the operation an attempt of a call enqueued through {@link RetryScheduler} belongs to.
+     * <p>
+     * The span is ended with the cancellation error if the call is cancelled while a retry is scheduled.
+     *
+     * @param call The OkHttp call of the attempt.
+     * @param operationSpan The operation span.
+     * @return True if the span is set, false if the retries of the call cannot be deferred.
+     */
+    public static boolean setOperationSpan(@NonNull okhttp3.Call call, @NonNull Span operationSpan) {
+        final PriorRetries priorRetries = DEFERRABLE_REQUESTS.get(call.request());
+        if (priorRetries == null) {
+            return false;
+        }
+        priorRetries.retryingCallback.operationSpan = operationSpan;
+        return true;
+    }
+
+    /**
+     * Get the scheduler shared by the async retries and the hedged requests.
+     *
+     * @return The shared scheduler.
+     */
+    static ScheduledExecutorService getSharedScheduler() {
+        if (sharedScheduler == null) {
+            synchronized (RetryScheduler.class) {
+                if (sharedScheduler == null) {
+                    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        final Thread thread = new Thread(runnable, "azure-retry-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    // Scheduled retries of cancelled calls must not linger in the queue.
+                    executor.setRemoveOnCancelPolicy(true);
+                    sharedScheduler = executor;
+                }
+            }
+        }
+        return sharedScheduler;
+    }
+
+    /**
+     * The exception {@link RetryInterceptor} fails an attempt with, to request the retry of a call
+     * enqueued through {@link RetryScheduler} after a delay.
+     */
+    public static final class DeferredRetryException extends IOException {
+        private final Duration delay;
+        private final int retryAttempts;
+
+        /**
+         * Creates DeferredRetryException.
+         *
+         * @param delay The delay before the retry.
+         * @param retryAttempts The number of retry attempts made once the retry is sent.
+         */
+        public DeferredRetryException(@NonNull Duration delay, int retryAttempts) {
+            super("Retry deferred by " + delay.toMillis() + "ms.");
+            this.delay = delay;
+            this.retryAttempts = retryAttempts;
+        }
+
+        /**
+         * @return The delay before the retry.
+         */
+        public Duration getDelay() {
+            return this.delay;
+        }
+
+        /**
+         * @return The number of retry attempts made once the retry is sent.
+         */
+        public int getRetryAttempts() {
+            return this.retryAttempts;
+        }
+    }
+
+    /**
+     * The retries made before an attempt of a call.
+     */
+    private static final class PriorRetries {
+        private final int retryAttempts;
+        // the backoff delay waited before the attempt, null for the first attempt.
+        private final Duration delay;
+        private final RetryingCallback<?> retryingCallback;
+
+        PriorRetries(int retryAttempts, Duration delay, RetryingCallback<?> retryingCallback) {
+            this.retryAttempts = retryAttempts;
+            this.delay = delay;
+            this.retryingCallback = retryingCallback;
+        }
+    }
+
+    /**
+     * The Retrofit callback receiving the result of each attempt, it schedules the next attempt when
+     * the interceptor deferred the retry, and forwards any other result to the caller's callback.
+     *
+     * @param <T> The type of the response body.
+     */
+    private static final class RetryingCallback<T> implements Callback<T> {
+        private final ScheduledExecutorService scheduler;
+        private final Callback<T> callback;
+        // the call of the current attempt.
+        private volatile Call<T> currentCall;
+        private volatile boolean isCancelled;
+        // the span of the operation, set by the tracing interceptor on the first attempt.
+        private volatile Span operationSpan;
+
+        RetryingCallback(ScheduledExecutorService scheduler, Callback<T> callback) {
+            this.scheduler = scheduler;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+            DEFERRABLE_REQUESTS.remove(call.request());
+            this.callback.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+            DEFERRABLE_REQUESTS.remove(call.request());
+            if (!(t instanceof DeferredRetryException)) {
+                this.callback.onFailure(call, t);
+                return;
+            }
+            if (this.isCancelled || call.isCanceled()) {
+                this.fail(call, ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION);
+                return;
+            }
+            final DeferredRetryException deferral = (DeferredRetryException) t;
+            try {
+                this.scheduler.schedule(() -> {
+                    if (this.isCancelled) {
+                        this.fail(call, ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION);
+                    } else {
+                        this.enqueueAttempt(call.clone(), deferral.getRetryAttempts(), deferral.getDelay());
+                    }
+                }, Math.max(0, deferral.getDelay().toMillis()), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                this.fail(call, new IOException("Unable to schedule the retry.", e));
+            }
+        }
+
+        /**
+         * Fail the call while a retry is pending, ending the operation span the interceptors left open for it.
+         *
+         * @param call The call of the last attempt.
+         * @param t The failure.
+         */
+        private void fail(Call<T> call, Throwable t) {
+            final Span span = this.operationSpan;
+            if (span != null) {
+                span.setError(t);
+                span.end();
+            }
+            this.callback.onFailure(call, t);
+        }
+
+        /**
+         * Enqueue an attempt of the call.
+         *
+         * @param call The call for the attempt.
+         * @param retryAttempts The number of retry attempts made before this attempt.
+         * @param delay The backoff delay waited before this attempt, null for the first attempt.
+         */
+        void enqueueAttempt(Call<T> call, int retryAttempts, Duration delay) {
+            this.currentCall = call;
+            final Request request;
+            try {
+                request = call.request();
+            } catch (RuntimeException e) {
+                // Retrofit failed to create the request, enqueue reports it to the callback.
+                call.enqueue(this.callback);
+                return;
+            }
+            DEFERRABLE_REQUESTS.put(request, new PriorRetries(retryAttempts, delay, this));
+            if (this.isCancelled) {
+                // Raced with cancel(), which may have seen the previous call as the current one.
+                call.cancel();
+            }
+            call.enqueue(this);
+        }
+
+        /**
+         * Cancel the current attempt and any scheduled retry.
+         */
+        void cancel() {
+            this.isCancelled = true;
+            final Call<T> call = this.currentCall;
+            if (call != null) {
+                call.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.annotation.HeaderCollection;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import okhttp3.Headers;
+
+/**
+ * Binds OkHttp {@link Headers} directly into the fields of a headers class, such as the typed headers of the
+ * storage blob responses.
+ *
+ * <p>
+ * The fields of the class, their header names and the conversion of a header value into each field type are
+ * resolved once, when the binder is created, so that binding the headers of a response neither goes through a JSON
+ * document nor scans the class. The common field types (strings, numbers, booleans, Base64 byte arrays and the types
+ * created from a string, such as {@link com.azure.android.core.util.DateTimeRfc1123} or the enums with a
+ * {@link JsonCreator} factory) are converted directly; the values of any other type, or the values a direct
+ * conversion rejects, are read by Jackson as they were before.
+ */
+final class HeaderBinder {
+    private final Constructor<?> constructor;
+    // the field bindings keyed by the lower-case header name, as header names are case-insensitive.
+    private final Map<String, FieldBinding> fieldBindings;
+    private final List<HeaderCollectionBinding> headerCollectionBindings;
+
+    private HeaderBinder(Constructor<?> constructor,
+                         Map<String, FieldBinding> fieldBindings,
+                         List<HeaderCollectionBinding> headerCollectionBindings) {
+        this.constructor = constructor;
+        this.fieldBindings = fieldBindings;
+        this.headerCollectionBindings = headerCollectionBindings;
+    }
+
+    /**
+     * Creates the binder of a headers class.
+     *
+     * @param headersClass The headers class.
+     * @param headerMapper The mapper reading the values that are not converted directly.
+     * @return The binder, or null if the class is created by Jackson through a {@link JsonCreator} or can't be
+     * instantiated, in which case the headers must be deserialized by Jackson.
+     */
+    static HeaderBinder create(Class<?> headersClass, ObjectMapper headerMapper) {
+        final Constructor<?> constructor = getDefaultConstructor(headersClass);
+        if (constructor == null) {
+            return null;
+        }
+
+        final Map<String, FieldBinding> fieldBindings = new HashMap<>();
+        final List<HeaderCollectionBinding> headerCollectionBindings = new ArrayList<>();
+
+        for (Class<?> clazz = headersClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                    || field.isAnnotationPresent(JsonIgnore.class)) {
+                    continue;
+                }
+
+                field.setAccessible(true);
+
+                final HeaderCollection headerCollection = field.getAnnotation(HeaderCollection.class);
+                if (headerCollection != null) {
+                    if (isStringMap(field.getGenericType()) && !headerCollection.value().isEmpty()) {
+                        headerCollectionBindings.add(new HeaderCollectionBinding(field,
+                            headerCollection.value().toLowerCase(Locale.ROOT)));
+                    }
+                    continue;
+                }
+
+                final String headerName = getHeaderName(field).toLowerCase(Locale.ROOT);
+                // a field of the class hides a field of the same name of its super classes.
+                if (!fieldBindings.containsKey(headerName)) {
+                    fieldBindings.put(headerName, new FieldBinding(field, createConverter(field.getType()),
+                        headerMapper.readerFor(headerMapper.constructType(field.getGenericType())), headerMapper));
+                }
+            }
+        }
+
+        return new HeaderBinder(constructor, fieldBindings, headerCollectionBindings);
+    }
+
+    /**
+     * Bind headers into a new instance of the headers class.
+     *
+     * @param headers The headers.
+     * @return The instance of the headers class.
+     * @throws IOException If a header value can't be converted into the type of its field.
+     */
+    Object bind(Headers headers) throws IOException {
+        final Object instance;
+        try {
+            instance = this.constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Unable to instantiate " + this.constructor.getDeclaringClass().getName(), e);
+        }
+
+        final List<Map<String, String>> headerCollections = new ArrayList<>(this.headerCollectionBindings.size());
+        for (int i = 0; i < this.headerCollectionBindings.size(); i++) {
+            headerCollections.add(new HashMap<>());
+        }
+
+        // When a header is repeated, its last value is bound, as Headers.get(name) returns it.
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            final String headerName = headers.name(i);
+            final String lowerCaseHeaderName = headerName.toLowerCase(Locale.ROOT);
+            final FieldBinding fieldBinding = this.fieldBindings.get(lowerCaseHeaderName);
+            if (fieldBinding != null) {
+                fieldBinding.bind(instance, headers.value(i));
+            }
+            for (int j = 0; j < this.headerCollectionBindings.size(); j++) {
+                final String prefix = this.headerCollectionBindings.get(j).prefix;
+                if (lowerCaseHeaderName.startsWith(prefix)) {
+                    headerCollections.get(j).put(headerName.substring(prefix.length()), headers.value(i));
+                }
+            }
+        }
+
+        for (int j = 0; j < this.headerCollectionBindings.size(); j++) {
+            set(this.headerCollectionBindings.get(j).field, instance, headerCollections.get(j));
+        }
+
+        return instance;
+    }
+
+    private static Constructor<?> getDefaultConstructor(Class<?> headersClass) {
+        if (headersClass.isInterface() || headersClass.isArray() || headersClass.isEnum() || headersClass.isPrimitive()
+            || Modifier.isAbstract(headersClass.getModifiers())
+            || (headersClass.isMemberClass() && !Modifier.isStatic(headersClass.getModifiers()))) {
+            return null;
+        }
+
+        for (Constructor<?> constructor : headersClass.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(JsonCreator.class)) {
+                return null;
+            }
+        }
+        for (Method method : headersClass.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && method.isAnnotationPresent(JsonCreator.class)) {
+                return null;
+            }
+        }
+
+        try {
+            final Constructor<?> constructor = headersClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String getHeaderName(Field field) {
+        final JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+        if (jsonProperty != null && !jsonProperty.value().isEmpty()) {
+            return jsonProperty.value();
+        }
+        return field.getName();
+    }
+
+    private static boolean isStringMap(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        final ParameterizedType parameterizedType = (ParameterizedType) type;
+        final Type[] typeArguments = parameterizedType.getActualTypeArguments();
+        return parameterizedType.getRawType() instanceof Class
+            && Map.class.isAssignableFrom((Class<?>) parameterizedType.getRawType())
+            && typeArguments.length == 2
+            && typeArguments[0] == String.class
+            && typeArguments[1] == String.class;
+    }
+
+    /**
+     * Create the direct conversion of a header value into a type.
+     *
+     * @param type The type.
+     * @return The converter, or null if the values of the type are read by Jackson.
+     */
+    private static ValueConverter createConverter(Class<?> type) {
+        if (type == String.class) {
+            return value -> value;
+        } else if (type == Long.class || type == long.class) {
+            return value -> Long.valueOf(value.trim());
+        } else if (type == Integer.class || type == int.class) {
+            return value -> Integer.valueOf(value.trim());
+        } else if (type == Boolean.class || type == boolean.class) {
+            return value -> {
+                final String trimmedValue = value.trim();
+                if ("true".equalsIgnoreCase(trimmedValue)) {
+                    return Boolean.TRUE;
+                } else if ("false".equalsIgnoreCase(trimmedValue)) {
+                    return Boolean.FALSE;
+                }
+                throw new IllegalArgumentException("Not a boolean: " + value);
+            };
+        } else if (type == byte[].class) {
+            return value -> Base64Variants.getDefaultVariant().decode(value);
+        }
+
+        for (Method method : type.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers())
+                && Modifier.isPublic(method.getModifiers())
+                && method.isAnnotationPresent(JsonCreator.class)
+                && method.getParameterTypes().length == 1
+                && method.getParameterTypes()[0] == String.class
+                && type.isAssignableFrom(method.getReturnType())) {
+                return value -> method.invoke(null, value);
+            }
+        }
+
+        if (!type.isEnum() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            try {
+                final Constructor<?> stringConstructor = type.getConstructor(String.class);
+                return value -> stringConstructor.newInstance(value);
+            } catch (NoSuchMethodException ignored) {
+                // The values of the type are read by Jackson.
+            }
+        }
+
+        return null;
+    }
+
+    private static void set(Field field, Object instance, Object value) throws IOException {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new IOException("Unable to set the field " + field.getName(), e);
+        }
+    }
+
+    /**
+     * The direct conversion of a header value into the type of a field.
+     */
+    private interface ValueConverter {
+        Object convert(String value) throws Exception;
+    }
+
+    private static final class FieldBinding {
+        private final Field field;
+        private final ValueConverter converter;
+        private final ObjectReader fallbackReader;
+        private final ObjectMapper headerMapper;
+
+        FieldBinding(Field field, ValueConverter converter, ObjectReader fallbackReader, ObjectMapper headerMapper) {
+            this.field = field;
+            this.converter = converter;
+            this.fallbackReader = fallbackReader;
+            this.headerMapper = headerMapper;
+        }
+
+        void bind(Object instance, String value) throws IOException {
+            Object convertedValue = null;
+            boolean converted = false;
+            if (this.converter != null) {
+                try {
+                    convertedValue = this.converter.convert(value);
+                    converted = true;
+                } catch (Exception ignored) {
+                    // Let Jackson read the value, and report it as it used to if it is malformed.
+                }
+            }
+            if (!converted) {
+                convertedValue = this.fallbackReader.readValue(this.headerMapper.writeValueAsString(value));
+            }
+            // A primitive field keeps its default value when there is no value to set.
+            if (convertedValue != null || !this.field.getType().isPrimitive()) {
+                set(this.field, instance, convertedValue);
+            }
+        }
+    }
+
+    private static final class HeaderCollectionBinding {
+        private final Field field;
+        private final String prefix;
+
+        HeaderCollectionBinding(Field field, String prefix) {
+            this.field = field;
+            this.prefix = prefix;
+        }
+    }
+}
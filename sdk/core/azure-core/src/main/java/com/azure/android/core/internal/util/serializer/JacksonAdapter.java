@@ -2,35 +2,46 @@ package com.azure.android.core.internal.util.serializer;
 
 import android.util.Log;
 
-import androidx.annotation.NonNull;
-
 import com.azure.android.core.annotation.HeaderCollection;
 import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
 import com.azure.android.core.internal.util.serializer.threeten.ThreeTenModule;
+import com.azure.android.core.util.ExpandableStringEnum;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import okhttp3.Headers;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
 
 /**
  * Implementation of {@link SerializerAdapter} for Jackson.
@@ -42,13 +53,31 @@ public class JacksonAdapter implements SerializerAdapter {
     private final ObjectMapper simpleMapper;
     private final ObjectMapper headerMapper;
     private final XmlMapper xmlMapper;
+    // the header binders by headers class, UNSUPPORTED_HEADER_BINDER for the classes deserialized by Jackson.
+    private final ConcurrentMap<Class<?>, Object> headerBinders = new ConcurrentHashMap<>();
+    // the readers by deserialized type and the writers by serialized class, which hold the resolved (de)serializers.
+    private final ConcurrentMap<Type, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, ObjectReader> xmlReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> jsonWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> xmlWriters = new ConcurrentHashMap<>();
+    // the hand-written deserializers, which read their type instead of the readers.
+    private final ConcurrentMap<Type, XmlStreamDeserializer<?>> xmlDeserializers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, JsonStreamDeserializer<?>> jsonDeserializers = new ConcurrentHashMap<>();
+    // the values of the enums serialized by Jackson in lists, by ordinal.
+    private final ConcurrentMap<Class<?>, String[]> serializedEnumValues = new ConcurrentHashMap<>();
     private static SerializerAdapter serializerAdapter;
+    private static final Object UNSUPPORTED_HEADER_BINDER = new Object();
 
     /**
      * BOM header from some response bodies. To be removed in deserialization.
      */
     private static final String BOM = "\uFEFF";
 
+    /**
+     * The UTF-8 encoding of the BOM, as it starts the bytes of a response body.
+     */
+    private static final ByteString UTF8_BOM = ByteString.decodeHex("efbbbf");
+
     /**
      * Creates a new {@link JacksonAdapter} instance with default mapper settings.
      */
@@ -91,11 +120,7 @@ public class JacksonAdapter implements SerializerAdapter {
 
         StringWriter writer = new StringWriter();
 
-        if (encoding == SerializerFormat.XML) {
-            xmlMapper.writeValue(writer, object);
-        } else {
-            serializer().writeValue(writer, object);
-        }
+        getWriter(object.getClass(), encoding).writeValue(writer, object);
 
         return writer.toString();
     }
@@ -106,15 +131,24 @@ public class JacksonAdapter implements SerializerAdapter {
             return null;
         }
 
-        List<String> serialized = new ArrayList<>();
+        final String delimiter = format.getDelimiter();
+        final StringBuilder stringBuilder = new StringBuilder();
+        boolean first = true;
 
         for (Object element : list) {
-            String raw = serializeRaw(element);
+            if (!first) {
+                stringBuilder.append(delimiter);
+            }
+            first = false;
+
+            final String raw = serializeRaw(element);
 
-            serialized.add(raw != null ? raw : "");
+            if (raw != null) {
+                stringBuilder.append(raw);
+            }
         }
 
-        return join(format.getDelimiter(), serialized);
+        return stringBuilder.toString();
     }
 
     @Override
@@ -129,26 +163,171 @@ public class JacksonAdapter implements SerializerAdapter {
             value = value.replaceFirst(BOM, "");
         }
 
-        final JavaType javaType = createJavaType(type);
+        try {
+            if (encoding == SerializerFormat.XML) {
+                final XmlStreamDeserializer<?> xmlDeserializer = getXmlDeserializer(type);
+
+                if (xmlDeserializer != null) {
+                    return (T) readXml(xmlDeserializer, getXmlInputFactory().createXMLStreamReader(
+                        new StringReader(value)));
+                }
+            } else {
+                final JsonStreamDeserializer<?> jsonDeserializer = getJsonDeserializer(type);
+
+                if (jsonDeserializer != null) {
+                    return (T) readJson(jsonDeserializer, simpleMapper.getFactory().createParser(value));
+                }
+            }
+
+            return (T) getReader(type, encoding).readValue(value);
+        } catch (XMLStreamException xse) {
+            throw new MalformedValueException(xse.getMessage(), xse);
+        } catch (JsonParseException jpe) {
+            // TODO(@anuchan): Log this error once we've logger abstraction.
+            throw new MalformedValueException(jpe.getMessage(), jpe);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(InputStream inputStream, Type type, SerializerFormat encoding) throws IOException {
+        if (inputStream == null) {
+            return null;
+        }
+
+        return deserialize(Okio.buffer(Okio.source(inputStream)), type, encoding);
+    }
+
+    /**
+     * Deserialize the content of a source, e.g. the source of a response body.
+     * <p>
+     * The bytes of the source are read by Jackson as they're parsed, so the content is never held as a whole in a
+     * string; Jackson detects the charset of the content, which is UTF-8 for the service responses.
+     * The types with a registered hand-written deserializer are read by it from the parsed tokens instead.
+     *
+     * @param source The source.
+     * @param type The type to deserialize.
+     * @param encoding The encoding used in the serialized value.
+     * @param <T> The type of the deserialized object.
+     * @return The deserialized object, or null if the source is empty or only contains a BOM.
+     * @throws IOException If the content can't be read or deserialized.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(BufferedSource source, Type type, SerializerFormat encoding) throws IOException {
+        if (source == null) {
+            return null;
+        }
 
         try {
+            // Remove BOM
+            if (source.rangeEquals(0, UTF8_BOM)) {
+                source.skip(UTF8_BOM.size());
+            }
+
+            if (source.exhausted()) {
+                return null;
+            }
+
             if (encoding == SerializerFormat.XML) {
-                return (T) xmlMapper.readValue(value, javaType);
+                final XmlStreamDeserializer<?> xmlDeserializer = getXmlDeserializer(type);
+
+                if (xmlDeserializer != null) {
+                    return (T) readXml(xmlDeserializer, getXmlInputFactory().createXMLStreamReader(
+                        source.inputStream()));
+                }
             } else {
-                return (T) serializer().readValue(value, javaType);
+                final JsonStreamDeserializer<?> jsonDeserializer = getJsonDeserializer(type);
+
+                if (jsonDeserializer != null) {
+                    return (T) readJson(jsonDeserializer, simpleMapper.getFactory().createParser(
+                        source.inputStream()));
+                }
             }
+
+            // The reader closes the stream, and so the source, once the value is read.
+            return (T) getReader(type, encoding).readValue(source.inputStream());
+        } catch (XMLStreamException xse) {
+            throw new MalformedValueException(xse.getMessage(), xse);
         } catch (JsonParseException jpe) {
             // TODO(@anuchan): Log this error once we've logger abstraction.
             throw new MalformedValueException(jpe.getMessage(), jpe);
+        } finally {
+            source.close();
+        }
+    }
+
+    /**
+     * Resolve the Jackson (de)serializers of types ahead of their first use, e.g. the models of a service at startup.
+     * <p>
+     * The readers and writers of the types are cached, as they are when a type is first (de)serialized, so that the
+     * first request reading or writing a model isn't slowed by the introspection of its class.
+     *
+     * @param encoding The encoding the types are (de)serialized with.
+     * @param types The types.
+     */
+    @Override
+    public void warmUp(SerializerFormat encoding, Type... types) {
+        for (Type type : types) {
+            getReader(type, encoding);
+
+            if (type instanceof Class) {
+                getWriter((Class<?>) type, encoding);
+            }
         }
     }
 
     @Override
+    public <T> void registerXmlDeserializer(Class<T> type, XmlStreamDeserializer<T> deserializer) {
+        xmlDeserializers.put(type, deserializer);
+    }
+
+    @Override
+    public <T> void registerJsonDeserializer(Class<T> type, JsonStreamDeserializer<T> deserializer) {
+        jsonDeserializers.put(type, deserializer);
+    }
+
+    /**
+     * Deserialize headers into an instance of a headers class.
+     * <p>
+     * The headers are bound directly into the fields of the class, by a binder resolving the fields of the class once
+     * and cached by class. The classes the binder doesn't support, e.g. the ones created through a
+     * {@link com.fasterxml.jackson.annotation.JsonCreator}, are deserialized by Jackson from a JSON object of the
+     * headers.
+     *
+     * @param headers The headers.
+     * @param deserializedHeadersType The type of the headers class.
+     * @param <T> The headers class.
+     * @return The deserialized headers, or null if the type is null.
+     * @throws IOException If a header value can't be deserialized into its field.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
     public <T> T deserialize(Headers headers, Type deserializedHeadersType) throws IOException {
         if (deserializedHeadersType == null) {
             return null;
         }
 
+        if (deserializedHeadersType instanceof Class) {
+            final HeaderBinder headerBinder = getHeaderBinder((Class<?>) deserializedHeadersType);
+
+            if (headerBinder != null) {
+                return (T) headerBinder.bind(headers);
+            }
+        }
+
+        return deserializeWithJackson(headers, deserializedHeadersType);
+    }
+
+    /**
+     * Deserialize headers into an instance of a headers class through a JSON object of the headers.
+     *
+     * @param headers The headers.
+     * @param deserializedHeadersType The type of the headers class.
+     * @param <T> The headers class.
+     * @return The deserialized headers.
+     * @throws IOException If a header value can't be deserialized into its field.
+     */
+    <T> T deserializeWithJackson(Headers headers, Type deserializedHeadersType) throws IOException {
         Map<String, String> headersMap = new HashMap<>();
 
         for (String headerName : headers.names()) {
@@ -210,6 +389,98 @@ public class JacksonAdapter implements SerializerAdapter {
         return deserializedHeaders;
     }
 
+    private HeaderBinder getHeaderBinder(Class<?> headersClass) {
+        Object headerBinder = headerBinders.get(headersClass);
+
+        if (headerBinder == null) {
+            final HeaderBinder newHeaderBinder = HeaderBinder.create(headersClass, headerMapper);
+            headerBinder = newHeaderBinder == null ? UNSUPPORTED_HEADER_BINDER : newHeaderBinder;
+            // Concurrent callers may create the binder of a class more than once, only the first one is cached.
+            final Object cachedHeaderBinder = headerBinders.putIfAbsent(headersClass, headerBinder);
+
+            if (cachedHeaderBinder != null) {
+                headerBinder = cachedHeaderBinder;
+            }
+        }
+
+        return headerBinder == UNSUPPORTED_HEADER_BINDER ? null : (HeaderBinder) headerBinder;
+    }
+
+    private XmlStreamDeserializer<?> getXmlDeserializer(Type type) {
+        return type == null ? null : xmlDeserializers.get(type);
+    }
+
+    private JsonStreamDeserializer<?> getJsonDeserializer(Type type) {
+        return type == null ? null : jsonDeserializers.get(type);
+    }
+
+    private XMLInputFactory getXmlInputFactory() {
+        // the factory of the XML mapper, configured not to resolve external entities.
+        return xmlMapper.getFactory().getXMLInputFactory();
+    }
+
+    private static Object readXml(XmlStreamDeserializer<?> deserializer, XMLStreamReader reader)
+        throws XMLStreamException, IOException {
+        try {
+            // Skip the prolog to the root element.
+            reader.nextTag();
+
+            return deserializer.deserialize(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Object readJson(JsonStreamDeserializer<?> deserializer, JsonParser parser) throws IOException {
+        try {
+            parser.nextToken();
+
+            return deserializer.deserialize(parser);
+        } finally {
+            parser.close();
+        }
+    }
+
+    private ObjectReader getReader(Type type, SerializerFormat encoding) {
+        if (type == null) {
+            throw new IllegalArgumentException("'type' cannot be null.");
+        }
+
+        final boolean isXml = encoding == SerializerFormat.XML;
+        final ConcurrentMap<Type, ObjectReader> readers = isXml ? xmlReaders : jsonReaders;
+        ObjectReader reader = readers.get(type);
+
+        if (reader == null) {
+            // The reader resolves the deserializer of the type when it's created.
+            reader = (isXml ? xmlMapper : simpleMapper).readerFor(createJavaType(type));
+            final ObjectReader cachedReader = readers.putIfAbsent(type, reader);
+
+            if (cachedReader != null) {
+                reader = cachedReader;
+            }
+        }
+
+        return reader;
+    }
+
+    private ObjectWriter getWriter(Class<?> clazz, SerializerFormat encoding) {
+        final boolean isXml = encoding == SerializerFormat.XML;
+        final ConcurrentMap<Class<?>, ObjectWriter> writers = isXml ? xmlWriters : jsonWriters;
+        ObjectWriter writer = writers.get(clazz);
+
+        if (writer == null) {
+            // The writer resolves the serializer of the class when it's created.
+            writer = (isXml ? xmlMapper : simpleMapper).writerFor(clazz);
+            final ObjectWriter cachedWriter = writers.putIfAbsent(clazz, writer);
+
+            if (cachedWriter != null) {
+                writer = cachedWriter;
+            }
+        }
+
+        return writer;
+    }
+
     /**
      * Initializes an instance of JacksonMapperAdapter with default configurations applied to the object mapper.
      *
@@ -287,37 +558,84 @@ public class JacksonAdapter implements SerializerAdapter {
         return ((ParameterizedType) type).getActualTypeArguments();
     }
 
+    /**
+     * Serialize a value of a list as it's written in a JSON document, without the quotes of a string.
+     * <p>
+     * The strings and string enums, e.g. the {@code include} values of a list call, are written directly when they have
+     * no character JSON escapes; the values of an enum are serialized by Jackson once and cached by enum class.
+     *
+     * @param object The value.
+     * @return The serialized value, or null if the value is null or can't be serialized.
+     */
     private String serializeRaw(Object object) {
         if (object == null) {
             return null;
         }
 
-        try {
-            return serialize(object, SerializerFormat.JSON)
-                .replaceAll("^\"*", "")
-                .replaceAll("\"*$", "");
-        } catch (IOException ex) {
-            Log.w("", "Failed to serialize to JSON.", ex);
+        if (object instanceof String) {
+            final String string = (String) object;
 
-            return null;
+            if (!isEscapedInJson(string)) {
+                return string;
+            }
+        } else if (object instanceof Enum) {
+            return getSerializedEnumValue((Enum<?>) object);
+        } else if (object instanceof ExpandableStringEnum) {
+            final String name = object.toString();
+
+            if (name != null && !isEscapedInJson(name)) {
+                return name;
+            }
         }
+
+        return serializeRawWithJackson(object);
     }
 
-    private static String join(@NonNull CharSequence delimiter, @NonNull Iterable tokens) {
-        final Iterator<?> iterator = tokens.iterator();
+    private String getSerializedEnumValue(Enum<?> value) {
+        final Class<?> enumClass = value.getDeclaringClass();
+        String[] serializedValues = serializedEnumValues.get(enumClass);
+
+        if (serializedValues == null) {
+            final Object[] constants = enumClass.getEnumConstants();
+            serializedValues = new String[constants.length];
+
+            for (int i = 0; i < constants.length; i++) {
+                serializedValues[i] = serializeRawWithJackson(constants[i]);
+            }
 
-        if (!iterator.hasNext()) {
-            return "";
+            serializedEnumValues.putIfAbsent(enumClass, serializedValues);
         }
 
-        final StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(iterator.next());
+        return serializedValues[value.ordinal()];
+    }
+
+    /**
+     * Whether a string has characters JSON escapes, which the quotes stripped from a serialized string keep.
+     *
+     * @param string The string.
+     * @return Whether the string has a quote, a backslash or a control character.
+     */
+    private static boolean isEscapedInJson(String string) {
+        for (int i = 0, length = string.length(); i < length; i++) {
+            final char c = string.charAt(i);
 
-        while (iterator.hasNext()) {
-            stringBuilder.append(delimiter);
-            stringBuilder.append(iterator.next());
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
         }
 
-        return stringBuilder.toString();
+        return false;
+    }
+
+    private String serializeRawWithJackson(Object object) {
+        try {
+            return serialize(object, SerializerFormat.JSON)
+                .replaceAll("^\"*", "")
+                .replaceAll("\"*$", "");
+        } catch (IOException ex) {
+            Log.w("", "Failed to serialize to JSON.", ex);
+
+            return null;
+        }
     }
 }
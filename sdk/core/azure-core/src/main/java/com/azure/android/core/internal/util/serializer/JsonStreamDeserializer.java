@@ -0,0 +1,29 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * A hand-written deserializer of a type from JSON, registered for the type through
+ * {@link SerializerAdapter#registerJsonDeserializer(Class, JsonStreamDeserializer)} so that it's read without
+ * Jackson data binding.
+ *
+ * @param <T> The type to deserialize.
+ */
+public interface JsonStreamDeserializer<T> {
+    /**
+     * Reads an instance of the type from a document.
+     * <p>
+     * The codec of the parser is the JSON mapper of the adapter, so the values the deserializer doesn't read itself
+     * can be read by Jackson through {@link JsonParser#readValueAs(Class)}.
+     *
+     * @param parser The parser, positioned on the first token of the document.
+     * @return The deserialized object.
+     * @throws IOException If the document is malformed or a value can't be deserialized.
+     */
+    T deserialize(JsonParser parser) throws IOException;
+}
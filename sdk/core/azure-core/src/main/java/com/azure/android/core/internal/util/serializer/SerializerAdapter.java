@@ -4,10 +4,12 @@
 package com.azure.android.core.internal.util.serializer;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
 import okhttp3.Headers;
+import okio.BufferedSource;
 
 /**
  * Interface that defines the behaviors of a serializer.
@@ -46,6 +48,32 @@ public interface SerializerAdapter {
      */
     <U> U deserialize(String value, Type type, SerializerFormat encoding) throws IOException;
 
+    /**
+     * Deserializes the content of a stream into an {@code U} object, without reading the content into a string first.
+     * The stream is closed once the object is read.
+     *
+     * @param inputStream The stream to deserialize.
+     * @param <U>         The type of the deserialized object.
+     * @param type        The type to deserialize.
+     * @param encoding    The encoding used in the serialized value.
+     * @return The deserialized object, or {@code null} if the stream is empty or only contains a BOM.
+     * @throws IOException exception from deserialization.
+     */
+    <U> U deserialize(InputStream inputStream, Type type, SerializerFormat encoding) throws IOException;
+
+    /**
+     * Deserializes the content of a source, such as the source of a response body, into an {@code U} object,
+     * without reading the content into a string first. The source is closed once the object is read.
+     *
+     * @param source   The source to deserialize.
+     * @param <U>      The type of the deserialized object.
+     * @param type     The type to deserialize.
+     * @param encoding The encoding used in the serialized value.
+     * @return The deserialized object, or {@code null} if the source is empty or only contains a BOM.
+     * @throws IOException exception from deserialization.
+     */
+    <U> U deserialize(BufferedSource source, Type type, SerializerFormat encoding) throws IOException;
+
     /**
      * Deserializes the provided headers returned from a REST API to an entity instance declared as the model to hold
      * 'Matching' headers.
@@ -59,6 +87,34 @@ public interface SerializerAdapter {
      */
     <U> U deserialize(Headers headers, Type type) throws IOException;
 
+    /**
+     * Prepares the serializer to (de)serialize types, such as the models of a service, ahead of their first use.
+     *
+     * @param encoding The encoding the types are (de)serialized with.
+     * @param types    The types.
+     */
+    void warmUp(SerializerFormat encoding, Type... types);
+
+    /**
+     * Registers a hand-written deserializer reading a type from XML instead of the default data binding, e.g. for the
+     * models read on every page of a list.
+     *
+     * @param type         The type.
+     * @param deserializer The deserializer.
+     * @param <U>          The type to deserialize.
+     */
+    <U> void registerXmlDeserializer(Class<U> type, XmlStreamDeserializer<U> deserializer);
+
+    /**
+     * Registers a hand-written deserializer reading a type from JSON instead of the default data binding, e.g. for the
+     * models read on every page of a list.
+     *
+     * @param type         The type.
+     * @param deserializer The deserializer.
+     * @param <U>          The type to deserialize.
+     */
+    <U> void registerJsonDeserializer(Class<U> type, JsonStreamDeserializer<U> deserializer);
+
     /**
      * @return The default serializer.
      */
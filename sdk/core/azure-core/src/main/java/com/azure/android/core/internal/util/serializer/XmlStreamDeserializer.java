@@ -0,0 +1,27 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A hand-written deserializer of a type from XML, registered for the type through
+ * {@link SerializerAdapter#registerXmlDeserializer(Class, XmlStreamDeserializer)} so that it's read without Jackson.
+ *
+ * @param <T> The type to deserialize.
+ */
+public interface XmlStreamDeserializer<T> {
+    /**
+     * Reads an instance of the type from the root element of a document.
+     *
+     * @param reader The reader, positioned on the start of the root element.
+     * @return The deserialized object.
+     * @throws XMLStreamException If the document is malformed.
+     * @throws IOException If a value of the document can't be deserialized.
+     */
+    T deserialize(XMLStreamReader reader) throws XMLStreamException, IOException;
+}
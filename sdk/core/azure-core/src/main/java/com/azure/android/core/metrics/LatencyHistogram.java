@@ -0,0 +1,146 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.Duration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A histogram of latencies with a fixed memory footprint, in the style of an HdrHistogram.
+ *
+ * <p>
+ * Latencies are recorded in microseconds into log-linear buckets: values below 64 microseconds are counted exactly,
+ * and each power of two above is split in 32 linear sub-buckets, so a percentile is reported within about 3% of the
+ * recorded value. Latencies up to about 71 minutes are tracked, longer ones are counted as the maximum trackable
+ * latency. The histogram takes about 3.5 KB regardless of the number of recorded latencies.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    // the values below it are counted in a bucket of their own.
+    private static final int EXACT_VALUE_COUNT = 2 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+    private static final int BUCKET_COUNT = getBucketIndex(MAX_TRACKABLE_MICROS) + 1;
+
+    // the fields below are guarded by 'this'.
+    private final int[] counts = new int[BUCKET_COUNT];
+    private long totalCount;
+    private long totalMicros;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+
+    /**
+     * Record a latency.
+     *
+     * @param latencyNanos The latency in nanoseconds.
+     */
+    public void record(long latencyNanos) {
+        final long micros = Math.min(MAX_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        synchronized (this) {
+            this.counts[getBucketIndex(micros)]++;
+            this.totalCount++;
+            this.totalMicros += micros;
+            this.minMicros = Math.min(this.minMicros, micros);
+            this.maxMicros = Math.max(this.maxMicros, micros);
+        }
+    }
+
+    /**
+     * @return The number of recorded latencies.
+     */
+    public synchronized long getCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @return The sum of the recorded latencies.
+     */
+    public synchronized Duration getTotal() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.totalMicros));
+    }
+
+    /**
+     * @return The lowest recorded latency, or zero if no latency is recorded.
+     */
+    public synchronized Duration getMin() {
+        return this.totalCount == 0 ? Duration.ZERO : Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.minMicros));
+    }
+
+    /**
+     * @return The highest recorded latency, or zero if no latency is recorded.
+     */
+    public synchronized Duration getMax() {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.maxMicros));
+    }
+
+    /**
+     * @return The mean of the recorded latencies, or zero if no latency is recorded.
+     */
+    public synchronized Duration getMean() {
+        return this.totalCount == 0
+            ? Duration.ZERO
+            : Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(this.totalMicros) / this.totalCount);
+    }
+
+    /**
+     * Get the latency at a percentile of the recorded latencies, e.g. 50 for the median or 99 for the p99.
+     * <p>
+     * The value is the highest latency counted in the same bucket as the percentile, bounded by the highest
+     * recorded latency.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency at the percentile, or zero if no latency is recorded.
+     */
+    @NonNull
+    public synchronized Duration getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("'percentile' must be between 0 and 100.");
+        }
+        if (this.totalCount == 0) {
+            return Duration.ZERO;
+        }
+        final long targetCount = Math.max(1, (long) Math.ceil(percentile / 100 * this.totalCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += this.counts[i];
+            if (cumulativeCount >= targetCount) {
+                final long micros = Math.max(this.minMicros, Math.min(this.maxMicros, getHighestValue(i)));
+                return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+            }
+        }
+        return this.getMax();
+    }
+
+    /**
+     * Get the index of the bucket counting a value.
+     *
+     * @param micros The value in microseconds.
+     * @return The bucket index.
+     */
+    static int getBucketIndex(long micros) {
+        if (micros < EXACT_VALUE_COUNT) {
+            return (int) micros;
+        }
+        // shift the value so that it falls in [32, 64), the bucket is the shift and the 5 top bits of the value.
+        final int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (micros >>> shift);
+    }
+
+    /**
+     * Get the highest value counted by a bucket.
+     *
+     * @param bucketIndex The bucket index.
+     * @return The highest value in microseconds.
+     */
+    static long getHighestValue(int bucketIndex) {
+        if (bucketIndex < EXACT_VALUE_COUNT) {
+            return bucketIndex;
+        }
+        final int shift = (bucketIndex >> SUB_BUCKET_BITS) - 1;
+        final long subBucket = bucketIndex - (shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects the metrics of the calls of each operation, as recorded by a {@link MetricsEventListener}, and hands
+ * them to a {@link MetricsExporter} when flushed.
+ *
+ * <p>
+ * A collector is configured on a client through
+ * {@link com.azure.android.core.http.ServiceClient.Builder#setMetricsCollector(MetricsCollector)}, and the same
+ * collector can be shared by the clients of several services. The application decides when to flush the metrics,
+ * e.g. periodically or when it moves to the background.
+ */
+public final class MetricsCollector {
+    /**
+     * The operation name of the calls that are not made through a Retrofit service interface.
+     */
+    public static final String UNKNOWN_OPERATION_NAME = "unknown";
+
+    private final MetricsExporter exporter;
+    private final ConcurrentMap<String, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Creates {@link MetricsCollector}.
+     *
+     * @param exporter The exporter of the collected metrics.
+     */
+    public MetricsCollector(@NonNull MetricsExporter exporter) {
+        this.exporter = Objects.requireNonNull(exporter, "'exporter' cannot be null.");
+    }
+
+    /**
+     * Gets the metrics recorded for an operation since the last flush.
+     *
+     * @param operationName The name of the operation.
+     * @return The metrics of the operation, or null if no call of the operation was recorded.
+     */
+    public OperationMetrics getOperationMetrics(@NonNull String operationName) {
+        return this.operationMetrics.get(operationName);
+    }
+
+    /**
+     * Export the metrics recorded since the last flush, and start recording new ones.
+     * <p>
+     * The exporter is called on the calling thread, and only if some calls were recorded.
+     */
+    public void flush() {
+        final List<OperationMetrics> flushedMetrics = new ArrayList<>();
+        for (String operationName : this.operationMetrics.keySet()) {
+            final OperationMetrics metrics = this.operationMetrics.remove(operationName);
+            if (metrics != null) {
+                flushedMetrics.add(metrics);
+            }
+        }
+        if (!flushedMetrics.isEmpty()) {
+            this.exporter.export(flushedMetrics);
+        }
+    }
+
+    /**
+     * Get the metrics of an operation to record a call into.
+     *
+     * @param operationName The name of the operation.
+     * @return The metrics of the operation.
+     */
+    OperationMetrics getOrCreateOperationMetrics(String operationName) {
+        OperationMetrics metrics = this.operationMetrics.get(operationName);
+        if (metrics == null) {
+            final OperationMetrics newMetrics = new OperationMetrics(operationName);
+            metrics = this.operationMetrics.putIfAbsent(operationName, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.internal.util.RetryScheduler;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Objects;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * An OkHttp {@link EventListener} recording the latencies of the phases of each call into a
+ * {@link MetricsCollector}, tagged with the operation of the call.
+ *
+ * <p>
+ * The operation is the name of the method of the Retrofit service interface the call is made through, e.g.
+ * "getBlobProperties". The DNS, connect and TLS latencies are only recorded when a new connection is opened, the
+ * time to first byte and the body transfer are recorded for each attempt of the call, and the total latency once
+ * per call. An attempt whose retry is deferred by a {@link com.azure.android.core.http.interceptor.RetryInterceptor}
+ * is not counted as a failed call. A listener is created for each call by the factory returned by
+ * {@link MetricsEventListener#factory(MetricsCollector)}.
+ */
+public final class MetricsEventListener extends EventListener {
+    private final MetricsCollector collector;
+    private final String operationName;
+    // the fields below are only accessed by the thread running the call.
+    private long callStartNanos;
+    private long dnsStartNanos;
+    private long connectStartNanos;
+    private long secureConnectStartNanos;
+    private long requestSentNanos;
+    private long responseBodyStartNanos;
+
+    /**
+     * Creates {@link MetricsEventListener}.
+     *
+     * @param collector The collector to record the latencies into.
+     * @param call The call to record the latencies of.
+     */
+    MetricsEventListener(MetricsCollector collector, Call call) {
+        this.collector = collector;
+        this.operationName = getOperationName(call.request());
+    }
+
+    /**
+     * Creates a factory of the listeners recording the latencies of the calls into a collector.
+     *
+     * @param collector The collector to record the latencies into.
+     * @return The factory of {@link MetricsEventListener}.
+     */
+    @NonNull
+    public static EventListener.Factory factory(@NonNull MetricsCollector collector) {
+        Objects.requireNonNull(collector, "'collector' cannot be null.");
+        return call -> new MetricsEventListener(collector, call);
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        this.callStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        this.dnsStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        this.record(RequestPhase.DNS, this.dnsStartNanos);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        this.connectStartNanos = System.nanoTime();
+        this.secureConnectStartNanos = 0;
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        this.secureConnectStartNanos = System.nanoTime();
+        // The TCP handshake is complete once the TLS handshake starts.
+        this.recordDuration(RequestPhase.CONNECT, this.secureConnectStartNanos - this.connectStartNanos);
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, Handshake handshake) {
+        this.record(RequestPhase.TLS, this.secureConnectStartNanos);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call,
+                           @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy,
+                           Protocol protocol) {
+        if (this.secureConnectStartNanos == 0) {
+            this.record(RequestPhase.CONNECT, this.connectStartNanos);
+        }
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        this.requestSentNanos = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        this.requestSentNanos = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        if (this.requestSentNanos != 0) {
+            this.record(RequestPhase.TIME_TO_FIRST_BYTE, this.requestSentNanos);
+            this.requestSentNanos = 0;
+        }
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        this.responseBodyStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        this.record(RequestPhase.BODY_TRANSFER, this.responseBodyStartNanos);
+        this.collector.getOrCreateOperationMetrics(this.operationName).recordResponseBytes(byteCount);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        final OperationMetrics metrics = this.collector.getOrCreateOperationMetrics(this.operationName);
+        metrics.recordLatency(RequestPhase.TOTAL, System.nanoTime() - this.callStartNanos);
+        metrics.recordCall(false);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        if (ioe instanceof RetryScheduler.DeferredRetryException) {
+            // Not a failure, the retry is enqueued as a call of its own once the backoff elapses.
+            return;
+        }
+        this.collector.getOrCreateOperationMetrics(this.operationName).recordCall(true);
+    }
+
+    private void record(RequestPhase phase, long startNanos) {
+        this.recordDuration(phase, System.nanoTime() - startNanos);
+    }
+
+    private void recordDuration(RequestPhase phase, long durationNanos) {
+        // The metrics are looked up for each record, so that the records following a flush are not lost.
+        this.collector.getOrCreateOperationMetrics(this.operationName).recordLatency(phase, durationNanos);
+    }
+
+    private static String getOperationName(Request request) {
+        final Invocation invocation = request.tag(Invocation.class);
+        return invocation == null ? MetricsCollector.UNKNOWN_OPERATION_NAME : invocation.method().getName();
+    }
+}
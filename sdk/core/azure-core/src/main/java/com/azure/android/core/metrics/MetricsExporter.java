@@ -0,0 +1,22 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Exports the metrics recorded by a {@link MetricsCollector}, e.g. to the telemetry pipeline of the application.
+ */
+public interface MetricsExporter {
+    /**
+     * Export the metrics recorded since the previous export.
+     * <p>
+     * The method is called on the thread calling {@link MetricsCollector#flush()}.
+     *
+     * @param operationMetrics The metrics of each operation invoked since the previous export.
+     */
+    void export(@NonNull List<OperationMetrics> operationMetrics);
+}
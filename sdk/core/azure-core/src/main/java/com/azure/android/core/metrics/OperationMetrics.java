@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The latencies and throughput recorded for the calls of an operation, e.g. "getBlobProperties" or
+ * "sendChatMessage".
+ */
+public final class OperationMetrics {
+    private final String operationName;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[RequestPhase.values().length];
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong failedCallCount = new AtomicLong();
+    private final AtomicLong responseByteCount = new AtomicLong();
+
+    /**
+     * Creates {@link OperationMetrics}.
+     *
+     * @param operationName The name of the operation.
+     */
+    OperationMetrics(String operationName) {
+        this.operationName = operationName;
+        for (int i = 0; i < this.latencies.length; i++) {
+            this.latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @return The name of the operation, i.e. the name of its method in the Retrofit service interface.
+     */
+    @NonNull
+    public String getOperationName() {
+        return this.operationName;
+    }
+
+    /**
+     * Gets the latencies of a phase of the calls.
+     *
+     * @param phase The phase of the calls.
+     * @return The histogram of the latencies of the phase.
+     */
+    @NonNull
+    public LatencyHistogram getLatency(@NonNull RequestPhase phase) {
+        return this.latencies[phase.ordinal()];
+    }
+
+    /**
+     * @return The number of completed calls, including the failed ones.
+     */
+    public long getCallCount() {
+        return this.callCount.get();
+    }
+
+    /**
+     * @return The number of calls that failed without a response, e.g. because of a network error or a
+     * cancellation.
+     */
+    public long getFailedCallCount() {
+        return this.failedCallCount.get();
+    }
+
+    /**
+     * @return The number of bytes of the response bodies received.
+     */
+    public long getResponseByteCount() {
+        return this.responseByteCount.get();
+    }
+
+    /**
+     * @return The average throughput of the response body transfers, in bytes per second, or 0 if no body was
+     * received.
+     */
+    public double getResponseThroughput() {
+        final long transferNanos = this.getLatency(RequestPhase.BODY_TRANSFER).getTotal().toNanos();
+        return transferNanos == 0 ? 0 : this.responseByteCount.get() * 1e9 / transferNanos;
+    }
+
+    void recordLatency(RequestPhase phase, long latencyNanos) {
+        this.latencies[phase.ordinal()].record(latencyNanos);
+    }
+
+    void recordResponseBytes(long byteCount) {
+        this.responseByteCount.addAndGet(byteCount);
+    }
+
+    void recordCall(boolean isFailed) {
+        this.callCount.incrementAndGet();
+        if (isFailed) {
+            this.failedCallCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+/**
+ * The phases of an HTTP request whose latencies are recorded by {@link MetricsEventListener}.
+ */
+public enum RequestPhase {
+    /**
+     * The DNS lookup of the host, only recorded when a new connection is opened.
+     */
+    DNS,
+
+    /**
+     * The TCP handshake of a new connection.
+     */
+    CONNECT,
+
+    /**
+     * The TLS handshake of a new connection.
+     */
+    TLS,
+
+    /**
+     * The time to first byte, from the request being fully sent to the response headers starting to arrive.
+     */
+    TIME_TO_FIRST_BYTE,
+
+    /**
+     * The transfer of the response body, until it is fully read or closed.
+     */
+    BODY_TRANSFER,
+
+    /**
+     * The whole call, including its retries, of the calls that completed with a response.
+     */
+    TOTAL
+}
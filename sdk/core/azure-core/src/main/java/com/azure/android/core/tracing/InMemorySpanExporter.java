@@ -0,0 +1,36 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link SpanExporter} keeping the ended spans in memory, meant for tests.
+ */
+public final class InMemorySpanExporter implements SpanExporter {
+    private final List<SpanData> spans = new ArrayList<>();
+
+    @Override
+    public synchronized void export(@NonNull SpanData span) {
+        this.spans.add(span);
+    }
+
+    /**
+     * @return The spans exported so far, in the order they ended.
+     */
+    @NonNull
+    public synchronized List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(this.spans);
+    }
+
+    /**
+     * Discard the spans exported so far.
+     */
+    public synchronized void reset() {
+        this.spans.clear();
+    }
+}
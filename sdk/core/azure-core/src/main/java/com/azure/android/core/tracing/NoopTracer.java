@@ -0,0 +1,43 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@link Tracer#NOOP} tracer.
+ */
+final class NoopTracer implements Tracer {
+    private static final Span NOOP_SPAN = new Span() {
+        @NonNull
+        @Override
+        public SpanContext getContext() {
+            return SpanContext.INVALID;
+        }
+
+        @Override
+        public void setAttribute(@NonNull String key, @NonNull String value) {
+        }
+
+        @Override
+        public void setError(@NonNull Throwable error) {
+        }
+
+        @NonNull
+        @Override
+        public Span startChildSpan(@NonNull String name) {
+            return this;
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    @NonNull
+    @Override
+    public Span startSpan(@NonNull String name, SpanContext parent) {
+        return NOOP_SPAN;
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link Tracer} recording the spans it starts and handing them to a {@link SpanExporter} once they end.
+ */
+public final class RecordingTracer implements Tracer {
+    private final SpanExporter exporter;
+
+    /**
+     * Creates {@link RecordingTracer}.
+     *
+     * @param exporter The exporter of the ended spans, e.g. an {@link InMemorySpanExporter} in tests.
+     */
+    public RecordingTracer(@NonNull SpanExporter exporter) {
+        this.exporter = Objects.requireNonNull(exporter, "'exporter' cannot be null.");
+    }
+
+    @NonNull
+    @Override
+    public Span startSpan(@NonNull String name, SpanContext parent) {
+        Objects.requireNonNull(name, "'name' cannot be null.");
+        return new RecordingSpan(name, SpanContext.create(parent), parent);
+    }
+
+    /**
+     * A span recording its attributes and timing.
+     */
+    private final class RecordingSpan implements Span {
+        private final String name;
+        private final SpanContext context;
+        private final String parentSpanId;
+        private final long startTimeMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        // the fields below are guarded by 'this'.
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private Throwable error;
+        private boolean isEnded;
+
+        RecordingSpan(String name, SpanContext context, SpanContext parent) {
+            this.name = name;
+            this.context = context;
+            this.parentSpanId = parent != null && parent.isValid() ? parent.getSpanId() : null;
+        }
+
+        @NonNull
+        @Override
+        public SpanContext getContext() {
+            return this.context;
+        }
+
+        @Override
+        public synchronized void setAttribute(@NonNull String key, @NonNull String value) {
+            this.attributes.put(key, value);
+        }
+
+        @Override
+        public synchronized void setError(@NonNull Throwable error) {
+            this.error = error;
+        }
+
+        @NonNull
+        @Override
+        public Span startChildSpan(@NonNull String name) {
+            return startSpan(name, this.context);
+        }
+
+        @Override
+        public void end() {
+            final SpanData spanData;
+            synchronized (this) {
+                if (this.isEnded) {
+                    return;
+                }
+                this.isEnded = true;
+                spanData = new SpanData(this.name,
+                    this.context,
+                    this.parentSpanId,
+                    this.startTimeMillis,
+                    Duration.ofNanos(System.nanoTime() - this.startNanos),
+                    this.attributes,
+                    this.error);
+            }
+            exporter.export(spanData);
+        }
+    }
+}
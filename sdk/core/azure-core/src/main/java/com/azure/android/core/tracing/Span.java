@@ -0,0 +1,47 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A timed unit of work, e.g. an operation of a client or an attempt of its HTTP request, started by a
+ * {@link Tracer}.
+ */
+public interface Span {
+    /**
+     * @return The context identifying the span, propagated to the service in the traceparent header.
+     */
+    @NonNull
+    SpanContext getContext();
+
+    /**
+     * Set an attribute describing the span, e.g. the status code of an HTTP response.
+     *
+     * @param key The attribute key.
+     * @param value The attribute value.
+     */
+    void setAttribute(@NonNull String key, @NonNull String value);
+
+    /**
+     * Record the error the work described by the span failed with.
+     *
+     * @param error The error.
+     */
+    void setError(@NonNull Throwable error);
+
+    /**
+     * Start a child span, in the same trace as this span.
+     *
+     * @param name The name of the child span.
+     * @return The child span.
+     */
+    @NonNull
+    Span startChildSpan(@NonNull String name);
+
+    /**
+     * End the span, it is exported once ended. Only the first call has an effect.
+     */
+    void end();
+}
@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The identity of a span propagated with the requests, as defined by the W3C Trace Context specification.
+ */
+public final class SpanContext {
+    /**
+     * The context of the spans that are not recorded, it is not propagated.
+     */
+    public static final SpanContext INVALID = new SpanContext("00000000000000000000000000000000",
+        "0000000000000000",
+        false);
+
+    private static final String TRACEPARENT_VERSION = "00";
+    private static final int TRACE_ID_LENGTH = 32;
+    private static final int SPAN_ID_LENGTH = 16;
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean isSampled;
+
+    private SpanContext(String traceId, String spanId, boolean isSampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.isSampled = isSampled;
+    }
+
+    /**
+     * Creates the context of a new span.
+     *
+     * @param parent The context of the parent span, or null to start a new trace.
+     * @return The context of the new span, in the trace of the parent if any.
+     */
+    @NonNull
+    public static SpanContext create(SpanContext parent) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (parent != null && parent.isValid()) {
+            return new SpanContext(parent.traceId, toHex(random.nextLong()), parent.isSampled);
+        }
+        return new SpanContext(toHex(random.nextLong()) + toHex(random.nextLong()), toHex(random.nextLong()), true);
+    }
+
+    /**
+     * Parses the value of a traceparent header.
+     *
+     * @param traceparent The value of the header, e.g. "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01".
+     * @return The context, or null if the value is not a valid version 00 traceparent.
+     */
+    public static SpanContext fromTraceparent(String traceparent) {
+        if (traceparent == null || traceparent.length() != 55) {
+            return null;
+        }
+        final String[] parts = traceparent.split("-");
+        if (parts.length != 4
+            || !TRACEPARENT_VERSION.equals(parts[0])
+            || !isHex(parts[1], TRACE_ID_LENGTH)
+            || !isHex(parts[2], SPAN_ID_LENGTH)
+            || !isHex(parts[3], 2)) {
+            return null;
+        }
+        final SpanContext context = new SpanContext(parts[1],
+            parts[2],
+            (Integer.parseInt(parts[3], 16) & 1) == 1);
+        return context.isValid() ? context : null;
+    }
+
+    /**
+     * @return The trace id, 32 lowercase hexadecimal characters.
+     */
+    @NonNull
+    public String getTraceId() {
+        return this.traceId;
+    }
+
+    /**
+     * @return The span id, 16 lowercase hexadecimal characters.
+     */
+    @NonNull
+    public String getSpanId() {
+        return this.spanId;
+    }
+
+    /**
+     * @return True if the trace is sampled by the application.
+     */
+    public boolean isSampled() {
+        return this.isSampled;
+    }
+
+    /**
+     * @return True if the ids are not all zeros, only a valid context is propagated.
+     */
+    public boolean isValid() {
+        return !INVALID.traceId.equals(this.traceId) && !INVALID.spanId.equals(this.spanId);
+    }
+
+    /**
+     * @return The value of the traceparent header propagating this context.
+     */
+    @NonNull
+    public String toTraceparent() {
+        return TRACEPARENT_VERSION + "-" + this.traceId + "-" + this.spanId + (this.isSampled ? "-01" : "-00");
+    }
+
+    @Override
+    public String toString() {
+        return this.toTraceparent();
+    }
+
+    private static String toHex(long value) {
+        final String hex = Long.toHexString(value);
+        if (hex.length() == SPAN_ID_LENGTH) {
+            return hex;
+        }
+        final StringBuilder builder = new StringBuilder(SPAN_ID_LENGTH);
+        for (int i = hex.length(); i < SPAN_ID_LENGTH; i++) {
+            builder.append('0');
+        }
+        return builder.append(hex).toString();
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length || !value.equals(value.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.Duration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An ended span recorded by a {@link RecordingTracer}.
+ */
+public final class SpanData {
+    private final String name;
+    private final SpanContext context;
+    private final String parentSpanId;
+    private final long startTimeMillis;
+    private final Duration duration;
+    private final Map<String, String> attributes;
+    private final Throwable error;
+
+    SpanData(String name,
+             SpanContext context,
+             String parentSpanId,
+             long startTimeMillis,
+             Duration duration,
+             Map<String, String> attributes,
+             Throwable error) {
+        this.name = name;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startTimeMillis = startTimeMillis;
+        this.duration = duration;
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        this.error = error;
+    }
+
+    /**
+     * @return The name of the span.
+     */
+    @NonNull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return The context identifying the span.
+     */
+    @NonNull
+    public SpanContext getContext() {
+        return this.context;
+    }
+
+    /**
+     * @return The span id of the parent span, or null if the span is the root of its trace.
+     */
+    public String getParentSpanId() {
+        return this.parentSpanId;
+    }
+
+    /**
+     * @return The start time of the span, in milliseconds since the epoch.
+     */
+    public long getStartTimeMillis() {
+        return this.startTimeMillis;
+    }
+
+    /**
+     * @return The duration of the span.
+     */
+    @NonNull
+    public Duration getDuration() {
+        return this.duration;
+    }
+
+    /**
+     * @return The attributes of the span.
+     */
+    @NonNull
+    public Map<String, String> getAttributes() {
+        return this.attributes;
+    }
+
+    /**
+     * @return The error the span failed with, or null if it succeeded.
+     */
+    public Throwable getError() {
+        return this.error;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " " + this.context + " (" + this.duration.toMillis() + "ms)";
+    }
+}
@@ -0,0 +1,21 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Exports the spans ended by a {@link RecordingTracer}, e.g. to the telemetry pipeline of the application.
+ */
+public interface SpanExporter {
+    /**
+     * Export an ended span.
+     * <p>
+     * The method is called on the thread ending the span, usually an OkHttp dispatcher thread, so it should hand
+     * the span off rather than block.
+     *
+     * @param span The ended span.
+     */
+    void export(@NonNull SpanData span);
+}
@@ -0,0 +1,30 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Starts the spans tracing the operations of the clients.
+ * <p>
+ * The SDK ships a no-op tracer, {@link Tracer#NOOP}, and a {@link RecordingTracer} handing the ended spans to a
+ * {@link SpanExporter}. An application using another tracing library can implement this interface to bridge the
+ * spans of the SDK into its traces.
+ */
+public interface Tracer {
+    /**
+     * A tracer whose spans record nothing and are not propagated.
+     */
+    Tracer NOOP = new NoopTracer();
+
+    /**
+     * Start a span.
+     *
+     * @param name The name of the span.
+     * @param parent The context of the parent span, or null to start a new trace.
+     * @return The span.
+     */
+    @NonNull
+    Span startSpan(@NonNull String name, SpanContext parent);
+}
@@ -6,26 +6,11 @@ package com.azure.android.core.util;
 import androidx.annotation.NonNull;
 
 import org.threeten.bp.OffsetDateTime;
-import org.threeten.bp.ZoneId;
-import org.threeten.bp.format.DateTimeFormatter;
-
-import java.util.Locale;
 
 /**
  * Wrapper over java.time.OffsetDateTime used for specifying RFC1123 format during serialization and deserialization.
  */
 public final class DateTimeRfc1123 {
-    /**
-     * The pattern of the DateTime used for RFC1123 datetime format.
-     */
-    private static final String RFC1123_FORMAT = "EEE, dd MMM yyyy HH:mm:ss 'GMT'";
-
-    /**
-     * The formatter used for RFC1123 datetime format.
-     */
-    private static final DateTimeFormatter RFC1123_DATE_TIME_FORMATTER =
-        DateTimeFormatter.ofPattern(RFC1123_FORMAT).withZone(ZoneId.of("UTC")).withLocale(Locale.US);
-
     /**
      * The actual DateTime object.
      */
@@ -46,7 +31,7 @@ public final class DateTimeRfc1123 {
      * @param formattedString The DateTime string in RFC1123 format.
      */
     public DateTimeRfc1123(@NonNull String formattedString) {
-        dateTime = OffsetDateTime.parse(formattedString, DateTimeFormatter.RFC_1123_DATE_TIME);
+        dateTime = DateTimeRfc1123Formatter.parse(formattedString);
     }
 
     /**
@@ -60,7 +45,7 @@ public final class DateTimeRfc1123 {
 
     @Override
     public String toString() {
-        return RFC1123_DATE_TIME_FORMATTER.format(dateTime);
+        return DateTimeRfc1123Formatter.format(dateTime);
     }
 
     @Override
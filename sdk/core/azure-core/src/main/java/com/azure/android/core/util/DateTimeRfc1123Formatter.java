@@ -0,0 +1,255 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import java.util.Locale;
+
+/**
+ * Formats and parses the RFC1123 dates used in HTTP headers, such as "Tue, 25 Feb 2020 00:59:22 GMT".
+ *
+ * <p>
+ * The fixed format the services send and expect is written and read character by character rather than through a
+ * {@link DateTimeFormatter}, and the date of the current second is formatted once and reused by every request sent
+ * during that second. The dates that are not in the fixed format, such as the dates with a single digit day or a
+ * numeric offset, are handled by {@link DateTimeFormatter#RFC_1123_DATE_TIME} as they were before.
+ */
+public final class DateTimeRfc1123Formatter {
+    /**
+     * The formatter of the dates whose year can't be written with four digits.
+     */
+    private static final DateTimeFormatter RFC1123_DATE_TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'").withZone(ZoneId.of("UTC")).withLocale(Locale.US);
+
+    // "Tue, 25 Feb 2020 00:59:22 GMT"
+    private static final int FORMATTED_LENGTH = 29;
+    private static final String[] DAYS_OF_WEEK = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final String[] MONTHS =
+        { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+    private static final long SECONDS_PER_DAY = 86_400L;
+    // The number of days from 0000-03-01 to 1970-01-01.
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    private static final long DAYS_PER_400_YEARS = 146_097L;
+    // 0001-01-01T00:00:00Z and 9999-12-31T23:59:59Z, the range of the four digit years.
+    private static final long MIN_FORMATTED_EPOCH_SECOND = -62_135_596_800L;
+    private static final long MAX_FORMATTED_EPOCH_SECOND = 253_402_300_799L;
+
+    private static volatile FormattedSecond currentSecond = new FormattedSecond(Long.MIN_VALUE, null);
+
+    private DateTimeRfc1123Formatter() {
+        // Empty constructor to prevent instantiation of this class.
+    }
+
+    /**
+     * Format the current date and time, truncated to the second.
+     *
+     * @return The current date and time in RFC1123 format.
+     */
+    @NonNull
+    public static String formatNow() {
+        final long epochSecond = floorDiv(System.currentTimeMillis(), 1000L);
+        final FormattedSecond formattedSecond = currentSecond;
+        if (formattedSecond.epochSecond == epochSecond) {
+            return formattedSecond.value;
+        }
+
+        final String value = format(epochSecond);
+        currentSecond = new FormattedSecond(epochSecond, value);
+        return value;
+    }
+
+    /**
+     * Format a date and time in UTC, truncated to the second.
+     *
+     * @param dateTime The date and time.
+     * @return The date and time in RFC1123 format.
+     */
+    @NonNull
+    public static String format(@NonNull OffsetDateTime dateTime) {
+        final long epochSecond = dateTime.toEpochSecond();
+        if (epochSecond < MIN_FORMATTED_EPOCH_SECOND || epochSecond > MAX_FORMATTED_EPOCH_SECOND) {
+            return RFC1123_DATE_TIME_FORMATTER.format(dateTime);
+        }
+        return format(epochSecond);
+    }
+
+    /**
+     * Parse a date and time in RFC1123 format.
+     *
+     * @param formattedString The date and time in RFC1123 format.
+     * @return The date and time, in UTC if it is in the fixed "EEE, dd MMM yyyy HH:mm:ss GMT" format.
+     * @throws org.threeten.bp.format.DateTimeParseException If the string is not a valid RFC1123 date and time.
+     */
+    @NonNull
+    public static OffsetDateTime parse(@NonNull String formattedString) {
+        final OffsetDateTime dateTime = parseFixedFormat(formattedString);
+        return dateTime != null
+            ? dateTime
+            : OffsetDateTime.parse(formattedString, DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    private static String format(long epochSecond) {
+        final long epochDay = floorDiv(epochSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) (epochSecond - epochDay * SECONDS_PER_DAY);
+
+        // Convert the day into a year, month and day of month, counting the years from March so that the leap day
+        // is the last day of the year.
+        final long days = epochDay + DAYS_0000_TO_1970;
+        final long era = floorDiv(days, DAYS_PER_400_YEARS);
+        final int dayOfEra = (int) (days - era * DAYS_PER_400_YEARS);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int monthFromMarch = (5 * dayOfYear + 2) / 153;
+        final int dayOfMonth = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+        final int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        final int year = (int) (era * 400 + yearOfEra) + (month <= 2 ? 1 : 0);
+
+        final char[] chars = new char[FORMATTED_LENGTH];
+        appendName(chars, 0, DAYS_OF_WEEK[dayOfWeek(epochDay)]);
+        chars[3] = ',';
+        chars[4] = ' ';
+        appendDigits(chars, 5, dayOfMonth, 2);
+        chars[7] = ' ';
+        appendName(chars, 8, MONTHS[month - 1]);
+        chars[11] = ' ';
+        appendDigits(chars, 12, year, 4);
+        chars[16] = ' ';
+        appendDigits(chars, 17, secondOfDay / 3600, 2);
+        chars[19] = ':';
+        appendDigits(chars, 20, secondOfDay / 60 % 60, 2);
+        chars[22] = ':';
+        appendDigits(chars, 23, secondOfDay % 60, 2);
+        chars[25] = ' ';
+        appendName(chars, 26, "GMT");
+        return new String(chars);
+    }
+
+    /**
+     * Parse a date and time in the fixed "EEE, dd MMM yyyy HH:mm:ss GMT" format.
+     *
+     * @param value The date and time.
+     * @return The date and time, or null if it is not in the fixed format or is not a valid date and time, in which
+     * case it is parsed or rejected by {@link DateTimeFormatter#RFC_1123_DATE_TIME}.
+     */
+    private static OffsetDateTime parseFixedFormat(String value) {
+        if (value.length() != FORMATTED_LENGTH
+            || value.charAt(3) != ','
+            || value.charAt(4) != ' '
+            || value.charAt(7) != ' '
+            || value.charAt(11) != ' '
+            || value.charAt(16) != ' '
+            || value.charAt(19) != ':'
+            || value.charAt(22) != ':'
+            || value.charAt(25) != ' '
+            || !value.regionMatches(26, "GMT", 0, 3)) {
+            return null;
+        }
+
+        final int dayOfWeek = indexOfName(DAYS_OF_WEEK, value, 0);
+        final int dayOfMonth = parseDigits(value, 5, 2);
+        final int month = indexOfName(MONTHS, value, 8) + 1;
+        final int year = parseDigits(value, 12, 4);
+        final int hour = parseDigits(value, 17, 2);
+        final int minute = parseDigits(value, 20, 2);
+        final int second = parseDigits(value, 23, 2);
+        if (dayOfWeek < 0 || month < 1 || year < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+            || second < 0 || second > 59 || dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month)
+            || dayOfWeek != dayOfWeek(toEpochDay(year, month, dayOfMonth))) {
+            return null;
+        }
+
+        return OffsetDateTime.of(year, month, dayOfMonth, hour, minute, second, 0, ZoneOffset.UTC);
+    }
+
+    private static void appendName(char[] chars, int offset, String name) {
+        name.getChars(0, name.length(), chars, offset);
+    }
+
+    private static void appendDigits(char[] chars, int offset, int value, int digitCount) {
+        for (int i = offset + digitCount - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int indexOfName(String[] names, String value, int offset) {
+        for (int i = 0; i < names.length; i++) {
+            if (value.regionMatches(offset, names[i], 0, 3)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseDigits(String value, int offset, int digitCount) {
+        int result = 0;
+        for (int i = offset; i < offset + digitCount; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long toEpochDay(int year, int month, int dayOfMonth) {
+        final int marchBasedYear = month <= 2 ? year - 1 : year;
+        final long era = floorDiv(marchBasedYear, 400);
+        final int yearOfEra = (int) (marchBasedYear - era * 400);
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Get the day of the week of a day, from 0 for Monday to 6 for Sunday.
+     */
+    private static int dayOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday.
+        return (int) floorMod(epochDay + 3, 7);
+    }
+
+    private static long floorDiv(long x, long y) {
+        final long quotient = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? quotient - 1 : quotient;
+    }
+
+    private static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /**
+     * The formatted date of a second since the epoch.
+     */
+    private static final class FormattedSecond {
+        private final long epochSecond;
+        private final String value;
+
+        FormattedSecond(long epochSecond, String value) {
+            this.epochSecond = epochSecond;
+            this.value = value;
+        }
+    }
+}
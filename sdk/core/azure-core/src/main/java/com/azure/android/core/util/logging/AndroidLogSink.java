@@ -0,0 +1,36 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * A {@link LogSink} writing the records to the Android {@link Log}, as {@link ClientLogger#getDefault(String)} does
+ * synchronously.
+ */
+public final class AndroidLogSink implements LogSink {
+    @Override
+    public void write(@NonNull List<LogRecord> records) {
+        for (LogRecord record : records) {
+            switch (record.getLogLevel()) {
+                case ClientLogger.LOG_LEVEL_DEBUG:
+                    Log.d(record.getTag(), record.getMessage(), record.getThrowable());
+                    break;
+                case ClientLogger.LOG_LEVEL_INFO:
+                    Log.i(record.getTag(), record.getMessage(), record.getThrowable());
+                    break;
+                case ClientLogger.LOG_LEVEL_WARNING:
+                    Log.w(record.getTag(), record.getMessage(), record.getThrowable());
+                    break;
+                default:
+                    Log.e(record.getTag(), record.getMessage(), record.getThrowable());
+                    break;
+            }
+        }
+    }
+}
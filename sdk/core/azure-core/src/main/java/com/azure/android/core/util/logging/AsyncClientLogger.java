@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+/**
+ * A {@link ClientLogger} handing its messages to an {@link AsyncLogDispatcher}, which writes them on its drain
+ * thread.
+ * <p>
+ * The default log level is INFO. The level is checked on the calling thread, so a disabled level costs no more than
+ * with {@link AndroidClientLogger}, and an enabled one costs the allocation of a {@link LogRecord}.
+ */
+final class AsyncClientLogger implements ClientLogger {
+    private final String tag;
+    private final AsyncLogDispatcher dispatcher;
+
+    /**
+     * The log level.
+     */
+    @LogLevel
+    private int logLevel;
+
+    /**
+     * Creates a logger for the given tag.
+     *
+     * @param tag Tag for the logger.
+     * @param dispatcher The dispatcher to hand the messages to.
+     */
+    AsyncClientLogger(String tag, AsyncLogDispatcher dispatcher) {
+        this.tag = tag;
+        this.dispatcher = dispatcher;
+        this.logLevel = LOG_LEVEL_INFO;
+    }
+
+    @LogLevel
+    @Override
+    public int getLogLevel() {
+        return this.logLevel;
+    }
+
+    @Override
+    public void setLogLevel(@LogLevel int logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    @Override
+    public void debug(String message) {
+        this.log(LOG_LEVEL_DEBUG, message, null);
+    }
+
+    @Override
+    public void debug(String message, Throwable throwable) {
+        this.log(LOG_LEVEL_DEBUG, message, throwable);
+    }
+
+    @Override
+    public void info(String message) {
+        this.log(LOG_LEVEL_INFO, message, null);
+    }
+
+    @Override
+    public void info(String message, Throwable throwable) {
+        this.log(LOG_LEVEL_INFO, message, throwable);
+    }
+
+    @Override
+    public void warning(String message) {
+        this.log(LOG_LEVEL_WARNING, message, null);
+    }
+
+    @Override
+    public void warning(String message, Throwable throwable) {
+        this.log(LOG_LEVEL_WARNING, message, throwable);
+    }
+
+    @Override
+    public void error(String message) {
+        this.log(LOG_LEVEL_ERROR, message, null);
+    }
+
+    @Override
+    public void error(String message, Throwable throwable) {
+        this.log(LOG_LEVEL_ERROR, message, throwable);
+    }
+
+    private void log(@LogLevel int messageLogLevel, String message, Throwable throwable) {
+        if (messageLogLevel >= this.logLevel) {
+            this.dispatcher.dispatch(new LogRecord(messageLogLevel, this.tag, message, throwable));
+        }
+    }
+}
@@ -0,0 +1,249 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import androidx.annotation.NonNull;
+
+import org.threeten.bp.Duration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatches the messages of its {@link ClientLogger loggers} to {@link LogSink sinks} on a single background drain
+ * thread, so that logging doesn't block the calling thread, e.g. an OkHttp dispatcher thread in the middle of a
+ * request, on the Android {@link android.util.Log} or on a file.
+ *
+ * <p>
+ * A log call checks the level of its logger and adds a record to a bounded lock-free ring buffer. The drain thread
+ * wakes up periodically, when the buffer fills up or when an error is logged, and writes the buffered records to
+ * the sinks in batches. When the records are logged faster than the sinks write them, the oldest records are
+ * dropped rather than blocking the callers, and the number of dropped records is logged once the drain thread
+ * catches up.
+ *
+ * <pre>
+ * AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder()
+ *     .addSink(new AndroidLogSink())
+ *     .addSink(new RollingFileLogSink(new File(context.getFilesDir(), "logs"), 1024 * 1024, 3))
+ *     .build();
+ * ClientLogger logger = dispatcher.getLogger(MainActivity.class);
+ * </pre>
+ */
+public final class AsyncLogDispatcher implements Closeable {
+    static final String TAG = AsyncLogDispatcher.class.getName();
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final LogRingBuffer ringBuffer;
+    private final List<LogSink> sinks;
+    private final long flushIntervalNanos;
+    // wake up the drain thread each time a quarter of the buffer is filled.
+    private final int wakeUpMask;
+    private final Thread drainThread;
+    private volatile boolean closed;
+    // the sequence of the next record to write, only updated by the drain thread.
+    private volatile long writtenSequence;
+
+    private AsyncLogDispatcher(Builder builder) {
+        this.ringBuffer = new LogRingBuffer(builder.capacity);
+        this.sinks = Collections.unmodifiableList(new ArrayList<>(builder.sinks));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(builder.flushInterval.toMillis());
+        this.wakeUpMask = builder.capacity / 4 - 1;
+        this.drainThread = new Thread(this::drain, "azure-log-drain");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * Creates a logger dispatching its messages to the sinks, for the name of the given class.
+     *
+     * @param clazz Class creating the logger.
+     * @return The logger, at the INFO log level.
+     */
+    @NonNull
+    public ClientLogger getLogger(@NonNull Class<?> clazz) {
+        return this.getLogger(clazz.getName());
+    }
+
+    /**
+     * Creates a logger dispatching its messages to the sinks, for the given tag.
+     *
+     * @param tag Tag for the logger.
+     * @return The logger, at the INFO log level.
+     */
+    @NonNull
+    public ClientLogger getLogger(@NonNull String tag) {
+        return new AsyncClientLogger(tag, this);
+    }
+
+    /**
+     * @return The number of records dropped since the dispatcher was created, because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return this.ringBuffer.getDroppedCount();
+    }
+
+    /**
+     * Wait until the records logged before the call are written to the sinks, or dropped.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return True if the records are written, false if the timeout elapsed first or the dispatcher is closed.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public boolean flush(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        final long targetSequence = this.ringBuffer.getWriteSequence();
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (this.writtenSequence < targetSequence) {
+            if (!this.drainThread.isAlive() || System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            LockSupport.unpark(this.drainThread);
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Write the buffered records, stop the drain thread and close the sinks implementing {@link Closeable}.
+     * <p>
+     * The messages logged after the dispatcher is closed are discarded.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.drainThread);
+        try {
+            this.drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Add a record to the buffer. Called by the loggers on the logging thread.
+     *
+     * @param record The record.
+     */
+    void dispatch(LogRecord record) {
+        final long sequence = this.ringBuffer.offer(record);
+        if ((sequence & this.wakeUpMask) == this.wakeUpMask
+            || record.getLogLevel() == ClientLogger.LOG_LEVEL_ERROR) {
+            LockSupport.unpark(this.drainThread);
+        }
+    }
+
+    private void drain() {
+        final List<LogRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        long reportedDroppedCount = 0;
+        while (true) {
+            // Read the flag before draining, so that the records logged before the dispatcher is closed are written.
+            final boolean closing = this.closed;
+            this.ringBuffer.drainTo(batch, MAX_BATCH_SIZE);
+            final long droppedCount = this.ringBuffer.getDroppedCount();
+            if (droppedCount > reportedDroppedCount) {
+                batch.add(0, new LogRecord(ClientLogger.LOG_LEVEL_WARNING, TAG,
+                    (droppedCount - reportedDroppedCount) + " log messages were dropped because the buffer was full.",
+                    null));
+                reportedDroppedCount = droppedCount;
+            }
+            if (!batch.isEmpty()) {
+                this.write(batch);
+                batch.clear();
+                this.writtenSequence = this.ringBuffer.getReadSequence();
+                continue;
+            }
+            this.writtenSequence = this.ringBuffer.getReadSequence();
+            if (closing) {
+                break;
+            }
+            LockSupport.parkNanos(this, this.flushIntervalNanos);
+        }
+        for (LogSink sink : this.sinks) {
+            if (sink instanceof Closeable) {
+                try {
+                    ((Closeable) sink).close();
+                } catch (IOException | RuntimeException ignored) {
+                    // The records are already written, there is nowhere left to report the failure.
+                }
+            }
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        for (LogSink sink : this.sinks) {
+            try {
+                sink.write(batch);
+            } catch (IOException | RuntimeException ignored) {
+                // A failing sink must neither stop the drain thread nor the other sinks.
+            }
+        }
+    }
+
+    /**
+     * A builder to configure and build an {@link AsyncLogDispatcher}.
+     */
+    public static final class Builder {
+        private int capacity = 1024;
+        private Duration flushInterval = Duration.ofMillis(200);
+        private final List<LogSink> sinks = new ArrayList<>();
+
+        /**
+         * Sets the number of records the buffer holds before dropping the oldest ones, 1024 by default.
+         *
+         * @param capacity The capacity, a power of two of at least 16.
+         * @return Builder with the capacity applied.
+         */
+        public Builder setCapacity(int capacity) {
+            if (capacity < 16 || Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("'capacity' must be a power of two of at least 16.");
+            }
+            this.capacity = capacity;
+
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a record stays in the buffer before the drain thread writes it, 200 milliseconds by
+         * default.
+         *
+         * @param flushInterval The flush interval.
+         * @return Builder with the flush interval applied.
+         */
+        public Builder setFlushInterval(@NonNull Duration flushInterval) {
+            Objects.requireNonNull(flushInterval, "'flushInterval' cannot be null.");
+            if (flushInterval.isNegative() || flushInterval.isZero()) {
+                throw new IllegalArgumentException("'flushInterval' must be positive.");
+            }
+            this.flushInterval = flushInterval;
+
+            return this;
+        }
+
+        /**
+         * Adds a sink to write the records to.
+         *
+         * @param sink The sink.
+         * @return Builder with the sink added.
+         */
+        public Builder addSink(@NonNull LogSink sink) {
+            this.sinks.add(Objects.requireNonNull(sink, "'sink' cannot be null."));
+
+            return this;
+        }
+
+        /**
+         * @return A {@link AsyncLogDispatcher} configured with settings applied through this builder, and its drain
+         * thread started.
+         */
+        public AsyncLogDispatcher build() {
+            return new AsyncLogDispatcher(this);
+        }
+    }
+}
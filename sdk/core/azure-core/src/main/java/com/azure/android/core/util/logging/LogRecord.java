@@ -0,0 +1,79 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+/**
+ * A message logged through an {@link AsyncLogDispatcher}, handed to its {@link LogSink sinks}.
+ */
+public final class LogRecord {
+    @ClientLogger.LogLevel
+    private final int logLevel;
+    private final String tag;
+    private final String message;
+    private final Throwable throwable;
+    private final long timestampMillis;
+    private final String threadName;
+    // the position of the record in the ring buffer, set before the record is published to the drain thread.
+    long sequence;
+
+    /**
+     * Creates {@link LogRecord}.
+     *
+     * @param logLevel The log level of the message.
+     * @param tag The tag of the logger.
+     * @param message The message.
+     * @param throwable The exception logged with the message, can be null.
+     */
+    LogRecord(@ClientLogger.LogLevel int logLevel, String tag, String message, Throwable throwable) {
+        this.logLevel = logLevel;
+        this.tag = tag;
+        this.message = message;
+        this.throwable = throwable;
+        this.timestampMillis = System.currentTimeMillis();
+        this.threadName = Thread.currentThread().getName();
+    }
+
+    /**
+     * @return The log level of the message.
+     */
+    @ClientLogger.LogLevel
+    public int getLogLevel() {
+        return this.logLevel;
+    }
+
+    /**
+     * @return The tag of the logger.
+     */
+    public String getTag() {
+        return this.tag;
+    }
+
+    /**
+     * @return The message.
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * @return The exception logged with the message, or null if there is none.
+     */
+    public Throwable getThrowable() {
+        return this.throwable;
+    }
+
+    /**
+     * @return The time the message was logged at, in milliseconds since the epoch.
+     */
+    public long getTimestampMillis() {
+        return this.timestampMillis;
+    }
+
+    /**
+     * @return The name of the thread the message was logged on.
+     */
+    public String getThreadName() {
+        return this.threadName;
+    }
+}
@@ -0,0 +1,119 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free ring buffer of log records, with many producers and a single consumer.
+ * <p>
+ * A producer claims the next sequence and publishes its record in the slot of the sequence, without waiting for the
+ * consumer: when the consumer lags a full lap behind, the oldest records are overwritten and counted as dropped.
+ */
+final class LogRingBuffer {
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // only accessed by the consumer thread.
+    private long readSequence;
+
+    /**
+     * Creates {@link LogRingBuffer}.
+     *
+     * @param capacity The number of records the buffer holds, a power of two.
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("'capacity' must be a power of two.");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Add a record, overwriting the oldest one if the buffer is full.
+     *
+     * @param record The record.
+     * @return The sequence of the record.
+     */
+    long offer(LogRecord record) {
+        final long sequence = this.writeSequence.getAndIncrement();
+        record.sequence = sequence;
+        final int index = (int) (sequence & this.mask);
+        while (true) {
+            final LogRecord current = this.slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                // A producer of the next lap published first, this record is already overwritten, the consumer
+                // counts it as dropped when it reaches the slot.
+                return sequence;
+            }
+            if (this.slots.compareAndSet(index, current, record)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Move the published records to a list, in sequence order. Only called by the consumer thread.
+     *
+     * @param records The list to add the records to.
+     * @param maxRecords The maximum number of records to move.
+     * @return The number of records moved.
+     */
+    int drainTo(List<LogRecord> records, int maxRecords) {
+        int count = 0;
+        while (count < maxRecords) {
+            final long writeSequence = this.writeSequence.get();
+            if (this.readSequence >= writeSequence) {
+                break;
+            }
+            if (writeSequence - this.readSequence > this.capacity) {
+                // The consumer is more than a lap behind, the records of the lap were overwritten.
+                this.droppedCount.addAndGet(writeSequence - this.capacity - this.readSequence);
+                this.readSequence = writeSequence - this.capacity;
+            }
+            final int index = (int) (this.readSequence & this.mask);
+            final LogRecord record = this.slots.get(index);
+            if (record == null || record.sequence < this.readSequence) {
+                // The sequence is claimed but its record is not published yet, it is drained next time.
+                break;
+            }
+            if (record.sequence == this.readSequence) {
+                this.slots.compareAndSet(index, record, null);
+                records.add(record);
+                count++;
+            } else {
+                this.droppedCount.incrementAndGet();
+            }
+            this.readSequence++;
+        }
+        return count;
+    }
+
+    /**
+     * @return The sequence of the next record to add.
+     */
+    long getWriteSequence() {
+        return this.writeSequence.get();
+    }
+
+    /**
+     * @return The sequence of the next record to drain. Only called by the consumer thread.
+     */
+    long getReadSequence() {
+        return this.readSequence;
+    }
+
+    /**
+     * @return The number of records overwritten before being drained.
+     */
+    long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+}
@@ -0,0 +1,25 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A destination of the messages logged through an {@link AsyncLogDispatcher}.
+ * <p>
+ * A sink is only called by the drain thread of its dispatcher, so it doesn't need to be thread-safe. A sink
+ * implementing {@link java.io.Closeable} is closed when the dispatcher is closed.
+ */
+public interface LogSink {
+    /**
+     * Write a batch of log records.
+     *
+     * @param records The records, in the order they were logged.
+     * @throws IOException If the records could not be written.
+     */
+    void write(@NonNull List<LogRecord> records) throws IOException;
+}
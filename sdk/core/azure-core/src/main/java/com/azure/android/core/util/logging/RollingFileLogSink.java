@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * A {@link LogSink} appending the records to a log file, e.g. under {@code Context.getFilesDir()}, for field
+ * diagnostics.
+ *
+ * <p>
+ * Once the log file would exceed the maximum size, it is rolled: "azure-sdk.log" is renamed "azure-sdk.log.1", the
+ * previous "azure-sdk.log.1" is renamed "azure-sdk.log.2" and so on, and the oldest file beyond the maximum file
+ * count is deleted. Each record is written on a line of the form
+ * {@code 2020-10-19T10:00:00.000Z I/tag [thread]: message}, followed by the stack trace of its exception if any.
+ */
+public final class RollingFileLogSink implements LogSink, Closeable {
+    static final String LOG_FILE_NAME = "azure-sdk.log";
+    private static final char[] LOG_LEVEL_LETTERS = {'?', 'D', 'I', 'W', 'E'};
+
+    private final File directory;
+    private final long maxFileSizeInBytes;
+    private final int maxFileCount;
+    private final SimpleDateFormat timestampFormat;
+    private final Buffer lineBuffer = new Buffer();
+    private BufferedSink fileSink;
+    private long fileSize;
+
+    /**
+     * Creates {@link RollingFileLogSink}.
+     *
+     * @param directory The directory of the log files, it is created if it doesn't exist.
+     * @param maxFileSizeInBytes The maximum size of a log file.
+     * @param maxFileCount The maximum number of log files, including the current one.
+     */
+    public RollingFileLogSink(@NonNull File directory, long maxFileSizeInBytes, int maxFileCount) {
+        this.directory = Objects.requireNonNull(directory, "'directory' cannot be null.");
+        if (maxFileSizeInBytes <= 0) {
+            throw new IllegalArgumentException("'maxFileSizeInBytes' must be positive.");
+        }
+        if (maxFileCount <= 0) {
+            throw new IllegalArgumentException("'maxFileCount' must be positive.");
+        }
+        this.maxFileSizeInBytes = maxFileSizeInBytes;
+        this.maxFileCount = maxFileCount;
+        this.timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+        this.timestampFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    @Override
+    public void write(@NonNull List<LogRecord> records) throws IOException {
+        for (LogRecord record : records) {
+            this.formatLine(record);
+            final long lineSize = this.lineBuffer.size();
+            if (this.fileSink == null) {
+                this.open();
+            }
+            if (this.fileSize > 0 && this.fileSize + lineSize > this.maxFileSizeInBytes) {
+                this.roll();
+                this.open();
+            }
+            this.fileSink.write(this.lineBuffer, lineSize);
+            this.fileSize += lineSize;
+        }
+        if (this.fileSink != null) {
+            this.fileSink.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.fileSink != null) {
+            this.fileSink.close();
+            this.fileSink = null;
+        }
+    }
+
+    private void formatLine(LogRecord record) {
+        // Discard what is left of a line that failed to be written.
+        this.lineBuffer.clear();
+        this.lineBuffer.writeUtf8(this.timestampFormat.format(new Date(record.getTimestampMillis())))
+            .writeByte(' ')
+            .writeByte(LOG_LEVEL_LETTERS[Math.max(0, Math.min(record.getLogLevel(), LOG_LEVEL_LETTERS.length - 1))])
+            .writeByte('/')
+            .writeUtf8(String.valueOf(record.getTag()))
+            .writeUtf8(" [")
+            .writeUtf8(String.valueOf(record.getThreadName()))
+            .writeUtf8("]: ")
+            .writeUtf8(String.valueOf(record.getMessage()))
+            .writeByte('\n');
+        if (record.getThrowable() != null) {
+            final StringWriter stackTrace = new StringWriter();
+            record.getThrowable().printStackTrace(new PrintWriter(stackTrace));
+            this.lineBuffer.writeUtf8(stackTrace.toString());
+        }
+    }
+
+    private void open() throws IOException {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Unable to create the log directory " + this.directory);
+        }
+        final File file = new File(this.directory, LOG_FILE_NAME);
+        this.fileSize = file.length();
+        this.fileSink = Okio.buffer(Okio.appendingSink(file));
+    }
+
+    private void roll() throws IOException {
+        this.close();
+        final File oldest = getFile(this.maxFileCount - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Unable to delete the log file " + oldest);
+        }
+        for (int i = this.maxFileCount - 2; i >= 0; i--) {
+            final File file = getFile(i);
+            if (file.exists() && !file.renameTo(getFile(i + 1))) {
+                throw new IOException("Unable to roll the log file " + file);
+            }
+        }
+    }
+
+    private File getFile(int index) {
+        return new File(this.directory, index == 0 ? LOG_FILE_NAME : LOG_FILE_NAME + "." + index);
+    }
+}
@@ -0,0 +1,48 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.common;
+
+/**
+ * A minimal microbenchmark harness for the JVM unit tests: the operation is warmed up so that it is JIT compiled,
+ * then timed over many iterations. The results are indicative only, they are measured on the host JVM rather than
+ * on ART, so the benchmarks compare implementations rather than assert absolute timings.
+ *
+ * <p>
+ * The benchmarks are {@link org.junit.Ignore ignored} so that they don't slow down the unit tests, remove the
+ * annotation to run one locally.
+ */
+public final class MicroBenchmark {
+    private MicroBenchmark() {
+        // Empty constructor to prevent instantiation of this class.
+    }
+
+    /**
+     * An operation to benchmark.
+     */
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    /**
+     * Measure the average time of an operation.
+     *
+     * @param warmupIterations The number of untimed iterations.
+     * @param iterations The number of timed iterations.
+     * @param operation The operation.
+     * @return The average time of an iteration in nanoseconds.
+     * @throws Exception If the operation fails.
+     */
+    public static double measureNanosPerOperation(int warmupIterations,
+                                                  int iterations,
+                                                  Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - startNanos) / (double) iterations;
+    }
+}
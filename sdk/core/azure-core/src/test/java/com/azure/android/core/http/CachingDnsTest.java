@@ -0,0 +1,141 @@
+package com.azure.android.core.http;
+
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Dns;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class CachingDnsTest {
+    private static final String HOST = "account.blob.core.windows.net";
+
+    private final long[] nowNanos = new long[1];
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+    private final FakeDns fakeDns = new FakeDns();
+
+    @Test
+    public void lookup_withinTtl_isServedFromCache() throws UnknownHostException {
+        // Given
+        fakeDns.addresses.put(HOST, addresses("10.0.0.1"));
+        CachingDns dns = createDns(new CachingDnsOptions().setTtl(Duration.ofSeconds(60)));
+
+        // When
+        dns.lookup(HOST);
+        nowNanos[0] += Duration.ofSeconds(59).toNanos();
+        List<InetAddress> addresses = dns.lookup(HOST);
+
+        // Then
+        assertEquals(addresses("10.0.0.1"), addresses);
+        assertEquals(1, fakeDns.lookupCount);
+    }
+
+    @Test
+    public void lookup_whenStale_servesStaleAndRevalidates() throws UnknownHostException {
+        // Given
+        fakeDns.addresses.put(HOST, addresses("10.0.0.1"));
+        CachingDns dns = createDns(new CachingDnsOptions()
+            .setTtl(Duration.ofSeconds(60))
+            .setStaleTtl(Duration.ofMinutes(10)));
+        dns.lookup(HOST);
+        fakeDns.addresses.put(HOST, addresses("10.0.0.2"));
+        nowNanos[0] += Duration.ofSeconds(61).toNanos();
+
+        // When
+        List<InetAddress> staleAddresses = dns.lookup(HOST);
+        dns.lookup(HOST);
+        assertEquals(1, pendingRefreshes.size());
+        pendingRefreshes.remove(0).run();
+        List<InetAddress> refreshedAddresses = dns.lookup(HOST);
+
+        // Then
+        assertEquals(addresses("10.0.0.1"), staleAddresses);
+        assertEquals(addresses("10.0.0.2"), refreshedAddresses);
+        assertEquals(2, fakeDns.lookupCount);
+    }
+
+    @Test
+    public void lookup_whenRevalidationFails_keepsStaleAddresses() throws UnknownHostException {
+        // Given
+        fakeDns.addresses.put(HOST, addresses("10.0.0.1"));
+        CachingDns dns = createDns(new CachingDnsOptions()
+            .setTtl(Duration.ofSeconds(60))
+            .setStaleTtl(Duration.ofMinutes(10)));
+        dns.lookup(HOST);
+        fakeDns.addresses.remove(HOST);
+        nowNanos[0] += Duration.ofSeconds(61).toNanos();
+
+        // When
+        dns.lookup(HOST);
+        pendingRefreshes.remove(0).run();
+        List<InetAddress> addresses = dns.lookup(HOST);
+
+        // Then
+        assertEquals(addresses("10.0.0.1"), addresses);
+    }
+
+    @Test
+    public void lookup_afterStaleTtl_resolvesAgain() throws UnknownHostException {
+        // Given
+        fakeDns.addresses.put(HOST, addresses("10.0.0.1"));
+        CachingDns dns = createDns(new CachingDnsOptions()
+            .setTtl(Duration.ofSeconds(60))
+            .setStaleTtl(Duration.ofSeconds(60)));
+        dns.lookup(HOST);
+        fakeDns.addresses.remove(HOST);
+        nowNanos[0] += Duration.ofSeconds(121).toNanos();
+
+        // When, then
+        assertThrows(UnknownHostException.class, () -> dns.lookup(HOST));
+        assertEquals(0, pendingRefreshes.size());
+    }
+
+    @Test
+    public void lookup_interleavesAddressFamilies() throws UnknownHostException {
+        // Given
+        fakeDns.addresses.put(HOST, addresses("2001:db8::1", "2001:db8::2", "10.0.0.1", "10.0.0.2"));
+        CachingDns dns = createDns(new CachingDnsOptions().setInterleaveAddressFamilies(true));
+
+        // When
+        List<InetAddress> addresses = dns.lookup(HOST);
+
+        // Then
+        assertEquals(addresses("2001:db8::1", "10.0.0.1", "2001:db8::2", "10.0.0.2"), addresses);
+    }
+
+    private CachingDns createDns(CachingDnsOptions options) {
+        return new CachingDns(fakeDns, options, () -> nowNanos[0], pendingRefreshes::add);
+    }
+
+    private static List<InetAddress> addresses(String... literals) throws UnknownHostException {
+        List<InetAddress> addresses = new ArrayList<>();
+        for (String literal : literals) {
+            // A literal address is parsed without any lookup.
+            addresses.add(InetAddress.getByName(literal));
+        }
+        return addresses;
+    }
+
+    private static final class FakeDns implements Dns {
+        final Map<String, List<InetAddress>> addresses = new HashMap<>();
+        int lookupCount;
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            lookupCount++;
+            List<InetAddress> result = addresses.get(hostname);
+            if (result == null) {
+                throw new UnknownHostException(hostname);
+            }
+            return new ArrayList<>(result);
+        }
+    }
+}
@@ -7,11 +7,16 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import retrofit2.Retrofit;
 
 import static org.junit.Assert.assertEquals;
@@ -101,6 +106,47 @@ public class ServiceClientTest {
             .build();
     }
 
+    @Test
+    public void prewarm_opensIdleConnections() throws IOException, InterruptedException {
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(400).setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(400).setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        mockWebServer.start();
+        ConnectionPool connectionPool = new ConnectionPool();
+        AtomicInteger interceptedRequests = new AtomicInteger();
+        ServiceClient otherServiceClient = new ServiceClient.Builder()
+            .setBaseUrl(mockWebServer.url("/").toString())
+            .setConnectionPool(connectionPool)
+            .addInterceptor(chain -> {
+                interceptedRequests.incrementAndGet();
+                return chain.proceed(chain.request());
+            })
+            .build();
+
+        try {
+            otherServiceClient.prewarm(2);
+
+            RecordedRequest first = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+            RecordedRequest second = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+            assertNotNull(first);
+            assertNotNull(second);
+            assertEquals("HEAD", first.getMethod());
+            for (int i = 0; i < 50 && connectionPool.idleConnectionCount() < 2; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(2, connectionPool.idleConnectionCount());
+            assertEquals(0, interceptedRequests.get());
+        } finally {
+            otherServiceClient.close();
+            mockWebServer.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prewarm_withNoConnection_willThrowException() {
+        serviceClient.prewarm(0);
+    }
+
     @AfterClass
     public static void tearDown() {
         serviceClient.close();
@@ -0,0 +1,79 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.http.interceptor.AddDateInterceptor;
+import com.azure.android.core.http.interceptor.RequestIdInterceptor;
+
+import org.junit.Test;
+
+import okhttp3.OkHttpClient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SharedTransportTest {
+    private static final String BASE_URL = "http://127.0.0.1/";
+
+    @Test
+    public void clientsShareDispatcherAndConnectionPool() {
+        ServiceClient blobServiceClient = SharedTransport.newServiceClientBuilder()
+            .setBaseUrl(BASE_URL)
+            .addInterceptor(new AddDateInterceptor())
+            .build();
+        ServiceClient chatServiceClient = SharedTransport.newServiceClientBuilder()
+            .setBaseUrl(BASE_URL)
+            .addInterceptor(new RequestIdInterceptor())
+            .build();
+
+        OkHttpClient blobHttpClient = getHttpClient(blobServiceClient);
+        OkHttpClient chatHttpClient = getHttpClient(chatServiceClient);
+
+        assertNotSame(blobHttpClient, chatHttpClient);
+        assertSame(SharedTransport.getRootClient().dispatcher(), blobHttpClient.dispatcher());
+        assertSame(blobHttpClient.dispatcher(), chatHttpClient.dispatcher());
+        assertSame(blobHttpClient.connectionPool(), chatHttpClient.connectionPool());
+        assertEquals(1, blobHttpClient.interceptors().size());
+        assertTrue(blobHttpClient.interceptors().get(0) instanceof AddDateInterceptor);
+        assertEquals(1, chatHttpClient.interceptors().size());
+        assertTrue(chatHttpClient.interceptors().get(0) instanceof RequestIdInterceptor);
+    }
+
+    @Test
+    public void clientBasedOnSharedClient_sharesTransport() {
+        ServiceClient serviceClient = SharedTransport.newServiceClientBuilder()
+            .setBaseUrl(BASE_URL)
+            .build();
+
+        ServiceClient otherServiceClient = serviceClient.newBuilder().build();
+
+        assertSame(SharedTransport.getRootClient().connectionPool(),
+            getHttpClient(otherServiceClient).connectionPool());
+    }
+
+    @Test
+    public void closeClient_keepsSharedDispatcherRunning() {
+        ServiceClient serviceClient = SharedTransport.newServiceClientBuilder()
+            .setBaseUrl(BASE_URL)
+            .build();
+
+        serviceClient.close();
+
+        assertFalse(SharedTransport.getRootClient().dispatcher().executorService().isShutdown());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void setRootClient_onceInUse_willThrowException() {
+        SharedTransport.getRootClient();
+
+        SharedTransport.setRootClient(new OkHttpClient());
+    }
+
+    private static OkHttpClient getHttpClient(ServiceClient serviceClient) {
+        return (OkHttpClient) serviceClient.getRetrofit().callFactory();
+    }
+}
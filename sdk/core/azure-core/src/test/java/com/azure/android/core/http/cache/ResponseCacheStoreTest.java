@@ -0,0 +1,145 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import okhttp3.Headers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheStoreTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void memoryStore_evictsLeastRecentlyUsed() {
+        // Given a store that fits two responses.
+        CachedResponse response = createResponse("\"v1\"", "0123456789");
+        MemoryResponseCacheStore store = new MemoryResponseCacheStore(response.getSize() * 2);
+        store.put("a", response);
+        store.put("b", response);
+
+        // When
+        store.get("a");
+        store.put("c", response);
+
+        // Then
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(response.getSize() * 2, store.getSizeInBytes());
+    }
+
+    @Test
+    public void diskStore_roundTrips() throws IOException {
+        // Given
+        DiskResponseCacheStore store = new DiskResponseCacheStore(temporaryFolder.newFolder("cache"), 1024 * 1024);
+        CachedResponse response = createResponse("\"v1\"", "properties");
+
+        // When
+        store.put("GET http://127.0.0.1/properties", response);
+        CachedResponse cached = store.get("GET http://127.0.0.1/properties");
+
+        // Then
+        assertNotNull(cached);
+        assertEquals(200, cached.getCode());
+        assertEquals("OK", cached.getMessage());
+        assertEquals("\"v1\"", cached.getETag());
+        assertEquals(response.getHeaders(), cached.getHeaders());
+        assertArrayEquals(response.getBody(), cached.getBody());
+        assertNull(store.get("GET http://127.0.0.1/other"));
+    }
+
+    @Test
+    public void diskStore_doesNotWriteTheKey() throws IOException {
+        // Given a key with a shared access signature in its URL.
+        File directory = temporaryFolder.newFolder("cache");
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+        String key = "GET http://127.0.0.1/container/blob?sv=2019-02-02&sig=c2VjcmV0LXNpZ25hdHVyZQ%3D%3D";
+
+        // When
+        store.put(key, createResponse("\"v1\"", "properties"));
+
+        // Then neither the key nor its signature are in the file, and the response is still found by its key.
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        String content = new String(Files.readAllBytes(files[0].toPath()), StandardCharsets.UTF_8);
+        assertFalse(content.contains("127.0.0.1"));
+        assertFalse(content.contains("sig="));
+        assertNotNull(store.get(key));
+    }
+
+    @Test
+    public void diskStore_deletesFilesWithThePlainTextKey() throws IOException {
+        // Given a file written by the previous version of the store, which held the key in plain text.
+        File directory = temporaryFolder.newFolder("cache");
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 1024 * 1024);
+        String key = "GET http://127.0.0.1/properties";
+        store.put(key, createResponse("\"v1\"", "properties"));
+        File file = directory.listFiles()[0];
+        Files.write(file.toPath(), ("1\n" + key + "\n200\nOK\n0\nproperties").getBytes(StandardCharsets.UTF_8));
+
+        // When
+        CachedResponse cached = store.get(key);
+
+        // Then
+        assertNull(cached);
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void diskStore_trimsToMaxSize() throws IOException {
+        // Given
+        File directory = temporaryFolder.newFolder("cache");
+        DiskResponseCacheStore store = new DiskResponseCacheStore(directory, 300);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            store.put("key" + i, createResponse("\"v" + i + "\"", "0123456789012345678901234567890123456789"));
+        }
+
+        // Then
+        long sizeInBytes = 0;
+        for (File file : directory.listFiles()) {
+            sizeInBytes += file.length();
+        }
+        assertEquals(true, sizeInBytes <= 300);
+        assertNotNull(store.get("key9"));
+    }
+
+    @Test
+    public void tieredStore_promotesSlowTierHits() throws IOException {
+        // Given
+        MemoryResponseCacheStore memoryStore = new MemoryResponseCacheStore(1024 * 1024);
+        DiskResponseCacheStore diskStore = new DiskResponseCacheStore(temporaryFolder.newFolder("cache"), 1024 * 1024);
+        diskStore.put("key", createResponse("\"v1\"", "properties"));
+        TieredResponseCacheStore store = new TieredResponseCacheStore(memoryStore, diskStore);
+
+        // When
+        CachedResponse cached = store.get("key");
+
+        // Then
+        assertNotNull(cached);
+        assertNotNull(memoryStore.get("key"));
+    }
+
+    private static CachedResponse createResponse(String eTag, String body) {
+        return new CachedResponse(200,
+            "OK",
+            new Headers.Builder().add("ETag", eTag).add("Content-Type", "application/xml").build(),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,137 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static com.azure.android.core.common.TestUtils.buildOkHttpClientWithInterceptor;
+import static com.azure.android.core.common.TestUtils.buildOkHttpClientWithInterceptors;
+import static com.azure.android.core.common.TestUtils.getSimpleRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerInterceptorTest {
+    private final long[] nowNanos = new long[1];
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailures() throws IOException {
+        // Given
+        OkHttpClient okHttpClient = buildOkHttpClientWithInterceptor(createInterceptor(new CircuitBreakerOptions()
+            .setFailureThreshold(2)
+            .setOpenDuration(Duration.ofSeconds(30))));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        // When
+        execute(okHttpClient).close();
+        execute(okHttpClient).close();
+        nowNanos[0] += Duration.ofSeconds(10).toNanos();
+        CircuitBreakerOpenException exception =
+            assertThrows(CircuitBreakerOpenException.class, () -> execute(okHttpClient));
+
+        // Then
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertFalse(exception.isRetryBudgetExhausted());
+        assertEquals(Duration.ofSeconds(20), exception.getRetryAfter());
+    }
+
+    @Test
+    public void circuitClosesAfterSuccessfulProbe() throws IOException {
+        // Given an open circuit.
+        OkHttpClient okHttpClient = buildOkHttpClientWithInterceptor(createInterceptor(new CircuitBreakerOptions()
+            .setFailureThreshold(1)
+            .setOpenDuration(Duration.ofSeconds(30))));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        execute(okHttpClient).close();
+        assertThrows(CircuitBreakerOpenException.class, () -> execute(okHttpClient));
+
+        // When the open duration elapses and the probe succeeds.
+        nowNanos[0] += Duration.ofSeconds(30).toNanos();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // Then the circuit is closed.
+        assertEquals(200, execute(okHttpClient).code());
+        assertEquals(200, execute(okHttpClient).code());
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void circuitReopensAfterFailedProbe() throws IOException {
+        // Given an open circuit.
+        OkHttpClient okHttpClient = buildOkHttpClientWithInterceptor(createInterceptor(new CircuitBreakerOptions()
+            .setFailureThreshold(1)
+            .setOpenDuration(Duration.ofSeconds(30))));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        execute(okHttpClient).close();
+
+        // When the open duration elapses and the probe fails.
+        nowNanos[0] += Duration.ofSeconds(30).toNanos();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        execute(okHttpClient).close();
+
+        // Then the circuit is open again.
+        assertThrows(CircuitBreakerOpenException.class, () -> execute(okHttpClient));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void retriesBeyondBudgetAreRejected() throws IOException {
+        // Given a retry budget allowing 1 retry for every 2 requests.
+        OkHttpClient okHttpClient = buildOkHttpClientWithInterceptors(Arrays.asList(
+            RetryInterceptor.withFixedDelay(3, Duration.ofMillis(1)),
+            createInterceptor(new CircuitBreakerOptions()
+                .setFailureThreshold(100)
+                .setRetryBudgetRatio(0.5)
+                .setMinRetriesPerSecond(0))));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        // When
+        execute(okHttpClient).close();
+        Response retried = execute(okHttpClient);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        CircuitBreakerOpenException exception =
+            assertThrows(CircuitBreakerOpenException.class, () -> execute(okHttpClient));
+
+        // Then the first retry is within the budget, the second is not.
+        assertEquals(200, retried.code());
+        assertTrue(exception.isRetryBudgetExhausted());
+        assertEquals(4, mockWebServer.getRequestCount());
+    }
+
+    private CircuitBreakerInterceptor createInterceptor(CircuitBreakerOptions options) {
+        return new CircuitBreakerInterceptor(options, () -> nowNanos[0]);
+    }
+
+    private Response execute(OkHttpClient okHttpClient) throws IOException {
+        return okHttpClient.newCall(getSimpleRequest(mockWebServer)).execute();
+    }
+}
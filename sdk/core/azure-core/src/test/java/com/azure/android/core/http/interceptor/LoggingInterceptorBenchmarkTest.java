@@ -0,0 +1,207 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.azure.android.core.common.MicroBenchmark;
+import com.azure.android.core.util.logging.ClientLogger;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class LoggingInterceptorBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    public void disabledLogging_doesNearZeroWork() throws Exception {
+        // Given a typical storage request and response...
+        StubChain chain = new StubChain(createRequest(), createResponse());
+        // ...and interceptors logging at the WARNING and DEBUG levels.
+        CountingClientLogger warningLogger = new CountingClientLogger(ClientLogger.LOG_LEVEL_WARNING);
+        LoggingInterceptor warningInterceptor = new LoggingInterceptor(new LogOptions(), warningLogger);
+        CountingClientLogger debugLogger = new CountingClientLogger(ClientLogger.LOG_LEVEL_DEBUG);
+        LoggingInterceptor debugInterceptor = new LoggingInterceptor(new LogOptions(), debugLogger);
+
+        // When
+        double warningNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> warningInterceptor.intercept(chain));
+        double debugNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> debugInterceptor.intercept(chain));
+
+        // Then the disabled logging is a fraction of the cost of the enabled one.
+        assertTrue(warningNanos < debugNanos);
+    }
+
+    private static Request createRequest() {
+        return new Request.Builder()
+            .url("https://account.blob.core.windows.net/container/blob?comp=block&blockid=AAAA&sv=2019-02-02&sig=abc")
+            .header("x-ms-client-request-id", "2b9f5e3a-6b6c-4c1d-9d8e-2a7c3e4f5a6b")
+            .header("x-ms-version", "2019-02-02")
+            .header("x-ms-date", "Mon, 19 Oct 2026 10:00:00 GMT")
+            .header("User-Agent", "azsdk-android-storage-blob/1.0.0")
+            .header("Authorization", "Bearer token")
+            .put(RequestBody.create(MediaType.get("text/plain"), new String(new char[1024]).replace('\0', 'a')))
+            .build();
+    }
+
+    private static Response createResponse() {
+        return new Response.Builder()
+            .request(createRequest())
+            .protocol(Protocol.HTTP_1_1)
+            .code(201)
+            .message("Created")
+            .header("x-ms-request-id", "8d3c1f2e-501e-0003-1b2c-3d4e5f6a7b8c")
+            .header("x-ms-version", "2019-02-02")
+            .header("x-ms-request-server-encrypted", "true")
+            .header("Date", "Mon, 19 Oct 2026 10:00:00 GMT")
+            .header("Content-MD5", "1B2M2Y8AsgTpgAmY7PhCfg==")
+            .body(ResponseBody.create(MediaType.get("text/plain"), "created"))
+            .build();
+    }
+
+    private static final class CountingClientLogger implements ClientLogger {
+        private int logLevel;
+        int preparedMessageCount;
+
+        CountingClientLogger(int logLevel) {
+            this.logLevel = logLevel;
+        }
+
+        @Override
+        public int getLogLevel() {
+            return logLevel;
+        }
+
+        @Override
+        public void setLogLevel(int logLevel) {
+            this.logLevel = logLevel;
+        }
+
+        @Override
+        public void debug(String message) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void debug(String message, Throwable throwable) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void info(String message) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void info(String message, Throwable throwable) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void warning(String message) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void warning(String message, Throwable throwable) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void error(String message) {
+            preparedMessageCount++;
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            preparedMessageCount++;
+        }
+    }
+
+    /**
+     * A chain returning a canned response, so that only the interceptor is measured.
+     */
+    private static final class StubChain implements Interceptor.Chain {
+        private final Request request;
+        private final Response response;
+
+        StubChain(Request request, Response response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response proceed(@NonNull Request request) throws IOException {
+            return response;
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public Call call() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+    }
+}
@@ -15,12 +15,14 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
+import okhttp3.Response;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okio.BufferedSink;
@@ -38,6 +40,7 @@ import static com.azure.android.core.util.logging.ClientLogger.LOG_LEVEL_DEBUG;
 import static com.azure.android.core.util.logging.ClientLogger.LOG_LEVEL_INFO;
 import static com.azure.android.core.util.logging.ClientLogger.LOG_LEVEL_WARNING;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class LoggingInterceptorTest {
@@ -1022,8 +1025,8 @@ public class LoggingInterceptorTest {
             .setBody(testBody)
             .addHeader("Content-Encoding", "identity"));
 
-        // When sending a request.
-        okHttpClient.newCall(request).execute();
+        // When sending a request and reading the response body as it is streamed.
+        okHttpClient.newCall(request).execute().body().string();
 
         List<AbstractMap.SimpleEntry<Integer, String>> logs = testClientLogger.getLogs();
         int logLevel = 0;
@@ -1104,8 +1107,8 @@ public class LoggingInterceptorTest {
             .setBody(testBody)
             .addHeader("Content-Disposition", "inline"));
 
-        // When sending a request.
-        okHttpClient.newCall(request).execute();
+        // When sending a request and reading the response body as it is streamed.
+        okHttpClient.newCall(request).execute().body().string();
 
         List<AbstractMap.SimpleEntry<Integer, String>> logs = testClientLogger.getLogs();
         int logLevel = 0;
@@ -1330,4 +1333,101 @@ public class LoggingInterceptorTest {
         // ...at the INFO log level.
         assertEquals(LOG_LEVEL_DEBUG, logLevel);
     }
+
+    @Test
+    public void responseBody_isLoggedAtDebugLevel_onceConsumed() throws IOException {
+        // Given a response with a body and a client with a LoggingInterceptor.
+        Request request = getSimpleRequest(mockWebServer);
+
+        // When sending a request...
+        Response response = okHttpClient.newCall(request).execute();
+
+        // Then the body is not read ahead of the caller...
+        assertFalse(containsLogMessage("Test body"));
+        assertFalse(containsLogMessage("<-- [END null]"));
+
+        // ...and when the caller reads it, it goes through unchanged...
+        assertEquals("Test body", response.body().string());
+
+        // ...and is logged at the DEBUG log level, before the end of the response logs.
+        List<AbstractMap.SimpleEntry<Integer, String>> logs = testClientLogger.getLogs();
+        AbstractMap.SimpleEntry<Integer, String> bodyLog = logs.get(logs.size() - 2);
+        assertEquals("Test body", bodyLog.getValue());
+        assertEquals(LOG_LEVEL_DEBUG, (int) bodyLog.getKey());
+        assertEquals("<-- [END null]", logs.get(logs.size() - 1).getValue());
+    }
+
+    @Test
+    public void requestBody_isWrittenOnce_onRequest() throws Exception {
+        // Given a request with a body counting how many times it is written and a client with a LoggingInterceptor.
+        String testBody = "Test body";
+        AtomicInteger writeCount = new AtomicInteger();
+        Request request = new Request.Builder().url(mockWebServer.url("/")).put(new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return MediaType.get("text/html");
+            }
+
+            @Override
+            public long contentLength() {
+                return testBody.length();
+            }
+
+            @SuppressWarnings("NullableProblems")
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                writeCount.incrementAndGet();
+                sink.writeUtf8(testBody);
+            }
+        }).build();
+
+        // When sending said request.
+        okHttpClient.newCall(request).execute();
+
+        // Then the body should be written once, to the network...
+        assertEquals(1, writeCount.get());
+        assertEquals(testBody, mockWebServer.takeRequest().getBody().readUtf8());
+        // ...and logged as it was written.
+        assertTrue(containsLogMessage(testBody));
+    }
+
+    @Test
+    public void noMessage_isPrepared_onSuccessfulResponseAtWarningLevel() throws IOException {
+        // Given a client with a LoggingInterceptor logging at the WARNING level.
+        TestClientLogger warningLogger = new TestClientLogger();
+        warningLogger.setLogLevel(LOG_LEVEL_WARNING);
+        OkHttpClient client =
+            buildOkHttpClientWithInterceptor(new LoggingInterceptor(new LogOptions(), warningLogger));
+
+        // When sending a request that succeeds.
+        client.newCall(getSimpleRequest(mockWebServer)).execute().close();
+
+        // Then no message is prepared for the disabled levels.
+        assertTrue(warningLogger.getLogs().isEmpty());
+    }
+
+    @Test
+    public void messages_arePrepared_onSuccessfulResponseAtDebugLevel() throws IOException {
+        // Given a client with a LoggingInterceptor logging at the DEBUG level.
+        TestClientLogger debugLogger = new TestClientLogger();
+        debugLogger.setLogLevel(LOG_LEVEL_DEBUG);
+        OkHttpClient client =
+            buildOkHttpClientWithInterceptor(new LoggingInterceptor(new LogOptions(), debugLogger));
+
+        // When sending a request that succeeds.
+        client.newCall(getSimpleRequest(mockWebServer)).execute().close();
+
+        // Then the request and response messages are prepared.
+        assertFalse(debugLogger.getLogs().isEmpty());
+    }
+
+    private boolean containsLogMessage(String logMessage) {
+        for (AbstractMap.SimpleEntry<Integer, String> entry : testClientLogger.getLogs()) {
+            if (entry.getValue().equals(logMessage)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
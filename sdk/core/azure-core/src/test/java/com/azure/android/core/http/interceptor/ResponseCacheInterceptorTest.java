@@ -0,0 +1,135 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import com.azure.android.core.http.cache.MemoryResponseCacheStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheInterceptorTest {
+    private MockWebServer mockWebServer;
+    private TestService service;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addInterceptor(new ResponseCacheInterceptor(new MemoryResponseCacheStore(1024 * 1024),
+                Collections.singletonList("getProperties")))
+            .build();
+        service = new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .build()
+            .create(TestService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void notModifiedResponse_isReplacedByCachedResponse() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("properties"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304).setHeader("x-ms-request-id", "second"));
+
+        // When
+        Response<ResponseBody> first = service.getProperties().execute();
+        first.body().close();
+        Response<ResponseBody> second = service.getProperties().execute();
+
+        // Then
+        RecordedRequest firstRequest = mockWebServer.takeRequest();
+        RecordedRequest secondRequest = mockWebServer.takeRequest();
+        assertNull(firstRequest.getHeader("If-None-Match"));
+        assertEquals("\"v1\"", secondRequest.getHeader("If-None-Match"));
+        assertEquals(200, second.code());
+        assertEquals("\"v1\"", second.headers().get("ETag"));
+        assertEquals("second", second.headers().get("x-ms-request-id"));
+        assertEquals("properties", second.body().string());
+    }
+
+    @Test
+    public void modifiedResponse_replacesCachedResponse() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("first"));
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("second"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        // When
+        service.getProperties().execute().body().close();
+        assertEquals("second", service.getProperties().execute().body().string());
+        Response<ResponseBody> third = service.getProperties().execute();
+
+        // Then
+        mockWebServer.takeRequest();
+        assertEquals("\"v1\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v2\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+        assertEquals("second", third.body().string());
+    }
+
+    @Test
+    public void operationNotOptedIn_isNotCached() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("tags"));
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("tags"));
+
+        // When
+        service.getTags().execute().body().close();
+        service.getTags().execute().body().close();
+
+        // Then
+        mockWebServer.takeRequest();
+        assertNull(mockWebServer.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void callerIfNoneMatch_isLeftUntouched() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("properties"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        // When
+        service.getProperties().execute().body().close();
+        Response<ResponseBody> response = service.getProperties("\"v0\"").execute();
+
+        // Then
+        mockWebServer.takeRequest();
+        assertEquals("\"v0\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+        assertEquals(304, response.code());
+    }
+
+    private interface TestService {
+        @GET("properties")
+        Call<ResponseBody> getProperties();
+
+        @GET("properties")
+        Call<ResponseBody> getProperties(@Header("If-None-Match") String ifNoneMatch);
+
+        @GET("tags")
+        Call<ResponseBody> getTags();
+    }
+}
@@ -0,0 +1,162 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.util.Random;
+
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetryStrategyTest {
+    private static final int CLIENTS = 1000;
+    private static final Duration BASE_DELAY = Duration.ofMillis(800);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(8);
+    private static final long BUCKET_MILLIS = 100;
+
+    @Test
+    public void fullJitter_spreadsThunderingHerd() {
+        // Given
+        int exponentialPeak = simulatePeakRetriesPerBucket(new ExponentialBackoff(3, BASE_DELAY, MAX_DELAY));
+
+        // When
+        int fullJitterPeak = simulatePeakRetriesPerBucket(
+            new FullJitterBackoff(3, BASE_DELAY, MAX_DELAY, new Random(42)));
+
+        // Then the clients retrying with ±5% jitter land in one or two buckets, the full jitter ones don't.
+        assertTrue("exponential peak " + exponentialPeak, exponentialPeak >= CLIENTS / 2);
+        assertTrue("full jitter peak " + fullJitterPeak, fullJitterPeak < CLIENTS * 3 / 10);
+    }
+
+    @Test
+    public void decorrelatedJitter_spreadsThunderingHerd() {
+        // Given
+        int exponentialPeak = simulatePeakRetriesPerBucket(new ExponentialBackoff(3, BASE_DELAY, MAX_DELAY));
+
+        // When
+        int decorrelatedPeak = simulatePeakRetriesPerBucket(
+            new DecorrelatedJitterBackoff(3, BASE_DELAY, MAX_DELAY, new Random(42)));
+
+        // Then
+        assertTrue("exponential peak " + exponentialPeak, exponentialPeak >= CLIENTS / 2);
+        assertTrue("decorrelated jitter peak " + decorrelatedPeak, decorrelatedPeak < CLIENTS * 3 / 10);
+    }
+
+    @Test
+    public void fullJitter_delayIsWithinBackoffWindow() {
+        // Given
+        FullJitterBackoff strategy = new FullJitterBackoff(10, BASE_DELAY, MAX_DELAY, new Random(42));
+
+        for (int retryAttempts = 0; retryAttempts < 10; retryAttempts++) {
+            // When
+            Duration delay = strategy.calculateRetryDelay(null, null, retryAttempts);
+
+            // Then
+            Duration ceiling = Duration.ofNanos(Math.min(BASE_DELAY.toNanos() << retryAttempts, MAX_DELAY.toNanos()));
+            assertTrue(!delay.isNegative() && delay.compareTo(ceiling) <= 0);
+        }
+    }
+
+    @Test
+    public void decorrelatedJitter_delayGrowsFromPreviousDelay() {
+        // Given
+        DecorrelatedJitterBackoff strategy = new DecorrelatedJitterBackoff(10, BASE_DELAY, MAX_DELAY, new Random(42));
+
+        for (int i = 0; i < 100; i++) {
+            // When
+            Duration delay = strategy.calculateRetryDelay(null, null, 1, Duration.ofSeconds(2));
+
+            // Then
+            assertTrue(delay.compareTo(BASE_DELAY) >= 0 && delay.compareTo(Duration.ofSeconds(6)) <= 0);
+        }
+        assertTrue(strategy.calculateRetryDelay(null, null, 5, Duration.ofSeconds(30)).compareTo(MAX_DELAY) <= 0);
+    }
+
+    @Test
+    public void retryAfter_isClampedToStrategyMaxDelay() {
+        // Given
+        RetryInterceptor retryInterceptor = RetryInterceptor.withFullJitterBackoff(3, BASE_DELAY, MAX_DELAY);
+
+        // When
+        Duration delay = retryInterceptor.calculateRetryDelay(createResponse(503, "Retry-After", "3600"), null, 0);
+
+        // Then
+        assertEquals(MAX_DELAY, delay);
+    }
+
+    @Test
+    public void retryAfterMs_isClampedToStrategyMinDelay() {
+        // Given
+        RetryInterceptor retryInterceptor = RetryInterceptor.withDecorrelatedJitterBackoff(3, BASE_DELAY, MAX_DELAY);
+
+        // When
+        Duration delay = retryInterceptor.calculateRetryDelay(createResponse(429, "x-ms-retry-after-ms", "0"), null, 0);
+
+        // Then
+        assertEquals(BASE_DELAY, delay);
+    }
+
+    @Test
+    public void retryAfter_isHonoredWithinStrategyBounds() {
+        // Given
+        RetryInterceptor retryInterceptor = RetryInterceptor.withFullJitterBackoff(3, BASE_DELAY, MAX_DELAY);
+
+        // When
+        Duration delay = retryInterceptor.calculateRetryDelay(createResponse(503, "Retry-After", "2"), null, 0);
+
+        // Then
+        assertEquals(Duration.ofSeconds(2), delay);
+    }
+
+    @Test
+    public void invalidRetryAfter_fallsBackToStrategyDelay() {
+        // Given
+        RetryInterceptor retryInterceptor = RetryInterceptor.withFixedDelay(3, Duration.ofMillis(50));
+
+        // When
+        Duration delay = retryInterceptor.calculateRetryDelay(createResponse(503, "Retry-After", "soon"), null, 0);
+
+        // Then
+        assertEquals(Duration.ofMillis(50), delay);
+    }
+
+    /**
+     * Simulate clients that all failed at the same time and retry against a service that is still down, and
+     * get the highest number of retries received by the service within a bucket of time.
+     */
+    private static int simulatePeakRetriesPerBucket(RetryStrategy strategy) {
+        final int[] buckets = new int[(int) (strategy.getMaxRetries() * MAX_DELAY.toMillis() / BUCKET_MILLIS) + 1];
+        for (int client = 0; client < CLIENTS; client++) {
+            long nowMillis = 0;
+            Duration previousDelay = null;
+            for (int retryAttempts = 0; retryAttempts < strategy.getMaxRetries(); retryAttempts++) {
+                final Duration delay = strategy.calculateRetryDelay(null, null, retryAttempts, previousDelay);
+                nowMillis += delay.toMillis();
+                buckets[(int) (nowMillis / BUCKET_MILLIS)]++;
+                previousDelay = delay;
+            }
+        }
+        int peak = 0;
+        for (int count : buckets) {
+            peak = Math.max(peak, count);
+        }
+        return peak;
+    }
+
+    private static Response createResponse(int code, String headerName, String headerValue) {
+        return new Response.Builder()
+            .request(new Request.Builder().url("http://localhost/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(code)
+            .message("")
+            .header(headerName, headerValue)
+            .build();
+    }
+}
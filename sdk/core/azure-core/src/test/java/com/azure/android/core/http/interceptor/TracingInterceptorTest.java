@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.interceptor;
+
+import com.azure.android.core.internal.util.RetryScheduler;
+import com.azure.android.core.tracing.InMemorySpanExporter;
+import com.azure.android.core.tracing.RecordingTracer;
+import com.azure.android.core.tracing.SpanData;
+import com.azure.android.core.tracing.Tracer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TracingInterceptorTest {
+    private MockWebServer mockWebServer;
+    private InMemorySpanExporter exporter;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        exporter = new InMemorySpanExporter();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void operation_isTracedWithAChildSpanPerAttempt() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setHeader("x-ms-request-id", "server-id").setBody("block"));
+        TestService service = createService(new RecordingTracer(exporter));
+
+        // When
+        service.stageBlock().execute().body().close();
+
+        // Then
+        List<SpanData> spans = exporter.getFinishedSpans();
+        assertEquals(3, spans.size());
+        SpanData firstAttempt = spans.get(0);
+        SpanData secondAttempt = spans.get(1);
+        SpanData operation = spans.get(2);
+        assertEquals("TestService.stageBlock", operation.getName());
+        assertNull(operation.getParentSpanId());
+        assertEquals("200", operation.getAttributes().get("http.status_code"));
+        assertEquals(operation.getContext().getSpanId(), firstAttempt.getParentSpanId());
+        assertEquals(operation.getContext().getSpanId(), secondAttempt.getParentSpanId());
+        assertEquals(operation.getContext().getTraceId(), secondAttempt.getContext().getTraceId());
+        assertEquals("503", firstAttempt.getAttributes().get("http.status_code"));
+        assertEquals("1", secondAttempt.getAttributes().get("retry.attempt"));
+        assertEquals("server-id", secondAttempt.getAttributes().get("x-ms-request-id"));
+
+        // And each attempt propagates its own span.
+        RecordedRequest firstRequest = mockWebServer.takeRequest();
+        RecordedRequest secondRequest = mockWebServer.takeRequest();
+        assertEquals(firstAttempt.getContext().toTraceparent(), firstRequest.getHeader("traceparent"));
+        assertEquals(secondAttempt.getContext().toTraceparent(), secondRequest.getHeader("traceparent"));
+    }
+
+    @Test
+    public void deferredRetries_shareTheOperationSpan() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("block"));
+        TestService service = createService(new RecordingTracer(exporter));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // When
+        RetryScheduler.enqueue(service.stageBlock(), null, new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                response.body().close();
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                latch.countDown();
+            }
+        });
+
+        // Then
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        List<SpanData> spans = exporter.getFinishedSpans();
+        assertEquals(3, spans.size());
+        SpanData operation = spans.get(2);
+        assertEquals("TestService.stageBlock", operation.getName());
+        assertEquals(operation.getContext().getSpanId(), spans.get(0).getParentSpanId());
+        assertEquals(operation.getContext().getSpanId(), spans.get(1).getParentSpanId());
+    }
+
+    @Test
+    public void callerTraceparent_isTheParentOfTheOperation() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse());
+        TestService service = createService(new RecordingTracer(exporter));
+
+        // When
+        service.stageBlock("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01").execute().body().close();
+
+        // Then
+        SpanData operation = exporter.getFinishedSpans().get(1);
+        assertEquals("0af7651916cd43dd8448eb211c80319c", operation.getContext().getTraceId());
+        assertEquals("b7ad6b7169203331", operation.getParentSpanId());
+    }
+
+    @Test
+    public void noopTracer_propagatesNothing() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse());
+        TestService service = createService(Tracer.NOOP);
+
+        // When
+        service.stageBlock().execute().body().close();
+
+        // Then
+        assertNull(mockWebServer.takeRequest().getHeader("traceparent"));
+    }
+
+    private TestService createService(Tracer tracer) {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addInterceptor(new TracingInterceptor(tracer))
+            .addInterceptor(RetryInterceptor.withFixedDelay(3, Duration.ofMillis(10)))
+            .build();
+        return new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .callbackExecutor(httpClient.dispatcher().executorService())
+            .build()
+            .create(TestService.class);
+    }
+
+    private interface TestService {
+        @GET("container/blob?comp=block")
+        Call<ResponseBody> stageBlock();
+
+        @GET("container/blob?comp=block")
+        Call<ResponseBody> stageBlock(@Header("traceparent") String traceparent);
+    }
+}
@@ -0,0 +1,304 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.Header;
+import retrofit2.http.Streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RequestCoalescerTest {
+    private MockWebServer mockWebServer;
+    private TestService service;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        OkHttpClient httpClient = new OkHttpClient();
+        service = new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .callbackExecutor(httpClient.dispatcher().executorService())
+            .build()
+            .create(TestService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void enqueue_identicalCallsShareOneRequest() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+            .setHeader("x-ms-request-id", "shared")
+            .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+
+        // When
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-1"), null, first, null);
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-2"), null, second, null);
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals("shared", first.response.get().headers().get("x-ms-request-id"));
+        assertEquals("shared", second.response.get().headers().get("x-ms-request-id"));
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void enqueue_differentHeadersAreNotCoalesced() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+
+        // When
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-1"), null, first, null);
+        coalescer.enqueue(service.getProperties("2020-02-10", "id-2"), null, second, null);
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_streamingCallsAreNotCoalesced() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("content").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("content").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        StreamCallback first = new StreamCallback();
+        StreamCallback second = new StreamCallback();
+
+        // When
+        coalescer.enqueue(service.download(), null, first, null);
+        coalescer.enqueue(service.download(), null, second, null);
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_bufferedBodyIsDeliveredToEachCallback() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("<Blobs/>").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        StreamCallback first = new StreamCallback();
+        StreamCallback second = new StreamCallback();
+
+        // When
+        coalescer.enqueue(service.listBlobs(), null, first, null);
+        coalescer.enqueue(service.listBlobs(), null, second, null);
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals("<Blobs/>", first.content.get());
+        assertEquals("<Blobs/>", second.content.get());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_errorBodyIsDeliveredToEachCallback() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+            .setResponseCode(404)
+            .setBody("BlobNotFound")
+            .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+
+        // When
+        coalescer.enqueue(service.getTags(), null, first, null);
+        coalescer.enqueue(service.getTags(), null, second, null);
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals("BlobNotFound", first.response.get().errorBody().string());
+        assertEquals("BlobNotFound", second.response.get().errorBody().string());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cancel_oneCallLeavesTheRequestInFlight() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CancellationToken cancellationToken = CancellationToken.create();
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-1"), cancellationToken, first, null);
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-2"), null, second, null);
+
+        // When
+        cancellationToken.cancel();
+
+        // Then the cancelled call fails right away, and the other one receives the response.
+        assertTrue(first.latch.await(100, TimeUnit.MILLISECONDS));
+        assertSame(ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION, first.failure.get());
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(200, second.response.get().code());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cancel_firstCallLeavesTheRequestInFlight() throws Exception {
+        // Given a first call cancelled along with its token, as the service clients do.
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CancellationToken cancellationToken = CancellationToken.create();
+        Call<Void> firstCall = service.getProperties("2019-02-02", "id-1");
+        ((CancellationTokenImpl) cancellationToken).registerOnCancel(firstCall::cancel);
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+        coalescer.enqueue(firstCall, cancellationToken, first, null);
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-2"), null, second, null);
+        mockWebServer.takeRequest(2, TimeUnit.SECONDS);
+
+        // When
+        cancellationToken.cancel();
+
+        // Then the second call still receives the response.
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertSame(ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION, first.failure.get());
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(200, second.response.get().code());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void cancel_allCallsCancelsTheRequest() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse());
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CancellationToken firstToken = CancellationToken.create();
+        CancellationToken secondToken = CancellationToken.create();
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-1"), firstToken, first, null);
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-2"), secondToken, second, null);
+        mockWebServer.takeRequest(2, TimeUnit.SECONDS);
+
+        // When
+        firstToken.cancel();
+        secondToken.cancel();
+
+        // Then
+        assertTrue(first.latch.await(2, TimeUnit.SECONDS));
+        assertTrue(second.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // And a new call sends its own request.
+        ResultCallback third = new ResultCallback();
+        coalescer.enqueue(service.getProperties("2019-02-02", "id-3"), null, third, null);
+        assertTrue(third.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(200, third.response.get().code());
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void coalescingKey_ignoresClientRequestId() {
+        // Given
+        String firstKey = RequestCoalescer.getCoalescingKey(service.getProperties("2019-02-02", "id-1").request());
+        String secondKey = RequestCoalescer.getCoalescingKey(service.getProperties("2019-02-02", "id-2").request());
+        String otherKey = RequestCoalescer.getCoalescingKey(service.getProperties("2020-02-10", "id-1").request());
+
+        // Then
+        assertEquals(firstKey, secondKey);
+        assertFalse(firstKey.equals(otherKey));
+    }
+
+    private interface TestService {
+        @HEAD("container/blob")
+        Call<Void> getProperties(@Header("x-ms-version") String version,
+                                 @Header("x-ms-client-request-id") String requestId);
+
+        @GET("container/blob?comp=tags")
+        Call<Void> getTags();
+
+        @GET("container?comp=list")
+        Call<ResponseBody> listBlobs();
+
+        @Streaming
+        @GET("container/blob")
+        Call<ResponseBody> download();
+    }
+
+    private static final class ResultCallback implements Callback<Void> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Response<Void>> response = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        @Override
+        public void onResponse(Call<Void> call, Response<Void> response) {
+            this.response.set(response);
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<Void> call, Throwable t) {
+            this.failure.set(t);
+            this.latch.countDown();
+        }
+    }
+
+    private static final class StreamCallback implements Callback<ResponseBody> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> content = new AtomicReference<>();
+
+        @Override
+        public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+            try {
+                this.content.set(response.body().string());
+            } catch (IOException e) {
+                this.content.set(null);
+            }
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<ResponseBody> call, Throwable t) {
+            this.latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import com.azure.android.core.http.HedgingPolicy;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestHedgerTest {
+    private MockWebServer mockWebServer;
+    private TestService service;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        OkHttpClient httpClient = new OkHttpClient();
+        service = new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .callbackExecutor(httpClient.dispatcher().executorService())
+            .build()
+            .create(TestService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void enqueue_slowGetIsHedged() throws Exception {
+        // Given a first response slower than the hedging delay.
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("hedged"));
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy().setInitialDelay(Duration.ofMillis(100)));
+        ResultCallback callback = new ResultCallback();
+
+        // When
+        hedger.enqueue(service.get(), null, callback);
+
+        // Then the hedged attempt wins well before the slow response.
+        assertTrue(callback.latch.await(2, TimeUnit.SECONDS));
+        assertEquals("hedged", callback.response.get().body().string());
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_fastGetIsNotHedged() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("fast"));
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy().setInitialDelay(Duration.ofMillis(500)));
+        ResultCallback callback = new ResultCallback();
+
+        // When
+        hedger.enqueue(service.get(), null, callback);
+
+        // Then
+        assertTrue(callback.latch.await(2, TimeUnit.SECONDS));
+        Thread.sleep(700);
+        assertEquals("fast", callback.response.get().body().string());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_postIsNotHedged() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy().setInitialDelay(Duration.ofMillis(50)));
+        ResultCallback callback = new ResultCallback();
+
+        // When
+        hedger.enqueue(service.post(), null, callback);
+
+        // Then
+        assertTrue(callback.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(200, callback.response.get().code());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_cancelCancelsBothAttempts() throws Exception {
+        // Given two attempts in flight.
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(5, TimeUnit.SECONDS));
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy().setInitialDelay(Duration.ofMillis(50)));
+        CancellationToken cancellationToken = CancellationToken.create();
+        ResultCallback callback = new ResultCallback();
+        hedger.enqueue(service.get(), cancellationToken, callback);
+        mockWebServer.takeRequest(2, TimeUnit.SECONDS);
+        mockWebServer.takeRequest(2, TimeUnit.SECONDS);
+
+        // When
+        cancellationToken.cancel();
+
+        // Then the failure is delivered once, after both attempts are cancelled.
+        assertTrue(callback.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(1, callback.failureCount);
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_winningHedgeRecordsTheLatencyFromTheCallStart() throws Exception {
+        // Given a hedger whose delay is the lowest recorded latency, with one latency left to record before the
+        // percentile replaces the initial delay.
+        mockWebServer.enqueue(new MockResponse().setBody("slow").setHeadersDelay(5, TimeUnit.SECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("hedged"));
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy()
+            .setLatencyPercentile(1)
+            .setInitialDelay(Duration.ofMillis(200))
+            .setMinDelay(Duration.ofMillis(1)));
+        for (int i = 0; i < 15; i++) {
+            hedger.recordLatency(Duration.ofSeconds(1).toNanos());
+        }
+        ResultCallback callback = new ResultCallback();
+
+        // When the hedged attempt wins.
+        hedger.enqueue(service.get(), null, callback);
+        assertTrue(callback.latch.await(2, TimeUnit.SECONDS));
+        assertEquals("hedged", callback.response.get().body().string());
+
+        // Then the recorded latency includes the hedging delay, rather than only the latency of the hedge.
+        assertTrue(hedger.getHedgingDelayNanos() >= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    public void hedgingDelay_isLatencyPercentile() {
+        // Given
+        RequestHedger hedger = new RequestHedger(new HedgingPolicy()
+            .setLatencyPercentile(90)
+            .setInitialDelay(Duration.ofMillis(500))
+            .setMinDelay(Duration.ofMillis(5)));
+
+        // When fewer latencies than needed are recorded, then the initial delay applies.
+        for (int i = 1; i <= 10; i++) {
+            hedger.recordLatency(Duration.ofMillis(i * 10).toNanos());
+        }
+        assertEquals(Duration.ofMillis(500).toNanos(), hedger.getHedgingDelayNanos());
+
+        // When enough latencies are recorded, then the percentile applies.
+        for (int i = 11; i <= 100; i++) {
+            hedger.recordLatency(Duration.ofMillis(i * 10).toNanos());
+        }
+        assertEquals(Duration.ofMillis(900).toNanos(), hedger.getHedgingDelayNanos());
+    }
+
+    private interface TestService {
+        @GET("/")
+        Call<ResponseBody> get();
+
+        @POST("/")
+        Call<ResponseBody> post();
+    }
+
+    private static final class ResultCallback implements Callback<ResponseBody> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Response<ResponseBody>> response = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        volatile int failureCount;
+
+        @Override
+        public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+            this.response.set(response);
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<ResponseBody> call, Throwable t) {
+            this.failure.set(t);
+            this.failureCount++;
+            this.latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util;
+
+import com.azure.android.core.http.interceptor.RetryInterceptor;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RetrySchedulerTest {
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void enqueue_retriesUntilSuccess() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+        TestService service = createService(new Dispatcher(), Duration.ofMillis(50));
+        ResultCallback callback = new ResultCallback();
+
+        // When
+        RetryScheduler.enqueue(service.get(), null, callback);
+
+        // Then
+        assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(200, callback.response.get().code());
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_doesNotHoldDispatcherDuringBackoff() throws Exception {
+        // Given a dispatcher that runs a single request at a time.
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(1);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "2"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("second"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("first retried"));
+        TestService service = createService(dispatcher, Duration.ofMillis(50));
+        ResultCallback first = new ResultCallback();
+        ResultCallback second = new ResultCallback();
+
+        // When the first call backs off while the second call is enqueued.
+        RetryScheduler.enqueue(service.get(), null, first);
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        RetryScheduler.enqueue(service.get(), null, second);
+
+        // Then the second call completes during the first call's backoff.
+        assertTrue(second.latch.await(1, TimeUnit.SECONDS));
+        assertEquals(1, first.latch.getCount());
+        assertTrue(first.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(200, first.response.get().code());
+    }
+
+    @Test
+    public void enqueue_cancelDuringBackoff() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "2"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        TestService service = createService(new Dispatcher(), Duration.ofMillis(50));
+        CancellationToken cancellationToken = CancellationToken.create();
+        ResultCallback callback = new ResultCallback();
+
+        // When the token is cancelled once the first attempt failed.
+        RetryScheduler.enqueue(service.get(), cancellationToken, callback);
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        cancellationToken.cancel();
+
+        // Then the retry is not sent.
+        assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+        assertSame(ExceptionUtils.CALL_CANCELLED_IO_EXCEPTION, callback.failure.get());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void execute_retriesInPlace() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        TestService service = createService(new Dispatcher(), Duration.ofMillis(50));
+
+        // When
+        Response<ResponseBody> response = service.get().execute();
+
+        // Then
+        assertEquals(200, response.code());
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void enqueue_exhaustsTheRetriesLikeExecute() throws Exception {
+        // Given a service failing every attempt.
+        for (int i = 0; i < 8; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        }
+        TestService service = createService(new Dispatcher(), Duration.ofMillis(10));
+        RuntimeException syncFailure = null;
+        try {
+            service.get().execute();
+        } catch (RuntimeException e) {
+            syncFailure = e;
+        }
+        int syncRequestCount = mockWebServer.getRequestCount();
+        ResultCallback callback = new ResultCallback();
+
+        // When
+        RetryScheduler.enqueue(service.get(), null, callback);
+
+        // Then the enqueued call sends as many attempts as the executed one, and fails with the same error.
+        assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+        assertNotNull(syncFailure);
+        assertEquals("The max retries (3 times) for the service call is exceeded.", syncFailure.getMessage());
+        assertEquals(3, syncRequestCount);
+        assertEquals(syncRequestCount, mockWebServer.getRequestCount() - syncRequestCount);
+        assertNull(callback.response.get());
+        // OkHttp reports the unchecked exception of an enqueued call as a cancellation suppressing it.
+        Throwable[] suppressed = callback.failure.get().getSuppressed();
+        assertEquals(1, suppressed.length);
+        assertEquals(syncFailure.getClass(), suppressed[0].getClass());
+        assertEquals(syncFailure.getMessage(), suppressed[0].getMessage());
+    }
+
+    private TestService createService(Dispatcher dispatcher, Duration delay) {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .addInterceptor(RetryInterceptor.withFixedDelay(3, delay))
+            .build();
+
+        return new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .callbackExecutor(httpClient.dispatcher().executorService())
+            .build()
+            .create(TestService.class);
+    }
+
+    private interface TestService {
+        @GET("/")
+        Call<ResponseBody> get();
+    }
+
+    private static final class ResultCallback implements Callback<ResponseBody> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Response<ResponseBody>> response = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        @Override
+        public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+            this.response.set(response);
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<ResponseBody> call, Throwable t) {
+            this.failure.set(t);
+            this.latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.common.MicroBenchmark;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import okhttp3.Headers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class JacksonAdapterHeadersBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 10_000;
+    private static final int ITERATIONS = 50_000;
+
+    @Test
+    public void headerBinding_isComparedWithJackson() throws Exception {
+        // Given the headers of a blob download response.
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        Headers headers = JacksonAdapterTest.createBlobHeaders();
+
+        // When
+        double jacksonNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> jacksonAdapter.deserializeWithJackson(headers, TestBlobHeaders.class));
+        double bindingNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> jacksonAdapter.deserialize(headers, TestBlobHeaders.class));
+
+        // Then
+        assertTrue(bindingNanos < jacksonNanos);
+        TestBlobHeaders boundHeaders = jacksonAdapter.deserialize(headers, TestBlobHeaders.class);
+        assertEquals("BlockBlob", boundHeaders.getBlobType().toString());
+    }
+}
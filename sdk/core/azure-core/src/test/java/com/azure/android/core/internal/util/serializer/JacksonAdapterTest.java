@@ -4,17 +4,22 @@
 package com.azure.android.core.internal.util.serializer;
 
 import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.azure.android.core.util.DateTimeRfc1123;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import okhttp3.Headers;
+import okio.Buffer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -121,6 +126,26 @@ public class JacksonAdapterTest {
             serializerAdapter.serializeList(list, SerializerAdapter.CollectionFormat.MULTI));
     }
 
+    @Test
+    public void serializeList_stringsAndEnums_areSerializedAsJackson() {
+        // Given strings, with and without characters JSON escapes, enums with and without a JSON value, and an
+        // expandable string enum.
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        List<Object> list = new ArrayList<>();
+        list.add("metadata");
+        list.add("say \"hi\"\t\\");
+        list.add(null);
+        list.add(TestBlobHeaders.TestBlobType.PAGE_BLOB);
+        list.add(SerializerFormat.XML);
+        list.add(TestAccessTier.HOT);
+
+        // When
+        String serialized = jacksonAdapter.serializeList(list, SerializerAdapter.CollectionFormat.CSV);
+
+        // Then the values are the ones Jackson writes, without the quotes of the strings.
+        assertEquals("metadata,say \\\"hi\\\"\\t\\\\,,PageBlob,XML,Hot", serialized);
+    }
+
     @Test
     public void serializeList_nullObject() throws IOException {
         SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
@@ -156,7 +181,7 @@ public class JacksonAdapterTest {
     public void deserialize_nullObject() throws IOException {
         SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
 
-        assertNull(serializerAdapter.deserialize(null, TestModel.class, SerializerFormat.XML));
+        assertNull(serializerAdapter.deserialize((String) null, TestModel.class, SerializerFormat.XML));
     }
 
     @Test
@@ -175,6 +200,128 @@ public class JacksonAdapterTest {
             TestModel.class, null));
     }
 
+    @Test
+    public void deserialize_xmlSource() throws IOException {
+        // Given
+        SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
+        Buffer source = new Buffer().writeUtf8("<TestModel><x>1</x><y>2</y></TestModel>");
+
+        // When
+        TestModel testModel = serializerAdapter.deserialize(source, TestModel.class, SerializerFormat.XML);
+
+        // Then
+        assertEquals(new TestModel(1, 2), testModel);
+    }
+
+    @Test
+    public void deserialize_sourceStartingWithByteOrderMark() throws IOException {
+        // Given
+        SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
+        Buffer jsonSource = new Buffer().writeUtf8("\uFEFF{\"x\": 1, \"y\": 2}");
+        Buffer xmlSource = new Buffer().writeUtf8("\uFEFF<TestModel><x>1</x><y>2</y></TestModel>");
+
+        // When
+        TestModel jsonTestModel = serializerAdapter.deserialize(jsonSource, TestModel.class, SerializerFormat.JSON);
+        TestModel xmlTestModel = serializerAdapter.deserialize(xmlSource, TestModel.class, SerializerFormat.XML);
+
+        // Then
+        assertEquals(new TestModel(1, 2), jsonTestModel);
+        assertEquals(new TestModel(1, 2), xmlTestModel);
+    }
+
+    @Test
+    public void deserialize_emptySource() throws IOException {
+        SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
+
+        assertNull(serializerAdapter.deserialize(new Buffer(), TestModel.class, SerializerFormat.XML));
+        assertNull(serializerAdapter.deserialize(new Buffer().writeUtf8("\uFEFF"), TestModel.class,
+            SerializerFormat.JSON));
+    }
+
+    @Test
+    public void deserialize_utf8InputStream() throws IOException {
+        // Given a stream with non-ASCII characters, which doesn't depend on the platform charset.
+        SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
+        ByteArrayInputStream inputStream =
+            new ByteArrayInputStream("{\"D\u00e9j\u00e0 vu\": \"\u20ac\"}".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Map<String, String> map = serializerAdapter.deserialize(inputStream, Map.class, SerializerFormat.JSON);
+
+        // Then
+        assertEquals("\u20ac", map.get("D\u00e9j\u00e0 vu"));
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void deserialize_malformedSource() throws IOException {
+        SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
+
+        serializerAdapter.deserialize(new Buffer().writeUtf8("TestModel{\"x\": 1, \"y\": 2}}"), TestModel.class,
+            SerializerFormat.JSON);
+    }
+
+    @Test
+    public void warmUp_resolvesTheTypesUsedLater() throws IOException {
+        // Given
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+
+        // When
+        jacksonAdapter.warmUp(SerializerFormat.XML, TestModel.class);
+        jacksonAdapter.warmUp(SerializerFormat.JSON, TestModel.class);
+
+        // Then the cached readers and writers behave as the mappers.
+        assertEquals("<?xml version='1.0' encoding='UTF-8'?><TestModel><x>1</x><y>2</y></TestModel>",
+            jacksonAdapter.serialize(new TestModel(1, 2), SerializerFormat.XML));
+        assertEquals("{\"x\":1,\"y\":2}", jacksonAdapter.serialize(new TestModel(1, 2), SerializerFormat.JSON));
+        assertEquals(new TestModel(1, 2), jacksonAdapter.deserialize("<TestModel><x>1</x><y>2</y></TestModel>",
+            TestModel.class, SerializerFormat.XML));
+        assertEquals(new TestModel(1, 2), jacksonAdapter.deserialize("{\"x\": 1, \"y\": 2}",
+            TestModel.class, SerializerFormat.JSON));
+    }
+
+    @Test
+    public void deserialize_withRegisteredXmlDeserializer() throws IOException {
+        // Given a deserializer reading the attributes of the root element.
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        jacksonAdapter.registerXmlDeserializer(TestModel.class, reader -> new TestModel(
+            Integer.parseInt(reader.getAttributeValue(null, "x")),
+            Integer.parseInt(reader.getAttributeValue(null, "y"))));
+
+        // When
+        TestModel testModel = jacksonAdapter.deserialize(
+            new Buffer().writeUtf8("\uFEFF<?xml version=\"1.0\"?>\n<TestModel x=\"1\" y=\"2\"/>"), TestModel.class,
+            SerializerFormat.XML);
+
+        // Then the registered type is read by the deserializer, and the other types by Jackson.
+        assertEquals(new TestModel(1, 2), testModel);
+        assertEquals(new TestModel(1, 2), jacksonAdapter.deserialize("{\"x\": 1, \"y\": 2}", TestModel.class,
+            SerializerFormat.JSON));
+    }
+
+    @Test
+    public void deserialize_withRegisteredJsonDeserializer() throws IOException {
+        // Given a deserializer reading an array of the two values.
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        jacksonAdapter.registerJsonDeserializer(TestModel.class, parser -> {
+            int[] values = parser.readValueAs(int[].class);
+            return new TestModel(values[0], values[1]);
+        });
+
+        // When
+        TestModel testModel = jacksonAdapter.deserialize("[1, 2]", TestModel.class, SerializerFormat.JSON);
+
+        // Then
+        assertEquals(new TestModel(1, 2), testModel);
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void deserialize_malformedXmlWithRegisteredDeserializer() throws IOException {
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        jacksonAdapter.registerXmlDeserializer(TestModel.class, reader -> new TestModel(1, 2));
+
+        jacksonAdapter.deserialize("<TestModel", TestModel.class, SerializerFormat.XML);
+    }
+
     @Test
     public void deserialize_headers() throws IOException {
         SerializerAdapter serializerAdapter = JacksonAdapter.createDefaultSerializerAdapter();
@@ -215,4 +362,65 @@ public class JacksonAdapterTest {
 
         assertNull(serializerAdapter.deserialize(headers, null));
     }
+
+    @Test
+    public void deserialize_headersAreBoundIntoFields() throws IOException {
+        // Given
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        Headers headers = createBlobHeaders();
+
+        // When
+        TestBlobHeaders boundHeaders = jacksonAdapter.deserialize(headers, TestBlobHeaders.class);
+        TestBlobHeaders jacksonHeaders = jacksonAdapter.deserializeWithJackson(headers, TestBlobHeaders.class);
+
+        // Then the headers are bound as Jackson deserializes them.
+        assertEquals(new DateTimeRfc1123("Mon, 19 Oct 2020 10:00:00 GMT"), boundHeaders.getLastModified());
+        assertEquals(jacksonHeaders.getLastModified(), boundHeaders.getLastModified());
+        assertEquals(Long.valueOf(1024), boundHeaders.getContentLength());
+        assertEquals(jacksonHeaders.getContentLength(), boundHeaders.getContentLength());
+        assertEquals("application/octet-stream", boundHeaders.getContentType());
+        assertEquals("\"0x8D8742D7E1F1A5B\"", boundHeaders.getETag());
+        assertEquals(jacksonHeaders.getETag(), boundHeaders.getETag());
+        assertArrayEquals(jacksonHeaders.getContentMd5(), boundHeaders.getContentMd5());
+        assertEquals(16, boundHeaders.getContentMd5().length);
+        assertEquals(TestBlobHeaders.TestBlobType.BLOCK_BLOB, boundHeaders.getBlobType());
+        assertEquals(jacksonHeaders.getBlobType(), boundHeaders.getBlobType());
+        assertEquals(Integer.valueOf(3), boundHeaders.getBlobCommittedBlockCount());
+        assertEquals(Boolean.TRUE, boundHeaders.isServerEncrypted());
+        assertEquals(jacksonHeaders.isServerEncrypted(), boundHeaders.isServerEncrypted());
+        assertEquals("2019-02-02", boundHeaders.getVersion());
+        assertNull(boundHeaders.getRequestId());
+        assertEquals(2, boundHeaders.getMetadata().size());
+        assertEquals("bar", boundHeaders.getMetadata().get("foo"));
+        assertEquals(jacksonHeaders.getMetadata(), boundHeaders.getMetadata());
+    }
+
+    @Test(expected = IOException.class)
+    public void deserialize_malformedHeaderValue() throws IOException {
+        // Given
+        Headers headers = new Headers.Builder()
+            .set("Content-Length", "not a number")
+            .build();
+
+        // When
+        new JacksonAdapter().deserialize(headers, TestBlobHeaders.class);
+    }
+
+    static Headers createBlobHeaders() {
+        return new Headers.Builder()
+            .set("Last-Modified", "Mon, 19 Oct 2020 10:00:00 GMT")
+            .set("content-length", "1024")
+            .set("Content-Type", "application/octet-stream")
+            .set("ETag", "\"0x8D8742D7E1F1A5B\"")
+            .set("Content-MD5", "1B2M2Y8AsgTpgAmY7PhCfg==")
+            .set("x-ms-blob-type", "BlockBlob")
+            .set("x-ms-version", "2019-02-02")
+            .set("Date", "Mon, 19 Oct 2020 10:00:01 GMT")
+            .set("x-ms-blob-committed-block-count", "3")
+            .set("x-ms-server-encrypted", "true")
+            .set("x-ms-meta-foo", "bar")
+            .set("x-ms-meta-Baz", "qux")
+            .set("Accept-Ranges", "bytes")
+            .build();
+    }
 }
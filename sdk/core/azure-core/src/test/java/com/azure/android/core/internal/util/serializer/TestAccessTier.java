@@ -0,0 +1,19 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.util.ExpandableStringEnum;
+
+/**
+ * An expandable string enum shaped like the access tiers of the storage blob models.
+ */
+public final class TestAccessTier extends ExpandableStringEnum<TestAccessTier> {
+    public static final TestAccessTier HOT = fromString("Hot");
+
+    public static final TestAccessTier COOL = fromString("Cool");
+
+    public static TestAccessTier fromString(String name) {
+        return fromString(name, TestAccessTier.class);
+    }
+}
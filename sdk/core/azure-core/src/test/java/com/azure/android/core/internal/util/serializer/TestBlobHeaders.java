@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.internal.util.serializer;
+
+import com.azure.android.core.annotation.HeaderCollection;
+import com.azure.android.core.util.DateTimeRfc1123;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Map;
+
+/**
+ * Headers shaped like the typed headers of the storage blob responses.
+ */
+public final class TestBlobHeaders {
+    @JsonProperty(value = "Last-Modified")
+    private DateTimeRfc1123 lastModified;
+
+    @HeaderCollection("x-ms-meta-")
+    private Map<String, String> metadata;
+
+    @JsonProperty(value = "Content-Length")
+    private Long contentLength;
+
+    @JsonProperty(value = "Content-Type")
+    private String contentType;
+
+    @JsonProperty(value = "ETag")
+    private String eTag;
+
+    @JsonProperty(value = "Content-MD5")
+    private byte[] contentMd5;
+
+    @JsonProperty(value = "x-ms-blob-type")
+    private TestBlobType blobType;
+
+    @JsonProperty(value = "x-ms-request-id")
+    private String requestId;
+
+    @JsonProperty(value = "x-ms-version")
+    private String version;
+
+    @JsonProperty(value = "Date")
+    private DateTimeRfc1123 dateProperty;
+
+    @JsonProperty(value = "x-ms-blob-committed-block-count")
+    private Integer blobCommittedBlockCount;
+
+    @JsonProperty(value = "x-ms-server-encrypted")
+    private Boolean isServerEncrypted;
+
+    public DateTimeRfc1123 getLastModified() {
+        return lastModified;
+    }
+
+    public Map<String, String> getMetadata() {
+        return metadata;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public byte[] getContentMd5() {
+        return contentMd5;
+    }
+
+    public TestBlobType getBlobType() {
+        return blobType;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public DateTimeRfc1123 getDateProperty() {
+        return dateProperty;
+    }
+
+    public Integer getBlobCommittedBlockCount() {
+        return blobCommittedBlockCount;
+    }
+
+    public Boolean isServerEncrypted() {
+        return isServerEncrypted;
+    }
+
+    public enum TestBlobType {
+        BLOCK_BLOB("BlockBlob"),
+        PAGE_BLOB("PageBlob");
+
+        private final String value;
+
+        TestBlobType(String value) {
+            this.value = value;
+        }
+
+        @JsonCreator
+        public static TestBlobType fromString(String value) {
+            for (TestBlobType item : TestBlobType.values()) {
+                if (item.toString().equalsIgnoreCase(value)) {
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        @JsonValue
+        @Override
+        public String toString() {
+            return this.value;
+        }
+    }
+}
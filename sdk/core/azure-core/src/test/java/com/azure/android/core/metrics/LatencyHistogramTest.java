@@ -0,0 +1,65 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketIndex_isContinuousAndOrdered() {
+        int previousIndex = -1;
+        for (long micros = 0; micros < 1 << 20; micros++) {
+            int index = LatencyHistogram.getBucketIndex(micros);
+            assertTrue(index == previousIndex || index == previousIndex + 1);
+            assertTrue(LatencyHistogram.getHighestValue(index) >= micros);
+            previousIndex = index;
+        }
+    }
+
+    @Test
+    public void percentiles_areWithinPrecision() {
+        // Given latencies from 1ms to 1000ms.
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // Then
+        assertEquals(1000, histogram.getCount());
+        assertWithinPrecision(500, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(990, histogram.getValueAtPercentile(99));
+        assertEquals(Duration.ofMillis(1), histogram.getValueAtPercentile(0));
+        assertEquals(Duration.ofMillis(1000), histogram.getValueAtPercentile(100));
+        assertEquals(Duration.ofMillis(1000), histogram.getMax());
+        assertEquals(Duration.ofMillis(1), histogram.getMin());
+        assertEquals(Duration.ofNanos(500_500_000), histogram.getMean());
+    }
+
+    @Test
+    public void emptyHistogram_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(Duration.ZERO, histogram.getValueAtPercentile(99));
+        assertEquals(Duration.ZERO, histogram.getMin());
+        assertEquals(Duration.ZERO, histogram.getMean());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileAbove100_willThrowException() {
+        new LatencyHistogram().getValueAtPercentile(101);
+    }
+
+    private static void assertWithinPrecision(long expectedMillis, Duration actual) {
+        double error = Math.abs(actual.toNanos() - TimeUnit.MILLISECONDS.toNanos(expectedMillis))
+            / (double) TimeUnit.MILLISECONDS.toNanos(expectedMillis);
+        assertTrue("Expected " + expectedMillis + "ms, got " + actual, error <= 0.035);
+    }
+}
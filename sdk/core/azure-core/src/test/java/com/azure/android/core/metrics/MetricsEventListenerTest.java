@@ -0,0 +1,158 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.metrics;
+
+import com.azure.android.core.internal.util.RetryScheduler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsEventListenerTest {
+    private MockWebServer mockWebServer;
+    private MetricsCollector collector;
+    private AtomicReference<List<OperationMetrics>> exported;
+    private TestService service;
+
+    @Before
+    public void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        exported = new AtomicReference<>();
+        collector = new MetricsCollector(exported::set);
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .eventListenerFactory(MetricsEventListener.factory(collector))
+            .build();
+        service = new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .build()
+            .create(TestService.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void call_recordsPhasesByOperation() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("properties").setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("tags"));
+
+        // When
+        service.getProperties().execute().body().close();
+        service.getTags().execute().body().string();
+
+        // Then
+        OperationMetrics metrics = collector.getOperationMetrics("getProperties");
+        assertNotNull(metrics);
+        assertEquals(1, metrics.getCallCount());
+        assertEquals(0, metrics.getFailedCallCount());
+        assertEquals(1, metrics.getLatency(RequestPhase.DNS).getCount());
+        assertEquals(1, metrics.getLatency(RequestPhase.CONNECT).getCount());
+        assertEquals(0, metrics.getLatency(RequestPhase.TLS).getCount());
+        assertTrue(metrics.getLatency(RequestPhase.TIME_TO_FIRST_BYTE).getMax().toMillis() >= 200);
+        assertEquals(1, metrics.getLatency(RequestPhase.TOTAL).getCount());
+
+        // And the connection is reused by the second operation.
+        OperationMetrics tagsMetrics = collector.getOperationMetrics("getTags");
+        assertNotNull(tagsMetrics);
+        assertEquals(0, tagsMetrics.getLatency(RequestPhase.CONNECT).getCount());
+        assertEquals(1, tagsMetrics.getLatency(RequestPhase.BODY_TRANSFER).getCount());
+        assertEquals(4, tagsMetrics.getResponseByteCount());
+    }
+
+    @Test
+    public void failedCall_isCounted() throws Exception {
+        // Given
+        mockWebServer.shutdown();
+
+        // When
+        try {
+            service.getProperties().execute();
+        } catch (IOException ignored) {
+        }
+
+        // Then
+        OperationMetrics metrics = collector.getOperationMetrics("getProperties");
+        assertEquals(1, metrics.getCallCount());
+        assertEquals(1, metrics.getFailedCallCount());
+        assertEquals(0, metrics.getLatency(RequestPhase.TOTAL).getCount());
+    }
+
+    @Test
+    public void deferredRetry_isNotCountedAsFailure() throws Exception {
+        // Given a client whose attempts are deferred to a retry.
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+            .addInterceptor(chain -> {
+                throw new RetryScheduler.DeferredRetryException(Duration.ofMillis(10), 1);
+            })
+            .eventListenerFactory(MetricsEventListener.factory(collector))
+            .build();
+        TestService deferringService = new Retrofit.Builder()
+            .baseUrl(mockWebServer.url("/"))
+            .client(httpClient)
+            .build()
+            .create(TestService.class);
+
+        // When
+        try {
+            deferringService.getProperties().execute();
+        } catch (RetryScheduler.DeferredRetryException ignored) {
+        }
+
+        // Then
+        OperationMetrics metrics = collector.getOperationMetrics("getProperties");
+        assertTrue(metrics == null || metrics.getFailedCallCount() == 0);
+    }
+
+    @Test
+    public void flush_exportsAndResetsMetrics() throws Exception {
+        // Given
+        mockWebServer.enqueue(new MockResponse().setBody("properties"));
+        service.getProperties().execute().body().close();
+
+        // When
+        collector.flush();
+
+        // Then
+        assertEquals(1, exported.get().size());
+        assertEquals("getProperties", exported.get().get(0).getOperationName());
+        assertNull(collector.getOperationMetrics("getProperties"));
+
+        // And an empty flush doesn't export.
+        exported.set(null);
+        collector.flush();
+        assertNull(exported.get());
+    }
+
+    private interface TestService {
+        @GET("properties")
+        Call<ResponseBody> getProperties();
+
+        @GET("tags")
+        Call<ResponseBody> getTags();
+    }
+}
@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.tracing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpanContextTest {
+    @Test
+    public void traceparent_roundTrips() {
+        // Given
+        String traceparent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+        // When
+        SpanContext context = SpanContext.fromTraceparent(traceparent);
+
+        // Then
+        assertEquals("0af7651916cd43dd8448eb211c80319c", context.getTraceId());
+        assertEquals("b7ad6b7169203331", context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(traceparent, context.toTraceparent());
+    }
+
+    @Test
+    public void invalidTraceparent_isIgnored() {
+        assertNull(SpanContext.fromTraceparent(null));
+        assertNull(SpanContext.fromTraceparent("01-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"));
+        assertNull(SpanContext.fromTraceparent("00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01"));
+        assertNull(SpanContext.fromTraceparent("00-00000000000000000000000000000000-b7ad6b7169203331-01"));
+        assertNull(SpanContext.fromTraceparent("00-0af7651916cd43dd8448eb211c80319c-b7ad6b716920333g-01"));
+    }
+
+    @Test
+    public void childContext_isInTheTraceOfItsParent() {
+        // Given
+        SpanContext parent = SpanContext.create(null);
+
+        // When
+        SpanContext child = SpanContext.create(parent);
+
+        // Then
+        assertTrue(parent.isValid());
+        assertEquals(32, parent.getTraceId().length());
+        assertEquals(16, parent.getSpanId().length());
+        assertEquals(parent.getTraceId(), child.getTraceId());
+        assertNotEquals(parent.getSpanId(), child.getSpanId());
+        assertFalse(SpanContext.INVALID.isValid());
+    }
+}
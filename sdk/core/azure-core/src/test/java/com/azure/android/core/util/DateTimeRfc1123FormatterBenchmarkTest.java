@@ -0,0 +1,54 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import com.azure.android.core.common.MicroBenchmark;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class DateTimeRfc1123FormatterBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 200_000;
+    private static final String TEST_DATE = "Tue, 25 Feb 2020 00:59:22 GMT";
+
+    @Test
+    public void format_isComparedWithThreeTen() throws Exception {
+        // Given
+        OffsetDateTime dateTime = OffsetDateTime.parse(TEST_DATE, DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        // When
+        double threeTenNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> DateTimeRfc1123FormatterTest.RFC1123_DATE_TIME_FORMATTER.format(OffsetDateTime.now()));
+        double formatNowNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            DateTimeRfc1123Formatter::formatNow);
+        double formatNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> DateTimeRfc1123Formatter.format(dateTime));
+
+        // Then
+        assertTrue(formatNowNanos < threeTenNanos);
+        assertTrue(formatNanos < threeTenNanos);
+        assertEquals(TEST_DATE, DateTimeRfc1123Formatter.format(dateTime));
+    }
+
+    @Test
+    public void parse_isComparedWithThreeTen() throws Exception {
+        // When
+        double threeTenNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> OffsetDateTime.parse(TEST_DATE, DateTimeFormatter.RFC_1123_DATE_TIME));
+        double parseNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> DateTimeRfc1123Formatter.parse(TEST_DATE));
+
+        // Then
+        assertTrue(parseNanos < threeTenNanos);
+        assertEquals(OffsetDateTime.parse(TEST_DATE, DateTimeFormatter.RFC_1123_DATE_TIME),
+            DateTimeRfc1123Formatter.parse(TEST_DATE));
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import org.junit.Test;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.format.DateTimeFormatter;
+import org.threeten.bp.format.DateTimeParseException;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DateTimeRfc1123FormatterTest {
+    static final DateTimeFormatter RFC1123_DATE_TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'").withZone(ZoneId.of("UTC")).withLocale(Locale.US);
+    private static final String TEST_DATE = "Tue, 25 Feb 2020 00:59:22 GMT";
+    // 0001-01-01T00:00:00Z and 9999-12-31T23:59:59Z.
+    private static final long MIN_EPOCH_SECOND = -62_135_596_800L;
+    private static final long MAX_EPOCH_SECOND = 253_402_300_799L;
+
+    @Test
+    public void format_isTheSameAsThreeTen() {
+        // Given dates across the four digit years, with an offset and a fraction of a second.
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            OffsetDateTime dateTime = createDateTime(random);
+
+            // When
+            String formatted = DateTimeRfc1123Formatter.format(dateTime);
+
+            // Then
+            assertEquals(RFC1123_DATE_TIME_FORMATTER.format(dateTime), formatted);
+        }
+    }
+
+    @Test
+    public void format_leapDayAndEndOfYear() {
+        // Given
+        OffsetDateTime leapDay = OffsetDateTime.of(2000, 2, 29, 23, 59, 59, 999_999_999, ZoneOffset.UTC);
+        OffsetDateTime newYearInUtc = OffsetDateTime.of(2020, 12, 31, 20, 0, 0, 0, ZoneOffset.ofHours(-5));
+        OffsetDateTime beforeEpoch = OffsetDateTime.of(1969, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC);
+
+        // When / Then
+        assertEquals("Tue, 29 Feb 2000 23:59:59 GMT", DateTimeRfc1123Formatter.format(leapDay));
+        assertEquals("Fri, 01 Jan 2021 01:00:00 GMT", DateTimeRfc1123Formatter.format(newYearInUtc));
+        assertEquals("Wed, 31 Dec 1969 23:59:59 GMT", DateTimeRfc1123Formatter.format(beforeEpoch));
+    }
+
+    @Test
+    public void format_fiveDigitYear_usesThreeTen() {
+        // Given
+        OffsetDateTime dateTime = OffsetDateTime.of(10000, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        // When / Then
+        assertEquals(RFC1123_DATE_TIME_FORMATTER.format(dateTime), DateTimeRfc1123Formatter.format(dateTime));
+    }
+
+    @Test
+    public void formatNow_isReusedWithinTheSecond() {
+        // Given
+        String first = DateTimeRfc1123Formatter.formatNow();
+
+        // When
+        String second = DateTimeRfc1123Formatter.formatNow();
+
+        // Then the same string is returned, unless the second has just changed.
+        if (first.equals(second)) {
+            assertSame(first, second);
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime parsed = DateTimeRfc1123Formatter.parse(second);
+        assertEquals(0, parsed.getNano());
+        assertTrue(!parsed.isAfter(now) && parsed.isAfter(now.minusSeconds(5)));
+    }
+
+    @Test
+    public void parse_isTheSameAsThreeTen() {
+        // Given dates across the four digit years.
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            String formatted = RFC1123_DATE_TIME_FORMATTER.format(createDateTime(random));
+
+            // When
+            OffsetDateTime parsed = DateTimeRfc1123Formatter.parse(formatted);
+
+            // Then
+            assertEquals(OffsetDateTime.parse(formatted, DateTimeFormatter.RFC_1123_DATE_TIME), parsed);
+        }
+    }
+
+    @Test
+    public void parse_otherRfc1123Forms_useThreeTen() {
+        // Given dates with a single digit day, a numeric offset, or no day of the week.
+        String[] dates = {
+            "Tue, 3 Jun 2008 11:05:30 GMT",
+            "Tue, 03 Jun 2008 11:05:30 +0200",
+            "03 Jun 2008 11:05:30 GMT",
+            "TUE, 03 JUN 2008 11:05:30 GMT",
+        };
+
+        for (String date : dates) {
+            // When / Then
+            assertEquals(OffsetDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME),
+                DateTimeRfc1123Formatter.parse(date));
+        }
+    }
+
+    @Test
+    public void parse_fixedFormat() {
+        // When
+        OffsetDateTime parsed = DateTimeRfc1123Formatter.parse(TEST_DATE);
+
+        // Then
+        assertEquals(OffsetDateTime.of(2020, 2, 25, 0, 59, 22, 0, ZoneOffset.UTC), parsed);
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_wrongDayOfWeek_throws() {
+        DateTimeRfc1123Formatter.parse("Wed, 25 Feb 2020 00:59:22 GMT");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_invalidHour_throws() {
+        DateTimeRfc1123Formatter.parse("Tue, 25 Feb 2020 24:59:22 GMT");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parse_notADate_throws() {
+        DateTimeRfc1123Formatter.parse("Tue, 25 Feb 2020 00:59:22 UTC");
+    }
+
+    static OffsetDateTime createDateTime(Random random) {
+        long epochSecond = MIN_EPOCH_SECOND + (long) (random.nextDouble() * (MAX_EPOCH_SECOND - MIN_EPOCH_SECOND));
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(25) - 12) * 3600);
+        return OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+            .plusSeconds(epochSecond)
+            .plusNanos(random.nextInt(1_000_000_000))
+            .withOffsetSameInstant(offset);
+    }
+}
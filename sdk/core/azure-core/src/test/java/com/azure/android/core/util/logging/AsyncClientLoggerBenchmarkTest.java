@@ -0,0 +1,48 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import com.azure.android.core.common.MicroBenchmark;
+
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class AsyncClientLoggerBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void logCall_overheadIsMeasured() throws Exception {
+        // Given an asynchronous logger writing to a rolling file, and the same sink called synchronously.
+        RollingFileLogSink asyncFileSink = new RollingFileLogSink(temporaryFolder.newFolder("async"), 1024 * 1024, 2);
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().addSink(asyncFileSink).build();
+        ClientLogger asyncLogger = dispatcher.getLogger("benchmark");
+        RollingFileLogSink syncFileSink = new RollingFileLogSink(temporaryFolder.newFolder("sync"), 1024 * 1024, 2);
+
+        // When
+        double syncWriteNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> syncFileSink.write(Collections.singletonList(
+                new LogRecord(ClientLogger.LOG_LEVEL_INFO, "benchmark", "GET /container/blob 200 OK", null))));
+        double asyncInfoNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> asyncLogger.info("GET /container/blob 200 OK"));
+        double disabledDebugNanos = MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS,
+            () -> asyncLogger.debug("GET /container/blob 200 OK"));
+        syncFileSink.close();
+        dispatcher.close();
+
+        // Then the calling thread no longer waits for the file, and a disabled level is cheaper still.
+        assertTrue(asyncInfoNanos < syncWriteNanos);
+        assertTrue(disabledDebugNanos < asyncInfoNanos);
+    }
+}
@@ -0,0 +1,212 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util.logging;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.threeten.bp.Duration;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLogDispatcherTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void records_areWrittenInOrderOnTheDrainThread() throws InterruptedException {
+        // Given
+        RecordingSink sink = new RecordingSink();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().addSink(sink).build();
+        ClientLogger logger = dispatcher.getLogger("test");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            logger.info("message " + i);
+        }
+
+        // Then
+        assertTrue(dispatcher.flush(2, TimeUnit.SECONDS));
+        List<LogRecord> records = sink.getRecords();
+        assertEquals(100, records.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("message " + i, records.get(i).getMessage());
+            assertEquals("test", records.get(i).getTag());
+            assertEquals(Thread.currentThread().getName(), records.get(i).getThreadName());
+        }
+        assertFalse(sink.writeThreadNames.contains(Thread.currentThread().getName()));
+        dispatcher.close();
+    }
+
+    @Test
+    public void disabledLevels_areNotDispatched() throws InterruptedException {
+        // Given a logger at the default INFO level.
+        RecordingSink sink = new RecordingSink();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().addSink(sink).build();
+        ClientLogger logger = dispatcher.getLogger("test");
+
+        // When
+        logger.debug("debug");
+        logger.error("error", new IOException());
+
+        // Then
+        assertTrue(dispatcher.flush(2, TimeUnit.SECONDS));
+        List<LogRecord> records = sink.getRecords();
+        assertEquals(1, records.size());
+        assertEquals(ClientLogger.LOG_LEVEL_ERROR, records.get(0).getLogLevel());
+        assertTrue(records.get(0).getThrowable() instanceof IOException);
+        dispatcher.close();
+    }
+
+    @Test
+    public void oldestRecords_areDroppedWhenTheBufferIsFull() throws InterruptedException {
+        // Given a dispatcher with a sink blocked on the first record.
+        BlockingSink sink = new BlockingSink();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().setCapacity(16).addSink(sink).build();
+        ClientLogger logger = dispatcher.getLogger("test");
+        logger.error("first");
+        assertTrue(sink.entered.await(2, TimeUnit.SECONDS));
+
+        // When logging more records than the buffer holds.
+        for (int i = 0; i < 40; i++) {
+            logger.info("message " + i);
+        }
+        sink.release.countDown();
+
+        // Then the newest records are written, after a warning counting the dropped ones.
+        assertTrue(dispatcher.flush(2, TimeUnit.SECONDS));
+        List<LogRecord> records = sink.getRecords();
+        assertEquals(18, records.size());
+        assertEquals("first", records.get(0).getMessage());
+        assertEquals("24 log messages were dropped because the buffer was full.", records.get(1).getMessage());
+        assertEquals(ClientLogger.LOG_LEVEL_WARNING, records.get(1).getLogLevel());
+        for (int i = 0; i < 16; i++) {
+            assertEquals("message " + (24 + i), records.get(2 + i).getMessage());
+        }
+        assertEquals(24, dispatcher.getDroppedCount());
+        dispatcher.close();
+    }
+
+    @Test
+    public void everyEnabledRecord_isWrittenOrCountedAsDropped() throws InterruptedException {
+        // Given a dispatcher with a buffer smaller than a burst of records.
+        RecordingSink sink = new RecordingSink();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder().setCapacity(16).addSink(sink).build();
+        ClientLogger logger = dispatcher.getLogger("test");
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            logger.info("message " + i);
+            logger.debug("disabled " + i);
+        }
+
+        // Then each enabled record is either written or counted as dropped, but not both.
+        assertTrue(dispatcher.flush(10, TimeUnit.SECONDS));
+        int writtenCount = 0;
+        for (LogRecord record : sink.getRecords()) {
+            // the dispatcher reports the dropped records in a record of its own.
+            if (!AsyncLogDispatcher.TAG.equals(record.getTag())) {
+                writtenCount++;
+            }
+        }
+        assertEquals(10_000, writtenCount + dispatcher.getDroppedCount());
+        dispatcher.close();
+    }
+
+    @Test
+    public void close_writesTheBufferedRecordsAndClosesTheSinks() {
+        // Given
+        RecordingSink sink = new RecordingSink();
+        AsyncLogDispatcher dispatcher = new AsyncLogDispatcher.Builder()
+            .setFlushInterval(Duration.ofMinutes(1))
+            .addSink(sink)
+            .build();
+        dispatcher.getLogger("test").info("message");
+
+        // When
+        dispatcher.close();
+
+        // Then
+        assertEquals(1, sink.getRecords().size());
+        assertTrue(sink.closed);
+    }
+
+    @Test
+    public void rollingFileSink_rollsTheLogFiles() throws IOException {
+        // Given a sink keeping two files of at most 150 bytes, a few lines.
+        File directory = temporaryFolder.newFolder("logs");
+        RollingFileLogSink sink = new RollingFileLogSink(directory, 150, 2);
+        List<LogRecord> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            records.add(new LogRecord(ClientLogger.LOG_LEVEL_INFO, "tag", "message " + i, null));
+        }
+
+        // When
+        sink.write(records);
+        sink.close();
+
+        // Then only the two most recent files are kept.
+        String current = readFile(new File(directory, RollingFileLogSink.LOG_FILE_NAME));
+        String previous = readFile(new File(directory, RollingFileLogSink.LOG_FILE_NAME + ".1"));
+        assertFalse(new File(directory, RollingFileLogSink.LOG_FILE_NAME + ".2").exists());
+        assertTrue(current.endsWith("I/tag [" + Thread.currentThread().getName() + "]: message 9\n"));
+        assertFalse(current.contains("message 0\n") || previous.contains("message 0\n"));
+        assertTrue(current.length() <= 150 && previous.length() <= 150);
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static class RecordingSink implements LogSink, Closeable {
+        private final List<LogRecord> records = new ArrayList<>();
+        final List<String> writeThreadNames = new ArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public synchronized void write(@NonNull List<LogRecord> records) {
+            this.records.addAll(records);
+            this.writeThreadNames.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        synchronized List<LogRecord> getRecords() {
+            return new ArrayList<>(this.records);
+        }
+    }
+
+    private static final class BlockingSink extends RecordingSink {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(@NonNull List<LogRecord> records) {
+            super.write(records);
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class TransferDatabaseMigrationTest {
+    private static final String TEST_DB = "transfers-migration-test";
+
+    @Rule
+    public MigrationTestHelper migrationTestHelper = new MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(),
+        TransferDatabase.class.getCanonicalName(),
+        new FrameworkSQLiteOpenHelperFactory());
+
+    @Test
+    public void migrate1To2_addsStateUpdateTimeToExistingRows() throws IOException {
+        // Given a version 1 database with a completed upload and a completed download.
+        SupportSQLiteDatabase database = migrationTestHelper.createDatabase(TEST_DB, 1);
+        insertUploadV1(database, 1);
+        insertDownloadV1(database, 1);
+        database.close();
+
+        // When
+        database = migrationTestHelper.runMigrationsAndValidate(TEST_DB, 2, true, TransferDatabase.MIGRATION_1_2);
+
+        // Then the existing rows are kept, with the update time 0 so that they are the first to be purged.
+        assertEquals(0, queryLong(database, "SELECT state_update_time FROM blobuploads WHERE `key` = 1"));
+        assertEquals(0, queryLong(database, "SELECT state_update_time FROM blobdownloads WHERE `key` = 1"));
+        assertEquals(1, queryLong(database, "SELECT COUNT(*) FROM blockuploads WHERE blob_key = 1"));
+        assertEquals(1, queryLong(database, "SELECT COUNT(*) FROM blockdownloads WHERE blob_key = 1"));
+        database.close();
+    }
+
+    @Test
+    public void migrate1To2_purgeQueryFindsExistingTerminalRows() throws IOException {
+        // Given a version 1 database with a completed upload.
+        SupportSQLiteDatabase database = migrationTestHelper.createDatabase(TEST_DB, 1);
+        insertUploadV1(database, 1);
+        database.close();
+
+        // When
+        database = migrationTestHelper.runMigrationsAndValidate(TEST_DB, 2, true, TransferDatabase.MIGRATION_1_2);
+
+        // Then the upload is older than any retention age.
+        try (Cursor cursor = database.query("SELECT `key` FROM blobuploads WHERE blob_upload_state = "
+            + BlobTransferState.COMPLETED.ordinal() + " AND state_update_time < 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getLong(0));
+        }
+        database.close();
+    }
+
+    @Test
+    public void migrate2To3_keepsTheStoredBlockIdsOfExistingUploads() throws IOException {
+        // Given a version 2 database with an upload of three blocks, whose ids are stored.
+        SupportSQLiteDatabase database = migrationTestHelper.createDatabase(TEST_DB, 2);
+        insertUploadV1(database, 1);
+        database.execSQL("INSERT INTO blockuploads (blob_key, block_offset, block_size, block_id, block_upload_state)"
+            + " VALUES (1, 10, 10, 'c2Vjb25kLWlk', 0), (1, 20, 10, 'dGhpcmQtaWQ=', 0)");
+        database.close();
+
+        // When
+        database = migrationTestHelper.runMigrationsAndValidate(TEST_DB, 3, true, TransferDatabase.MIGRATION_2_3);
+
+        // Then the existing upload has no block id prefix and its blocks have no index.
+        assertEquals(0, queryLong(database, "SELECT block_id_prefix FROM blobuploads WHERE `key` = 1"));
+        assertEquals(3, queryLong(database, "SELECT COUNT(*) FROM blockuploads WHERE block_index = -1"));
+        database.close();
+
+        // And the upload still commits its stored block ids, in order.
+        TransferDatabase transferDatabase = Room.databaseBuilder(ApplicationProvider.getApplicationContext(),
+            TransferDatabase.class, TEST_DB)
+            .addMigrations(TransferDatabase.MIGRATION_1_2, TransferDatabase.MIGRATION_2_3)
+            .allowMainThreadQueries()
+            .build();
+        migrationTestHelper.closeWhenFinished(transferDatabase);
+        List<String> blockIds = new ArrayList<>();
+        for (String blockId : transferDatabase.uploadDao().getBlockIds(1)) {
+            blockIds.add(blockId);
+        }
+        assertEquals(Arrays.asList("YmxvY2staWQ=", "c2Vjb25kLWlk", "dGhpcmQtaWQ="), blockIds);
+        assertEquals("YmxvY2staWQ=", transferDatabase.uploadDao().getBlocks(1).get(0).getBlockId(0));
+    }
+
+    @Test
+    public void migrate1To3_runsBothMigrations() throws IOException {
+        // Given
+        SupportSQLiteDatabase database = migrationTestHelper.createDatabase(TEST_DB, 1);
+        insertUploadV1(database, 1);
+        insertDownloadV1(database, 1);
+        database.close();
+
+        // When
+        database = migrationTestHelper.runMigrationsAndValidate(TEST_DB, 3, true,
+            TransferDatabase.MIGRATION_1_2, TransferDatabase.MIGRATION_2_3);
+
+        // Then
+        assertEquals(0, queryLong(database, "SELECT state_update_time FROM blobuploads WHERE `key` = 1"));
+        assertEquals(0, queryLong(database, "SELECT block_id_prefix FROM blobuploads WHERE `key` = 1"));
+        assertEquals(-1, queryLong(database, "SELECT block_index FROM blockuploads WHERE blob_key = 1"));
+        database.close();
+    }
+
+    static void insertUploadV1(SupportSQLiteDatabase database, long key) {
+        database.execSQL("INSERT INTO blobuploads (`key`, content_uri, content_size, use_content_resolver,"
+            + " storage_blob_client_id, container_name, blob_name, compute_md5, blob_upload_state,"
+            + " transfer_interrupt_state, required_network_type, requires_charging, requires_device_idle,"
+            + " requires_battery_not_low, requires_storage_not_low)"
+            + " VALUES (?, 'file:///upload', 10, 0, 'client', 'container', 'blob', 0, ?, ?, 0, 0, 0, 0, 0)",
+            new Object[] { key, BlobTransferState.COMPLETED.ordinal(), TransferInterruptState.NONE.ordinal() });
+        database.execSQL("INSERT INTO blockuploads (blob_key, block_offset, block_size, block_id,"
+            + " block_upload_state) VALUES (?, 0, 10, 'YmxvY2staWQ=', ?)",
+            new Object[] { key, BlockTransferState.COMPLETED.ordinal() });
+    }
+
+    static void insertDownloadV1(SupportSQLiteDatabase database, long key) {
+        database.execSQL("INSERT INTO blobdownloads (`key`, container_name, blob_name, blob_size, content_uri,"
+            + " use_content_resolver, storage_blob_client_id, blob_download_state, transfer_interrupt_state,"
+            + " required_network_type, requires_charging, requires_device_idle, requires_battery_not_low,"
+            + " requires_storage_not_low)"
+            + " VALUES (?, 'container', 'blob', 10, 'file:///download', 0, 'client', ?, ?, 0, 0, 0, 0, 0)",
+            new Object[] { key, BlobTransferState.COMPLETED.ordinal(), TransferInterruptState.NONE.ordinal() });
+        database.execSQL("INSERT INTO blockdownloads (blob_key, file_path, block_offset, block_size, block_id,"
+            + " block_download_state) VALUES (?, NULL, 0, 10, 'YmxvY2staWQ=', ?)",
+            new Object[] { key, BlockTransferState.COMPLETED.ordinal() });
+    }
+
+    static long queryLong(SupportSQLiteDatabase database, String query) {
+        try (Cursor cursor = database.query(query)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+}
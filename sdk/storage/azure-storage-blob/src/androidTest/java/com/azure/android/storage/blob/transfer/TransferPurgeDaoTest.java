@@ -0,0 +1,169 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class TransferPurgeDaoTest {
+    private TransferDatabase db;
+
+    @Before
+    public void setUp() {
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), TransferDatabase.class)
+            .allowMainThreadQueries()
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void uploadPurgeableKeys_areTheOldOrExcessTerminalUploads() {
+        // Given uploads in progress, completed and marked for purge, at different times.
+        UploadDao uploadDao = db.uploadDao();
+        long inProgress = insertUpload(uploadDao, BlobTransferState.WAIT_TO_BEGIN, TransferInterruptState.NONE, 100, 1);
+        long oldCompleted = insertUpload(uploadDao, BlobTransferState.COMPLETED, TransferInterruptState.NONE, 100, 1);
+        long oldPurge = insertUpload(uploadDao, BlobTransferState.FAILED, TransferInterruptState.PURGE, 200, 1);
+        long recentCompleted = insertUpload(uploadDao, BlobTransferState.COMPLETED, TransferInterruptState.NONE, 900, 1);
+
+        // When
+        List<Long> olderThan500 = uploadDao.getPurgeableBlobKeys(500, 10);
+        List<Long> keepOne = uploadDao.getPurgeableBlobKeys(0, 1);
+
+        // Then
+        assertEquals(Arrays.asList(oldCompleted, oldPurge), sorted(olderThan500));
+        assertEquals(Arrays.asList(oldCompleted, oldPurge), sorted(keepOne));
+        assertTrue(!olderThan500.contains(inProgress) && !keepOne.contains(recentCompleted));
+    }
+
+    @Test
+    public void downloadPurgeableKeys_areTheOldOrExcessTerminalDownloads() {
+        // Given
+        DownloadDao downloadDao = db.downloadDao();
+        long inProgress = insertDownload(downloadDao, BlobTransferState.WAIT_TO_BEGIN, TransferInterruptState.NONE,
+            100, 1);
+        long oldCompleted = insertDownload(downloadDao, BlobTransferState.COMPLETED, TransferInterruptState.NONE,
+            100, 1);
+        long recentPurge = insertDownload(downloadDao, BlobTransferState.FAILED, TransferInterruptState.PURGE, 900, 1);
+
+        // When
+        List<Long> olderThan500 = downloadDao.getPurgeableBlobKeys(500, 10);
+        List<Long> keepNone = downloadDao.getPurgeableBlobKeys(0, 0);
+
+        // Then
+        assertEquals(Collections.singletonList(oldCompleted), olderThan500);
+        assertEquals(Arrays.asList(oldCompleted, recentPurge), sorted(keepNone));
+        assertTrue(!keepNone.contains(inProgress));
+    }
+
+    @Test
+    public void uploadStateUpdate_setsTheStateUpdateTime() {
+        // Given
+        UploadDao uploadDao = db.uploadDao();
+        long uploadId = insertUpload(uploadDao, BlobTransferState.WAIT_TO_BEGIN, TransferInterruptState.NONE, 100, 1);
+
+        // When
+        long before = System.currentTimeMillis();
+        uploadDao.updateBlobState(uploadId, BlobTransferState.COMPLETED);
+
+        // Then
+        assertTrue(uploadDao.getBlob(uploadId).stateUpdateTime >= before);
+        assertEquals(Collections.singletonList(uploadId), uploadDao.getPurgeableBlobKeys(0, 0));
+    }
+
+    @Test
+    public void deleteBlocks_deletesOneBatchAtATime() {
+        // Given an upload and a download with five blocks each.
+        long uploadId = insertUpload(db.uploadDao(), BlobTransferState.COMPLETED, TransferInterruptState.NONE, 0, 5);
+        long downloadId = insertDownload(db.downloadDao(), BlobTransferState.COMPLETED, TransferInterruptState.NONE,
+            0, 5);
+
+        // When / Then
+        assertEquals(2, db.uploadDao().deleteBlocks(uploadId, 2));
+        assertEquals(3, db.uploadDao().getBlocksCount(uploadId));
+        assertEquals(3, db.uploadDao().deleteBlocks(uploadId, 5));
+        assertEquals(0, db.uploadDao().deleteBlocks(uploadId, 5));
+        assertEquals(2, db.downloadDao().deleteBlocks(downloadId, 2));
+        assertEquals(3, db.downloadDao().getBlocks(downloadId).size());
+    }
+
+    @Test
+    public void deleteBlob_deletesTheRemainingBlocks() {
+        // Given
+        long uploadId = insertUpload(db.uploadDao(), BlobTransferState.COMPLETED, TransferInterruptState.NONE, 0, 3);
+        long downloadId = insertDownload(db.downloadDao(), BlobTransferState.COMPLETED, TransferInterruptState.NONE,
+            0, 3);
+
+        // When
+        int deletedUploads = db.uploadDao().deleteBlob(uploadId);
+        int deletedDownloads = db.downloadDao().deleteBlob(downloadId);
+
+        // Then
+        assertEquals(1, deletedUploads);
+        assertEquals(1, deletedDownloads);
+        assertNull(db.uploadDao().getBlob(uploadId));
+        assertNull(db.downloadDao().getBlob(downloadId));
+        assertEquals(0, db.uploadDao().getBlocksCount(uploadId));
+        assertEquals(0, db.downloadDao().getBlocks(downloadId).size());
+    }
+
+    static long insertUpload(UploadDao uploadDao,
+                             BlobTransferState state,
+                             TransferInterruptState interruptState,
+                             long stateUpdateTime,
+                             int blockCount) {
+        BlobUploadEntity blob = new BlobUploadEntity();
+        blob.contentUri = "file:///upload";
+        blob.contentSize = blockCount * 10L;
+        blob.storageBlobClientId = "client";
+        blob.containerName = "container";
+        blob.blobName = "blob";
+        blob.state = state;
+        blob.interruptState = interruptState;
+        blob.stateUpdateTime = stateUpdateTime;
+        return uploadDao.createUploadRecord(blob, BlockUploadEntity.createBlockEntities(blob.contentSize, 10));
+    }
+
+    static long insertDownload(DownloadDao downloadDao,
+                               BlobTransferState state,
+                               TransferInterruptState interruptState,
+                               long stateUpdateTime,
+                               int blockCount) {
+        BlobDownloadEntity blob = new BlobDownloadEntity();
+        blob.containerName = "container";
+        blob.blobName = "blob";
+        blob.blobSize = blockCount * 10L;
+        blob.contentUri = "file:///download";
+        blob.storageBlobClientId = "client";
+        blob.state = state;
+        blob.interruptState = interruptState;
+        blob.stateUpdateTime = stateUpdateTime;
+        return downloadDao.createDownloadRecord(blob, BlockDownloadEntity.createBlockEntities(blob.blobSize, 10));
+    }
+
+    private static List<Long> sorted(List<Long> keys) {
+        List<Long> sortedKeys = new ArrayList<>(keys);
+        Collections.sort(sortedKeys);
+        return sortedKeys;
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.work.Data;
+import androidx.work.ListenableWorker;
+import androidx.work.testing.TestWorkerBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(AndroidJUnit4.class)
+public class TransferPurgeWorkerTest {
+    private static final long MAX_AGE_MILLIS = 60 * 60 * 1000;
+
+    private Context context;
+    private TransferDatabase db;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        db = TransferDatabase.getInstance(context);
+        db.clearAllTables();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        db.clearAllTables();
+        executor.shutdown();
+    }
+
+    @Test
+    public void doWork_purgesTheExpiredTerminalTransfersOnly() {
+        // Given an expired completed upload and download, a recent completed upload, and an expired upload in
+        // progress.
+        long now = System.currentTimeMillis();
+        long expiredUpload = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now - 2 * MAX_AGE_MILLIS, 1_200);
+        long expiredDownload = TransferPurgeDaoTest.insertDownload(db.downloadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now - 2 * MAX_AGE_MILLIS, 3);
+        long recentUpload = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now, 3);
+        long inProgressUpload = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.WAIT_TO_BEGIN,
+            TransferInterruptState.NONE, now - 2 * MAX_AGE_MILLIS, 3);
+
+        // When
+        ListenableWorker.Result result = createWorker(MAX_AGE_MILLIS, 10).doWork();
+
+        // Then
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertNull(db.uploadDao().getBlob(expiredUpload));
+        assertEquals(0, db.uploadDao().getBlocksCount(expiredUpload));
+        assertNull(db.downloadDao().getBlob(expiredDownload));
+        assertNotNull(db.uploadDao().getBlob(recentUpload));
+        assertNotNull(db.uploadDao().getBlob(inProgressUpload));
+        assertEquals(3, db.uploadDao().getBlocksCount(inProgressUpload));
+    }
+
+    @Test
+    public void doWork_keepsTheMostRecentTerminalTransfersUpToTheMaxCount() {
+        // Given three recent completed uploads.
+        long now = System.currentTimeMillis();
+        long oldest = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now - 2_000, 1);
+        long middle = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now - 1_000, 1);
+        long newest = TransferPurgeDaoTest.insertUpload(db.uploadDao(), BlobTransferState.COMPLETED,
+            TransferInterruptState.NONE, now, 1);
+
+        // When
+        ListenableWorker.Result result = createWorker(MAX_AGE_MILLIS, 2).doWork();
+
+        // Then
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertNull(db.uploadDao().getBlob(oldest));
+        assertNotNull(db.uploadDao().getBlob(middle));
+        assertNotNull(db.uploadDao().getBlob(newest));
+    }
+
+    @Test
+    public void doWork_enablesIncrementalVacuum() {
+        // When
+        createWorker(MAX_AGE_MILLIS, 10).doWork();
+
+        // Then
+        assertEquals(2, TransferDatabaseMigrationTest.queryLong(db.getOpenHelper().getWritableDatabase(),
+            "PRAGMA auto_vacuum"));
+    }
+
+    private TransferPurgeWorker createWorker(long maxAgeMillis, int maxCount) {
+        return TestWorkerBuilder.from(context, TransferPurgeWorker.class, executor)
+            .setInputData(new Data.Builder()
+                .putLong(TransferPurgeWorker.Constants.INPUT_MAX_AGE_MILLIS_KEY, maxAgeMillis)
+                .putInt(TransferPurgeWorker.Constants.INPUT_MAX_COUNT_KEY, maxCount)
+                .build())
+            .build();
+    }
+}
@@ -0,0 +1,163 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Package private.
+ *
+ * A {@link RequestBody} that streams the XML BlockList payload of the Commit Block List operation, writing the
+ * block ids directly to the sink as they are read from the source {@link Iterable}, instead of materializing
+ * the whole document as a String.
+ *
+ * The block ids are committed as "Latest". The source is iterated once to compute the content length, and once
+ * every time the body is written (e.g. on retry), so it must support repeated iteration. If the iterator returned
+ * by the source is {@link Closeable} (e.g. backed by a database cursor), it is closed once the iteration ends.
+ */
+final class BlockListRequestBody extends RequestBody {
+    private static final MediaType XML_MEDIA_TYPE = MediaType.get("application/xml; charset=utf-8");
+    private static final String DOCUMENT_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><BlockList>";
+    private static final String DOCUMENT_END = "</BlockList>";
+    private static final String LATEST_START = "<Latest>";
+    private static final String LATEST_END = "</Latest>";
+
+    private final Iterable<String> base64BlockIds;
+    private long contentLength = -1;
+
+    /**
+     * Creates BlockListRequestBody.
+     *
+     * @param base64BlockIds The block ids, the iterable must support repeated iteration.
+     */
+    BlockListRequestBody(@NonNull Iterable<String> base64BlockIds) {
+        this.base64BlockIds = Objects.requireNonNull(base64BlockIds, "'base64BlockIds' cannot be null.");
+    }
+
+    @Override
+    public MediaType contentType() {
+        return XML_MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (this.contentLength == -1) {
+            long length = DOCUMENT_START.length() + DOCUMENT_END.length();
+            final long elementLength = LATEST_START.length() + LATEST_END.length();
+            final Iterator<String> iterator = this.base64BlockIds.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    length += elementLength + escapedUtf8Length(iterator.next());
+                }
+            } finally {
+                closeIfCloseable(iterator);
+            }
+            this.contentLength = length;
+        }
+        return this.contentLength;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        sink.writeUtf8(DOCUMENT_START);
+        final Iterator<String> iterator = this.base64BlockIds.iterator();
+        try {
+            while (iterator.hasNext()) {
+                sink.writeUtf8(LATEST_START);
+                writeEscaped(sink, iterator.next());
+                sink.writeUtf8(LATEST_END);
+            }
+        } finally {
+            closeIfCloseable(iterator);
+        }
+        sink.writeUtf8(DOCUMENT_END);
+    }
+
+    /**
+     * Write a block id as XML character data, escaping the markup characters.
+     *
+     * Base64 block ids never contain such characters, so this is a single write in practice.
+     *
+     * @param sink The sink to write to.
+     * @param value The block id.
+     * @throws IOException If the write fails.
+     */
+    private static void writeEscaped(BufferedSink sink, String value) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final String replacement = escape(value.charAt(i));
+            if (replacement != null) {
+                sink.writeUtf8(value, start, i);
+                sink.writeUtf8(replacement);
+                start = i + 1;
+            }
+        }
+        sink.writeUtf8(value, start, value.length());
+    }
+
+    /**
+     * Get the UTF-8 encoded length of a block id once escaped as XML character data.
+     *
+     * @param value The block id.
+     * @return The length in bytes.
+     */
+    private static long escapedUtf8Length(String value) {
+        long length = 0;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final String replacement = escape(value.charAt(i));
+            if (replacement != null) {
+                length += value.substring(start, i).getBytes(StandardCharsets.UTF_8).length + replacement.length();
+                start = i + 1;
+            }
+        }
+        if (start == 0) {
+            // Fast path for the common all-ASCII base64 case.
+            boolean ascii = true;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+            }
+            return ascii ? value.length() : value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return length + value.substring(start).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Get the XML escape sequence of a character.
+     *
+     * @param c The character.
+     * @return The escape sequence or null if the character does not need escaping.
+     */
+    private static String escape(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            default:
+                return null;
+        }
+    }
+
+    private static void closeIfCloseable(Iterator<String> iterator) throws IOException {
+        if (iterator instanceof Closeable) {
+            ((Closeable) iterator).close();
+        }
+    }
+}
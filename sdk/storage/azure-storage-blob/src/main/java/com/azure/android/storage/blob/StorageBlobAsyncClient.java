@@ -101,6 +101,14 @@ public class StorageBlobAsyncClient {
         return new Builder(storageBlobClientId, this);
     }
 
+    /**
+     * Prepares the serialization of the storage blob models ahead of the first requests of the clients, as resolving
+     * it is slow on a cold start. Call it once, off the main thread, e.g. when the application starts.
+     */
+    public static void warmUp() {
+        StorageBlobServiceImpl.warmUpSerializerAdapter();
+    }
+
     /**
      * Gets the blob service base URL.
      *
@@ -110,6 +118,16 @@ public class StorageBlobAsyncClient {
         return this.serviceClient.getBaseUrl();
     }
 
+    /**
+     * Opens connections to the blob service ahead of the first calls, so that they don't pay for the connection
+     * setup. This is safe to call from the main thread, e.g. in {@code Application.onCreate}.
+     *
+     * @param connectionCount The number of connections to open.
+     */
+    public void prewarm(int connectionCount) {
+        this.serviceClient.prewarm(connectionCount);
+    }
+
     /**
      * Upload the content of a file.
      *
@@ -820,6 +838,58 @@ public class StorageBlobAsyncClient {
                                 AccessTier tier,
                                 CancellationToken cancellationToken,
                                 CallbackWithHeader<BlockBlobItem, BlockBlobCommitBlockListHeaders> callback) {
+        commitBlockList(containerName,
+            blobName,
+            (Iterable<String>) base64BlockIds,
+            contentMD5,
+            contentCrc64,
+            timeout,
+            blobHttpHeaders,
+            metadata,
+            requestConditions,
+            cpkInfo,
+            tier,
+            cancellationToken,
+            callback);
+    }
+
+    /**
+     * The Commit Block List operation writes a blob by specifying the list of block IDs that make up the blob.
+     * For a block to be written as part of a blob, the block must have been successfully written to the server in a prior
+     * {@link StorageBlobAsyncClient#stageBlock(String, String, String, byte[], byte[], CallbackWithHeader)}  operation. You can call
+     * commit Block List to update a blob by uploading only those blocks that have changed, then committing the new and existing
+     * blocks together. You can do this by specifying whether to commit a block from the committed block list or from
+     * the uncommitted block list, or to commit the most recently uploaded version of the block, whichever list it may belong to.
+     *
+     * @param containerName     The container name.
+     * @param blobName          The blob name.
+     * @param base64BlockIds    The block IDs. The IDs are streamed to the request body, the iterable
+     *                          may be iterated more than once (e.g. to compute the length, on retry).
+     * @param contentMD5        Specify the transactional md5 for the body, to be validated by the service.
+     * @param contentCrc64      Specify the transactional crc64 for the body, to be validated by the service.
+     * @param timeout           The timeout parameter is expressed in seconds. For more information,
+     *                          see &lt;a href="https://docs.microsoft.com/en-us/rest/api/storageservices/fileservices/setting-timeouts-for-blob-service-operations"&gt;Setting Timeouts for Blob Service Operations.&lt;/a&gt;.
+     * @param blobHttpHeaders   Additional Http headers for this operation.
+     * @param metadata          Specifies a user-defined name-value pair associated with the blob.
+     * @param requestConditions {@link BlobRequestConditions}.
+     * @param cpkInfo           Additional parameters for the operation.
+     * @param tier              Indicates the tier to be set on the blob.
+     * @param cancellationToken The token to request cancellation.
+     * @param callback          Callback that receives the response.
+     */
+    public void commitBlockList(String containerName,
+                                String blobName,
+                                Iterable<String> base64BlockIds,
+                                byte[] contentMD5,
+                                byte[] contentCrc64,
+                                Integer timeout,
+                                BlobHttpHeaders blobHttpHeaders,
+                                Map<String, String> metadata,
+                                BlobRequestConditions requestConditions,
+                                CpkInfo cpkInfo,
+                                AccessTier tier,
+                                CancellationToken cancellationToken,
+                                CallbackWithHeader<BlockBlobItem, BlockBlobCommitBlockListHeaders> callback) {
         this.storageBlobServiceClient.commitBlockList(containerName,
             blobName,
             base64BlockIds,
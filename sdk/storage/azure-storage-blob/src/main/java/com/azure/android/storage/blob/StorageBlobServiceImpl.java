@@ -8,11 +8,15 @@ import androidx.annotation.NonNull;
 import com.azure.android.core.http.CallbackWithHeader;
 import com.azure.android.core.http.ServiceClient;
 import com.azure.android.core.internal.util.CancellationTokenImpl;
+import com.azure.android.core.internal.util.RequestCoalescer;
+import com.azure.android.core.internal.util.RequestHedger;
+import com.azure.android.core.internal.util.RetryScheduler;
 import com.azure.android.core.internal.util.serializer.SerializerAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerFormat;
 import com.azure.android.core.util.Base64Util;
 import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.DateTimeRfc1123;
+import com.azure.android.storage.blob.implementation.util.ListBlobsFlatSegmentResponseDeserializer;
 import com.azure.android.storage.blob.interceptor.MetadataInterceptor;
 import com.azure.android.storage.blob.models.AccessTier;
 import com.azure.android.storage.blob.models.BlobDeleteHeaders;
@@ -41,7 +45,6 @@ import com.azure.android.storage.blob.models.BlockBlobItem;
 import com.azure.android.storage.blob.models.BlockBlobStageBlockHeaders;
 import com.azure.android.storage.blob.models.BlockBlobsCommitBlockListResponse;
 import com.azure.android.storage.blob.models.BlockBlobsStageBlockResponse;
-import com.azure.android.storage.blob.models.BlockLookupList;
 import com.azure.android.storage.blob.models.ContainerCreateHeaders;
 import com.azure.android.storage.blob.models.ContainerCreateResponse;
 import com.azure.android.storage.blob.models.ContainerDeleteHeaders;
@@ -88,14 +91,51 @@ import retrofit2.http.Tag;
  * PACKAGE PRIVATE CLASS AND METHODS
  */
 final class StorageBlobServiceImpl {
+    private final ServiceClient serviceClient;
     private final StorageBlobService service;
     private final SerializerAdapter serializerAdapter;
     private final String serviceVersion;
 
     StorageBlobServiceImpl(ServiceClient serviceClient, String serviceVersion) {
+        this.serviceClient = serviceClient;
         this.service = serviceClient.getRetrofit().create(StorageBlobService.class);
         this.serializerAdapter = SerializerAdapter.createDefault();
         this.serviceVersion = serviceVersion;
+        registerDeserializers(this.serializerAdapter);
+    }
+
+    /**
+     * Registers the hand-written deserializers of the models read on every page of a list.
+     *
+     * @param serializerAdapter The serializer adapter.
+     */
+    private static void registerDeserializers(SerializerAdapter serializerAdapter) {
+        serializerAdapter.registerXmlDeserializer(ListBlobsFlatSegmentResponse.class,
+            new ListBlobsFlatSegmentResponseDeserializer());
+    }
+
+    /**
+     * Resolves the serialization of the models read on the hot paths, e.g. listing blobs, with the default serializer
+     * shared by the clients, so that the first requests aren't slowed by the introspection of the model classes.
+     */
+    static void warmUpSerializerAdapter() {
+        final SerializerAdapter serializerAdapter = SerializerAdapter.createDefault();
+        // the list blobs pages are read by a hand-written deserializer, which needs no warm-up.
+        registerDeserializers(serializerAdapter);
+        serializerAdapter.warmUp(SerializerFormat.XML, BlobTags.class);
+
+        // The headers classes are resolved when headers are first deserialized into them.
+        final Headers emptyHeaders = Headers.of();
+        final Type[] headersTypes = {
+            ListBlobFlatSegmentHeaders.class, BlobGetPropertiesHeaders.class, BlobDownloadHeaders.class
+        };
+        for (Type headersType : headersTypes) {
+            try {
+                serializerAdapter.deserialize(emptyHeaders, headersType);
+            } catch (IOException ignored) {
+                // The headers class is resolved again by the first response.
+            }
+        }
     }
 
 
@@ -969,7 +1009,7 @@ final class StorageBlobServiceImpl {
 
     BlockBlobsCommitBlockListResponse commitBlockListWithRestResponse(String containerName,
                                                                       String blobName,
-                                                                      List<String> base64BlockIds,
+                                                                      Iterable<String> base64BlockIds,
                                                                       byte[] transactionalContentMD5,
                                                                       byte[] transactionalContentCrc64,
                                                                       Integer timeout,
@@ -996,7 +1036,7 @@ final class StorageBlobServiceImpl {
 
     void commitBlockList(String containerName,
                          String blobName,
-                         List<String> base64BlockIds,
+                         Iterable<String> base64BlockIds,
                          byte[] transactionalContentMD5,
                          byte[] transactionalContentCrc64,
                          Integer timeout,
@@ -1344,7 +1384,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -1429,7 +1469,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -1505,7 +1545,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<Void>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<Void>() {
                 @Override
                 public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                     if (response.isSuccessful()) {
@@ -1585,7 +1625,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -1698,7 +1738,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<Void>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<Void>() {
                 @Override
                 public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                     if (response.isSuccessful()) {
@@ -1800,7 +1840,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -1914,7 +1954,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2006,7 +2046,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<Void>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<Void>() {
                 @Override
                 public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                     if (response.isSuccessful()) {
@@ -2115,7 +2155,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2140,7 +2180,7 @@ final class StorageBlobServiceImpl {
                 public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
                     callback.onFailure(t, null);
                 }
-            });
+            }, false);
 
             return null;
         } else {
@@ -2232,7 +2272,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2287,7 +2327,7 @@ final class StorageBlobServiceImpl {
 
     private BlockBlobsCommitBlockListResponse commitBlockListWithRestResponseIntern(String containerName,
                                                                                     String blobName,
-                                                                                    List<String> base64BlockIds,
+                                                                                    Iterable<String> base64BlockIds,
                                                                                     byte[] transactionalContentMD5,
                                                                                     byte[] transactionalContentCrc64,
                                                                                     Integer timeout,
@@ -2369,21 +2409,8 @@ final class StorageBlobServiceImpl {
         String transactionalContentCrc64Converted = Base64Util.encodeToString(transactionalContentCrc64);
         String contentMd5Converted = Base64Util.encodeToString(contentMd5);
 
-        BlockLookupList blockLookupList = new BlockLookupList().setLatest(base64BlockIds);
-        final RequestBody blocks;
-
-        try {
-            blocks = RequestBody.create(MediaType.get("application/xml; charset=utf-8"),
-                serializerAdapter.serialize(blockLookupList, SerializerFormat.XML));
-        } catch (IOException ioe) {
-            if (callback != null) {
-                callback.onFailure(ioe, null);
-
-                return null;
-            } else {
-                throw new RuntimeException(ioe);
-            }
-        }
+        // Stream the block list rather than serializing it to a String, it can have up to 50,000 ids.
+        final RequestBody blocks = new BlockListRequestBody(base64BlockIds);
 
         Call<ResponseBody> call = service.commitBlockList(containerName,
             blobName,
@@ -2417,7 +2444,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2518,7 +2545,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2600,7 +2627,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2717,7 +2744,7 @@ final class StorageBlobServiceImpl {
         });
 
         if (callback != null) {
-            executeCall(call, new retrofit2.Callback<ResponseBody>() {
+            executeCall(call, cancellationToken, new retrofit2.Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
                     if (response.isSuccessful()) {
@@ -2781,8 +2808,34 @@ final class StorageBlobServiceImpl {
         }
     }
 
-    private static <T> void executeCall(Call<T> call, retrofit2.Callback<T> callback) {
-        call.enqueue(callback);
+    private <T> void executeCall(Call<T> call,
+                                 CancellationToken cancellationToken,
+                                 retrofit2.Callback<T> callback) {
+        executeCall(call, cancellationToken, callback, true);
+    }
+
+    /**
+     * Asynchronously execute a call.
+     *
+     * @param call The call.
+     * @param cancellationToken The token to cancel the call, can be null.
+     * @param callback The callback.
+     * @param isCoalescable False for the calls that must send their own request even when request coalescing is
+     * enabled, such as the downloads whose content would be copied for each coalesced call.
+     */
+    private <T> void executeCall(Call<T> call,
+                                 CancellationToken cancellationToken,
+                                 retrofit2.Callback<T> callback,
+                                 boolean isCoalescable) {
+        final RequestHedger requestHedger = this.serviceClient.getRequestHedger(call);
+        final RequestCoalescer requestCoalescer = isCoalescable ? this.serviceClient.getRequestCoalescer() : null;
+        if (requestCoalescer != null) {
+            requestCoalescer.enqueue(call, cancellationToken, callback, requestHedger);
+        } else if (requestHedger != null) {
+            requestHedger.enqueue(call, cancellationToken, callback);
+        } else {
+            RetryScheduler.enqueue(call, cancellationToken, callback);
+        }
     }
 
     private static String readAsString(ResponseBody body) {
@@ -2791,7 +2844,8 @@ final class StorageBlobServiceImpl {
         }
 
         try {
-            return new String(body.bytes());
+            // decoded with the charset of the body, UTF-8 by default.
+            return body.string();
         } catch (IOException ioe) {
             throw new RuntimeException(ioe);
         } finally {
@@ -2800,11 +2854,17 @@ final class StorageBlobServiceImpl {
     }
 
     private <T> T deserializeContent(ResponseBody body, Type type) {
-        String str = readAsString(body);
+        if (body == null) {
+            return null;
+        }
+
+        // The content is parsed as it's read, rather than first read into a string.
         try {
-            return this.serializerAdapter.deserialize(str, type, SerializerFormat.XML);
+            return this.serializerAdapter.deserialize(body.source(), type, SerializerFormat.XML);
         } catch (IOException ioe) {
             throw new RuntimeException(ioe);
+        } finally {
+            body.close();
         }
     }
 
@@ -0,0 +1,355 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.implementation.util;
+
+import com.azure.android.core.internal.util.serializer.XmlStreamDeserializer;
+import com.azure.android.core.util.DateTimeRfc1123;
+import com.azure.android.storage.blob.models.AccessTier;
+import com.azure.android.storage.blob.models.ArchiveStatus;
+import com.azure.android.storage.blob.models.BlobFlatListSegment;
+import com.azure.android.storage.blob.models.BlobItem;
+import com.azure.android.storage.blob.models.BlobItemProperties;
+import com.azure.android.storage.blob.models.BlobType;
+import com.azure.android.storage.blob.models.CopyStatusType;
+import com.azure.android.storage.blob.models.LeaseDurationType;
+import com.azure.android.storage.blob.models.LeaseStateType;
+import com.azure.android.storage.blob.models.LeaseStatusType;
+import com.azure.android.storage.blob.models.ListBlobsFlatSegmentResponse;
+import com.fasterxml.jackson.core.Base64Variants;
+
+import org.threeten.bp.OffsetDateTime;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the {@link ListBlobsFlatSegmentResponse} of a list blobs page from the XML elements as they're parsed,
+ * instead of through the Jackson data binding, which is slow to introspect the large model classes on a cold start.
+ *
+ * <p>
+ * The values are read as Jackson reads them: an empty element is null, as is an empty list or map, and the elements
+ * that aren't in the models are skipped.
+ */
+public final class ListBlobsFlatSegmentResponseDeserializer
+    implements XmlStreamDeserializer<ListBlobsFlatSegmentResponse> {
+    @Override
+    public ListBlobsFlatSegmentResponse deserialize(XMLStreamReader reader) throws XMLStreamException, IOException {
+        final ListBlobsFlatSegmentResponse response = new ListBlobsFlatSegmentResponse();
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String attributeName = reader.getAttributeLocalName(i);
+
+            if ("ServiceEndpoint".equals(attributeName)) {
+                response.setServiceEndpoint(reader.getAttributeValue(i));
+            } else if ("ContainerName".equals(attributeName)) {
+                response.setContainerName(reader.getAttributeValue(i));
+            }
+        }
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "Prefix":
+                    response.setPrefix(readText(reader));
+                    break;
+                case "Marker":
+                    response.setMarker(readText(reader));
+                    break;
+                case "MaxResults":
+                    final Integer maxResults = toInteger(readText(reader));
+                    if (maxResults != null) {
+                        response.setMaxResults(maxResults);
+                    }
+                    break;
+                case "Blobs":
+                    response.setSegment(readSegment(reader));
+                    break;
+                case "NextMarker":
+                    response.setNextMarker(readText(reader));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+
+        return response;
+    }
+
+    private static BlobFlatListSegment readSegment(XMLStreamReader reader) throws XMLStreamException, IOException {
+        BlobFlatListSegment segment = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (segment == null) {
+                segment = new BlobFlatListSegment();
+            }
+            if ("Blob".equals(reader.getLocalName())) {
+                segment.getBlobItems().add(readBlobItem(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        return segment;
+    }
+
+    private static BlobItem readBlobItem(XMLStreamReader reader) throws XMLStreamException, IOException {
+        final BlobItem blobItem = new BlobItem();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "Name":
+                    blobItem.setName(readText(reader));
+                    break;
+                case "Deleted":
+                    final Boolean deleted = toBoolean(readText(reader));
+                    if (deleted != null) {
+                        blobItem.setDeleted(deleted);
+                    }
+                    break;
+                case "Snapshot":
+                    blobItem.setSnapshot(readText(reader));
+                    break;
+                case "Properties":
+                    blobItem.setProperties(readProperties(reader));
+                    break;
+                case "Metadata":
+                    blobItem.setMetadata(readMetadata(reader));
+                    break;
+                case "VersionId":
+                    blobItem.setVersionId(readText(reader));
+                    break;
+                case "IsPrefix":
+                    blobItem.setIsPrefix(toBoolean(readText(reader)));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+
+        return blobItem;
+    }
+
+    private static BlobItemProperties readProperties(XMLStreamReader reader) throws XMLStreamException, IOException {
+        final BlobItemProperties properties = new BlobItemProperties();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "Creation-Time":
+                    properties.setCreationTime(toDateTime(readText(reader)));
+                    break;
+                case "Last-Modified":
+                    properties.setLastModified(toDateTime(readText(reader)));
+                    break;
+                case "Etag":
+                    properties.setETag(readText(reader));
+                    break;
+                case "Content-Length":
+                    properties.setContentLength(toLong(readText(reader)));
+                    break;
+                case "Content-Type":
+                    properties.setContentType(readText(reader));
+                    break;
+                case "Content-Encoding":
+                    properties.setContentEncoding(readText(reader));
+                    break;
+                case "Content-Language":
+                    properties.setContentLanguage(readText(reader));
+                    break;
+                case "Content-MD5":
+                    properties.setContentMd5(toBytes(readText(reader)));
+                    break;
+                case "Content-Disposition":
+                    properties.setContentDisposition(readText(reader));
+                    break;
+                case "Cache-Control":
+                    properties.setCacheControl(readText(reader));
+                    break;
+                case "x-ms-blob-sequence-number":
+                    properties.setBlobSequenceNumber(toLong(readText(reader)));
+                    break;
+                case "BlobType":
+                    properties.setBlobType(BlobType.fromString(readText(reader)));
+                    break;
+                case "LeaseStatus":
+                    properties.setLeaseStatus(LeaseStatusType.fromString(readText(reader)));
+                    break;
+                case "LeaseState":
+                    properties.setLeaseState(LeaseStateType.fromString(readText(reader)));
+                    break;
+                case "LeaseDuration":
+                    properties.setLeaseDuration(LeaseDurationType.fromString(readText(reader)));
+                    break;
+                case "CopyId":
+                    properties.setCopyId(readText(reader));
+                    break;
+                case "CopyStatus":
+                    properties.setCopyStatus(CopyStatusType.fromString(readText(reader)));
+                    break;
+                case "CopySource":
+                    properties.setCopySource(readText(reader));
+                    break;
+                case "CopyProgress":
+                    properties.setCopyProgress(readText(reader));
+                    break;
+                case "CopyCompletionTime":
+                    properties.setCopyCompletionTime(toDateTime(readText(reader)));
+                    break;
+                case "CopyStatusDescription":
+                    properties.setCopyStatusDescription(readText(reader));
+                    break;
+                case "ServerEncrypted":
+                    properties.setServerEncrypted(toBoolean(readText(reader)));
+                    break;
+                case "IncrementalCopy":
+                    properties.setIncrementalCopy(toBoolean(readText(reader)));
+                    break;
+                case "DestinationSnapshot":
+                    properties.setDestinationSnapshot(readText(reader));
+                    break;
+                case "DeletedTime":
+                    properties.setDeletedTime(toDateTime(readText(reader)));
+                    break;
+                case "RemainingRetentionDays":
+                    properties.setRemainingRetentionDays(toInteger(readText(reader)));
+                    break;
+                case "AccessTier":
+                    properties.setAccessTier(AccessTier.fromString(readText(reader)));
+                    break;
+                case "AccessTierInferred":
+                    properties.setAccessTierInferred(toBoolean(readText(reader)));
+                    break;
+                case "ArchiveStatus":
+                    properties.setArchiveStatus(ArchiveStatus.fromString(readText(reader)));
+                    break;
+                case "CustomerProvidedKeySha256":
+                    properties.setCustomerProvidedKeySha256(readText(reader));
+                    break;
+                case "AccessTierChangeTime":
+                    properties.setAccessTierChangeTime(toDateTime(readText(reader)));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+
+        return properties;
+    }
+
+    private static Map<String, String> readMetadata(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> metadata = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (metadata == null) {
+                metadata = new HashMap<>();
+            }
+            metadata.put(reader.getLocalName(), reader.getElementText());
+        }
+
+        return metadata;
+    }
+
+    /**
+     * Read the text of the current element.
+     *
+     * @param reader The reader, positioned on the start of the element.
+     * @return The text, or null if the element is empty.
+     * @throws XMLStreamException If the document is malformed or the element has children.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        final String text = reader.getElementText();
+
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * Skip the current element and its children.
+     *
+     * @param reader The reader, positioned on the start of the element.
+     * @throws XMLStreamException If the document is malformed.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+
+        while (depth > 0) {
+            final int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static Integer toInteger(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Not an integer: " + text, e);
+        }
+    }
+
+    private static Long toLong(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a long: " + text, e);
+        }
+    }
+
+    private static Boolean toBoolean(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        final String trimmedText = text.trim();
+
+        if ("true".equalsIgnoreCase(trimmedText)) {
+            return Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(trimmedText)) {
+            return Boolean.FALSE;
+        }
+
+        throw new IOException("Not a boolean: " + text);
+    }
+
+    private static OffsetDateTime toDateTime(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            return new DateTimeRfc1123(text.trim()).getDateTime();
+        } catch (RuntimeException e) {
+            throw new IOException("Not an RFC1123 date: " + text, e);
+        }
+    }
+
+    private static byte[] toBytes(String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            return Base64Variants.getDefaultVariant().decode(text.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a Base64 value: " + text, e);
+        }
+    }
+}
@@ -85,6 +85,14 @@ final class BlobDownloadEntity {
     @ColumnInfo(name = "transfer_interrupt_state")
     @TypeConverters(ColumnConverter.class)
     public TransferInterruptState interruptState;
+
+    /**
+     * The time in milliseconds since epoch when the download state or interrupted state last changed.
+     *
+     * Used by {@link TransferPurgeWorker} to decide the age of a completed or purged download.
+     */
+    @ColumnInfo(name = "state_update_time", defaultValue = "0")
+    public long stateUpdateTime;
     /**
      * The constraints to be satisfied to run the download operation.
      */
@@ -136,6 +144,7 @@ final class BlobDownloadEntity {
         this.useContentResolver = content.isUsingContentResolver();
         state = BlobTransferState.WAIT_TO_BEGIN;
         interruptState = TransferInterruptState.NONE;
+        stateUpdateTime = System.currentTimeMillis();
         constraintsColumn = ConstraintsColumn.fromConstraints(constraints);
     }
 
@@ -168,7 +177,8 @@ final class BlobDownloadEntity {
             .append(" contentUri:" + this.contentUri)
             .append(" useContentResolver:" + this.useContentResolver)
             .append(" state:").append(state)
-            .append(" interruptState:").append(interruptState);
+            .append(" interruptState:").append(interruptState)
+            .append(" stateUpdateTime:").append(stateUpdateTime);
 
         if (downloadError != null) {
             builder.append(" downloadError:").append(downloadError.getMessage());
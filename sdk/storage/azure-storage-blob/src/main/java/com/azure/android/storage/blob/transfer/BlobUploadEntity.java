@@ -12,6 +12,7 @@ import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 import androidx.work.Constraints;
 
+import java.security.SecureRandom;
 import java.util.Objects;
 
 /**
@@ -25,6 +26,8 @@ import java.util.Objects;
  */
 @Entity(tableName = "blobuploads")
 final class BlobUploadEntity {
+    // The source of the random block id prefixes.
+    private static final SecureRandom BLOCK_ID_PREFIX_RANDOM = new SecureRandom();
     /**
      * A unique key for the blob upload metadata.
      *
@@ -82,6 +85,25 @@ final class BlobUploadEntity {
     @ColumnInfo(name = "transfer_interrupt_state")
     @TypeConverters(ColumnConverter.class)
     public TransferInterruptState interruptState;
+    /**
+     * The time in milliseconds since epoch when the upload state or interrupted state last changed.
+     *
+     * Used by {@link TransferPurgeWorker} to decide the age of a completed or purged upload.
+     */
+    @ColumnInfo(name = "state_update_time", defaultValue = "0")
+    public long stateUpdateTime;
+    /**
+     * A random id generated once per upload, the block ids of the upload are derived from it and the block index.
+     *
+     * Unlike the {@link BlobUploadEntity#key}, which restarts at 1 on every install or data clear, the prefix
+     * keeps the block ids of the upload apart from the uncommitted blocks staged to the same blob by another
+     * upload, from this or another device. The value is 0 for the uploads created before the prefix was added,
+     * whose blocks keep their stored block ids.
+     *
+     * @see BlockUploadEntity#toBlockId(long, int)
+     */
+    @ColumnInfo(name = "block_id_prefix", defaultValue = "0")
+    public long blockIdPrefix;
     /**
      * The constraints to be satisfied to run the upload operation.
      */
@@ -136,9 +158,20 @@ final class BlobUploadEntity {
         this.computeMd5 = computeMd5;
         this.state = BlobTransferState.WAIT_TO_BEGIN;
         this.interruptState = TransferInterruptState.NONE;
+        this.stateUpdateTime = System.currentTimeMillis();
+        this.blockIdPrefix = newBlockIdPrefix();
         this.constraintsColumn = ConstraintsColumn.fromConstraints(constraints);
     }
 
+    /**
+     * Generate a random block id prefix for a new upload.
+     *
+     * @return the block id prefix
+     */
+    static long newBlockIdPrefix() {
+        return BLOCK_ID_PREFIX_RANDOM.nextLong();
+    }
+
     /**
      * Set the commit (the last stage of upload) failure error.
      *
@@ -169,6 +202,7 @@ final class BlobUploadEntity {
         builder.append(" computeMd5:" + this.computeMd5);
         builder.append(" state:" + this.state);
         builder.append(" interruptState:" + this.interruptState);
+        builder.append(" stateUpdateTime:" + this.stateUpdateTime);
         if (this.commitError != null) {
             builder.append(" commitError:" + this.commitError.getMessage());
         }
@@ -11,15 +11,10 @@ import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
-import com.azure.android.core.util.Base64Util;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
 
 import static androidx.room.ForeignKey.CASCADE;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Package private.
@@ -41,11 +36,16 @@ import static java.nio.charset.StandardCharsets.UTF_8;
         onDelete = CASCADE),
     indices = {@Index("blob_key")})
 final class BlockUploadEntity {
+    // the length of a base64 block id, the encoding of 12 bytes (8 bytes id prefix and 4 bytes block index).
+    private static final int BLOCK_ID_BASE64_LENGTH = 16;
+    // the base64 alphabet (RFC 4648).
+    private static final char[] BASE64_ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
     /**
      * A unique key for the block upload metadata.
      *
      * This key identifies the metadata in the local store, which is different
-     * from {@link BlockUploadEntity#blockId}. Block id is used by storage service
+     * from {@link BlockUploadEntity#getBlockId(long)}. Block id is used by storage service
      * is uniquely identify the block.
      */
     @PrimaryKey(autoGenerate = true)
@@ -66,8 +66,19 @@ final class BlockUploadEntity {
      */
     @ColumnInfo(name = "block_size")
     public int blockSize;
+    /**
+     * The index of the block in the content, the block with index 0 starts at offset 0.
+     *
+     * The value is -1 for the blocks created before the block ids were derived from the index.
+     */
+    @ColumnInfo(name = "block_index", defaultValue = "-1")
+    public int blockIndex;
     /**
      * The base64 block id used by the storage service to uniquely identify the block.
+     *
+     * This is set only for the blocks created before the block ids were derived from
+     * upload's {@link BlobUploadEntity#blockIdPrefix} and the block index, for the rest it is null and
+     * the id is computed on demand using {@link BlockUploadEntity#toBlockId(long, int)}.
      */
     @ColumnInfo(name = "block_id")
     public String blockId;
@@ -94,13 +105,12 @@ final class BlockUploadEntity {
     /**
      * Create a new BlockUploadEntity to persist in local store.
      *
-     * @param blockId the base64 block id
+     * @param blockIndex the index of the block in the content
      * @param blockOffset the offset in the content from which the block starts
      * @param blockSize the block size in bytes
      */
-    private BlockUploadEntity(String blockId, int blockOffset, int blockSize) {
-        Objects.requireNonNull(blockId);
-        this.blockId = blockId;
+    private BlockUploadEntity(int blockIndex, int blockOffset, int blockSize) {
+        this.blockIndex = blockIndex;
         this.blockOffset = blockOffset;
         this.blockSize = blockSize;
         this.state = BlockTransferState.WAIT_TO_BEGIN;
@@ -116,6 +126,62 @@ final class BlockUploadEntity {
         this.blobKey = blobKey;
     }
 
+    /**
+     * Get the base64 block id used by the storage service to uniquely identify the block.
+     *
+     * @param blockIdPrefix the {@link BlobUploadEntity#blockIdPrefix} of the upload the block belongs to
+     * @return the block id
+     */
+    String getBlockId(long blockIdPrefix) {
+        if (this.blockId == null) {
+            this.blockId = toBlockId(blockIdPrefix, this.blockIndex);
+        }
+        return this.blockId;
+    }
+
+    /**
+     * Compute the base64 block id of a block.
+     *
+     * The id is the base64 encoding of the 8 bytes random id prefix of the upload followed by the 4 bytes
+     * block index (both big-endian), so all the ids of an upload have the same length as required by the
+     * storage service, and they can be rebuilt from the block count without reading the blocks metadata.
+     * The 12 bytes encode to exactly 16 base64 characters without padding.
+     *
+     * @param blockIdPrefix the {@link BlobUploadEntity#blockIdPrefix} of the upload the block belongs to
+     * @param blockIndex the index of the block in the content
+     * @return the base64 block id
+     */
+    static String toBlockId(long blockIdPrefix, int blockIndex) {
+        final char[] id = new char[BLOCK_ID_BASE64_LENGTH];
+        // The 96 bits as three 32 bits words, each 24 bits group maps to 4 base64 characters.
+        final int[] words = { (int) (blockIdPrefix >>> 32), (int) blockIdPrefix, blockIndex };
+        int charIndex = 0;
+        for (int group = 0; group < 4; group++) {
+            final int bitOffset = group * 24;
+            final int bits = extract24Bits(words, bitOffset);
+            id[charIndex++] = BASE64_ALPHABET[(bits >>> 18) & 0x3F];
+            id[charIndex++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+            id[charIndex++] = BASE64_ALPHABET[(bits >>> 6) & 0x3F];
+            id[charIndex++] = BASE64_ALPHABET[bits & 0x3F];
+        }
+        return new String(id);
+    }
+
+    /**
+     * Read 24 bits starting at the given bit offset from a big-endian sequence of 32 bits words.
+     *
+     * @param words the words
+     * @param bitOffset the offset of the first bit to read
+     * @return the 24 bits in the low bits of the returned value
+     */
+    private static int extract24Bits(int[] words, int bitOffset) {
+        final int wordIndex = bitOffset >>> 5;
+        final int bitInWord = bitOffset & 31;
+        final long pair = ((words[wordIndex] & 0xFFFFFFFFL) << 32)
+            | (wordIndex + 1 < words.length ? (words[wordIndex + 1] & 0xFFFFFFFFL) : 0L);
+        return (int) ((pair >>> (40 - bitInWord)) & 0xFFFFFF);
+    }
+
     /**
      * Set the block staging failure error.
      *
@@ -145,9 +211,8 @@ final class BlockUploadEntity {
                                                        int blockSize) {
         final List<BlockUploadEntity> blockUploadEntities = new ArrayList<>();
         if (contentSize <= blockSize) {
-            final String blockId = Base64Util.encodeToString(UUID.randomUUID().toString().getBytes(UTF_8));
             BlockUploadEntity blockUploadEntity = new BlockUploadEntity(
-                blockId,
+                0,
                 0,
                 (int) contentSize);
             blockUploadEntities.add(blockUploadEntity);
@@ -156,10 +221,9 @@ final class BlockUploadEntity {
             int fileOffset = 0;
             int blocksCount = (int) Math.ceil(remainingLength / (double) blockSize);
             for (int i = 0; i < blocksCount; i++) {
-                final String blockId = Base64Util.encodeToString(UUID.randomUUID().toString().getBytes(UTF_8));
                 final int currentBlockLength = (int) Math.min(blockSize, remainingLength);
                 BlockUploadEntity blockUploadEntity = new BlockUploadEntity(
-                    blockId,
+                    i,
                     fileOffset,
                     currentBlockLength);
                 blockUploadEntities.add(blockUploadEntity);
@@ -175,6 +239,7 @@ final class BlockUploadEntity {
         StringBuilder builder = new StringBuilder();
         builder.append(" key:" + this.key);
         builder.append(" blobKey:" + this.blobKey);
+        builder.append(" blockIndex:" + this.blockIndex);
         builder.append(" blockOffset:" + this.blockOffset);
         builder.append(" blockSize:" + this.blockSize);
         builder.append(" state:" + this.state);
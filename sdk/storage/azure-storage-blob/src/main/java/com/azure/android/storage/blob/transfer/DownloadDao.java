@@ -118,8 +118,20 @@ abstract class DownloadDao {
      * @param blobKey The blob download metadata key (a.k.a. downloadId).
      * @param state The download state.
      */
-    @Query("UPDATE blobdownloads SET blob_download_state=:state WHERE `key` = :blobKey")
-    public abstract void updateBlobState(long blobKey, BlobTransferState state);
+    public void updateBlobState(long blobKey, BlobTransferState state) {
+        updateBlobState(blobKey, state, System.currentTimeMillis());
+    }
+
+    /**
+     * Update the download state and the state update time fields of a blob download metadata entity.
+     *
+     * @param blobKey The blob download metadata key (a.k.a. downloadId).
+     * @param state The download state.
+     * @param stateUpdateTime The time in milliseconds since epoch when the state changed.
+     */
+    @Query("UPDATE blobdownloads SET blob_download_state=:state, state_update_time=:stateUpdateTime "
+        + "WHERE `key` = :blobKey")
+    public abstract void updateBlobState(long blobKey, BlobTransferState state, long stateUpdateTime);
 
     /**
      * Update the blob size field of a blob download metadata entity.
@@ -136,8 +148,22 @@ abstract class DownloadDao {
      * @param blobKey The blob download metadata key (a.k.a. downloadId).
      * @param state The interrupted state.
      */
-    @Query("UPDATE blobdownloads SET transfer_interrupt_state=:state WHERE `key` = :blobKey")
-    public abstract void updateDownloadInterruptState(long blobKey, TransferInterruptState state);
+    public void updateDownloadInterruptState(long blobKey, TransferInterruptState state) {
+        updateDownloadInterruptState(blobKey, state, System.currentTimeMillis());
+    }
+
+    /**
+     * Update the interrupted state and the state update time fields of a blob download metadata entity.
+     *
+     * @param blobKey The blob download metadata key (a.k.a. downloadId).
+     * @param state The interrupted state.
+     * @param stateUpdateTime The time in milliseconds since epoch when the state changed.
+     */
+    @Query("UPDATE blobdownloads SET transfer_interrupt_state=:state, state_update_time=:stateUpdateTime "
+        + "WHERE `key` = :blobKey")
+    public abstract void updateDownloadInterruptState(long blobKey,
+                                                      TransferInterruptState state,
+                                                      long stateUpdateTime);
 
     /**
      * Get the interrupted state from a blob download metadata entity.
@@ -167,4 +193,61 @@ abstract class DownloadDao {
      */
     @Query("SELECT SUM(block_size) FROM blockdownloads WHERE blob_key = :blobKey and block_download_state = :state")
     public abstract long getAggregatedBlockSize(long blobKey, BlockTransferState state);
+
+    /**
+     * Get the keys of the blob download metadata that are eligible for purging as per the retention limits. A
+     * download is eligible if it is COMPLETED or marked for PURGE, and either it reached that state before
+     * {@code olderThan} or it is not among the {@code keepCount} most recent such downloads.
+     *
+     * @param olderThan The time in milliseconds since epoch, downloads reached the terminal state before this time
+     * are eligible.
+     * @param keepCount The maximum number of terminal downloads to retain.
+     * @return The blob download metadata keys (a.k.a. downloadIds).
+     */
+    public List<Long> getPurgeableBlobKeys(long olderThan, int keepCount) {
+        return getPurgeableBlobKeys(BlobTransferState.COMPLETED, TransferInterruptState.PURGE, olderThan, keepCount);
+    }
+
+    /**
+     * Get the keys of the blob download metadata in the given terminal states that are eligible for purging.
+     *
+     * @param completedState The blob state indicating download completion.
+     * @param purgeState The interrupted state indicating the download is marked for purging.
+     * @param olderThan The time in milliseconds since epoch, downloads reached the terminal state before this time
+     * are eligible.
+     * @param keepCount The maximum number of terminal downloads to retain.
+     * @return The blob download metadata keys (a.k.a. downloadIds).
+     */
+    @Query("SELECT `key` FROM blobdownloads"
+        + " WHERE (blob_download_state = :completedState OR transfer_interrupt_state = :purgeState)"
+        + " AND (state_update_time < :olderThan OR `key` NOT IN (SELECT `key` FROM blobdownloads"
+        + " WHERE blob_download_state = :completedState OR transfer_interrupt_state = :purgeState"
+        + " ORDER BY state_update_time DESC, `key` DESC LIMIT :keepCount))")
+    public abstract List<Long> getPurgeableBlobKeys(BlobTransferState completedState,
+                                                    TransferInterruptState purgeState,
+                                                    long olderThan,
+                                                    int keepCount);
+
+    /**
+     * Delete a batch of block download metadata belonging to a blob download.
+     *
+     * @param blobKey The blob download metadata key (a.k.a. downloadId).
+     * @param batchSize The maximum number of block download metadata to delete.
+     * @return The number of block download metadata deleted.
+     */
+    @Query("DELETE FROM blockdownloads WHERE `key` IN "
+        + "(SELECT `key` FROM blockdownloads WHERE `blob_key` = :blobKey LIMIT :batchSize)")
+    public abstract int deleteBlocks(long blobKey, int batchSize);
+
+    /**
+     * Delete a blob download metadata entity.
+     * <p>
+     * Any remaining block download metadata of the download will be deleted by the cascading foreign key, use
+     * {@link DownloadDao#deleteBlocks(long, int)} beforehand to delete the blocks in smaller batches.
+     *
+     * @param blobKey The blob download metadata key (a.k.a. downloadId).
+     * @return The number of blob download metadata deleted.
+     */
+    @Query("DELETE FROM blobdownloads WHERE `key` = :blobKey")
+    public abstract int deleteBlob(long blobKey);
 }
@@ -244,9 +244,14 @@ final class DownloadHandler extends Handler {
         closeContent();
 
         Throwable downloadError = failedBlock.getDownloadError();
-        blob.setDownloadError(downloadError);
 
-        transferHandlerListener.onError(downloadError);
+        if (Util.isCircuitBreakerOpen(downloadError)) {
+            // The service is unavailable, park the download (the failed blocks are downloaded again on resume).
+            transferHandlerListener.onSystemPaused();
+        } else {
+            blob.setDownloadError(downloadError);
+            transferHandlerListener.onError(downloadError);
+        }
         getLooper().quit();
     }
 
@@ -96,6 +96,9 @@ public class DownloadWorker extends ListenableWorker {
                 @Override
                 public void onSystemPaused() {
                     // TODO: anuchan - use this once decide on public non-live-data listener.
+                    // Let WorkManager reschedule the work with backoff, e.g. once a circuit breaker
+                    // rejected a call, the result is ignored if WorkManager stopped the work.
+                    completer.set(Result.retry());
                 }
 
                 @Override
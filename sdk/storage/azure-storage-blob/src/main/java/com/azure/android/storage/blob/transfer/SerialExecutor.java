@@ -6,8 +6,10 @@ package com.azure.android.storage.blob.transfer;
 import androidx.annotation.NonNull;
 import androidx.work.WorkManager;
 
-import java.util.ArrayDeque;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Package private.
@@ -24,15 +26,34 @@ import java.util.concurrent.Executor;
  * it's message queue. The difference is while Looper hold a dedicated thread throughout
  * it lifetime, SerialExecutor delegate the work execution to another executor.
  *
+ * The submitted works are held in lock-free multi-producer single-consumer queues, so that
+ * the callers (UI and background threads) never block on a monitor to submit a work. Each time
+ * the SerialExecutor is scheduled on the wrapped executor it drains up to {@link #MAX_BATCH_SIZE}
+ * works, then yields the wrapped executor's thread by re-scheduling itself if there are more works.
+ *
+ * There is one queue (lane) per {@link Priority}. Works are still executed one at a time, but
+ * before picking the next work the SerialExecutor always checks the higher priority lanes first,
+ * so a {@link Priority#HIGH} work (e.g. pause, cancel) overtakes any queued {@link Priority#NORMAL}
+ * work (e.g. creating transfer records).
+ *
  * @see <a href="https://developer.android.com/reference/java/util/concurrent/Executor">Executor</a>
  */
 final class SerialExecutor implements Executor {
-    // the queue holding the tasks to be executed serially.
-    private final ArrayDeque<Task> tasksQueue = new ArrayDeque<>();
+    // the maximum number of tasks to execute per scheduling on the wrapped executor.
+    static final int MAX_BATCH_SIZE = 32;
+    // the state indicating the drain task is not scheduled on the wrapped executor.
+    private static final int IDLE = 0;
+    // the state indicating the drain task is scheduled or running on the wrapped executor.
+    private static final int SCHEDULED = 1;
+
     // the executor to delegate the task execution to.
     private final Executor executor;
-    // the actively executing task.
-    private volatile Task activeTask;
+    // the queues holding the tasks, indexed by the Priority ordinal (highest priority first).
+    private final TaskQueue[] lanes;
+    // the current drain state, either IDLE or SCHEDULED.
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    // the task that drains the queues, a single instance is scheduled at a time.
+    private final Runnable drainTask = this::drain;
 
     /**
      * Create SerialExecutor.
@@ -41,63 +62,198 @@ final class SerialExecutor implements Executor {
      */
     SerialExecutor(@NonNull Executor executor) {
         this.executor = executor;
+        final Priority[] priorities = Priority.values();
+        this.lanes = new TaskQueue[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            this.lanes[i] = new TaskQueue();
+        }
     }
 
     /**
-     * Submit a work to execute.
+     * Submit a work to execute with {@link Priority#NORMAL} priority.
      *
      * @param runnable the unit of work
      */
     @Override
-    public synchronized void execute(@NonNull Runnable runnable) {
-        this.tasksQueue.add(new Task(runnable, this));
-        if (this.activeTask == null) {
-            this.enqueueNextTask();
+    public void execute(@NonNull Runnable runnable) {
+        this.execute(runnable, Priority.NORMAL);
+    }
+
+    /**
+     * Submit a work to execute with the given priority.
+     *
+     * @param runnable the unit of work
+     * @param priority the priority of the work
+     */
+    void execute(@NonNull Runnable runnable, @NonNull Priority priority) {
+        this.lanes[priority.ordinal()].offer(runnable);
+        this.scheduleIfIdle();
+    }
+
+    /**
+     * Schedule the drain task on the wrapped executor if it is not already scheduled.
+     */
+    private void scheduleIfIdle() {
+        if (this.state.get() == IDLE && this.state.compareAndSet(IDLE, SCHEDULED)) {
+            try {
+                this.executor.execute(this.drainTask);
+            } catch (RejectedExecutionException e) {
+                this.state.set(IDLE);
+                throw e;
+            }
         }
     }
 
     /**
-     * Enqueue the next task for execution.
+     * Execute a batch of tasks from the queues serially. If the queues still have tasks once the batch
+     * is executed or if a task fails, then the drain task is re-scheduled to run the rest.
      */
-    private synchronized void enqueueNextTask() {
-        this.activeTask = this.tasksQueue.poll();
-        if (this.activeTask != null) {
-            this.executor.execute(this.activeTask);
+    private void drain() {
+        boolean reschedule = true;
+        try {
+            for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                Runnable task = this.poll();
+                if (task == null) {
+                    this.state.set(IDLE);
+                    // A producer may have linked a node after the poll but before it could observe IDLE.
+                    if (this.isEmpty() || !this.state.compareAndSet(IDLE, SCHEDULED)) {
+                        reschedule = false;
+                        return;
+                    }
+                    task = this.poll();
+                }
+                task.run();
+            }
+        } finally {
+            if (reschedule) {
+                try {
+                    this.executor.execute(this.drainTask);
+                } catch (RejectedExecutionException e) {
+                    // Let the next submitted work schedule the drain task again, including the tasks left over.
+                    this.state.set(IDLE);
+                    throw e;
+                }
+            }
         }
     }
 
     /**
-     * A Task representing a unit of work. Once a Task is executed, it request the
-     * executor to enqueue the next Task for execution.
+     * Retrieve and remove the first task in the highest priority non-empty lane, must be called only
+     * by the consumer.
+     *
+     * @return the task or null if all lanes are empty
      */
-    private static class Task implements Runnable {
-        // the unit of work.
-        final Runnable runnable;
-        // the executor to request execution of next task.
-        final SerialExecutor serialExecutor;
+    private Runnable poll() {
+        for (TaskQueue lane : this.lanes) {
+            final Runnable task = lane.poll();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
 
+    /**
+     * Check whether all lanes are empty, must be called only by the consumer.
+     *
+     * @return true if there are no linked tasks in any lane
+     */
+    private boolean isEmpty() {
+        for (TaskQueue lane : this.lanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The priority of a work submitted to the {@link SerialExecutor}.
+     */
+    enum Priority {
         /**
-         * Create a Task.
+         * Control works, such as pause and cancel, that must not wait behind queued NORMAL works.
+         */
+        HIGH,
+        /**
+         * Regular book keeping works, such as creating transfer records.
+         */
+        NORMAL
+    }
+
+    /**
+     * A lock-free multi-producer single-consumer queue of tasks.
+     */
+    private static final class TaskQueue {
+        // the last node in the queue, producers atomically swap this to append a node.
+        private final AtomicReference<Node> tail;
+        // the already consumed node preceding the first node in the queue, accessed only by the consumer
+        // (the drain task), the happens-before between drain runs is provided by the 'state' transitions.
+        private Node head;
+
+        /**
+         * Create an empty TaskQueue.
+         */
+        TaskQueue() {
+            this.head = new Node(null);
+            this.tail = new AtomicReference<>(this.head);
+        }
+
+        /**
+         * Append a task to the queue, can be called by any thread.
          *
-         *  @param runnable the unit of work this task represents
-         * @param serialExecutor the executor to enqueue the execution of next task
+         * @param task the task
          */
-        Task(Runnable runnable, SerialExecutor serialExecutor) {
-            this.runnable = runnable;
-            this.serialExecutor = serialExecutor;
+        void offer(Runnable task) {
+            final Node node = new Node(task);
+            final Node previous = this.tail.getAndSet(node);
+            // Between the swap and the link the queue is momentarily disconnected, the consumer sees
+            // it as empty, in which case this producer is the one to observe the IDLE state and schedule.
+            previous.next = node;
         }
 
         /**
-         * Execute this task, once completed enqueue the next task.
+         * Retrieve and remove the first task in the queue, must be called only by the consumer.
+         *
+         * @return the task or null if the queue is empty
          */
-        @Override
-        public void run() {
-            try {
-                this.runnable.run();
-            } finally {
-                this.serialExecutor.enqueueNextTask();
+        Runnable poll() {
+            final Node next = this.head.next;
+            if (next == null) {
+                return null;
             }
+            final Runnable task = next.task;
+            next.task = null;
+            this.head = next;
+            return task;
+        }
+
+        /**
+         * Check whether the queue is empty, must be called only by the consumer.
+         *
+         * @return true if there are no linked tasks
+         */
+        boolean isEmpty() {
+            return this.head.next == null;
         }
     }
-}
 
+    /**
+     * A node in the queue holding a unit of work.
+     */
+    private static final class Node {
+        // the unit of work, cleared once the node is consumed.
+        Runnable task;
+        // the next node in the queue.
+        volatile Node next;
+
+        /**
+         * Create a Node.
+         *
+         * @param task the unit of work this node holds
+         */
+        Node(Runnable task) {
+            this.task = task;
+        }
+    }
+}
@@ -5,6 +5,7 @@ package com.azure.android.storage.blob.transfer;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.MainThread;
@@ -14,9 +15,11 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 import androidx.work.Constraints;
 import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.ExistingWorkPolicy;
 import androidx.work.ListenableWorker;
 import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 import androidx.work.impl.WorkManagerImpl;
 
@@ -25,7 +28,9 @@ import com.azure.android.storage.blob.StorageBlobAsyncClient;
 import com.azure.android.storage.blob.models.BlobGetPropertiesHeaders;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.Response;
 
@@ -34,7 +39,8 @@ import okhttp3.Response;
  */
 public final class TransferClient {
     private static final String TAG = TransferClient.class.getSimpleName();
-    // the executor for internal book keeping.
+    // the executor for internal book keeping, the control operations (pause, resume, cancel) are
+    // submitted with HIGH priority so that they are not queued behind the transfer record creations.
     private SerialExecutor serialTaskExecutor;
     // reference to the database holding transfer entities.
     private final TransferDatabase db;
@@ -90,6 +96,27 @@ public final class TransferClient {
             // Create our own small ThreadPoolExecutor if we can't.
             this.serialTaskExecutor = new SerialExecutor(Executors.newFixedThreadPool(2));
         }
+        this.schedulePurge(TransferRetentionPolicy.getDefault(), ExistingPeriodicWorkPolicy.KEEP);
+    }
+
+    /**
+     * Set the policy describing how long the metadata of finished (completed or cancelled) transfers is
+     * retained in the local store. The metadata is purged by a low priority periodic background work.
+     *
+     * If no policy is set, then {@link TransferRetentionPolicy#getDefault()} is used.
+     *
+     * @param retentionPolicy The retention policy.
+     */
+    public void setRetentionPolicy(@NonNull TransferRetentionPolicy retentionPolicy) {
+        Objects.requireNonNull(retentionPolicy, "'retentionPolicy' cannot be null.");
+        this.serialTaskExecutor.execute(() -> {
+            // BG_Thread
+            try {
+                this.schedulePurge(retentionPolicy, ExistingPeriodicWorkPolicy.REPLACE);
+            } catch (Exception e) {
+                Log.e(TAG, "Unable to schedule purge of finished transfers.", e);
+            }
+        });
     }
 
     /**
@@ -170,21 +197,24 @@ public final class TransferClient {
                 .postValue(TransferOperationResult.error(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, e));
             return toCachedTransferInfoLiveData(transferOpResultLiveData, false);
         }
-        this.serialTaskExecutor.execute(() -> {
-            // BG_Thread
-            try {
-                StorageBlobAsyncClient blobClient = TransferClient.STORAGE_BLOB_CLIENTS.get(downloadRequest.getStorageClientId());
-                if (blobClient == null) {
-                    transferOpResultLiveData.postValue(TransferOperationResult
-                        .unresolvedStorageClientIdError(TransferOperationResult.Operation.UPLOAD_DOWNLOAD,
-                            downloadRequest.getStorageClientId()));
-                    return;
-                }
-                blobClient.getBlobProperties(downloadRequest.getContainerName(), downloadRequest.getBlobName(),
-                    new CallbackWithHeader<Void, BlobGetPropertiesHeaders>() {
-                        @Override
-                        public void onSuccess(Void result, BlobGetPropertiesHeaders header, Response response) {
-                            final long blobSize = header.getContentLength();
+        final StorageBlobAsyncClient blobClient
+            = TransferClient.STORAGE_BLOB_CLIENTS.get(downloadRequest.getStorageClientId());
+        if (blobClient == null) {
+            transferOpResultLiveData.postValue(TransferOperationResult
+                .unresolvedStorageClientIdError(TransferOperationResult.Operation.UPLOAD_DOWNLOAD,
+                    downloadRequest.getStorageClientId()));
+            return toCachedTransferInfoLiveData(transferOpResultLiveData, false);
+        }
+        // The blob properties are retrieved outside of the serialTaskExecutor, so that the network round trip
+        // does not hold up the book keeping of other transfers, only the record creation is serialized.
+        blobClient.getBlobProperties(downloadRequest.getContainerName(), downloadRequest.getBlobName(),
+            new CallbackWithHeader<Void, BlobGetPropertiesHeaders>() {
+                @Override
+                public void onSuccess(Void result, BlobGetPropertiesHeaders header, Response response) {
+                    final long blobSize = header.getContentLength();
+                    serialTaskExecutor.execute(() -> {
+                        // BG_Thread
+                        try {
                             BlobDownloadEntity blob = new BlobDownloadEntity(downloadRequest.getStorageClientId(),
                                 downloadRequest.getContainerName(),
                                 downloadRequest.getBlobName(),
@@ -215,19 +245,19 @@ public final class TransferClient {
                                 .enqueue();
                             transferOpResultLiveData
                                 .postValue(TransferOperationResult.id(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, transferId));
-                        }
-
-                        @Override
-                        public void onFailure(Throwable throwable, Response response) {
+                        } catch (Exception e) {
                             transferOpResultLiveData
-                                .postValue(TransferOperationResult.error(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, throwable));
+                                .postValue(TransferOperationResult.error(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, e));
                         }
                     });
-            } catch (Exception e) {
-                transferOpResultLiveData
-                    .postValue(TransferOperationResult.error(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, e));
-            }
-        });
+                }
+
+                @Override
+                public void onFailure(Throwable throwable, Response response) {
+                    transferOpResultLiveData
+                        .postValue(TransferOperationResult.error(TransferOperationResult.Operation.UPLOAD_DOWNLOAD, throwable));
+                }
+            });
 
         // UI_Thread
         return toCachedTransferInfoLiveData(transferOpResultLiveData, false);
@@ -271,7 +301,7 @@ public final class TransferClient {
             } catch (Exception e) {
                 Log.e(TAG, "Unable to schedule pause for the transfer:" + transferId, e);
             }
-        });
+        }, SerialExecutor.Priority.HIGH);
     }
 
     /**
@@ -330,7 +360,7 @@ public final class TransferClient {
                 transferOpResultLiveData
                     .postValue(TransferOperationResult.error(TransferOperationResult.Operation.RESUME, e));
             }
-        });
+        }, SerialExecutor.Priority.HIGH);
         // UI_Thread
         return toCachedTransferInfoLiveData(transferOpResultLiveData, true);
     }
@@ -363,7 +393,37 @@ public final class TransferClient {
             } catch (Exception e) {
                 Log.e(TAG, "Unable to schedule cancellation for transfer with ID: " + transferId, e);
             }
-        });
+        }, SerialExecutor.Priority.HIGH);
+    }
+
+    /**
+     * Enqueue the periodic work that purges the metadata of finished transfers.
+     *
+     * The work runs only when the battery is not low and, on devices that support it, when the device is idle.
+     *
+     * @param retentionPolicy The retention policy.
+     * @param existingWorkPolicy The policy to apply if the purge work is already enqueued.
+     */
+    private void schedulePurge(TransferRetentionPolicy retentionPolicy,
+                               ExistingPeriodicWorkPolicy existingWorkPolicy) {
+        Constraints.Builder constraintsBuilder = new Constraints.Builder()
+            .setRequiresBatteryNotLow(true)
+            .setRequiresStorageNotLow(true);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            constraintsBuilder.setRequiresDeviceIdle(true);
+        }
+        Data inputData = new Data.Builder()
+            .putLong(TransferPurgeWorker.Constants.INPUT_MAX_AGE_MILLIS_KEY, retentionPolicy.getMaxAge().toMillis())
+            .putInt(TransferPurgeWorker.Constants.INPUT_MAX_COUNT_KEY, retentionPolicy.getMaxCount())
+            .build();
+        PeriodicWorkRequest purgeWorkRequest = new PeriodicWorkRequest
+            .Builder(TransferPurgeWorker.class, retentionPolicy.getPurgeInterval().toMillis(), TimeUnit.MILLISECONDS)
+            .setConstraints(constraintsBuilder.build())
+            .setInputData(inputData)
+            .build();
+        workManager.enqueueUniquePeriodicWork(TransferPurgeWorker.Constants.PURGE_UNIQUE_WORK_NAME,
+            existingWorkPolicy,
+            purgeWorkRequest);
     }
 
     /**
@@ -10,6 +10,8 @@ import androidx.room.Ignore;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 /**
  * Package private.
@@ -21,7 +23,7 @@ import androidx.room.TypeConverters;
  * @see BlockUploadEntity
  */
 @Database(entities = {BlobUploadEntity.class, BlockUploadEntity.class, BlobDownloadEntity.class,
-    BlockDownloadEntity.class}, version = 1)
+    BlockDownloadEntity.class}, version = 3)
 @TypeConverters(ColumnConverter.class)
 abstract class TransferDatabase extends RoomDatabase {
     /**
@@ -32,6 +34,34 @@ abstract class TransferDatabase extends RoomDatabase {
     // An object to synchronize the creation of the singleton TransferDatabase.
     @Ignore
     private static final Object INIT_LOCK = new Object();
+    /**
+     * Migration from version 1 to 2, adds the state update time column used by the retention policy.
+     *
+     * Existing rows get the update time 0, so the terminal transfers created before the upgrade are
+     * the first to be purged.
+     */
+    @Ignore
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE blobuploads ADD COLUMN state_update_time INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE blobdownloads ADD COLUMN state_update_time INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+    /**
+     * Migration from version 2 to 3, adds the block id prefix and block index columns from which the upload
+     * block ids are derived.
+     *
+     * Existing rows get the prefix 0 and the index -1, and keep using their stored block ids.
+     */
+    @Ignore
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE blobuploads ADD COLUMN block_id_prefix INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE blockuploads ADD COLUMN block_index INTEGER NOT NULL DEFAULT -1");
+        }
+    };
 
     /**
      * Get the Data Access Object that exposes operations to store and retrieve upload
@@ -59,7 +89,9 @@ abstract class TransferDatabase extends RoomDatabase {
         synchronized (INIT_LOCK) {
             if (INSTANCE == null) {
                 INSTANCE = Room.databaseBuilder(context,
-                    TransferDatabase.class, "transfersDB").build();
+                    TransferDatabase.class, "transfersDB")
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                    .build();
             }
             return INSTANCE;
         }
@@ -0,0 +1,154 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.List;
+
+/**
+ * {@link Worker} for purging the metadata of finished (completed or cancelled) transfers from the
+ * local store as per the {@link TransferRetentionPolicy}.
+ *
+ * The blocks of a transfer are deleted in small batches, each in its own implicit transaction, so that
+ * the worker never holds the database lock for long and the active transfers are not starved.
+ * Once the records are deleted, the worker returns the freed pages to the file system using
+ * incremental vacuum.
+ */
+public class TransferPurgeWorker extends Worker {
+    private static final String TAG = TransferPurgeWorker.class.getSimpleName();
+    // The maximum number of block rows to delete in one statement.
+    private static final int BLOCKS_DELETE_BATCH_SIZE = 500;
+    // The maximum number of free pages to return to the file system in one run.
+    private static final int INCREMENTAL_VACUUM_PAGES = 2048;
+    // The value of 'PRAGMA auto_vacuum' when incremental vacuum is enabled.
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final long maxAgeMillis;
+    private final int maxCount;
+
+    /**
+     * Create the purge worker.
+     *
+     * {@link TransferClient} won't call this constructor directly instead it enqueue a periodic
+     * work, the {@link androidx.work.WorkManager} call this Ctr when the work is due.
+     *
+     * @param appContext the context
+     * @param workerParams the input parameters to the worker
+     */
+    public TransferPurgeWorker(@NonNull Context appContext,
+                               @NonNull WorkerParameters workerParams) {
+        super(appContext, workerParams);
+        TransferRetentionPolicy defaultPolicy = TransferRetentionPolicy.getDefault();
+        this.maxAgeMillis = getInputData().getLong(Constants.INPUT_MAX_AGE_MILLIS_KEY,
+            defaultPolicy.getMaxAge().toMillis());
+        this.maxCount = getInputData().getInt(Constants.INPUT_MAX_COUNT_KEY,
+            defaultPolicy.getMaxCount());
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Log.v(TAG, "doWork() called." + this);
+        final TransferDatabase db = TransferDatabase.getInstance(getApplicationContext());
+        final long olderThan = System.currentTimeMillis() - this.maxAgeMillis;
+        try {
+            int purgedCount = 0;
+            List<Long> uploadIds = db.uploadDao().getPurgeableBlobKeys(olderThan, this.maxCount);
+            for (long uploadId : uploadIds) {
+                if (isStopped()) {
+                    return Result.success();
+                }
+                while (db.uploadDao().deleteBlocks(uploadId, BLOCKS_DELETE_BATCH_SIZE) > 0) {
+                    if (isStopped()) {
+                        return Result.success();
+                    }
+                }
+                purgedCount += db.uploadDao().deleteBlob(uploadId);
+            }
+            List<Long> downloadIds = db.downloadDao().getPurgeableBlobKeys(olderThan, this.maxCount);
+            for (long downloadId : downloadIds) {
+                if (isStopped()) {
+                    return Result.success();
+                }
+                while (db.downloadDao().deleteBlocks(downloadId, BLOCKS_DELETE_BATCH_SIZE) > 0) {
+                    if (isStopped()) {
+                        return Result.success();
+                    }
+                }
+                purgedCount += db.downloadDao().deleteBlob(downloadId);
+            }
+            Log.v(TAG, "doWork(): purged transfer records: " + purgedCount);
+            if (!isStopped()) {
+                this.vacuum(db.getOpenHelper().getWritableDatabase());
+            }
+            return Result.success();
+        } catch (Throwable t) {
+            Log.e(TAG, "doWork(): failed to purge transfer records.", t);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Return the free pages in the database file to the file system.
+     *
+     * The database is created with the SQLite default 'auto_vacuum=NONE', switching it to
+     * 'INCREMENTAL' requires one full VACUUM, which is done on the first run. The later runs
+     * only free up to {@link #INCREMENTAL_VACUUM_PAGES} pages.
+     *
+     * @param database the database to vacuum
+     */
+    private void vacuum(SupportSQLiteDatabase database) {
+        if (queryInt(database, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            database.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            database.execSQL("VACUUM");
+        } else {
+            // incremental_vacuum frees one page per step, so drain the cursor rather than using execSQL.
+            try (Cursor cursor = database.query("PRAGMA incremental_vacuum(" + INCREMENTAL_VACUUM_PAGES + ")")) {
+                while (cursor.moveToNext()) {
+                    if (isStopped()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a query that returns a single integer.
+     *
+     * @param database the database to query
+     * @param query the query
+     * @return the integer value, or -1 if the query returned no rows
+     */
+    private static int queryInt(SupportSQLiteDatabase database, String query) {
+        try (Cursor cursor = database.query(query)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : -1;
+        }
+    }
+
+    static class Constants {
+        /**
+         * Identifies an entry in {@link WorkerParameters} input to {@link TransferPurgeWorker} that
+         * holds the maximum age in milliseconds of a finished transfer's metadata.
+         */
+        static final String INPUT_MAX_AGE_MILLIS_KEY = "imamk";
+        /**
+         * Identifies an entry in {@link WorkerParameters} input to {@link TransferPurgeWorker} that
+         * holds the maximum number of finished transfers to retain.
+         */
+        static final String INPUT_MAX_COUNT_KEY = "imck";
+        /**
+         * The unique name of the periodic purge work.
+         */
+        static final String PURGE_UNIQUE_WORK_NAME = "azure_transfer_purge";
+    }
+}
@@ -0,0 +1,146 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import org.threeten.bp.Duration;
+
+import java.util.Objects;
+
+/**
+ * A type specifying how long the metadata of finished transfers is retained in the local store
+ * of {@link TransferClient}.
+ *
+ * A transfer is finished when it is completed or cancelled. The metadata of a finished transfer is
+ * purged by a low priority background job once it is older than the maximum age, or once there are
+ * more finished transfers than the maximum count (the oldest are purged first).
+ */
+public final class TransferRetentionPolicy {
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+    private static final int DEFAULT_MAX_COUNT = 100;
+    private static final Duration DEFAULT_PURGE_INTERVAL = Duration.ofDays(1);
+
+    private final Duration maxAge;
+    private final int maxCount;
+    private final Duration purgeInterval;
+
+    /**
+     * Create TransferRetentionPolicy.
+     *
+     * @param maxAge        The maximum age of a finished transfer's metadata.
+     * @param maxCount      The maximum number of finished uploads and, separately, of finished downloads to retain.
+     * @param purgeInterval The interval at which the purge job runs.
+     */
+    private TransferRetentionPolicy(Duration maxAge, int maxCount, Duration purgeInterval) {
+        this.maxAge = maxAge;
+        this.maxCount = maxCount;
+        this.purgeInterval = purgeInterval;
+    }
+
+    /**
+     * Get the default retention policy, which retains up to 100 finished uploads and 100 finished downloads
+     * for no more than 7 days, purging once a day.
+     *
+     * @return The default retention policy.
+     */
+    public static TransferRetentionPolicy getDefault() {
+        return new Builder().build();
+    }
+
+    /**
+     * Get the maximum age of a finished transfer's metadata.
+     *
+     * @return The maximum age.
+     */
+    Duration getMaxAge() {
+        return this.maxAge;
+    }
+
+    /**
+     * Get the maximum number of finished uploads and, separately, of finished downloads to retain.
+     *
+     * @return The maximum count.
+     */
+    int getMaxCount() {
+        return this.maxCount;
+    }
+
+    /**
+     * Get the interval at which the purge job runs.
+     *
+     * @return The purge interval.
+     */
+    Duration getPurgeInterval() {
+        return this.purgeInterval;
+    }
+
+    /**
+     * Builder for {@link TransferRetentionPolicy}.
+     */
+    public static final class Builder {
+        private Duration maxAge = DEFAULT_MAX_AGE;
+        private int maxCount = DEFAULT_MAX_COUNT;
+        private Duration purgeInterval = DEFAULT_PURGE_INTERVAL;
+
+        /**
+         * Creates a {@link Builder}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Set the maximum age of a finished transfer's metadata, the default is 7 days.
+         *
+         * @param maxAge The maximum age.
+         * @return Builder with the provided maximum age set.
+         */
+        public Builder maxAge(Duration maxAge) {
+            Objects.requireNonNull(maxAge, "'maxAge' cannot be null.");
+            if (maxAge.isNegative()) {
+                throw new IllegalArgumentException("'maxAge' cannot be negative.");
+            }
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of finished uploads and, separately, of finished downloads to retain,
+         * the default is 100.
+         *
+         * @param maxCount The maximum count.
+         * @return Builder with the provided maximum count set.
+         */
+        public Builder maxCount(int maxCount) {
+            if (maxCount < 0) {
+                throw new IllegalArgumentException("'maxCount' cannot be negative.");
+            }
+            this.maxCount = maxCount;
+            return this;
+        }
+
+        /**
+         * Set the interval at which the purge job runs, the default is 1 day. The interval cannot be less
+         * than 15 minutes, the minimum interval of a periodic {@link androidx.work.WorkManager} work.
+         *
+         * @param purgeInterval The purge interval.
+         * @return Builder with the provided purge interval set.
+         */
+        public Builder purgeInterval(Duration purgeInterval) {
+            Objects.requireNonNull(purgeInterval, "'purgeInterval' cannot be null.");
+            if (purgeInterval.compareTo(Duration.ofMinutes(15)) < 0) {
+                throw new IllegalArgumentException("'purgeInterval' cannot be less than 15 minutes.");
+            }
+            this.purgeInterval = purgeInterval;
+            return this;
+        }
+
+        /**
+         * Builds a {@link TransferRetentionPolicy} based on this {@link Builder}'s configuration.
+         *
+         * @return A {@link TransferRetentionPolicy}.
+         */
+        public TransferRetentionPolicy build() {
+            return new TransferRetentionPolicy(this.maxAge, this.maxCount, this.purgeInterval);
+        }
+    }
+}
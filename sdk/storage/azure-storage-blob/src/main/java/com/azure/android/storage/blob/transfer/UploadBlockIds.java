@@ -0,0 +1,119 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Package private.
+ *
+ * The block ids of a file upload, in the order of the blocks in the content, to be streamed
+ * into the Commit Block List request body without holding all of them in memory.
+ *
+ * The ids are enumerated afresh on each call to {@link #iterator()}, either by deriving them from
+ * the block index or, for the uploads created before the block ids were derived, by reading them
+ * from a database cursor, which is closed once the enumeration ends.
+ */
+abstract class UploadBlockIds implements Iterable<String> {
+    /**
+     * Create the block ids derived from the upload's block id prefix and the block index.
+     *
+     * @param blockIdPrefix the {@link BlobUploadEntity#blockIdPrefix} of the upload
+     * @param blocksCount the number of blocks in the upload
+     * @return the block ids
+     */
+    static UploadBlockIds derived(long blockIdPrefix, int blocksCount) {
+        return new UploadBlockIds() {
+            @NonNull
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int blockIndex = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.blockIndex < blocksCount;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!this.hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return BlockUploadEntity.toBlockId(blockIdPrefix, this.blockIndex++);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Create the block ids stored in the blocks metadata.
+     *
+     * @param uploadDao the Data Access Object to query the block ids
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the block ids
+     */
+    static UploadBlockIds stored(UploadDao uploadDao, long blobKey) {
+        return new UploadBlockIds() {
+            @NonNull
+            @Override
+            public Iterator<String> iterator() {
+                return new CursorIterator(uploadDao.getStoredBlockIdsCursor(blobKey));
+            }
+        };
+    }
+
+    /**
+     * An iterator over the first column of a cursor, the cursor is closed when the iterator is exhausted
+     * or closed.
+     */
+    private static final class CursorIterator implements Iterator<String>, Closeable {
+        private final Cursor cursor;
+        private boolean hasNext;
+
+        /**
+         * Create CursorIterator.
+         *
+         * @param cursor the cursor holding the block ids
+         */
+        CursorIterator(Cursor cursor) {
+            this.cursor = cursor;
+            this.hasNext = cursor.moveToFirst();
+            if (!this.hasNext) {
+                cursor.close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.hasNext;
+        }
+
+        @Override
+        public String next() {
+            if (!this.hasNext) {
+                throw new NoSuchElementException();
+            }
+            final String blockId = this.cursor.getString(0);
+            this.hasNext = this.cursor.moveToNext();
+            if (!this.hasNext) {
+                this.cursor.close();
+            }
+            return blockId;
+        }
+
+        @Override
+        public void close() {
+            this.hasNext = false;
+            this.cursor.close();
+        }
+    }
+}
@@ -3,6 +3,8 @@
 
 package com.azure.android.storage.blob.transfer;
 
+import android.database.Cursor;
+
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
@@ -76,13 +78,59 @@ abstract class UploadDao {
     public abstract List<BlockUploadEntity> getBlocks(long blobKey, List<BlockTransferState> skipStates);
 
     /**
-     * Get the collection of block ids for a file upload.
+     * Get the collection of block ids for a file upload, in the order of the blocks in the content.
+     *
+     * The ids are derived from the upload's block id prefix and the block index, except for the uploads
+     * created before the block ids were derived, whose ids are read through a cursor over the blocks metadata.
+     * In both cases the ids are enumerated lazily, on each iteration, without loading all of them in memory.
      *
      * @param blobKey the blob upload metadata key (aka uploadId)
      * @return the base64 block ids
      */
-    @Query("SELECT block_id FROM blockuploads where `blob_key` = :blobKey")
-    public abstract List<String> getBlockIds(long blobKey);
+    public Iterable<String> getBlockIds(long blobKey) {
+        if (this.getStoredBlockIdsCount(blobKey) > 0) {
+            return UploadBlockIds.stored(this, blobKey);
+        }
+        return UploadBlockIds.derived(this.getBlockIdPrefix(blobKey), this.getBlocksCount(blobKey));
+    }
+
+    /**
+     * Get the random prefix of the block ids of a file upload.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the block id prefix
+     */
+    @Query("SELECT block_id_prefix FROM blobuploads where `key` = :blobKey limit 1")
+    public abstract long getBlockIdPrefix(long blobKey);
+
+    /**
+     * Get the number of blocks in a file upload.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the number of blocks
+     */
+    @Query("SELECT COUNT(*) FROM blockuploads where `blob_key` = :blobKey")
+    public abstract int getBlocksCount(long blobKey);
+
+    /**
+     * Get the number of blocks in a file upload with the block id stored in the metadata.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the number of blocks with stored block id
+     */
+    @Query("SELECT COUNT(block_id) FROM blockuploads where `blob_key` = :blobKey")
+    public abstract int getStoredBlockIdsCount(long blobKey);
+
+    /**
+     * Get a cursor over the block ids stored in the blocks metadata of a file upload.
+     *
+     * The caller must close the cursor.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the cursor over the base64 block ids, in the first column
+     */
+    @Query("SELECT block_id FROM blockuploads where `blob_key` = :blobKey ORDER BY `key` ASC")
+    public abstract Cursor getStoredBlockIdsCursor(long blobKey);
 
     /**
      * Insert a blob upload metadata.
@@ -116,8 +164,19 @@ abstract class UploadDao {
      * @param blobKey the blob upload metadata key (aka uploadId)
      * @param state the upload state
      */
-    @Query("UPDATE blobuploads SET blob_upload_state=:state WHERE `key` = :blobKey")
-    public abstract void updateBlobState(long blobKey, BlobTransferState state);
+    public void updateBlobState(long blobKey, BlobTransferState state) {
+        this.updateBlobState(blobKey, state, System.currentTimeMillis());
+    }
+
+    /**
+     * Update the upload state and the state update time fields of a blob upload metadata.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @param state the upload state
+     * @param stateUpdateTime the time in milliseconds since epoch when the state changed
+     */
+    @Query("UPDATE blobuploads SET blob_upload_state=:state, state_update_time=:stateUpdateTime WHERE `key` = :blobKey")
+    public abstract void updateBlobState(long blobKey, BlobTransferState state, long stateUpdateTime);
 
     /**
      * Update the interrupted state field of a blob upload metadata.
@@ -125,8 +184,22 @@ abstract class UploadDao {
      * @param blobKey the blob upload metadata key (aka uploadId)
      * @param state the interrupted state
      */
-    @Query("UPDATE blobuploads SET transfer_interrupt_state=:state WHERE `key` = :blobKey")
-    public abstract void updateUploadInterruptState(long blobKey, TransferInterruptState state);
+    public void updateUploadInterruptState(long blobKey, TransferInterruptState state) {
+        this.updateUploadInterruptState(blobKey, state, System.currentTimeMillis());
+    }
+
+    /**
+     * Update the interrupted state and the state update time fields of a blob upload metadata.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @param state the interrupted state
+     * @param stateUpdateTime the time in milliseconds since epoch when the state changed
+     */
+    @Query("UPDATE blobuploads SET transfer_interrupt_state=:state, state_update_time=:stateUpdateTime "
+        + "WHERE `key` = :blobKey")
+    public abstract void updateUploadInterruptState(long blobKey,
+                                                    TransferInterruptState state,
+                                                    long stateUpdateTime);
 
     /**
      * Get the interrupted state from a blob upload metadata.
@@ -156,4 +229,64 @@ abstract class UploadDao {
      */
     @Query("SELECT SUM(block_size) FROM blockuploads WHERE blob_key = :blobKey and block_upload_state = :state")
     public abstract long getAggregatedBlockSize(long blobKey, BlockTransferState state);
+
+    /**
+     * Get the keys of the blob upload metadata that are eligible for purging as per the retention
+     * limits. An upload is eligible if it is COMPLETED or marked for PURGE, and either it reached
+     * that state before {@code olderThan} or it is not among the {@code keepCount} most recent such uploads.
+     *
+     * @param olderThan the time in milliseconds since epoch, uploads reached the terminal state
+     *     before this time are eligible
+     * @param keepCount the maximum number of terminal uploads to retain
+     * @return the blob upload metadata keys (aka uploadIds)
+     */
+    public List<Long> getPurgeableBlobKeys(long olderThan, int keepCount) {
+        return this.getPurgeableBlobKeys(BlobTransferState.COMPLETED,
+            TransferInterruptState.PURGE,
+            olderThan,
+            keepCount);
+    }
+
+    /**
+     * Get the keys of the blob upload metadata in the given terminal states that are eligible for purging.
+     *
+     * @param completedState the blob state indicating upload completion
+     * @param purgeState the interrupted state indicating the upload is marked for purging
+     * @param olderThan the time in milliseconds since epoch, uploads reached the terminal state
+     *     before this time are eligible
+     * @param keepCount the maximum number of terminal uploads to retain
+     * @return the blob upload metadata keys (aka uploadIds)
+     */
+    @Query("SELECT `key` FROM blobuploads"
+        + " WHERE (blob_upload_state = :completedState OR transfer_interrupt_state = :purgeState)"
+        + " AND (state_update_time < :olderThan OR `key` NOT IN (SELECT `key` FROM blobuploads"
+        + " WHERE blob_upload_state = :completedState OR transfer_interrupt_state = :purgeState"
+        + " ORDER BY state_update_time DESC, `key` DESC LIMIT :keepCount))")
+    public abstract List<Long> getPurgeableBlobKeys(BlobTransferState completedState,
+                                                    TransferInterruptState purgeState,
+                                                    long olderThan,
+                                                    int keepCount);
+
+    /**
+     * Delete a batch of block upload metadata belonging to a file upload.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @param batchSize the maximum number of block upload metadata to delete
+     * @return the number of block upload metadata deleted
+     */
+    @Query("DELETE FROM blockuploads WHERE `key` IN "
+        + "(SELECT `key` FROM blockuploads WHERE `blob_key` = :blobKey LIMIT :batchSize)")
+    public abstract int deleteBlocks(long blobKey, int batchSize);
+
+    /**
+     * Delete a blob upload metadata.
+     *
+     * Any remaining block upload metadata of the upload will be deleted by the cascading foreign key,
+     * use {@link UploadDao#deleteBlocks(long, int)} beforehand to delete the blocks in smaller batches.
+     *
+     * @param blobKey the blob upload metadata key (aka uploadId)
+     * @return the number of blob upload metadata deleted
+     */
+    @Query("DELETE FROM blobuploads WHERE `key` = :blobKey")
+    public abstract int deleteBlob(long blobKey);
 }
@@ -223,7 +223,13 @@ final class UploadHandler extends Handler {
     private void handleStagingFailed(Message message) {
         String blockId = UploadHandlerMessage.getBlockIdFromMessage(message);
         BlockUploadEntity failedBlock = this.runningBlockUploads.remove(blockId);
-        this.transferHandlerListener.onError(failedBlock.getStagingError());
+        if (Util.isCircuitBreakerOpen(failedBlock.getStagingError())) {
+            // The service is unavailable, park the upload (the failed blocks are staged again on resume).
+            this.cancellationToken.cancel();
+            this.transferHandlerListener.onSystemPaused();
+        } else {
+            this.transferHandlerListener.onError(failedBlock.getStagingError());
+        }
         this.getLooper().quit();
     }
 
@@ -246,7 +252,12 @@ final class UploadHandler extends Handler {
      * the handler.
      */
     private void handleCommitFailed() {
-        this.transferHandlerListener.onError(this.blob.getCommitError());
+        if (Util.isCircuitBreakerOpen(this.blob.getCommitError())) {
+            // The service is unavailable, park the upload (the commit is attempted again on resume).
+            this.transferHandlerListener.onSystemPaused();
+        } else {
+            this.transferHandlerListener.onError(this.blob.getCommitError());
+        }
         this.getLooper().quit();
     }
 
@@ -282,24 +293,26 @@ final class UploadHandler extends Handler {
     private void stageBlocks(List<BlockUploadEntity> blocks) {
         for (BlockUploadEntity block : blocks) {
             this.finalizeIfStopped();
+            final String blockId = block.getBlockId(this.blob.blockIdPrefix);
 
-            Log.v(TAG, "stageBlocks(): Uploading block:" + block.blockId + threadName());
+            Log.v(TAG, "stageBlocks(): Uploading block:" + blockId + threadName());
             byte [] blockContent;
             try {
                 blockContent = content.readBlock(block.blockOffset, block.blockSize);
             } catch (Throwable t) {
-                Log.e(TAG,  "stageBlocks(): failure in reading content. Block id: " + block.blockId + ". Thread name: " + threadName(), t);
+                Log.e(TAG,  "stageBlocks(): failure in reading content. Block id: " + blockId
+                    + ". Thread name: " + threadName(), t);
                 db.uploadDao().updateBlockState(block.key, BlockTransferState.FAILED);
                 block.setStagingError(t);
                 Message nextMessage = UploadHandlerMessage
-                    .createStagingFailedMessage(UploadHandler.this, block.blockId);
+                    .createStagingFailedMessage(UploadHandler.this, blockId);
                 nextMessage.sendToTarget();
                 return;
             }
 
             this.blobClient.stageBlock(this.blob.containerName,
                 this.blob.blobName,
-                block.blockId,
+                blockId,
                 blockContent,
                 null,
                 null,
@@ -311,24 +324,24 @@ final class UploadHandler extends Handler {
                 new CallbackWithHeader<Void, BlockBlobStageBlockHeaders>() {
                     @Override
                     public void onSuccess(Void result, BlockBlobStageBlockHeaders header, Response response) {
-                        Log.v(TAG, "stageBlocks(): Block uploaded:" + block.blockId + threadName());
+                        Log.v(TAG, "stageBlocks(): Block uploaded:" + blockId + threadName());
                         db.uploadDao().updateBlockState(block.key, BlockTransferState.COMPLETED);
                         Message nextMessage = UploadHandlerMessage
-                            .createStagingCompletedMessage(UploadHandler.this, block.blockId);
+                            .createStagingCompletedMessage(UploadHandler.this, blockId);
                         nextMessage.sendToTarget();
                     }
 
                     @Override
                     public void onFailure(Throwable throwable, Response response) {
-                        Log.e(TAG,  "stageBlocks(): Block upload failed:" + block.blockId + threadName(), throwable);
+                        Log.e(TAG,  "stageBlocks(): Block upload failed:" + blockId + threadName(), throwable);
                         db.uploadDao().updateBlockState(block.key, BlockTransferState.FAILED);
                         block.setStagingError(throwable);
                         Message nextMessage = UploadHandlerMessage
-                            .createStagingFailedMessage(UploadHandler.this, block.blockId);
+                            .createStagingFailedMessage(UploadHandler.this, blockId);
                         nextMessage.sendToTarget();
                     }
                 });
-            this.runningBlockUploads.put(block.blockId, block);
+            this.runningBlockUploads.put(blockId, block);
         }
     }
 
@@ -340,7 +353,7 @@ final class UploadHandler extends Handler {
 
         Log.v(TAG, "commitBlocks(): All blocks uploaded, committing them." + threadName());
 
-        List<String> blockIds = this.db.uploadDao().getBlockIds(this.uploadId);
+        Iterable<String> blockIds = this.db.uploadDao().getBlockIds(this.uploadId);
 
         this.blobClient.commitBlockList(blob.containerName,
             blob.blobName,
@@ -367,7 +380,9 @@ final class UploadHandler extends Handler {
                 @Override
                 public void onFailure(Throwable throwable, Response response) {
                     Log.e(TAG,  "commitBlocks(): Blocks commit failed." + threadName(), throwable);
-                    db.uploadDao().updateBlobState(uploadId, BlobTransferState.FAILED);
+                    if (!Util.isCircuitBreakerOpen(throwable)) {
+                        db.uploadDao().updateBlobState(uploadId, BlobTransferState.FAILED);
+                    }
                     blob.setCommitError(throwable);
                     Message nextMessage = UploadHandlerMessage
                         .createCommitFailedMessage(UploadHandler.this);
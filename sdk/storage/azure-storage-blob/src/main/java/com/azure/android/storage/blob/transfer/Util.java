@@ -3,6 +3,7 @@
 
 package com.azure.android.storage.blob.transfer;
 
+import com.azure.android.core.http.interceptor.CircuitBreakerOpenException;
 import com.azure.android.core.internal.util.serializer.SerializerAdapter;
 import com.azure.android.core.internal.util.serializer.SerializerFormat;
 import com.azure.android.core.util.CoreUtil;
@@ -29,6 +30,25 @@ final class Util {
         return BlobServiceError.tryGetNormalizedError(exception);
     }
 
+    /**
+     * Check whether a transfer call failed because the circuit breaker rejected the request, which
+     * indicates an outage the transfer should be paused for, rather than failed.
+     *
+     * @param throwable the transfer call failure
+     * @return true if the failure is caused by {@link CircuitBreakerOpenException}
+     */
+    static boolean isCircuitBreakerOpen(Throwable throwable) {
+        // The sync APIs wrap the IOException in a RuntimeException, hence check the causes too.
+        Throwable cause = throwable;
+        for (int depth = 0; cause != null && depth < 8; depth++) {
+            if (cause instanceof CircuitBreakerOpenException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
     @JacksonXmlRootElement(localName = "Error")
     private static class BlobServiceError {
         @JsonProperty("Code")
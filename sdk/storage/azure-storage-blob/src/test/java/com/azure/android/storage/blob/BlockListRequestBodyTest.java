@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob;
+
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class BlockListRequestBodyTest {
+    @Test
+    public void writeTo_streamsBlockListDocument() throws Exception {
+        // Given
+        BlockListRequestBody body = new BlockListRequestBody(Arrays.asList("AAAA", "AAAB"));
+        Buffer buffer = new Buffer();
+
+        // When
+        body.writeTo(buffer);
+
+        // Then
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><BlockList>"
+            + "<Latest>AAAA</Latest><Latest>AAAB</Latest></BlockList>", buffer.readUtf8());
+        assertEquals("application/xml; charset=utf-8", body.contentType().toString());
+    }
+
+    @Test
+    public void contentLength_matchesWrittenBytes() throws Exception {
+        // Given
+        List<String> blockIds = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            blockIds.add(String.format("%016d", i));
+        }
+        blockIds.add("a&b<c>dé");
+        BlockListRequestBody body = new BlockListRequestBody(blockIds);
+        Buffer buffer = new Buffer();
+
+        // When
+        body.writeTo(buffer);
+
+        // Then
+        assertEquals(buffer.size(), body.contentLength());
+    }
+
+    @Test
+    public void writeTo_escapesMarkupCharacters() throws Exception {
+        // Given
+        BlockListRequestBody body = new BlockListRequestBody(Arrays.asList("a&b<c>d"));
+        Buffer buffer = new Buffer();
+
+        // When
+        body.writeTo(buffer);
+
+        // Then
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><BlockList>"
+            + "<Latest>a&amp;b&lt;c&gt;d</Latest></BlockList>", buffer.readUtf8());
+    }
+
+    @Test
+    public void writeTo_canBeRepeatedAndClosesIterators() throws Exception {
+        // Given
+        AtomicInteger closed = new AtomicInteger();
+        Iterable<String> blockIds = () -> new ClosingIterator(Arrays.asList("AAAA", "AAAB"), closed);
+        BlockListRequestBody body = new BlockListRequestBody(blockIds);
+        Buffer first = new Buffer();
+        Buffer second = new Buffer();
+
+        // When
+        long contentLength = body.contentLength();
+        body.writeTo(first);
+        body.writeTo(second);
+
+        // Then
+        assertEquals(first.size(), contentLength);
+        assertEquals(first.readUtf8(), second.readUtf8());
+        assertEquals(3, closed.get());
+    }
+
+    private static final class ClosingIterator implements Iterator<String>, Closeable {
+        private final Iterator<String> inner;
+        private final AtomicInteger closed;
+
+        ClosingIterator(List<String> values, AtomicInteger closed) {
+            this.inner = values.iterator();
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.inner.hasNext();
+        }
+
+        @Override
+        public String next() {
+            return this.inner.next();
+        }
+
+        @Override
+        public void close() {
+            this.closed.incrementAndGet();
+        }
+    }
+}
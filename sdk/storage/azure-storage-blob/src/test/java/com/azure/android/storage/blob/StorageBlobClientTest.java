@@ -44,7 +44,9 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -1244,6 +1246,52 @@ public class StorageBlobClientTest {
         assertEquals("testEtag", response.getBlockBlobItem().getETag());
     }
 
+    @Test
+    public void commitBlockListWithRestResponse_listAndIterableSendTheSameBlockList() throws InterruptedException {
+        // Given the same block ids in a List and in an Iterable that is not a List.
+        final List<String> blockIdList = Arrays.asList("YmxvY2stMQ==", "YmxvY2stMg==");
+        final Iterable<String> blockIdIterable = new Iterable<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return blockIdList.iterator();
+            }
+        };
+        mockWebServer.enqueue(new MockResponse().setResponseCode(201));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(201));
+
+        // When committing the block list through both overloads.
+        storageBlobClient.commitBlockListWithRestResponse("testContainer",
+            "testBlob",
+            blockIdList,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            CancellationToken.NONE);
+        storageBlobClient.commitBlockListWithRestResponse("testContainer",
+            "testBlob",
+            blockIdIterable,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            CancellationToken.NONE);
+
+        // Then both requests carry the same block list.
+        String listBody = mockWebServer.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8();
+        String iterableBody = mockWebServer.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8();
+        assertTrue(listBody.contains("<Latest>YmxvY2stMQ==</Latest><Latest>YmxvY2stMg==</Latest>"));
+        assertEquals(listBody, iterableBody);
+    }
+
     @Test
     public void commitBlockListWithRestResponse_withCallback() {
         // Given a StorageBlobClient.
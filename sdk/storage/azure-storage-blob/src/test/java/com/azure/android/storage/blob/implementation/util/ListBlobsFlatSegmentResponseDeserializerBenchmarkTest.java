@@ -0,0 +1,59 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.implementation.util;
+
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerFormat;
+import com.azure.android.storage.blob.models.ListBlobsFlatSegmentResponse;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class ListBlobsFlatSegmentResponseDeserializerBenchmarkTest {
+    // the number of blobs parsed by the timed and untimed iterations of each page size.
+    private static final int WARMUP_BLOB_COUNT = 200_000;
+    private static final int BLOB_COUNT = 500_000;
+
+    @Test
+    public void listBlobsPages_areComparedWithJackson() throws IOException {
+        for (int pageSize : new int[] { 100, 1_000, 5_000 }) {
+            // Given a page, a Jackson adapter and an adapter with the hand-written deserializer.
+            String xml = ListBlobsFlatSegmentResponseDeserializerTest.createListBlobsPage(pageSize);
+            JacksonAdapter jacksonAdapter = new JacksonAdapter();
+            JacksonAdapter streamingAdapter = new JacksonAdapter();
+            streamingAdapter.registerXmlDeserializer(ListBlobsFlatSegmentResponse.class,
+                new ListBlobsFlatSegmentResponseDeserializer());
+
+            // When
+            double jacksonMillis = measureMillisPerPage(jacksonAdapter, xml, pageSize);
+            double streamingMillis = measureMillisPerPage(streamingAdapter, xml, pageSize);
+
+            // Then
+            assertTrue(streamingMillis < jacksonMillis);
+            ListBlobsFlatSegmentResponse response = streamingAdapter.deserialize(xml,
+                ListBlobsFlatSegmentResponse.class, SerializerFormat.XML);
+            assertEquals(pageSize, response.getSegment().getBlobItems().size());
+        }
+    }
+
+    private static double measureMillisPerPage(SerializerAdapter serializerAdapter, String xml, int pageSize)
+        throws IOException {
+        for (int i = 0; i < WARMUP_BLOB_COUNT / pageSize; i++) {
+            serializerAdapter.deserialize(xml, ListBlobsFlatSegmentResponse.class, SerializerFormat.XML);
+        }
+        final int iterations = BLOB_COUNT / pageSize;
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializerAdapter.deserialize(xml, ListBlobsFlatSegmentResponse.class, SerializerFormat.XML);
+        }
+        return (System.nanoTime() - startNanos) / 1_000_000.0 / iterations;
+    }
+}
@@ -0,0 +1,157 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.implementation.util;
+
+import com.azure.android.core.internal.util.serializer.JacksonAdapter;
+import com.azure.android.core.internal.util.serializer.SerializerFormat;
+import com.azure.android.core.internal.util.serializer.exception.MalformedValueException;
+import com.azure.android.storage.blob.models.BlobItem;
+import com.azure.android.storage.blob.models.BlobItemProperties;
+import com.azure.android.storage.blob.models.ListBlobsFlatSegmentResponse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ListBlobsFlatSegmentResponseDeserializerTest {
+    @Test
+    public void deserialize_readsTheServiceResponseAsJackson() throws IOException {
+        // Given
+        String xml = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "ListBlobsResponse.xml")),
+            StandardCharsets.UTF_8);
+
+        // When
+        ListBlobsFlatSegmentResponse jacksonResponse = readWithJackson(xml);
+        ListBlobsFlatSegmentResponse response = read(xml);
+
+        // Then
+        assertResponsesEqual(jacksonResponse, response);
+        assertEquals("test.jpg", response.getSegment().getBlobItems().get(0).getName());
+    }
+
+    @Test
+    public void deserialize_readsEveryPropertyAsJackson() throws IOException {
+        // Given a page with every property of the blobs set.
+        String xml = createListBlobsPage(10);
+
+        // When
+        ListBlobsFlatSegmentResponse jacksonResponse = readWithJackson(xml);
+        ListBlobsFlatSegmentResponse response = read(xml);
+
+        // Then
+        assertResponsesEqual(jacksonResponse, response);
+        assertEquals(10, response.getSegment().getBlobItems().size());
+        assertEquals("value9", response.getSegment().getBlobItems().get(9).getMetadata().get("key"));
+    }
+
+    @Test(expected = MalformedValueException.class)
+    public void deserialize_malformedXml() throws IOException {
+        read("<EnumerationResults><Blobs><Blob></Blobs></EnumerationResults>");
+    }
+
+    static ListBlobsFlatSegmentResponse read(String xml) throws IOException {
+        JacksonAdapter jacksonAdapter = new JacksonAdapter();
+        jacksonAdapter.registerXmlDeserializer(ListBlobsFlatSegmentResponse.class,
+            new ListBlobsFlatSegmentResponseDeserializer());
+
+        return jacksonAdapter.deserialize(xml, ListBlobsFlatSegmentResponse.class, SerializerFormat.XML);
+    }
+
+    static ListBlobsFlatSegmentResponse readWithJackson(String xml) throws IOException {
+        return new JacksonAdapter().deserialize(xml, ListBlobsFlatSegmentResponse.class, SerializerFormat.XML);
+    }
+
+    /**
+     * Create the XML of a list blobs page, as the service returns it.
+     *
+     * @param blobCount The number of blobs of the page.
+     * @return The XML.
+     */
+    static String createListBlobsPage(int blobCount) {
+        StringBuilder builder = new StringBuilder()
+            .append("<?xml version=\"1.0\" encoding=\"utf-8\"?>")
+            .append("<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\" ")
+            .append("ContainerName=\"container\"><Prefix>blob</Prefix><Marker /><MaxResults>5000</MaxResults>")
+            .append("<Blobs>");
+
+        for (int i = 0; i < blobCount; i++) {
+            builder.append(String.format(Locale.ROOT, "<Blob><Name>blob%d.jpg</Name>"
+                + "<VersionId>2020-10-01T00:00:00.%07dZ</VersionId><Properties>"
+                + "<Creation-Time>Thu, 21 May 2020 21:46:12 GMT</Creation-Time>"
+                + "<Last-Modified>Fri, 22 May 2020 08:01:%02d GMT</Last-Modified>"
+                + "<Etag>0x8D7FDC5C8A3%05d</Etag><Content-Length>%d</Content-Length>"
+                + "<Content-Type>image/jpeg</Content-Type><Content-Encoding />"
+                + "<Content-Language>en-US</Content-Language>"
+                + "<Content-CRC64 /><Content-MD5>CY9rzUYh03PK3k6DJie09g==</Content-MD5><Cache-Control />"
+                + "<Content-Disposition /><x-ms-blob-sequence-number>%d</x-ms-blob-sequence-number>"
+                + "<BlobType>BlockBlob</BlobType><AccessTier>Hot</AccessTier><AccessTierInferred>true"
+                + "</AccessTierInferred><LeaseStatus>unlocked</LeaseStatus><LeaseState>available</LeaseState>"
+                + "<CopyId>copy%d</CopyId><CopyStatus>success</CopyStatus><CopyProgress>%d/%d</CopyProgress>"
+                + "<CopyCompletionTime>Fri, 22 May 2020 08:02:00 GMT</CopyCompletionTime>"
+                + "<ServerEncrypted>true</ServerEncrypted><RemainingRetentionDays>%d</RemainingRetentionDays>"
+                + "</Properties><Metadata><key>value%d</key><other>value</other></Metadata></Blob>",
+                i, i, i % 60, i, 1024 + i, i, i, i, i, i % 7, i));
+        }
+
+        return builder.append("</Blobs><NextMarker>marker</NextMarker></EnumerationResults>").toString();
+    }
+
+    private static void assertResponsesEqual(ListBlobsFlatSegmentResponse expected,
+                                             ListBlobsFlatSegmentResponse actual) {
+        assertEquals(expected.getServiceEndpoint(), actual.getServiceEndpoint());
+        assertEquals(expected.getContainerName(), actual.getContainerName());
+        assertEquals(expected.getPrefix(), actual.getPrefix());
+        assertEquals(expected.getMarker(), actual.getMarker());
+        assertEquals(expected.getMaxResults(), actual.getMaxResults());
+        assertEquals(expected.getNextMarker(), actual.getNextMarker());
+
+        List<BlobItem> expectedItems = expected.getSegment().getBlobItems();
+        List<BlobItem> actualItems = actual.getSegment().getBlobItems();
+        assertEquals(expectedItems.size(), actualItems.size());
+
+        for (int i = 0; i < expectedItems.size(); i++) {
+            BlobItem expectedItem = expectedItems.get(i);
+            BlobItem actualItem = actualItems.get(i);
+            assertEquals(expectedItem.getName(), actualItem.getName());
+            assertEquals(expectedItem.isDeleted(), actualItem.isDeleted());
+            assertEquals(expectedItem.getSnapshot(), actualItem.getSnapshot());
+            assertEquals(expectedItem.getVersionId(), actualItem.getVersionId());
+            assertEquals(expectedItem.isPrefix(), actualItem.isPrefix());
+            assertEquals(expectedItem.getMetadata(), actualItem.getMetadata());
+
+            BlobItemProperties expectedProperties = expectedItem.getProperties();
+            BlobItemProperties actualProperties = actualItem.getProperties();
+            assertEquals(expectedProperties.getCreationTime(), actualProperties.getCreationTime());
+            assertEquals(expectedProperties.getLastModified(), actualProperties.getLastModified());
+            assertEquals(expectedProperties.getETag(), actualProperties.getETag());
+            assertEquals(expectedProperties.getContentLength(), actualProperties.getContentLength());
+            assertEquals(expectedProperties.getContentType(), actualProperties.getContentType());
+            assertEquals(expectedProperties.getContentEncoding(), actualProperties.getContentEncoding());
+            assertEquals(expectedProperties.getContentLanguage(), actualProperties.getContentLanguage());
+            assertArrayEquals(expectedProperties.getContentMd5(), actualProperties.getContentMd5());
+            assertEquals(expectedProperties.getCacheControl(), actualProperties.getCacheControl());
+            assertEquals(expectedProperties.getBlobSequenceNumber(), actualProperties.getBlobSequenceNumber());
+            assertEquals(expectedProperties.getBlobType(), actualProperties.getBlobType());
+            assertEquals(expectedProperties.getAccessTier(), actualProperties.getAccessTier());
+            assertEquals(expectedProperties.isAccessTierInferred(), actualProperties.isAccessTierInferred());
+            assertEquals(expectedProperties.getLeaseStatus(), actualProperties.getLeaseStatus());
+            assertEquals(expectedProperties.getLeaseState(), actualProperties.getLeaseState());
+            assertEquals(expectedProperties.getCopyId(), actualProperties.getCopyId());
+            assertEquals(expectedProperties.getCopyStatus(), actualProperties.getCopyStatus());
+            assertEquals(expectedProperties.getCopyProgress(), actualProperties.getCopyProgress());
+            assertEquals(expectedProperties.getCopyCompletionTime(), actualProperties.getCopyCompletionTime());
+            assertEquals(expectedProperties.isServerEncrypted(), actualProperties.isServerEncrypted());
+            assertEquals(expectedProperties.getRemainingRetentionDays(),
+                actualProperties.getRemainingRetentionDays());
+        }
+    }
+}
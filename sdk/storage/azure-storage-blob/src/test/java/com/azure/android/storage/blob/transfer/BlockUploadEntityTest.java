@@ -0,0 +1,99 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlockUploadEntityTest {
+    @Test
+    public void toBlockId_encodesBlockIdPrefixAndBlockIndex() {
+        long[] blockIdPrefixes = {0, 1, 42, Integer.MAX_VALUE + 1L, Long.MAX_VALUE, Long.MIN_VALUE, -1};
+        int[] blockIndexes = {0, 1, 255, 50_000, Integer.MAX_VALUE};
+
+        for (long blockIdPrefix : blockIdPrefixes) {
+            for (int blockIndex : blockIndexes) {
+                String expected = Base64.getEncoder()
+                    .encodeToString(ByteBuffer.allocate(12).putLong(blockIdPrefix).putInt(blockIndex).array());
+
+                assertEquals(expected, BlockUploadEntity.toBlockId(blockIdPrefix, blockIndex));
+            }
+        }
+    }
+
+    @Test
+    public void toBlockId_isFixedWidthAndUniquePerUpload() {
+        Set<String> blockIds = new HashSet<>();
+
+        for (int blockIndex = 0; blockIndex < 50_000; blockIndex++) {
+            String blockId = BlockUploadEntity.toBlockId(7, blockIndex);
+
+            assertEquals(16, blockId.length());
+            assertTrue(blockIds.add(blockId));
+        }
+    }
+
+    @Test
+    public void createBlockEntities_assignsBlockIndexWithoutStoredBlockId() {
+        List<BlockUploadEntity> blocks = BlockUploadEntity.createBlockEntities(25, 10);
+
+        assertEquals(3, blocks.size());
+
+        for (int i = 0; i < blocks.size(); i++) {
+            BlockUploadEntity block = blocks.get(i);
+
+            assertEquals(i, block.blockIndex);
+            assertEquals(i * 10, block.blockOffset);
+            assertNull(block.blockId);
+        }
+
+        assertEquals(5, blocks.get(2).blockSize);
+    }
+
+    @Test
+    public void getBlockId_derivesIdFromBlockIdPrefixAndIndex() {
+        BlockUploadEntity block = BlockUploadEntity.createBlockEntities(25, 10).get(1);
+        block.setBlobKey(3);
+
+        assertEquals(BlockUploadEntity.toBlockId(42, 1), block.getBlockId(42));
+    }
+
+    @Test
+    public void getBlockId_differsForUploadsWithTheSameBlobKey() {
+        // Given two uploads with the same row key, e.g. from two devices or before and after a data clear.
+        BlockUploadEntity block = BlockUploadEntity.createBlockEntities(25, 10).get(1);
+        block.setBlobKey(1);
+        BlockUploadEntity otherBlock = BlockUploadEntity.createBlockEntities(25, 10).get(1);
+        otherBlock.setBlobKey(1);
+
+        // When
+        String blockId = block.getBlockId(BlobUploadEntity.newBlockIdPrefix());
+        String otherBlockId = otherBlock.getBlockId(BlobUploadEntity.newBlockIdPrefix());
+
+        // Then
+        assertNotEquals(blockId, otherBlockId);
+        assertEquals(16, blockId.length());
+        assertEquals(16, otherBlockId.length());
+    }
+
+    @Test
+    public void getBlockId_prefersStoredBlockId() {
+        BlockUploadEntity block = new BlockUploadEntity();
+        block.blobKey = 3;
+        block.blockIndex = -1;
+        block.blockId = "bGVnYWN5";
+
+        assertEquals("bGVnYWN5", block.getBlockId(0));
+    }
+}
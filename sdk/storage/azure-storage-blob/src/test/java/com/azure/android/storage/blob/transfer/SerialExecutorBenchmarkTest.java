@@ -0,0 +1,151 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import com.azure.android.core.common.MicroBenchmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+@Ignore
+public class SerialExecutorBenchmarkTest {
+    private static final int BACKGROUND_PRODUCER_COUNT = 3;
+    // the queued tasks above which the background producers back off, so that the queue stays bounded.
+    private static final int MAX_PENDING_TASKS = 10_000;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private ExecutorService delegate;
+
+    @Before
+    public void setUp() {
+        delegate = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        delegate.shutdownNow();
+    }
+
+    @Test
+    public void submitLatencyUnderContention_isNoWorseThanMonitorBaseline() throws Exception {
+        // Given the lock-free SerialExecutor and the monitor based executor it replaced, over the same delegate.
+        SerialExecutor lockFree = new SerialExecutor(delegate);
+        MonitorSerialExecutor monitor = new MonitorSerialExecutor(delegate);
+
+        // When a UI-like thread submits tasks while background threads submit to the same executor.
+        double monitorNanos = measureSubmitNanosUnderContention(monitor);
+        double lockFreeNanos = measureSubmitNanosUnderContention(lockFree);
+
+        // Then the lock-free submission is at least as fast as the monitor based one.
+        assertTrue(lockFreeNanos <= monitorNanos);
+    }
+
+    private static double measureSubmitNanosUnderContention(Executor executor) throws Exception {
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        // Simulate a slow book keeping task (e.g. a DB query) now and then.
+        final Runnable task = () -> {
+            if (completed.incrementAndGet() % 1_000 == 0) {
+                sleepQuietly(1);
+            }
+            pending.decrementAndGet();
+        };
+        final AtomicBoolean stop = new AtomicBoolean();
+        final List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < BACKGROUND_PRODUCER_COUNT; i++) {
+            Thread producer = new Thread(() -> {
+                while (!stop.get()) {
+                    if (pending.get() < MAX_PENDING_TASKS) {
+                        pending.incrementAndGet();
+                        executor.execute(task);
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }, "background-" + i);
+            producers.add(producer);
+            producer.start();
+        }
+
+        final ExecutorService uiThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ui-thread");
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        try {
+            return uiThread.submit(() -> MicroBenchmark.measureNanosPerOperation(WARMUP_ITERATIONS, ITERATIONS, () -> {
+                pending.incrementAndGet();
+                executor.execute(task);
+            })).get(5, TimeUnit.MINUTES);
+        } finally {
+            uiThread.shutdownNow();
+            stop.set(true);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            // Let the executor drain, so that the next measurement starts from an idle executor.
+            final CountDownLatch drained = new CountDownLatch(1);
+            executor.execute(drained::countDown);
+            assertTrue(drained.await(1, TimeUnit.MINUTES));
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The monitor based serial executor, kept as the benchmark baseline.
+     */
+    private static final class MonitorSerialExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasksQueue = new ArrayDeque<>();
+        private final Executor executor;
+        private Runnable activeTask;
+
+        MonitorSerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized void execute(Runnable runnable) {
+            this.tasksQueue.add(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    this.enqueueNextTask();
+                }
+            });
+            if (this.activeTask == null) {
+                this.enqueueNextTask();
+            }
+        }
+
+        private synchronized void enqueueNextTask() {
+            this.activeTask = this.tasksQueue.poll();
+            if (this.activeTask != null) {
+                this.executor.execute(this.activeTask);
+            }
+        }
+    }
+}
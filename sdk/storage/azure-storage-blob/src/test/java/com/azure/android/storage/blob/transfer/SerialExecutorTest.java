@@ -0,0 +1,219 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.storage.blob.transfer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SerialExecutorTest {
+    private static final int PRODUCER_COUNT = 4;
+    private static final int TASKS_PER_PRODUCER = 20_000;
+
+    private ExecutorService delegate;
+
+    @Before
+    public void setUp() {
+        delegate = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        delegate.shutdownNow();
+    }
+
+    @Test
+    public void execute_runsTasksSeriallyInSubmissionOrder() throws Exception {
+        // Given a SerialExecutor over a delegate executor with more than one thread.
+        SerialExecutor serialExecutor = new SerialExecutor(delegate);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int[] lastSeen = new int[PRODUCER_COUNT];
+        Arrays.fill(lastSeen, -1);
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(PRODUCER_COUNT * TASKS_PER_PRODUCER);
+
+        // When multiple threads submit tasks concurrently.
+        runProducers(producer -> {
+            for (int i = 0; i < TASKS_PER_PRODUCER; i++) {
+                final int sequence = i;
+                serialExecutor.execute(() -> {
+                    if (running.incrementAndGet() != 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    if (lastSeen[producer] != sequence - 1) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    lastSeen[producer] = sequence;
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+        });
+
+        // Then all tasks run, never concurrently, in the order each thread submitted them.
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    public void execute_continuesAfterTaskFailure() throws Exception {
+        // Given a SerialExecutor.
+        SerialExecutor serialExecutor = new SerialExecutor(delegate);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // When a task throws.
+        serialExecutor.execute(() -> {
+            throw new IllegalStateException("failed task");
+        });
+        serialExecutor.execute(done::countDown);
+
+        // Then the next task still runs.
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void execute_drainsInBatches() throws Exception {
+        // Given a SerialExecutor over a delegate that counts its schedulings.
+        AtomicInteger schedulings = new AtomicInteger();
+        SerialExecutor serialExecutor = new SerialExecutor(runnable -> {
+            schedulings.incrementAndGet();
+            delegate.execute(runnable);
+        });
+        CountDownLatch gate = new CountDownLatch(1);
+        int taskCount = SerialExecutor.MAX_BATCH_SIZE * 4;
+        CountDownLatch done = new CountDownLatch(taskCount + 1);
+
+        // When tasks are queued while the first one is still running.
+        serialExecutor.execute(() -> {
+            awaitQuietly(gate);
+            done.countDown();
+        });
+        for (int i = 0; i < taskCount; i++) {
+            serialExecutor.execute(done::countDown);
+        }
+        gate.countDown();
+
+        // Then the delegate is scheduled once per batch rather than once per task.
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(schedulings.get() <= 1 + (taskCount / SerialExecutor.MAX_BATCH_SIZE) + 1);
+    }
+
+    @Test
+    public void execute_highPriorityOvertakesQueuedNormalPriority() throws Exception {
+        // Given a SerialExecutor busy running a task.
+        SerialExecutor serialExecutor = new SerialExecutor(delegate);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(5);
+        serialExecutor.execute(() -> {
+            awaitQuietly(gate);
+            done.countDown();
+        });
+
+        // When NORMAL tasks are queued and then HIGH tasks are submitted.
+        serialExecutor.execute(() -> {
+            order.add("create1");
+            done.countDown();
+        });
+        serialExecutor.execute(() -> {
+            order.add("create2");
+            done.countDown();
+        });
+        serialExecutor.execute(() -> {
+            order.add("pause");
+            done.countDown();
+        }, SerialExecutor.Priority.HIGH);
+        serialExecutor.execute(() -> {
+            order.add("cancel");
+            done.countDown();
+        }, SerialExecutor.Priority.HIGH);
+        gate.countDown();
+
+        // Then the HIGH tasks run first, each lane in submission order.
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("pause", "cancel", "create1", "create2"), order);
+    }
+
+    @Test
+    public void execute_schedulesAgainAfterTheRescheduleIsRejected() throws Exception {
+        // Given a SerialExecutor over a delegate that rejects its second scheduling.
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        AtomicInteger schedulings = new AtomicInteger();
+        SerialExecutor serialExecutor = new SerialExecutor(runnable -> {
+            if (schedulings.incrementAndGet() == 2) {
+                throw new RejectedExecutionException("rejected reschedule");
+            }
+            singleThread.execute(runnable);
+        });
+        CountDownLatch done = new CountDownLatch(1);
+
+        try {
+            // When a failing task makes the drain task reschedule itself, and the reschedule is rejected.
+            serialExecutor.execute(() -> {
+                throw new IllegalStateException("failed task");
+            });
+            singleThread.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            serialExecutor.execute(done::countDown);
+
+            // Then the next task is still scheduled and runs.
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(3, schedulings.get());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    private static void runProducers(Producer producer) throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(PRODUCER_COUNT);
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < PRODUCER_COUNT; p++) {
+            final int producerIndex = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                producer.produce(producerIndex);
+            }, producerIndex == 0 ? "ui-thread" : "bg-thread-" + producerIndex);
+            if (producerIndex == 0) {
+                thread.setPriority(Thread.MAX_PRIORITY);
+            }
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Producer {
+        void produce(int producerIndex);
+    }
+}